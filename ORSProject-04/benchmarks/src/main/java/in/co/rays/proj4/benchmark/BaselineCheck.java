@@ -0,0 +1,141 @@
+package in.co.rays.proj4.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BaselineCheck compares a JMH result file with the checked-in baseline and
+ * exits with status 1 if a benchmark got slower than the tolerance allows.
+ *
+ * <p>
+ * Both files are JMH CSV results (<code>-rf csv</code>) of average time
+ * benchmarks, so a higher score is worse. A benchmark regresses when its
+ * score exceeds the baseline by more than the tolerance (20% by default) and
+ * by more than the two score errors together. Benchmarks missing from either
+ * file are listed but do not fail the check.
+ * </p>
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar in.co.rays.proj4.benchmark.BaselineCheck baselines/baseline.csv target/result.csv [0.20]
+ * </pre>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public final class BaselineCheck {
+
+    /** Allowed slowdown when none is given */
+    public static final double DEFAULT_TOLERANCE = 0.20;
+
+    /**
+     * Score of one benchmark and parameter combination.
+     */
+    private static final class Result {
+        private final double score;
+        private final double error;
+        private final String unit;
+
+        private Result(double score, double error, String unit) {
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+        }
+    }
+
+    private BaselineCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineCheck <baseline.csv> <result.csv> [tolerance]");
+            System.exit(2);
+        }
+        double tolerance = (args.length > 2) ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE;
+
+        Map<String, Result> baseline = read(args[0]);
+        Map<String, Result> current = read(args[1]);
+
+        int regressions = 0;
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW        %-70s %12.3f %s%n", entry.getKey(), now.score, now.unit);
+                continue;
+            }
+            double change = (now.score - before.score) / before.score;
+            boolean regressed = change > tolerance && now.score - before.score > now.error + before.error;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-10s %-70s %12.3f -> %12.3f %s (%+.1f%%)%n", regressed ? "REGRESSED" : "ok",
+                    entry.getKey(), before.score, now.score, now.unit, change * 100);
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf("MISSING    %s%n", key);
+            }
+        }
+
+        System.out.println(regressions + " regression(s), tolerance " + (int) (tolerance * 100) + "%");
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    /**
+     * Reads a JMH CSV result, keyed by benchmark and parameter values.
+     */
+    private static Map<String, Result> read(String file) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8);
+        Map<String, Result> results = new LinkedHashMap<String, Result>();
+        if (lines.isEmpty()) {
+            return results;
+        }
+        List<String> header = split(lines.get(0));
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            List<String> fields = split(line);
+            StringBuilder key = new StringBuilder(fields.get(0));
+            for (int i = 7; i < fields.size(); i++) {
+                if (!fields.get(i).isEmpty()) {
+                    key.append(' ').append(header.get(i).replace("Param: ", "")).append('=').append(fields.get(i));
+                }
+            }
+            results.put(key.toString(), new Result(number(fields.get(4)), number(fields.get(5)), fields.get(6)));
+        }
+        return results;
+    }
+
+    private static double number(String value) {
+        return value.isEmpty() || "NaN".equals(value) ? 0 : Double.parseDouble(value.replace(',', '.'));
+    }
+
+    /**
+     * Splits a CSV line whose fields may be double quoted.
+     */
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<String>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
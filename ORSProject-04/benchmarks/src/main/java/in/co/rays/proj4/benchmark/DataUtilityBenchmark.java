@@ -0,0 +1,130 @@
+package in.co.rays.proj4.benchmark;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.util.DataUtility;
+
+/**
+ * Parsing and formatting of form values with {@link DataUtility}, against
+ * SimpleDateFormat as the application used it before java.time: a new one
+ * per call, or one shared static instance, which has to be locked because
+ * SimpleDateFormat is not thread-safe. The date parsers also run from 8
+ * threads at once, the way concurrent requests call them, and with input
+ * that is not a date.
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class DataUtilityBenchmark {
+
+    private static final SimpleDateFormat SHARED_FORMAT = new SimpleDateFormat(DataUtility.APP_DATE_FORMAT);
+
+    private String date = "15-08-2024";
+    private String timestamp = "15-08-2024 10:30:00";
+    private String number = "12345";
+    private String invalid = "12a45";
+    private String invalidDate = "15-Aug-2024";
+    private Date value = DataUtility.getDate("15-08-2024");
+
+    @Benchmark
+    public Date getDate() {
+        return DataUtility.getDate(date);
+    }
+
+    @Benchmark
+    public Date getDateSimpleDateFormat() throws ParseException {
+        return new SimpleDateFormat(DataUtility.APP_DATE_FORMAT).parse(date);
+    }
+
+    @Benchmark
+    public Date getDateInvalid() {
+        return DataUtility.getDate(invalidDate);
+    }
+
+    @Benchmark
+    public Date getDateSharedFormat() {
+        return sharedFormatParse(date);
+    }
+
+    @Benchmark
+    public Date getDateSharedFormatInvalid() {
+        return sharedFormatParse(invalidDate);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Date getDateThreads() {
+        return DataUtility.getDate(date);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Date getDateInvalidThreads() {
+        return DataUtility.getDate(invalidDate);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Date getDateSharedFormatThreads() {
+        return sharedFormatParse(date);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Date getDateSharedFormatInvalidThreads() {
+        return sharedFormatParse(invalidDate);
+    }
+
+    @Benchmark
+    public Object getTimestamp() {
+        return DataUtility.getTimestamp(timestamp);
+    }
+
+    @Benchmark
+    public String getDateString() {
+        return DataUtility.getDateString(value);
+    }
+
+    @Benchmark
+    public int getInt() {
+        return DataUtility.getInt(number);
+    }
+
+    @Benchmark
+    public int getIntInvalid() {
+        return DataUtility.getInt(invalid);
+    }
+
+    /**
+     * DataUtility.getDate before java.time, with the shared formatter locked.
+     */
+    private static Date sharedFormatParse(String val) {
+        synchronized (SHARED_FORMAT) {
+            try {
+                return SHARED_FORMAT.parse(val);
+            } catch (ParseException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package in.co.rays.proj4.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import in.co.rays.proj4.util.DataValidator;
+import in.co.rays.proj4.util.FormRules;
+
+/**
+ * Regular expression checks of {@link DataValidator} with their precompiled
+ * patterns, against compiling the pattern on every call with
+ * {@link String#matches(String)}, and a whole form checked with its
+ * {@link FormRules} rule set.
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class DataValidatorBenchmark {
+
+    private static final String EMAIL_REGEX = "^[_A-Za-z0-9-]+(\\.[_A-Za-z0-9-]+)*@[A-Za-z0-9]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$";
+
+    private String email = "rahul.sharma@example.co.in";
+    private String name = "Rahul Sharma";
+    private String phoneNo = "9876543210";
+    private String password = "Secret@123";
+    private String rollNo = "CS101";
+
+    private Map<String, String> student = new HashMap<String, String>();
+
+    public DataValidatorBenchmark() {
+        student.put("firstName", "Rahul");
+        student.put("lastName", "Sharma");
+        student.put("login", email);
+        student.put("dob", "15-08-2004");
+        student.put("gender", "Male");
+        student.put("collegeId", "3");
+        student.put("mobileNo", phoneNo);
+    }
+
+    @Benchmark
+    public boolean isEmail() {
+        return DataValidator.isEmail(email);
+    }
+
+    @Benchmark
+    public boolean isEmailStringMatches() {
+        return email.matches(EMAIL_REGEX);
+    }
+
+    @Benchmark
+    public boolean isName() {
+        return DataValidator.isName(name);
+    }
+
+    @Benchmark
+    public boolean isPhoneNo() {
+        return DataValidator.isPhoneNo(phoneNo);
+    }
+
+    @Benchmark
+    public boolean isPassword() {
+        return DataValidator.isPassword(password);
+    }
+
+    @Benchmark
+    public boolean isRollNo() {
+        return DataValidator.isRollNo(rollNo);
+    }
+
+    @Benchmark
+    public boolean studentForm(Blackhole errors) {
+        return FormRules.STUDENT.validate(student::get, (field, message) -> errors.consume(message));
+    }
+}
@@ -0,0 +1,122 @@
+package in.co.rays.proj4.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.util.EmailMessage;
+import in.co.rays.proj4.util.EmailUtility;
+
+/**
+ * Sending a batch of {@link #BATCH} messages to an in-process
+ * {@link SmtpStub}: {@code sendBatch} over the pooled connections of
+ * {@link EmailUtility}, and {@code transportSend} with
+ * <code>Transport.send</code> per message, which connects, greets and quits
+ * for every message as <code>sendMail</code> did before the pool.
+ * {@code replyMillis} delays every server reply to stand in for the round
+ * trip to a remote server.
+ *
+ * <p>
+ * The forked JVM points {@link EmailUtility} at the stub with system
+ * properties.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 3, jvmArgsAppend = { "-Dsmtp.server=127.0.0.1", "-Dsmtp.port=" + EmailBenchmark.PORT,
+        "-Dsmtp.ssl=false", "-Dsmtp.auth=false" })
+@State(Scope.Benchmark)
+public class EmailBenchmark {
+
+    /** Port of the SMTP stub */
+    public static final int PORT = 2525;
+
+    /** Messages per batch */
+    public static final int BATCH = 10;
+
+    private static final String FROM = "noreply@example.co.in";
+
+    @Param({ "0", "1" })
+    private long replyMillis;
+
+    private SmtpStub stub;
+
+    private List<EmailMessage> messages = new ArrayList<EmailMessage>();
+
+    private Session session;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, MessagingException {
+        stub = new SmtpStub(PORT, replyMillis);
+
+        for (int i = 1; i <= BATCH; i++) {
+            EmailMessage message = new EmailMessage("student" + i + "@example.co.in", "Marksheet published",
+                    "<html><body><p>Dear Student " + i + ",</p><p>Your marksheet is published.</p></body></html>");
+            message.setMessageType(EmailMessage.HTML_MSG);
+            messages.add(message);
+        }
+
+        Properties props = new Properties();
+        props.put("mail.smtp.host", "127.0.0.1");
+        props.put("mail.smtp.port", String.valueOf(PORT));
+        session = Session.getInstance(props);
+
+        for (Exception error : EmailUtility.sendBatch(messages)) {
+            if (error != null) {
+                throw new IllegalStateException("SMTP stub not reachable", error);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        EmailUtility.shutdown();
+        stub.close();
+    }
+
+    @Benchmark
+    public List<Exception> sendBatch() {
+        return EmailUtility.sendBatch(messages);
+    }
+
+    @Benchmark
+    public int transportSend() throws MessagingException {
+        for (EmailMessage message : messages) {
+            Message msg = new MimeMessage(session);
+            msg.setFrom(new InternetAddress(FROM));
+            msg.setRecipients(Message.RecipientType.TO, InternetAddress.parse(message.getTo()));
+            msg.setSubject(message.getSubject());
+            msg.setContent(message.getMessage(), "text/html");
+            Transport.send(msg);
+        }
+        return messages.size();
+    }
+}
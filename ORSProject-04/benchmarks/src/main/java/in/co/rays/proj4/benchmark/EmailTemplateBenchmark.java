@@ -0,0 +1,61 @@
+package in.co.rays.proj4.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.util.EmailBuilder;
+import in.co.rays.proj4.util.EmailTemplate;
+
+/**
+ * Rendering of the email bodies with the compiled {@link EmailTemplate}s,
+ * and compiling a template, which happens once per template.
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class EmailTemplateBenchmark {
+
+    private Map<String, String> values = new HashMap<String, String>();
+
+    private String text = "<html><body><p>Dear ${firstName} ${lastName},</p><p>Login: ${login}</p>"
+            + "<p>Password: ${password}</p></body></html>";
+
+    public EmailTemplateBenchmark() {
+        values.put("firstName", "Rahul");
+        values.put("lastName", "Sharma");
+        values.put("login", "rahul.sharma@example.co.in");
+        values.put("password", "Secret@123");
+    }
+
+    @Benchmark
+    public String forgetPassword() {
+        return EmailBuilder.getForgetPasswordMessage(values);
+    }
+
+    @Benchmark
+    public String userRegistration() {
+        return EmailBuilder.getUserRegistrationMessage(values);
+    }
+
+    @Benchmark
+    public EmailTemplate compile() {
+        return EmailTemplate.compile(text);
+    }
+}
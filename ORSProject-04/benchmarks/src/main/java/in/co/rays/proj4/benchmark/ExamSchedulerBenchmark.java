@@ -0,0 +1,82 @@
+package in.co.rays.proj4.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.bean.TimetableBean;
+import in.co.rays.proj4.model.ExamScheduler;
+import in.co.rays.proj4.model.TimetableIndex;
+
+/**
+ * Scheduling the exams of a semester with {@link ExamScheduler}, for 10 to
+ * 500 courses of 8 subjects each, after a quarter of the slots of the first
+ * weeks are taken.
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class ExamSchedulerBenchmark {
+
+    private static final int SUBJECTS = 8;
+
+    @Param({ "10", "50", "200", "500" })
+    private int courses;
+
+    private List<TimetableBean> exams;
+
+    private TimetableIndex taken;
+
+    private ExamScheduler scheduler = new ExamScheduler(ExamScheduler.DEFAULT_SLOT_CAPACITY,
+            ExamScheduler.DEFAULT_CANDIDATES, ExamScheduler.DEFAULT_MAX_DAYS);
+
+    @Setup
+    public void setUp() {
+        exams = new ArrayList<TimetableBean>();
+        for (int course = 1; course <= courses; course++) {
+            for (int subject = 1; subject <= SUBJECTS; subject++) {
+                TimetableBean exam = new TimetableBean();
+                exam.setCourseId(course);
+                exam.setCourseName("Course " + course);
+                exam.setSubjectId(course * 100 + subject);
+                exam.setSubjectName("Subject " + subject);
+                exam.setSemester("1");
+                exam.setDescription("End semester");
+                exams.add(exam);
+            }
+        }
+
+        taken = new TimetableIndex(LocalDate.of(2025, 3, 3));
+        for (int day = 0; day < 28; day++) {
+            for (long course = 1; course <= courses; course += 4) {
+                if (taken.isExamDay(day) && taken.isCourseFree(course, day)) {
+                    taken.add(course, day, (int) (course % TimetableIndex.EXAM_TIMES.length));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public ExamScheduler.Schedule schedule() {
+        return scheduler.schedule(exams, taken);
+    }
+}
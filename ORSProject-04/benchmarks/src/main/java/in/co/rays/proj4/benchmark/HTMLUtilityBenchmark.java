@@ -0,0 +1,118 @@
+package in.co.rays.proj4.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.bean.CollegeBean;
+import in.co.rays.proj4.bean.DropdownListBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.ReferenceDataCache;
+import in.co.rays.proj4.util.HTMLUtility;
+
+/**
+ * Rendering of drop-down lists with {@link HTMLUtility#getList} from a map,
+ * from a plain list of beans and from a {@link ReferenceDataCache} snapshot,
+ * whose option markup is rendered once and reused. {@code getListLegacy} is
+ * the former list implementation, which built the page with a
+ * {@link StringBuffer} and string concatenation per option, kept as the
+ * baseline.
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class HTMLUtilityBenchmark {
+
+    @Param({ "10", "1000", "10000" })
+    private int options;
+
+    private HashMap<String, String> map;
+
+    private List<CollegeBean> list;
+
+    private List<CollegeBean> cached;
+
+    private String selected;
+
+    @Setup
+    public void setUp() throws ApplicationException {
+        map = new HashMap<String, String>();
+        list = new ArrayList<CollegeBean>();
+        for (int i = 1; i <= options; i++) {
+            CollegeBean bean = new CollegeBean();
+            bean.setId(i);
+            bean.setName("College " + i);
+            list.add(bean);
+            map.put(String.valueOf(i), bean.getName());
+        }
+        selected = String.valueOf(options / 2);
+        cached = ReferenceDataCache.getInstance().get("benchmark_" + options, () -> list);
+    }
+
+    @Benchmark
+    public String getListMap() {
+        return HTMLUtility.getList("college", selected, map);
+    }
+
+    @Benchmark
+    public String getList() {
+        return HTMLUtility.getList("collegeId", selected, list);
+    }
+
+    @Benchmark
+    public String getListCached() {
+        return HTMLUtility.getList("collegeId", selected, cached);
+    }
+
+    @Benchmark
+    public String getListLegacy() {
+        return legacyGetList("collegeId", selected, list);
+    }
+
+    /**
+     * HTMLUtility.getList(String, String, List) before it wrote to a
+     * {@link java.io.Writer}.
+     */
+    private static String legacyGetList(String name, String selectedVal, List<? extends DropdownListBean> dd) {
+
+        StringBuffer sb = new StringBuffer("<select style=\"width: 169px;text-align-last: center;\"; "
+                + "class='form-control' name='" + name + "'>");
+
+        sb.append("\n<option selected value=''>-------------Select-------------</option>");
+
+        String key = null;
+        String val = null;
+
+        for (DropdownListBean obj : dd) {
+            key = obj.getKey();
+            val = obj.getValue();
+
+            if (key.trim().equals(selectedVal)) {
+                sb.append("\n<option selected value='" + key + "'>" + val + "</option>");
+            } else {
+                sb.append("\n<option value='" + key + "'>" + val + "</option>");
+            }
+        }
+        sb.append("\n</select>");
+        return sb.toString();
+    }
+}
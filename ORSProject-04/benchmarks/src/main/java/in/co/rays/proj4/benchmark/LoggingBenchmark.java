@@ -0,0 +1,130 @@
+package in.co.rays.proj4.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.Layout;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.LogSF;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+import org.apache.log4j.RollingFileAppender;
+import org.apache.log4j.WriterAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.util.AsyncLogAppender;
+
+/**
+ * Logging of a model call from 16 request threads: 10 DEBUG and 1 INFO
+ * statement per operation, written as <code>Log4j.properties</code> does to
+ * a rolling file and to the console, here a discarding stream.
+ *
+ * <p>
+ * {@code logging} selects the setup:
+ * </p>
+ * <pre>
+ * before        DEBUG level, synchronous appenders, string concatenation
+ * sync          INFO level, synchronous appenders, LogSF
+ * block         INFO level, {@link AsyncLogAppender} that waits when full
+ * dropbelowwarn INFO level, {@link AsyncLogAppender} that drops DEBUG and INFO when full
+ * </pre>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss} %-5p %c{1} [%t] - %m%n";
+
+    private static final Logger log = Logger.getLogger("in.co.rays.proj4.model.MarksheetModel");
+
+    @Param({ "before", "sync", AsyncLogAppender.BLOCK, AsyncLogAppender.DROP_BELOW_WARN })
+    private String logging;
+
+    private File dir;
+
+    /**
+     * Ids logged by one thread.
+     */
+    @State(Scope.Thread)
+    public static class Ids {
+        private long next;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("logging-benchmark").toFile();
+
+        LogManager.resetConfiguration();
+        Logger root = LogManager.getRootLogger();
+        root.setLevel("before".equals(logging) ? org.apache.log4j.Level.DEBUG : org.apache.log4j.Level.INFO);
+
+        Layout layout = new PatternLayout(PATTERN);
+        RollingFileAppender file = new RollingFileAppender(layout, new File(dir, "ORSProject4.log").getPath());
+        file.setMaxFileSize("10MB");
+        file.setMaxBackupIndex(1);
+        Appender console = new WriterAppender(layout, OutputStream.nullOutputStream());
+
+        if ("before".equals(logging) || "sync".equals(logging)) {
+            root.addAppender(file);
+            root.addAppender(console);
+        } else {
+            AsyncLogAppender async = new AsyncLogAppender("root", AsyncLogAppender.DEFAULT_BUFFER_SIZE, logging);
+            async.addAppender(file);
+            async.addAppender(console);
+            root.addAppender(async);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        LogManager.shutdown();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void request(Ids ids) {
+        long id = ids.next++;
+        if ("before".equals(logging)) {
+            for (int i = 0; i < 10; i++) {
+                log.debug("MarksheetModel findByPk started, PK = " + (id + i));
+            }
+            log.info("Marksheet updated successfully, ID = " + id);
+        } else {
+            for (int i = 0; i < 10; i++) {
+                LogSF.debug(log, "MarksheetModel findByPk started, PK = {}", id + i);
+            }
+            LogSF.info(log, "Marksheet updated successfully, ID = {}", id);
+        }
+    }
+}
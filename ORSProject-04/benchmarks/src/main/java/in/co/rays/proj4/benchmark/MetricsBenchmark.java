@@ -0,0 +1,63 @@
+package in.co.rays.proj4.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.util.LatencyHistogram;
+import in.co.rays.proj4.util.Metrics;
+import in.co.rays.proj4.util.QueryProfiler;
+
+/**
+ * The recording paths run on every request and statement: a request timing
+ * in {@link Metrics}, a statement in {@link QueryProfiler}, both from 4
+ * threads, and fingerprinting a new SQL text.
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    private String sql = "select * from st_marksheet where 1=1 and roll_no like 'CS1%' and name like 'Ra%'"
+            + " and id in (12, 15, 19) limit 0, 10";
+
+    private LatencyHistogram histogram = new LatencyHistogram();
+
+    @Benchmark
+    @Threads(4)
+    public void recordRequest() {
+        Metrics.request("MarksheetListCtl", "Search").record(42);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordHistogram() {
+        histogram.record(42);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordStatement() {
+        QueryProfiler.record(sql, 420, 10, () -> sql);
+    }
+
+    @Benchmark
+    public String fingerprint() {
+        return QueryProfiler.fingerprint(sql);
+    }
+}
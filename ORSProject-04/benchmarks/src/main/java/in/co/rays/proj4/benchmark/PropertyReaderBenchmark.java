@@ -0,0 +1,55 @@
+package in.co.rays.proj4.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.util.PropertyReader;
+
+/**
+ * Message lookups with {@link PropertyReader}, plain and with one or more
+ * parameters, as the controllers build their error messages.
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class PropertyReaderBenchmark {
+
+    private String key = "error.require";
+    private String param = "First Name";
+    private String[] params = { "First Name", "Last Name" };
+
+    @Benchmark
+    public String getValue() {
+        return PropertyReader.getValue(key);
+    }
+
+    @Benchmark
+    public String getValueParam() {
+        return PropertyReader.getValue(key, param);
+    }
+
+    @Benchmark
+    public String getValueParams() {
+        return PropertyReader.getValue(key, params);
+    }
+
+    @Benchmark
+    public String getValueMissing() {
+        return PropertyReader.getValue("benchmark.missing");
+    }
+}
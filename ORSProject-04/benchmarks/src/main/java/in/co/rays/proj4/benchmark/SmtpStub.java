@@ -0,0 +1,136 @@
+package in.co.rays.proj4.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SmtpStub is a minimal in-process SMTP server for the email benchmarks. It
+ * accepts every command and message without storing anything, so a benchmark
+ * measures the client side: connecting, the SMTP dialogue and sending the
+ * message data over loopback.
+ *
+ * <p>
+ * Each reply can be delayed by {@code replyMillis} to stand in for the round
+ * trip to a remote server.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public final class SmtpStub implements Runnable {
+
+    private final ServerSocket server;
+
+    private final long replyMillis;
+
+    private final AtomicLong connections = new AtomicLong();
+
+    private final AtomicLong messages = new AtomicLong();
+
+    /**
+     * Starts listening on the loopback address.
+     *
+     * @param port        port to listen on
+     * @param replyMillis delay before each reply
+     * @throws IOException if the port cannot be bound
+     */
+    public SmtpStub(int port, long replyMillis) throws IOException {
+        this.server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.replyMillis = replyMillis;
+        Thread acceptor = new Thread(this, "smtp-stub");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @Override
+    public void run() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connections.incrementAndGet();
+                Thread session = new Thread(() -> serve(socket), "smtp-stub-session");
+                session.setDaemon(true);
+                session.start();
+            } catch (IOException e) {
+                // closed
+            }
+        }
+    }
+
+    /**
+     * Answers one client connection until QUIT or disconnect.
+     */
+    private void serve(Socket socket) {
+        try (Socket s = socket;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+                OutputStream out = s.getOutputStream()) {
+
+            reply(out, "220 localhost SMTP stub");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = (line.length() > 4 ? line.substring(0, 4) : line).toUpperCase();
+                switch (command) {
+                case "EHLO":
+                    reply(out, "250-localhost\r\n250-8BITMIME\r\n250 OK");
+                    break;
+                case "DATA":
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    while ((line = in.readLine()) != null && !".".equals(line)) {
+                        // discard the message
+                    }
+                    messages.incrementAndGet();
+                    reply(out, "250 OK queued");
+                    break;
+                case "QUIT":
+                    reply(out, "221 Bye");
+                    return;
+                default:
+                    reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // client went away
+        }
+    }
+
+    private void reply(OutputStream out, String text) throws IOException {
+        if (replyMillis > 0) {
+            try {
+                Thread.sleep(replyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        out.write((text + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    /**
+     * @return connections accepted so far
+     */
+    public long getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * @return messages received so far
+     */
+    public long getMessages() {
+        return messages.get();
+    }
+
+    /**
+     * Stops accepting connections.
+     */
+    public void close() throws IOException {
+        server.close();
+    }
+}
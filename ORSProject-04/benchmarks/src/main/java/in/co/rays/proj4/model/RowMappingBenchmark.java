@@ -0,0 +1,195 @@
+package in.co.rays.proj4.model;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ResultSet to bean mapping of every model: a page of {@link #ROWS} rows is
+ * read from an in-memory H2 table with the column layout of the model's
+ * table and mapped with the model's <code>populate</code>, as
+ * {@link Pagination} does. {@code readOnly} reads the same rows without
+ * creating beans, so the difference is the cost of the mapping.
+ *
+ * <p>
+ * The benchmark is in the model package because <code>populate</code> is
+ * package-private.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class RowMappingBenchmark {
+
+    /** Rows per page */
+    public static final int ROWS = 100;
+
+    /**
+     * Column types of each table in <code>select *</code> order: L bigint, I
+     * int, S varchar, D date, T timestamp.
+     */
+    private static final Map<String, String> COLUMNS = new LinkedHashMap<String, String>();
+
+    static {
+        COLUMNS.put("College", "LSSSSSSSTT");
+        COLUMNS.put("Course", "LSSSSSTT");
+        COLUMNS.put("Faculty", "LSSDSSSLSLSLSSSTT");
+        COLUMNS.put("Marksheet", "LSLSIIISSTT");
+        COLUMNS.put("Role", "LSSSSTT");
+        COLUMNS.put("Staff", "LSDSSSSTT");
+        COLUMNS.put("Student", "LSSDSSSLSSSTT");
+        COLUMNS.put("Subject", "LSLSSSSTT");
+        COLUMNS.put("Timetable", "LSSDSLSLSSSTT");
+        COLUMNS.put("User", "LSSSSDSLSSSTT");
+    }
+
+    @Param({ "College", "Course", "Faculty", "Marksheet", "Role", "Staff", "Student", "Subject", "Timetable",
+            "User" })
+    private String model;
+
+    private Connection conn;
+
+    private PreparedStatement select;
+
+    private RowMapper<?> mapper;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:" + model);
+        String types = COLUMNS.get(model);
+
+        StringBuilder ddl = new StringBuilder("create table st_bench (");
+        StringBuilder insert = new StringBuilder("insert into st_bench values (");
+        for (int i = 0; i < types.length(); i++) {
+            ddl.append(i == 0 ? "" : ", ").append("c").append(i + 1).append(' ').append(sqlType(types.charAt(i)));
+            insert.append(i == 0 ? "?" : ", ?");
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(ddl.append(")").toString());
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(insert.append(")").toString())) {
+            for (int row = 1; row <= ROWS; row++) {
+                for (int i = 0; i < types.length(); i++) {
+                    pstmt.setObject(i + 1, value(types.charAt(i), row, i));
+                }
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+
+        select = conn.prepareStatement("select * from st_bench order by c1");
+        mapper = mapper(model);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Benchmark
+    public List<?> populate() throws SQLException {
+        List<Object> list = new ArrayList<Object>(ROWS);
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                list.add(mapper.map(rs));
+            }
+        }
+        return list;
+    }
+
+    @Benchmark
+    public long readOnly() throws SQLException {
+        long sum = 0;
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                sum += rs.getLong(1);
+            }
+        }
+        return sum;
+    }
+
+    private static RowMapper<?> mapper(String model) {
+        switch (model) {
+        case "College":
+            return new CollegeModel()::populate;
+        case "Course":
+            return new CourseModel()::populate;
+        case "Faculty":
+            return new FacultyModel()::populate;
+        case "Marksheet":
+            return new MarksheetModel()::populate;
+        case "Role":
+            return new RoleModel()::populate;
+        case "Staff":
+            return new StaffModel()::populate;
+        case "Student":
+            return new StudentModel()::populate;
+        case "Subject":
+            return new SubjectModel()::populate;
+        case "Timetable":
+            return new TimetableModel()::populate;
+        default:
+            return new UserModel()::populate;
+        }
+    }
+
+    private static String sqlType(char type) {
+        switch (type) {
+        case 'L':
+            return "bigint";
+        case 'I':
+            return "int";
+        case 'D':
+            return "date";
+        case 'T':
+            return "timestamp";
+        default:
+            return "varchar(100)";
+        }
+    }
+
+    private static Object value(char type, int row, int column) {
+        switch (type) {
+        case 'L':
+            return (long) row;
+        case 'I':
+            return row % 100;
+        case 'D':
+            return Date.valueOf("2004-08-15");
+        case 'T':
+            return new Timestamp(1723700000000L + row * 1000L);
+        default:
+            return "value " + row + "-" + column;
+        }
+    }
+}
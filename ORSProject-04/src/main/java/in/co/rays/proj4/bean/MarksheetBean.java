@@ -16,6 +16,7 @@ public class MarksheetBean extends BaseBean {
 	private int physics;
 	private int chemistry;
 	private int maths;
+	private int rank;
 
 	public String getRollNo() {
 		return rollNo;
@@ -65,6 +66,25 @@ public class MarksheetBean extends BaseBean {
 		this.maths = maths;
 	}
 
+	/**
+	 * @return physics + chemistry + maths, the {@code total} column of
+	 *         st_marksheet
+	 */
+	public int getTotal() {
+		return physics + chemistry + maths;
+	}
+
+	/**
+	 * @return position in the merit list, 0 if not ranked
+	 */
+	public int getRank() {
+		return rank;
+	}
+
+	public void setRank(int rank) {
+		this.rank = rank;
+	}
+
 	@Override
 	public String getKey() {
 		return id + "";
@@ -0,0 +1,83 @@
+package in.co.rays.proj4.controller;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PropertyConfigurator;
+
+import in.co.rays.proj4.model.MeritRanking;
+import in.co.rays.proj4.util.AsyncLogAppender;
+import in.co.rays.proj4.util.EmailOutbox;
+import in.co.rays.proj4.util.EmailUtility;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.QueryProfiler;
+
+/**
+ * AppContextListener prepares shared resources when the web application
+ * starts and releases them when it stops.
+ *
+ * <p>
+ * Logging is configured first from the bundled <code>Log4j.properties</code>,
+ * which also sends the slow query log of {@link QueryProfiler} to its own
+ * file, and its appenders are made asynchronous with
+ * {@link AsyncLogAppender}. The JDBC connection pool is then created and warmed, so the first
+ * requests after a Tomcat start find ready, validated connections. A failure
+ * is logged but does not stop the deployment; the pool is then retried on the
+ * first request. The {@link MeritRanking} is then loaded and its background
+ * reloads started, and the {@link EmailOutbox} workers are started
+ * afterwards. Both are stopped before the pool is closed.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+@WebListener
+public class AppContextListener implements ServletContextListener {
+
+	private static Logger log = Logger.getLogger(AppContextListener.class);
+
+	private static final String LOG_CONFIG = "/in/co/rays/proj4/bundle/Log4j.properties";
+
+	/**
+	 * Configures logging, creates and warms the connection pool, loads the
+	 * merit ranking, schedules its reloads and starts the email outbox.
+	 *
+	 * @param event ServletContextEvent
+	 */
+	@Override
+	public void contextInitialized(ServletContextEvent event) {
+		PropertyConfigurator.configure(AppContextListener.class.getResource(LOG_CONFIG));
+		AsyncLogAppender.install();
+		try {
+			JDBCDataSource.init();
+		} catch (Exception e) {
+			log.error("Connection pool warm up failed", e);
+		}
+		try {
+			MeritRanking.getInstance().reload();
+		} catch (Exception e) {
+			log.error("Merit ranking load failed", e);
+		}
+		MeritRanking.getInstance().start();
+		EmailOutbox.getInstance().start();
+	}
+
+	/**
+	 * Stops the email outbox and the merit ranking reloads, closes the idle
+	 * SMTP connections and the connection pool, then writes the buffered log
+	 * events.
+	 *
+	 * @param event ServletContextEvent
+	 */
+	@Override
+	public void contextDestroyed(ServletContextEvent event) {
+		EmailOutbox.getInstance().stop();
+		MeritRanking.getInstance().stop();
+		EmailUtility.shutdown();
+		JDBCDataSource.destroy();
+		LogManager.shutdown();
+	}
+}
@@ -1,16 +1,26 @@
 package in.co.rays.proj4.controller;
 
 import java.io.IOException;
+import java.io.Writer;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.apache.log4j.Logger;
 
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.UserBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.Cursor;
+import in.co.rays.proj4.model.Page;
 import in.co.rays.proj4.util.DataUtility;
 import in.co.rays.proj4.util.DataValidator;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.Metrics;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -28,6 +38,8 @@ import in.co.rays.proj4.util.ServletUtility;
  */
 public abstract class BaseCtl extends HttpServlet {
 
+    private static Logger log = Logger.getLogger(BaseCtl.class);
+
     /** Operation constants used in all controllers */
     public static final String OP_SAVE = "Save";
     public static final String OP_UPDATE = "Update";
@@ -43,14 +55,31 @@ public abstract class BaseCtl extends HttpServlet {
     public static final String OP_BACK = "Back";
     public static final String OP_RESET = "Reset";
     public static final String OP_LOG_OUT = "Logout";
+    public static final String OP_EXPORT = "Export";
 
     /** Success and Error message identifiers */
     public static final String MSG_SUCCESS = "success";
     public static final String MSG_ERROR = "error";
 
+    /** Session attribute holding the time of the session's last DB write */
+    public static final String LAST_WRITE = "lastWriteTime";
+
+    /**
+     * Returns the validation rules of the form. Subclasses override this
+     * method to return a rule set built once, in a static field; the rules
+     * are checked before {@link #validate(HttpServletRequest)}.
+     *
+     * @param request HttpServletRequest containing user input
+     * @return rules of the form, or null if the operation needs none
+     */
+    protected RuleSet getRules(HttpServletRequest request) {
+        return null;
+    }
+
     /**
-     * Validates request input. Subclasses can override this method to provide
-     * their own validation logic.
+     * Validates request input that {@link #getRules(HttpServletRequest)}
+     * cannot express, such as uploaded files. Subclasses can override this
+     * method to provide their own validation logic.
      *
      * @param request HttpServletRequest containing user input
      * @return true if validation succeeds, false otherwise
@@ -118,10 +147,91 @@ public abstract class BaseCtl extends HttpServlet {
 
         return dto;
     }
+    /**
+     * Stores a page of search results and its paging state for the list views:
+     * the list, pageNo, pageSize, the "nextListSize" flag that enables the
+     * Next button and the next / previous cursors.
+     *
+     * @param page    page returned by a model search
+     * @param pageNo  page number shown to the user
+     * @param request HttpServletRequest object
+     */
+    protected void setPage(Page<?> page, int pageNo, HttpServletRequest request) {
+        ServletUtility.setList(page.getList(), request);
+        ServletUtility.setPageNo(pageNo, request);
+        ServletUtility.setPageSize(page.getPageSize(), request);
+        request.setAttribute("nextListSize", page.hasNext() ? 1 : 0);
+
+        Cursor next = page.getNextCursor();
+        Cursor prev = page.getPreviousCursor();
+        request.setAttribute("nextCursor", next == null ? "" : next.toString());
+        request.setAttribute("prevCursor", prev == null ? "" : prev.toString());
+    }
+
+    /**
+     * Writes the CSV rows of an export of a list screen.
+     */
+    @FunctionalInterface
+    protected interface CsvSource {
+        void write(Writer out) throws ApplicationException, IOException;
+    }
+
+    /**
+     * Sends a CSV export as a download. Rows are written to the response as
+     * they are produced, so the response is sent in chunks and is never held
+     * in memory. A UTF-8 byte order mark is written first so spreadsheets
+     * such as Excel open the file with the right encoding.
+     *
+     * @param fileName name of the downloaded file
+     * @param source   writes the rows
+     * @param response HttpServletResponse object
+     * @throws IOException if the response cannot be written
+     */
+    protected void exportCsv(String fileName, CsvSource source, HttpServletResponse response) throws IOException {
+        response.setContentType("text/csv");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+        response.setHeader("Cache-Control", "no-store");
+
+        Writer out = response.getWriter();
+        try {
+            out.write('\uFEFF');
+            source.write(out);
+            out.flush();
+        } catch (ApplicationException e) {
+            log.error("Export " + fileName + " failed", e);
+            if (response.isCommitted()) {
+                // rows were already sent, cut the download short
+                throw new IOException("Export failed", e);
+            }
+            response.reset();
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    /**
+     * Converts the ids of the records selected on a list page for a bulk
+     * operation.
+     *
+     * @param ids values of the "ids" check boxes
+     * @return primary keys; values that are not numbers become 0
+     */
+    protected long[] getIds(String[] ids) {
+        long[] keys = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            keys[i] = DataUtility.getLong(ids[i]);
+        }
+        return keys;
+    }
+
         /**
          * Overridden service method that performs preprocessing, 
          * such as calling preload() and validation logic before forwarding
-         * the request to doGet() or doPost().
+         * the request to doGet() or doPost(). The time of the session's last
+         * write is handed to {@link JDBCDataSource} so reads right after a
+         * write are not served from a lagging replica. The duration of the
+         * request is recorded in {@link Metrics} by servlet name and
+         * operation, and requests ending with an exception are counted.
          *
          * @param request the HttpServletRequest object
          * @param response the HttpServletResponse object
@@ -132,10 +242,41 @@ public abstract class BaseCtl extends HttpServlet {
     protected void service(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
+        long start = System.nanoTime();
+        long lastWrite = DataUtility.getLong(String.valueOf(request.getSession().getAttribute(LAST_WRITE)));
+
+        JDBCDataSource.beginRequest(lastWrite);
+        try {
+            doService(request, response);
+        } catch (ServletException | IOException | RuntimeException e) {
+            Metrics.requestError(getServletName());
+            throw e;
+        } finally {
+            Metrics.request(getServletName(), request.getParameter("operation"))
+                    .record((System.nanoTime() - start) / 1000000);
+            long written = JDBCDataSource.endRequest();
+            HttpSession session = request.getSession(false);
+            if (written > lastWrite && session != null) {
+                session.setAttribute(LAST_WRITE, written);
+            }
+        }
+    }
+
+    /**
+     * Runs preload() and validation (the form's rule set, then validate()),
+     * then dispatches to doGet() or doPost().
+     *
+     * @param request the HttpServletRequest object
+     * @param response the HttpServletResponse object
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    private void doService(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
         preload(request);
 
         String op = DataUtility.getString(request.getParameter("operation"));
-        System.out.println("Operation: " + op);
 
         if (DataValidator.isNotNull(op)
                 && !OP_CANCEL.equalsIgnoreCase(op)
@@ -143,7 +284,9 @@ public abstract class BaseCtl extends HttpServlet {
                 && !OP_DELETE.equalsIgnoreCase(op)
                 && !OP_RESET.equalsIgnoreCase(op)) {
 
-            if (!validate(request)) {
+            RuleSet rules = getRules(request);
+            boolean pass = (rules == null) || rules.validate(request);
+            if (!validate(request) || !pass) {
                 BaseBean bean = (BaseBean) populateBean(request);
                 ServletUtility.setBean(bean, request);
                 ServletUtility.forward(getView(), request, response);
@@ -14,8 +14,8 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.RecordNotFoundException;
 import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.FormRules;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -38,62 +38,19 @@ public class ChangePasswordCtl extends BaseCtl {
 	public static final String OP_CHANGE_MY_PROFILE = "Change My Profile";
 
 	/**
-	 * Validates user input for password change. Ensures:
-	 * <ul>
-	 * <li>Old password is required</li>
-	 * <li>New password is required</li>
-	 * <li>New password meets complexity and length rules</li>
-	 * <li>Confirm password must match new password</li>
-	 * </ul>
-	 * 
-	 * @param request HttpServletRequest object
-	 * @return true if validation is successful, else false
+	 * Returns the rules of the change password form; none for the Change My
+	 * Profile button.
+	 *
+	 * @param request HttpServletRequest
+	 * @return rules of the form
 	 */
 	@Override
-	protected boolean validate(HttpServletRequest request) {
-
-		boolean pass = true;
+	protected RuleSet getRules(HttpServletRequest request) {
 		String op = request.getParameter("operation");
-
-		// Skip validation for profile change request
 		if (OP_CHANGE_MY_PROFILE.equalsIgnoreCase(op)) {
-			return pass;
-		}
-
-		// Validate old password
-		if (DataValidator.isNull(request.getParameter("oldPassword"))) {
-			request.setAttribute("oldPassword", PropertyReader.getValue("error.require", "Old Password"));
-			pass = false;
-		} else if (request.getParameter("oldPassword").equals(request.getParameter("newPassword"))) {
-			request.setAttribute("newPassword", "Old and New passwords should be different");
-			pass = false;
+			return null;
 		}
-
-		// Validate new password
-		if (DataValidator.isNull(request.getParameter("newPassword"))) {
-			request.setAttribute("newPassword", PropertyReader.getValue("error.require", "New Password"));
-			pass = false;
-		} else if (!DataValidator.isPasswordLength(request.getParameter("newPassword"))) {
-			request.setAttribute("newPassword", "Password should be 8 to 12 characters");
-			pass = false;
-		} else if (!DataValidator.isPassword(request.getParameter("newPassword"))) {
-			request.setAttribute("newPassword", "Must contain uppercase, lowercase, digit & special character");
-			pass = false;
-		}
-
-		// Validate confirm password
-		if (DataValidator.isNull(request.getParameter("confirmPassword"))) {
-			request.setAttribute("confirmPassword", PropertyReader.getValue("error.require", "Confirm Password"));
-			pass = false;
-		}
-
-		if (!request.getParameter("newPassword").equals(request.getParameter("confirmPassword"))
-				&& !"".equals(request.getParameter("confirmPassword"))) {
-			request.setAttribute("confirmPassword", "New and confirm passwords not matched");
-			pass = false;
-		}
-
-		return pass;
+		return FormRules.CHANGE_PASSWORD;
 	}
 
 	/**
@@ -13,8 +13,8 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.CollegeModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.FormRules;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -40,61 +40,15 @@ import in.co.rays.proj4.util.ServletUtility;
 public class CollegeCtl extends BaseCtl {
 
     /**
-     * Validates College input fields. Ensures:
-     * <ul>
-     * <li>Name is required and alphabetic</li>
-     * <li>Address, State, City are required</li>
-     * <li>Phone number is required, must be 10 digits, and valid</li>
-     * </ul>
+     * Returns the rules of the College form: name, address, state, city and a
+     * 10 digit phone number.
      *
-     * @param request HttpServletRequest containing user input data
-     * @return true if validation succeeds, false otherwise
+     * @param request HttpServletRequest
+     * @return rules of the form
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-
-        boolean pass = true;
-
-        // Validate Name
-        if (DataValidator.isNull(request.getParameter("name"))) {
-            request.setAttribute("name", PropertyReader.getValue("error.require", "Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("name"))) {
-            request.setAttribute("name", "Invalid Name");
-            pass = false;
-        }
-
-        // Validate Address
-        if (DataValidator.isNull(request.getParameter("address"))) {
-            request.setAttribute("address", PropertyReader.getValue("error.require", "Address"));
-            pass = false;
-        }
-
-        // Validate State
-        if (DataValidator.isNull(request.getParameter("state"))) {
-            request.setAttribute("state", PropertyReader.getValue("error.require", "State"));
-            pass = false;
-        }
-
-        // Validate City
-        if (DataValidator.isNull(request.getParameter("city"))) {
-            request.setAttribute("city", PropertyReader.getValue("error.require", "City"));
-            pass = false;
-        }
-
-        // Validate Phone No
-        if (DataValidator.isNull(request.getParameter("phoneNo"))) {
-            request.setAttribute("phoneNo", PropertyReader.getValue("error.require", "Phone No"));
-            pass = false;
-        } else if (!DataValidator.isPhoneLength(request.getParameter("phoneNo"))) {
-            request.setAttribute("phoneNo", "Phone No must have 10 digits");
-            pass = false;
-        } else if (!DataValidator.isPhoneNo(request.getParameter("phoneNo"))) {
-            request.setAttribute("phoneNo", "Invalid Phone No");
-            pass = false;
-        }
-
-        return pass;
+    protected RuleSet getRules(HttpServletRequest request) {
+        return FormRules.COLLEGE;
     }
 
     /**
@@ -11,6 +11,8 @@ import javax.servlet.http.HttpServletResponse;
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.CollegeBean;
 import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.Cursor;
+import in.co.rays.proj4.model.Page;
 import in.co.rays.proj4.model.CollegeModel;
 import in.co.rays.proj4.util.DataUtility;
 import in.co.rays.proj4.util.PropertyReader;
@@ -99,18 +101,15 @@ public class CollegeListCtl extends BaseCtl {
         CollegeModel model = new CollegeModel();
 
         try {
-            List<CollegeBean> list = model.search(bean, pageNo, pageSize);
-            List<CollegeBean> next = model.search(bean, pageNo + 1, pageSize);
+            Page<CollegeBean> page = model.search(bean, null, pageSize);
+            List<CollegeBean> list = page.getList();
 
             if (list == null || list.isEmpty()) {
                 ServletUtility.setErrorMessage("No record found", request);
             }
 
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
+            setPage(page, pageNo, request);
             ServletUtility.setBean(bean, request);
-            request.setAttribute("nextListSize", next.size());
 
             ServletUtility.forward(getView(), request, response);
 
@@ -136,7 +135,7 @@ public class CollegeListCtl extends BaseCtl {
             throws ServletException, IOException {
 
         List list = null;
-        List next = null;
+        Cursor cursor = null;
 
         int pageNo = DataUtility.getInt(request.getParameter("pageNo"));
         int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
@@ -158,8 +157,10 @@ public class CollegeListCtl extends BaseCtl {
                     pageNo = 1;
                 } else if (OP_NEXT.equalsIgnoreCase(op)) {
                     pageNo++;
+                    cursor = Cursor.parse(request.getParameter("nextCursor"));
                 } else if (OP_PREVIOUS.equalsIgnoreCase(op)) {
                     pageNo--;
+                    cursor = Cursor.parse(request.getParameter("prevCursor"));
                 }
             }
 
@@ -168,17 +169,15 @@ public class CollegeListCtl extends BaseCtl {
                 return;
             }
 
-            else if (OP_DELETE.equalsIgnoreCase(op)) {
+            else if (OP_EXPORT.equalsIgnoreCase(op)) {
+                exportCsv("colleges.csv", out -> model.export(bean, out), response);
+                return;
+
+            } else if (OP_DELETE.equalsIgnoreCase(op)) {
                 pageNo = 1;
 
                 if (ids != null && ids.length > 0) {
-                    CollegeBean deleteBean = new CollegeBean();
-
-                    for (String id : ids) {
-                        deleteBean.setId(DataUtility.getInt(id));
-                        model.delete(deleteBean);
-                    }
-
+                    model.deleteAll(getIds(ids));
                     ServletUtility.setSuccessMessage("Data deleted successfully", request);
                 } else {
                     ServletUtility.setErrorMessage("Select at least one record", request);
@@ -195,18 +194,15 @@ public class CollegeListCtl extends BaseCtl {
                 return;
             }
 
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
+            Page<CollegeBean> page = model.search(bean, cursor, pageSize);
+            list = page.getList();
 
             if (list == null || list.isEmpty()) {
                 ServletUtility.setErrorMessage("No record found", request);
             }
 
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
+            setPage(page, pageNo, request);
             ServletUtility.setBean(bean, request);
-            request.setAttribute("nextListSize", next.size());
 
             ServletUtility.forward(getView(), request, response);
 
@@ -24,43 +24,22 @@ import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.CourseModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.FormRules;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 @WebServlet(name = "CourseCtl", urlPatterns = { "/ctl/CourseCtl" })
 public class CourseCtl extends BaseCtl {
 
     /**
-     * Validates input fields for Course form.
+     * Returns the rules of the Course form.
      *
-     * @param request the HTTP request object
-     * @return true if all fields are valid, false otherwise
+     * @param request HttpServletRequest
+     * @return rules of the form
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("name"))) {
-            request.setAttribute("name", PropertyReader.getValue("error.require", "Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("name"))) {
-            request.setAttribute("name", "Invalid Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("duration"))) {
-            request.setAttribute("duration", PropertyReader.getValue("error.require", "Duration"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("description"))) {
-            request.setAttribute("description", PropertyReader.getValue("error.require", "Description"));
-            pass = false;
-        }
-
-        return pass;
+    protected RuleSet getRules(HttpServletRequest request) {
+        return FormRules.COURSE;
     }
 
     /**
@@ -21,6 +21,8 @@ import javax.servlet.http.HttpServletResponse;
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.CourseBean;
 import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.Cursor;
+import in.co.rays.proj4.model.Page;
 import in.co.rays.proj4.model.CourseModel;
 import in.co.rays.proj4.util.DataUtility;
 import in.co.rays.proj4.util.PropertyReader;
@@ -82,18 +84,15 @@ public class CourseListCtl extends BaseCtl {
         CourseModel model = new CourseModel();
 
         try {
-            List<CourseBean> list = model.search(bean, pageNo, pageSize);
-            List<CourseBean> next = model.search(bean, pageNo + 1, pageSize);
+            Page<CourseBean> page = model.search(bean, null, pageSize);
+            List<CourseBean> list = page.getList();
 
             if (list == null || list.isEmpty()) {
                 ServletUtility.setErrorMessage("No record found", request);
             }
 
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
+            setPage(page, pageNo, request);
             ServletUtility.setBean(bean, request);
-            request.setAttribute("nextListSize", next.size());
 
             ServletUtility.forward(getView(), request, response);
 
@@ -115,7 +114,7 @@ public class CourseListCtl extends BaseCtl {
             throws ServletException, IOException {
 
         List list = null;
-        List next = null;
+        Cursor cursor = null;
 
         int pageNo = DataUtility.getInt(request.getParameter("pageNo"));
         int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
@@ -139,23 +138,25 @@ public class CourseListCtl extends BaseCtl {
                     pageNo = 1;
                 } else if ("Next".equalsIgnoreCase(op)) {
                     pageNo++;
+                    cursor = Cursor.parse(request.getParameter("nextCursor"));
                 } else if ("Previous".equalsIgnoreCase(op)) {
                     pageNo--;
+                    cursor = Cursor.parse(request.getParameter("prevCursor"));
                 }
 
             } else if (OP_NEW.equalsIgnoreCase(op)) {
                 ServletUtility.redirect(ORSView.COURSE_CTL, request, response);
                 return;
 
+            } else if (OP_EXPORT.equalsIgnoreCase(op)) {
+                exportCsv("courses.csv", out -> model.export(bean, out), response);
+                return;
+
             } else if (OP_DELETE.equalsIgnoreCase(op)) {
                 pageNo = 1;
                 if (ids != null && ids.length > 0) {
-                    CourseBean deletebean = new CourseBean();
-                    for (String id : ids) {
-                        deletebean.setId(DataUtility.getInt(id));
-                        model.delete(deletebean);
-                        ServletUtility.setSuccessMessage("Data is deleted successfully", request);
-                    }
+                    model.deleteAll(getIds(ids));
+                    ServletUtility.setSuccessMessage("Data is deleted successfully", request);
                 } else {
                     ServletUtility.setErrorMessage("Select at least one record", request);
                 }
@@ -170,18 +171,15 @@ public class CourseListCtl extends BaseCtl {
             }
 
             // Fetch updated list
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
+            Page<CourseBean> page = model.search(bean, cursor, pageSize);
+            list = page.getList();
 
             if (list == null || list.size() == 0) {
                 ServletUtility.setErrorMessage("No record found", request);
             }
 
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
+            setPage(page, pageNo, request);
             ServletUtility.setBean(bean, request);
-            request.setAttribute("nextListSize", next.size());
 
             ServletUtility.forward(getView(), request, response);
 
@@ -0,0 +1,110 @@
+package in.co.rays.proj4.controller;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collections;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import in.co.rays.proj4.bean.RoleBean;
+import in.co.rays.proj4.bean.UserBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.util.EmailOutbox;
+import in.co.rays.proj4.util.JSONUtility;
+
+/**
+ * EmailOutboxCtl is an admin endpoint for the {@link EmailOutbox}.
+ *
+ * <p>
+ * GET returns the queue depth per status, the delivery counters and the
+ * delivery latency histogram as JSON. POST with {@code operation=Requeue}
+ * moves all dead letters back to the queue. Only users with the admin role
+ * may access it.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+@WebServlet(name = "EmailOutboxCtl", urlPatterns = { "/ctl/admin/outbox" })
+public class EmailOutboxCtl extends BaseCtl {
+
+	public static final String OP_REQUEUE = "Requeue";
+
+	/**
+	 * Writes the outbox statistics as JSON.
+	 *
+	 * @param request  HttpServletRequest
+	 * @param response HttpServletResponse
+	 * @throws ServletException
+	 * @throws IOException
+	 */
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+
+		if (!isAdmin(request, response)) {
+			return;
+		}
+		try {
+			writeJson(response, JSONUtility.toJson(EmailOutbox.getInstance().getStatistics()));
+		} catch (SQLException e) {
+			response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
+		}
+	}
+
+	/**
+	 * Requeues the dead letters and returns their count as JSON.
+	 *
+	 * @param request  HttpServletRequest
+	 * @param response HttpServletResponse
+	 * @throws ServletException
+	 * @throws IOException
+	 */
+	@Override
+	protected void doPost(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+
+		if (!isAdmin(request, response)) {
+			return;
+		}
+		if (!OP_REQUEUE.equalsIgnoreCase(request.getParameter("operation"))) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+			return;
+		}
+		try {
+			int count = EmailOutbox.getInstance().requeueDead();
+			writeJson(response, JSONUtility.toJson(Collections.singletonMap("requeued", count)));
+		} catch (ApplicationException e) {
+			response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
+		}
+	}
+
+	private boolean isAdmin(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		UserBean user = (UserBean) request.getSession().getAttribute("user");
+		if (user == null || user.getRoleId() != RoleBean.ADMIN) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return false;
+		}
+		return true;
+	}
+
+	private void writeJson(HttpServletResponse response, String json) throws IOException {
+		response.setContentType("application/json");
+		response.setCharacterEncoding("UTF-8");
+		response.setHeader("Cache-Control", "no-store");
+		response.getWriter().write(json);
+	}
+
+	/**
+	 * Not used; the endpoint has no view.
+	 *
+	 * @return null
+	 */
+	@Override
+	protected String getView() {
+		return null;
+	}
+}
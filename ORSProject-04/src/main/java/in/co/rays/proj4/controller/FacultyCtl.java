@@ -28,8 +28,8 @@ import in.co.rays.proj4.model.CourseModel;
 import in.co.rays.proj4.model.FacultyModel;
 import in.co.rays.proj4.model.SubjectModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.FormRules;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 @WebServlet(name = "FacultyCtl", urlPatterns = { "/ctl/FacultyCtl" })
@@ -63,80 +63,14 @@ public class FacultyCtl extends BaseCtl {
     }
 
     /**
-     * Validates input data from Faculty form.
+     * Returns the rules of the Faculty form.
      *
-     * @param request HTTP request object
-     * @return true if validation passes, false otherwise
+     * @param request HttpServletRequest
+     * @return rules of the form
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("firstName"))) {
-            request.setAttribute("firstName", PropertyReader.getValue("error.require", "First Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("firstName"))) {
-            request.setAttribute("firstName", "Invalid First Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("lastName"))) {
-            request.setAttribute("lastName", PropertyReader.getValue("error.require", "Last Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("lastName"))) {
-            request.setAttribute("lastName", "Invalid Last Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("gender"))) {
-            request.setAttribute("gender", PropertyReader.getValue("error.require", "Gender"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("dob"))) {
-            request.setAttribute("dob", PropertyReader.getValue("error.require", "Date of Birth"));
-            pass = false;
-        } else if (!DataValidator.isDate(request.getParameter("dob"))) {
-            request.setAttribute("dob", PropertyReader.getValue("error.date", "Date of Birth"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("email"))) {
-            request.setAttribute("email", PropertyReader.getValue("error.require", "Email"));
-            pass = false;
-        } else if (!DataValidator.isEmail(request.getParameter("email"))) {
-            request.setAttribute("email", PropertyReader.getValue("error.email", "Email"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("mobileNo"))) {
-            request.setAttribute("mobileNo", PropertyReader.getValue("error.require", "Mobile No"));
-            pass = false;
-        } else if (!DataValidator.isPhoneLength(request.getParameter("mobileNo"))) {
-            request.setAttribute("mobileNo", "Mobile No must have 10 digits");
-            pass = false;
-        } else if (!DataValidator.isPhoneNo(request.getParameter("mobileNo"))) {
-            request.setAttribute("mobileNo", "Invalid Mobile No");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("collegeId"))) {
-            request.setAttribute("collegeId", PropertyReader.getValue("error.require", "College Name"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("courseId"))) {
-            request.setAttribute("courseId", PropertyReader.getValue("error.require", "Course Name"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("subjectId"))) {
-            request.setAttribute("subjectId", PropertyReader.getValue("error.require", "Subject Name"));
-            pass = false;
-        }
-
-        return pass;
+    protected RuleSet getRules(HttpServletRequest request) {
+        return FormRules.FACULTY;
     }
 
     /**
@@ -22,6 +22,8 @@ import javax.servlet.http.HttpServletResponse;
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.FacultyBean;
 import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.Cursor;
+import in.co.rays.proj4.model.Page;
 import in.co.rays.proj4.model.FacultyModel;
 import in.co.rays.proj4.util.DataUtility;
 import in.co.rays.proj4.util.PropertyReader;
@@ -65,18 +67,15 @@ public class FacultyListCtl extends BaseCtl {
         FacultyModel model = new FacultyModel();
 
         try {
-            List<FacultyBean> list = model.search(bean, pageNo, pageSize);
-            List<FacultyBean> next = model.search(bean, pageNo + 1, pageSize);
+            Page<FacultyBean> page = model.search(bean, null, pageSize);
+            List<FacultyBean> list = page.getList();
 
             if (list == null || list.isEmpty()) {
                 ServletUtility.setErrorMessage("No record found", request);
             }
 
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
+            setPage(page, pageNo, request);
             ServletUtility.setBean(bean, request);
-            request.setAttribute("nextListSize", next.size());
 
             ServletUtility.forward(getView(), request, response);
 
@@ -97,7 +96,7 @@ public class FacultyListCtl extends BaseCtl {
             throws ServletException, IOException {
 
         List list = null;
-        List next = null;
+        Cursor cursor = null;
 
         int pageNo = DataUtility.getInt(request.getParameter("pageNo"));
         int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
@@ -118,23 +117,25 @@ public class FacultyListCtl extends BaseCtl {
                     pageNo = 1;
                 } else if ("Next".equalsIgnoreCase(op)) {
                     pageNo++;
+                    cursor = Cursor.parse(request.getParameter("nextCursor"));
                 } else if ("Previous".equalsIgnoreCase(op)) {
                     pageNo--;
+                    cursor = Cursor.parse(request.getParameter("prevCursor"));
                 }
 
             } else if (OP_NEW.equalsIgnoreCase(op)) {
                 ServletUtility.redirect(ORSView.FACULTY_CTL, request, response);
                 return;
 
+            } else if (OP_EXPORT.equalsIgnoreCase(op)) {
+                exportCsv("faculties.csv", out -> model.export(bean, out), response);
+                return;
+
             } else if (OP_DELETE.equalsIgnoreCase(op)) {
                 pageNo = 1;
                 if (ids != null && ids.length > 0) {
-                    FacultyBean deletebean = new FacultyBean();
-                    for (String id : ids) {
-                        deletebean.setId(DataUtility.getInt(id));
-                        model.delete(deletebean);
-                        ServletUtility.setSuccessMessage("Data is deleted successfully", request);
-                    }
+                    model.deleteAll(getIds(ids));
+                    ServletUtility.setSuccessMessage("Data is deleted successfully", request);
                 } else {
                     ServletUtility.setErrorMessage("Select at least one record", request);
                 }
@@ -144,18 +145,15 @@ public class FacultyListCtl extends BaseCtl {
                 return;
             }
 
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
+            Page<FacultyBean> page = model.search(bean, cursor, pageSize);
+            list = page.getList();
 
             if (list == null || list.size() == 0) {
                 ServletUtility.setErrorMessage("No record found", request);
             }
 
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
+            setPage(page, pageNo, request);
             ServletUtility.setBean(bean, request);
-            request.setAttribute("nextListSize", next.size());
 
             ServletUtility.forward(getView(), request, response);
 
@@ -24,33 +24,22 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.RecordNotFoundException;
 import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.FormRules;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 @WebServlet(name = "ForgetPasswordCtl", urlPatterns = { "/ForgetPasswordCtl" })
 public class ForgetPasswordCtl extends BaseCtl {
 
     /**
-     * Validates the login input from the user.
-     * 
-     * @param request HTTP request
-     * @return true if input is valid, false otherwise
+     * Returns the rules of the forget password form.
+     *
+     * @param request HttpServletRequest
+     * @return rules of the form
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("login"))) {
-            request.setAttribute("login", PropertyReader.getValue("error.require", "Email Id"));
-            pass = false;
-        } else if (!DataValidator.isEmail(request.getParameter("login"))) {
-            request.setAttribute("login", PropertyReader.getValue("error.email", "Login "));
-            pass = false;
-        }
-
-        return pass;
+    protected RuleSet getRules(HttpServletRequest request) {
+        return FormRules.FORGET_PASSWORD;
     }
 
     /**
@@ -3,7 +3,8 @@
  * <p>
  * This controller handles requests for searching a marksheet by roll number.
  * It validates the input, interacts with the MarksheetModel, and forwards
- * results or error messages to the appropriate view.
+ * results or error messages to the appropriate view. The merit rank of the
+ * student is taken from {@link MeritRanking}.
  * </p>
  * 
  * Author: Lucky
@@ -23,31 +24,25 @@ import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.MarksheetBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.MarksheetModel;
+import in.co.rays.proj4.model.MeritRanking;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.FormRules;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 @WebServlet(name = "GetMarksheetCtl", urlPatterns = { "/ctl/GetMarksheetCtl" })
 public class GetMarksheetCtl extends BaseCtl {
 
     /**
-     * Validates the input parameters from the request.
-     * Checks if the roll number is provided.
+     * Returns the rules of the get marksheet form: the roll number is
+     * required.
      *
      * @param request HttpServletRequest
-     * @return boolean true if input is valid, false otherwise
+     * @return rules of the form
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("rollNo"))) {
-            request.setAttribute("rollNo", PropertyReader.getValue("error.require", "Roll Number"));
-            pass = false;
-        }
-
-        return pass;
+    protected RuleSet getRules(HttpServletRequest request) {
+        return FormRules.GET_MARKSHEET;
     }
 
     /**
@@ -99,6 +94,7 @@ public class GetMarksheetCtl extends BaseCtl {
             try {
                 bean = model.findByRollNo(bean.getRollNo());
                 if (bean != null) {
+                    bean.setRank(MeritRanking.getInstance().rankOf(bean.getRollNo()));
                     ServletUtility.setBean(bean, request);
                 } else {
                     ServletUtility.setErrorMessage("RollNo Does Not exist", request);
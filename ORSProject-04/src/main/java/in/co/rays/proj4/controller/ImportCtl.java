@@ -0,0 +1,148 @@
+package in.co.rays.proj4.controller;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.MultipartConfig;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.Part;
+
+import in.co.rays.proj4.bean.RoleBean;
+import in.co.rays.proj4.bean.UserBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.CsvImport;
+import in.co.rays.proj4.model.MarksheetImport;
+import in.co.rays.proj4.model.StudentImport;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.ServletUtility;
+
+/**
+ * ImportCtl uploads a CSV file of students or marksheets and loads it with
+ * {@link StudentImport} or {@link MarksheetImport}.
+ *
+ * <p>
+ * The file is streamed from the request into the import, so its size is not
+ * limited by memory. The view shows how many rows were imported and the
+ * errors of the rejected rows. Only admin and faculty users may import.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+@WebServlet(name = "ImportCtl", urlPatterns = { "/ctl/ImportCtl" })
+@MultipartConfig(maxFileSize = 100L * 1024 * 1024, fileSizeThreshold = 1024 * 1024)
+public class ImportCtl extends BaseCtl {
+
+	public static final String OP_UPLOAD = "Upload";
+
+	public static final String TYPE_STUDENT = "Student";
+	public static final String TYPE_MARKSHEET = "Marksheet";
+
+	/**
+	 * Validates the import type and the uploaded file.
+	 *
+	 * @param request HttpServletRequest
+	 * @return true if valid
+	 */
+	@Override
+	protected boolean validate(HttpServletRequest request) {
+		boolean pass = true;
+
+		String type = request.getParameter("type");
+		if (!TYPE_STUDENT.equals(type) && !TYPE_MARKSHEET.equals(type)) {
+			request.setAttribute("type", PropertyReader.getValue("error.require", "Import Type"));
+			pass = false;
+		}
+
+		try {
+			Part file = request.getPart("file");
+			if (file == null || file.getSize() == 0) {
+				request.setAttribute("file", PropertyReader.getValue("error.require", "CSV File"));
+				pass = false;
+			}
+		} catch (IOException | ServletException e) {
+			request.setAttribute("file", "File could not be uploaded");
+			pass = false;
+		}
+
+		return pass;
+	}
+
+	/**
+	 * Displays the upload form.
+	 *
+	 * @param request  HttpServletRequest
+	 * @param response HttpServletResponse
+	 * @throws ServletException
+	 * @throws IOException
+	 */
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+		ServletUtility.forward(getView(), request, response);
+	}
+
+	/**
+	 * Imports the uploaded file.
+	 *
+	 * @param request  HttpServletRequest
+	 * @param response HttpServletResponse
+	 * @throws ServletException
+	 * @throws IOException
+	 */
+	@Override
+	protected void doPost(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+
+		String op = DataUtility.getString(request.getParameter("operation"));
+
+		if (OP_RESET.equalsIgnoreCase(op)) {
+			ServletUtility.redirect(ORSView.IMPORT_CTL, request, response);
+			return;
+		}
+
+		UserBean user = (UserBean) request.getSession().getAttribute("user");
+		if (user == null || (user.getRoleId() != RoleBean.ADMIN && user.getRoleId() != RoleBean.FACULTY)) {
+			ServletUtility.setErrorMessage("You are not allowed to import records", request);
+			ServletUtility.forward(getView(), request, response);
+			return;
+		}
+
+		if (OP_UPLOAD.equalsIgnoreCase(op)) {
+			String type = request.getParameter("type");
+			CsvImport<?> csvImport = TYPE_STUDENT.equals(type) ? new StudentImport() : new MarksheetImport();
+
+			try (Reader in = new InputStreamReader(request.getPart("file").getInputStream(), StandardCharsets.UTF_8)) {
+				CsvImport.Result result = csvImport.load(in, user.getLogin());
+				request.setAttribute("importResult", result);
+				if (result.getImported() > 0) {
+					ServletUtility.setSuccessMessage(result.getImported() + " of " + result.getTotal()
+							+ " records imported", request);
+				}
+				if (result.getFailed() > 0) {
+					ServletUtility.setErrorMessage(result.getFailed() + " records were not imported", request);
+				}
+			} catch (ApplicationException e) {
+				ServletUtility.setErrorMessage(e.getMessage(), request);
+			}
+		}
+
+		ServletUtility.forward(getView(), request, response);
+	}
+
+	/**
+	 * Returns the view of the import page.
+	 *
+	 * @return view path
+	 */
+	@Override
+	protected String getView() {
+		return ORSView.IMPORT_VIEW;
+	}
+}
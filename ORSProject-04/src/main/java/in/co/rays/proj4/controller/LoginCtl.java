@@ -26,8 +26,8 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.RoleModel;
 import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.FormRules;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 @WebServlet(name = "LoginCtl", urlPatterns = { "/LoginCtl" })
@@ -37,36 +37,18 @@ public class LoginCtl extends BaseCtl {
     public static final String OP_SIGN_UP = "Sign Up";
 
     /**
-     * Validates the login input fields.
-     * Checks for null or invalid email for login and empty password.
+     * Returns the rules of the login form; none for sign up and logout.
      *
      * @param request HttpServletRequest
-     * @return boolean true if valid, false otherwise
+     * @return rules of the form
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-        boolean pass = true;
-
+    protected RuleSet getRules(HttpServletRequest request) {
         String op = request.getParameter("operation");
-
         if (OP_SIGN_UP.equals(op) || OP_LOG_OUT.equals(op)) {
-            return pass;
-        }
-
-        if (DataValidator.isNull(request.getParameter("login"))) {
-            request.setAttribute("login", PropertyReader.getValue("error.require", "Login Id"));
-            pass = false;
-        } else if (!DataValidator.isEmail(request.getParameter("login"))) {
-            request.setAttribute("login", PropertyReader.getValue("error.email", "Login "));
-            pass = false;
+            return null;
         }
-
-        if (DataValidator.isNull(request.getParameter("password"))) {
-            request.setAttribute("password", PropertyReader.getValue("error.require", "Password"));
-            pass = false;
-        }
-
-        return pass;
+        return FormRules.LOGIN;
     }
 
     /**
@@ -0,0 +1,91 @@
+package in.co.rays.proj4.controller;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import in.co.rays.proj4.bean.RoleBean;
+import in.co.rays.proj4.bean.UserBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.MarksheetAnalytics;
+import in.co.rays.proj4.util.JSONUtility;
+import in.co.rays.proj4.util.ServletUtility;
+
+/**
+ * MarksheetAnalyticsCtl shows the result statistics of
+ * {@link MarksheetAnalytics}: per subject mean, median, percentiles, pass
+ * rate, grade distribution and histogram.
+ *
+ * <p>
+ * {@code /ctl/MarksheetAnalyticsCtl} renders the admin view and
+ * {@code /ctl/admin/analytics} returns the same report as JSON. Only users
+ * with the admin role may access either; only GET is supported.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+@WebServlet(name = "MarksheetAnalyticsCtl", urlPatterns = { "/ctl/MarksheetAnalyticsCtl", "/ctl/admin/analytics" })
+public class MarksheetAnalyticsCtl extends BaseCtl {
+
+	/**
+	 * Computes the report and renders it as a page or as JSON.
+	 *
+	 * @param request  HttpServletRequest
+	 * @param response HttpServletResponse
+	 * @throws ServletException
+	 * @throws IOException
+	 */
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+
+		boolean json = "/ctl/admin/analytics".equals(request.getServletPath());
+
+		UserBean user = (UserBean) request.getSession().getAttribute("user");
+		if (user == null || user.getRoleId() != RoleBean.ADMIN) {
+			if (json) {
+				response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			} else {
+				ServletUtility.setErrorMessage("You are not allowed to view result analytics", request);
+				ServletUtility.forward(getView(), request, response);
+			}
+			return;
+		}
+
+		try {
+			MarksheetAnalytics.Report report = new MarksheetAnalytics().analyze();
+			if (json) {
+				response.setContentType("application/json");
+				response.setCharacterEncoding("UTF-8");
+				response.setHeader("Cache-Control", "no-store");
+				response.getWriter().write(JSONUtility.toJson(report.toMap()));
+				return;
+			}
+			request.setAttribute("analytics", report);
+			if (report.getTotal().getCount() == 0) {
+				ServletUtility.setErrorMessage("No record found", request);
+			}
+		} catch (ApplicationException e) {
+			if (json) {
+				response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
+				return;
+			}
+			ServletUtility.setErrorMessage(e.getMessage(), request);
+		}
+		ServletUtility.forward(getView(), request, response);
+	}
+
+	/**
+	 * Returns the view of the analytics page.
+	 *
+	 * @return view path
+	 */
+	@Override
+	protected String getView() {
+		return ORSView.MARKSHEET_ANALYTICS_VIEW;
+	}
+}
@@ -26,8 +26,8 @@ import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.MarksheetModel;
 import in.co.rays.proj4.model.StudentModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.FormRules;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 @WebServlet(name = "MarksheetCtl", urlPatterns = { "/ctl/MarksheetCtl" })
@@ -50,68 +50,15 @@ public class MarksheetCtl extends BaseCtl {
     }
 
     /**
-     * Validates the marksheet form.
+     * Returns the rules of the marksheet form, also used by the marksheet
+     * import.
      *
      * @param request HttpServletRequest
-     * @return boolean true if valid, false otherwise
+     * @return rules of the form
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("studentId"))) {
-            request.setAttribute("studentId", PropertyReader.getValue("error.require", "Student Name"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("rollNo"))) {
-            request.setAttribute("rollNo", PropertyReader.getValue("error.require", "Roll Number"));
-            pass = false;
-        } else if (!DataValidator.isRollNo(request.getParameter("rollNo"))) {
-            request.setAttribute("rollNo", "Roll No is invalid");
-            pass = false;
-        }
-
-        // Validate physics marks
-        if (DataValidator.isNull(request.getParameter("physics"))) {
-            request.setAttribute("physics", PropertyReader.getValue("error.require", "Marks"));
-            pass = false;
-        } else if (!DataValidator.isInteger(request.getParameter("physics"))) {
-            request.setAttribute("physics", PropertyReader.getValue("error.integer", "Marks"));
-            pass = false;
-        } else if (DataUtility.getInt(request.getParameter("physics")) > 100
-                || DataUtility.getInt(request.getParameter("physics")) < 0) {
-            request.setAttribute("physics", "Marks should be in 0 to 100");
-            pass = false;
-        }
-
-        // Validate chemistry marks
-        if (DataValidator.isNull(request.getParameter("chemistry"))) {
-            request.setAttribute("chemistry", PropertyReader.getValue("error.require", "Marks"));
-            pass = false;
-        } else if (!DataValidator.isInteger(request.getParameter("chemistry"))) {
-            request.setAttribute("chemistry", PropertyReader.getValue("error.integer", "Marks"));
-            pass = false;
-        } else if (DataUtility.getInt(request.getParameter("chemistry")) > 100
-                || DataUtility.getInt(request.getParameter("chemistry")) < 0) {
-            request.setAttribute("chemistry", "Marks should be in 0 to 100");
-            pass = false;
-        }
-
-        // Validate maths marks
-        if (DataValidator.isNull(request.getParameter("maths"))) {
-            request.setAttribute("maths", PropertyReader.getValue("error.require", "Marks"));
-            pass = false;
-        } else if (!DataValidator.isInteger(request.getParameter("maths"))) {
-            request.setAttribute("maths", PropertyReader.getValue("error.integer", "Marks"));
-            pass = false;
-        } else if (DataUtility.getInt(request.getParameter("maths")) > 100
-                || DataUtility.getInt(request.getParameter("maths")) < 0) {
-            request.setAttribute("maths", "Marks should be in 0 to 100");
-            pass = false;
-        }
-
-        return pass;
+    protected RuleSet getRules(HttpServletRequest request) {
+        return FormRules.MARKSHEET;
     }
 
     /**
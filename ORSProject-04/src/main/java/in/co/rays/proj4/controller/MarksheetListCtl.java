@@ -22,6 +22,8 @@ import javax.servlet.http.HttpServletResponse;
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.MarksheetBean;
 import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.Cursor;
+import in.co.rays.proj4.model.Page;
 import in.co.rays.proj4.model.MarksheetModel;
 import in.co.rays.proj4.util.DataUtility;
 import in.co.rays.proj4.util.PropertyReader;
@@ -63,18 +65,15 @@ public class MarksheetListCtl extends BaseCtl {
         MarksheetModel model = new MarksheetModel();
 
         try {
-            List<MarksheetBean> list = model.search(bean, pageNo, pageSize);
-            List<MarksheetBean> next = model.search(bean, pageNo + 1, pageSize);
+            Page<MarksheetBean> page = model.search(bean, null, pageSize);
+            List<MarksheetBean> list = page.getList();
 
             if (list == null || list.isEmpty()) {
                 ServletUtility.setErrorMessage("No record found", request);
             }
 
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
+            setPage(page, pageNo, request);
             ServletUtility.setBean(bean, request);
-            request.setAttribute("nextListSize", next.size());
 
             ServletUtility.forward(getView(), request, response);
 
@@ -98,7 +97,7 @@ public class MarksheetListCtl extends BaseCtl {
             throws ServletException, IOException {
 
         List list = null;
-        List next = null;
+        Cursor cursor = null;
 
         int pageNo = DataUtility.getInt(request.getParameter("pageNo"));
         int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
@@ -120,23 +119,25 @@ public class MarksheetListCtl extends BaseCtl {
                     pageNo = 1;
                 } else if (OP_NEXT.equalsIgnoreCase(op)) {
                     pageNo++;
+                    cursor = Cursor.parse(request.getParameter("nextCursor"));
                 } else if (OP_PREVIOUS.equalsIgnoreCase(op) && pageNo > 1) {
                     pageNo--;
+                    cursor = Cursor.parse(request.getParameter("prevCursor"));
                 }
 
             } else if (OP_NEW.equalsIgnoreCase(op)) {
                 ServletUtility.redirect(ORSView.MARKSHEET_CTL, request, response);
                 return;
 
+            } else if (OP_EXPORT.equalsIgnoreCase(op)) {
+                exportCsv("marksheets.csv", out -> model.export(bean, out), response);
+                return;
+
             } else if (OP_DELETE.equalsIgnoreCase(op)) {
                 pageNo = 1;
                 if (ids != null && ids.length > 0) {
-                    MarksheetBean deletebean = new MarksheetBean();
-                    for (String id : ids) {
-                        deletebean.setId(DataUtility.getInt(id));
-                        model.delete(deletebean);
-                        ServletUtility.setSuccessMessage("Marksheet is deleted successfully", request);
-                    }
+                    model.deleteAll(getIds(ids));
+                    ServletUtility.setSuccessMessage("Marksheet is deleted successfully", request);
                 } else {
                     ServletUtility.setErrorMessage("Select at least one record", request);
                 }
@@ -146,18 +147,15 @@ public class MarksheetListCtl extends BaseCtl {
                 return;
             }
 
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
+            Page<MarksheetBean> page = model.search(bean, cursor, pageSize);
+            list = page.getList();
 
             if (list == null || list.size() == 0) {
                 ServletUtility.setErrorMessage("No record found ", request);
             }
 
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
+            setPage(page, pageNo, request);
             ServletUtility.setBean(bean, request);
-            request.setAttribute("nextListSize", next.size());
 
             ServletUtility.forward(getView(), request, response);
         } catch (ApplicationException e) {
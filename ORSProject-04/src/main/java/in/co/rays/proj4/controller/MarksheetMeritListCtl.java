@@ -2,7 +2,8 @@
  * MarksheetMeritListCtl Servlet.
  * <p>
  * This controller handles displaying the merit list of marksheets.
- * It supports pagination and back navigation to the welcome page.
+ * It supports pagination and back navigation to the welcome page. The list
+ * is read from the in-memory {@link MeritRanking}.
  * </p>
  * 
  * Author: Lucky
@@ -21,7 +22,7 @@ import javax.servlet.http.HttpServletResponse;
 
 import in.co.rays.proj4.bean.MarksheetBean;
 import in.co.rays.proj4.exception.ApplicationException;
-import in.co.rays.proj4.model.MarksheetModel;
+import in.co.rays.proj4.model.MeritRanking;
 import in.co.rays.proj4.util.DataUtility;
 import in.co.rays.proj4.util.PropertyReader;
 import in.co.rays.proj4.util.ServletUtility;
@@ -44,10 +45,8 @@ public class MarksheetMeritListCtl extends BaseCtl {
         int pageNo = 1;
         int pageSize = DataUtility.getInt(PropertyReader.getValue("page.size"));
 
-        MarksheetModel model = new MarksheetModel();
-
         try {
-            List<MarksheetBean> list = model.getMeritList(pageNo, pageSize);
+            List<MarksheetBean> list = MeritRanking.getInstance().page(pageNo, pageSize);
 
             if (list == null || list.isEmpty()) {
                 ServletUtility.setErrorMessage("No record found", request);
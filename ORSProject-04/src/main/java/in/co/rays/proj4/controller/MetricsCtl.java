@@ -0,0 +1,197 @@
+package in.co.rays.proj4.controller;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.util.Metrics;
+import in.co.rays.proj4.util.PropertyReader;
+
+/**
+ * MetricsCtl exposes the {@link Metrics} of the application in the Prometheus
+ * text format for a Prometheus server to scrape:
+ *
+ * <pre>
+ * scrape_configs:
+ *   - job_name: ors
+ *     metrics_path: /ORSProject-04/metrics
+ *     static_configs:
+ *       - targets: ['webapp:8080']
+ * </pre>
+ *
+ * <p>
+ * The endpoint is outside <code>/ctl</code> and does not extend
+ * {@link BaseCtl}, so a scrape needs no login, creates no session and is not
+ * itself counted. Only clients whose address is in one of the comma-separated
+ * networks of {@code metrics.allowedhosts} may read it. A network is an
+ * address with an optional prefix length, e.g. <code>10.0.0.0/8</code> or
+ * <code>::1</code>; without the property only loopback clients are allowed.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+@WebServlet(name = "MetricsCtl", urlPatterns = { "/metrics" })
+public class MetricsCtl extends HttpServlet {
+
+	private static Logger log = Logger.getLogger(MetricsCtl.class);
+
+	/** Networks allowed when {@code metrics.allowedhosts} is not set */
+	private static final String DEFAULT_ALLOWED_HOSTS = "127.0.0.0/8,::1";
+
+	/**
+	 * A network of allowed clients: the address and the number of its leading
+	 * bits a client address must share.
+	 */
+	private static final class Network {
+
+		private final byte[] address;
+		private final int prefix;
+
+		private Network(byte[] address, int prefix) {
+			this.address = address;
+			this.prefix = prefix;
+		}
+
+		private boolean contains(byte[] client) {
+			if (client.length != address.length) {
+				return false;
+			}
+			int bytes = prefix / 8;
+			for (int i = 0; i < bytes; i++) {
+				if (client[i] != address[i]) {
+					return false;
+				}
+			}
+			int bits = prefix % 8;
+			if (bits == 0) {
+				return true;
+			}
+			int mask = (0xFF << (8 - bits)) & 0xFF;
+			return (client[bytes] & mask) == (address[bytes] & mask);
+		}
+	}
+
+	private List<Network> allowedHosts;
+
+	@Override
+	public void init() throws ServletException {
+		String hosts = PropertyReader.getValue("metrics.allowedhosts");
+		if ("metrics.allowedhosts".equals(hosts)) {
+			hosts = DEFAULT_ALLOWED_HOSTS;
+		}
+		allowedHosts = new ArrayList<Network>();
+		for (String host : hosts.split("\\s*,\\s*")) {
+			if (host.trim().length() == 0) {
+				continue;
+			}
+			Network network = parse(host.trim());
+			if (network == null) {
+				log.warn("Ignoring invalid metrics.allowedhosts entry " + host);
+			} else {
+				allowedHosts.add(network);
+			}
+		}
+	}
+
+	/**
+	 * Writes the metrics.
+	 *
+	 * @param request  HttpServletRequest
+	 * @param response HttpServletResponse
+	 * @throws ServletException
+	 * @throws IOException
+	 */
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+
+		if (!isAllowed(request.getRemoteAddr())) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return;
+		}
+
+		response.setContentType("text/plain; version=0.0.4");
+		response.setCharacterEncoding("UTF-8");
+		response.setHeader("Cache-Control", "no-store");
+
+		Writer out = response.getWriter();
+		Metrics.write(out);
+		out.flush();
+	}
+
+	private boolean isAllowed(String address) {
+		byte[] client = toBytes(address);
+		if (client == null) {
+			return false;
+		}
+		for (Network network : allowedHosts) {
+			if (network.contains(client)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Parses an address with an optional prefix length, e.g.
+	 * <code>172.16.0.0/12</code>.
+	 *
+	 * @param cidr network
+	 * @return network or null if invalid
+	 */
+	private static Network parse(String cidr) {
+		int slash = cidr.indexOf('/');
+		byte[] address = toBytes((slash < 0) ? cidr : cidr.substring(0, slash));
+		if (address == null) {
+			return null;
+		}
+		int prefix = address.length * 8;
+		if (slash >= 0) {
+			try {
+				prefix = Integer.parseInt(cidr.substring(slash + 1));
+			} catch (NumberFormatException e) {
+				return null;
+			}
+			if (prefix < 0 || prefix > address.length * 8) {
+				return null;
+			}
+		}
+		return new Network(address, prefix);
+	}
+
+	/**
+	 * Converts an IP address literal to its bytes; an IPv4-mapped IPv6 address
+	 * gives the 4 bytes of the IPv4 address. Host names are not resolved.
+	 *
+	 * @param address IPv4 or IPv6 literal
+	 * @return bytes or null if not an address literal
+	 */
+	private static byte[] toBytes(String address) {
+		if (address == null || address.length() == 0) {
+			return null;
+		}
+		for (int i = 0; i < address.length(); i++) {
+			char c = address.charAt(i);
+			if (Character.digit(c, 16) < 0 && c != '.' && c != ':') {
+				return null;
+			}
+		}
+		try {
+			return InetAddress.getByName(address).getAddress();
+		} catch (UnknownHostException e) {
+			return null;
+		}
+	}
+}
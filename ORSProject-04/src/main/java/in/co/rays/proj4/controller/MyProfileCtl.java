@@ -25,8 +25,8 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.FormRules;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 @WebServlet(name = "MyProfileCtl", urlPatterns = { "/ctl/MyProfileCtl" })
@@ -35,59 +35,19 @@ public class MyProfileCtl extends BaseCtl {
     public static final String OP_CHANGE_MY_PASSWORD = "Change Password";
 
     /**
-     * Validates the user profile form data.
+     * Returns the rules of the user profile form; none for the Change My
+     * Password button.
      *
      * @param request HttpServletRequest
-     * @return boolean true if input is valid, false otherwise
+     * @return rules of the form
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-
-        boolean pass = true;
-        String op = DataUtility.getString(request.getParameter("operation"));
-
-        if (OP_CHANGE_MY_PASSWORD.equalsIgnoreCase(op) || op == null) {
-            return pass;
-        }
-
-        if (DataValidator.isNull(request.getParameter("firstName"))) {
-            request.setAttribute("firstName", PropertyReader.getValue("error.require", "First Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("firstName"))) {
-            request.setAttribute("firstName", "Invalid First Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("lastName"))) {
-            request.setAttribute("lastName", PropertyReader.getValue("error.require", "Last Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("lastName"))) {
-            request.setAttribute("lastName", "Invalid Last Name");
-            pass = false;
+    protected RuleSet getRules(HttpServletRequest request) {
+        String op = request.getParameter("operation");
+        if (OP_CHANGE_MY_PASSWORD.equalsIgnoreCase(op)) {
+            return null;
         }
-
-        if (DataValidator.isNull(request.getParameter("gender"))) {
-            request.setAttribute("gender", PropertyReader.getValue("error.require", "Gender"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("mobileNo"))) {
-            request.setAttribute("mobileNo", PropertyReader.getValue("error.require", "MobileNo"));
-            pass = false;
-        } else if (!DataValidator.isPhoneLength(request.getParameter("mobileNo"))) {
-            request.setAttribute("mobileNo", "Mobile No must have 10 digits");
-            pass = false;
-        } else if (!DataValidator.isPhoneNo(request.getParameter("mobileNo"))) {
-            request.setAttribute("mobileNo", "Invalid Mobile No");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("dob"))) {
-            request.setAttribute("dob", PropertyReader.getValue("error.require", "Date Of Birth"));
-            pass = false;
-        }
-
-        return pass;
+        return FormRules.MY_PROFILE;
     }
 
     /**
@@ -99,6 +99,8 @@ public interface ORSView {
 	public String TIMETABLE_CTL = APP_CONTEXT + "/ctl/TimetableCtl";
 	public String TIMETABLE_LIST_VIEW = PAGE_FOLDER + "/TimetableListView.jsp";
 	public String TIMETABLE_LIST_CTL = APP_CONTEXT + "/ctl/TimetableListCtl";
+	public String TIMETABLE_SCHEDULE_VIEW = PAGE_FOLDER + "/TimetableScheduleView.jsp";
+	public String TIMETABLE_SCHEDULE_CTL = APP_CONTEXT + "/ctl/TimetableScheduleCtl";
 
 	/** Faculty management pages */
 	public String FACULTY_VIEW = PAGE_FOLDER + "/FacultyView.jsp";
@@ -116,6 +118,29 @@ public interface ORSView {
 	public String STAFF__LIST_VIEW = PAGE_FOLDER + "/StaffListView.jsp";
 	public String STAFF_LIST_CTL = APP_CONTEXT + "/ctl/StaffListCtl";
 
+	/** CSV bulk import of students and marksheets */
+	public String IMPORT_VIEW = PAGE_FOLDER + "/ImportView.jsp";
+	public String IMPORT_CTL = APP_CONTEXT + "/ctl/ImportCtl";
+
+	/** Connection pool statistics (admin, read-only) */
+	public String POOL_STATS_CTL = APP_CONTEXT + "/ctl/admin/pool";
+
+	/** Email outbox statistics and dead letter requeue (admin) */
+	public String EMAIL_OUTBOX_CTL = APP_CONTEXT + "/ctl/admin/outbox";
+
+	/** Result analytics of the marksheets (admin) */
+	public String MARKSHEET_ANALYTICS_VIEW = PAGE_FOLDER + "/MarksheetAnalyticsView.jsp";
+	public String MARKSHEET_ANALYTICS_CTL = APP_CONTEXT + "/ctl/MarksheetAnalyticsCtl";
+	public String MARKSHEET_ANALYTICS_JSON_CTL = APP_CONTEXT + "/ctl/admin/analytics";
+
+	/** Request and SQL metrics in the Prometheus text format */
+	public String METRICS_CTL = APP_CONTEXT + "/metrics";
+
+	/** SQL fingerprints by time, count and rows (admin) */
+	public String QUERY_PROFILE_VIEW = PAGE_FOLDER + "/QueryProfileView.jsp";
+	public String QUERY_PROFILE_CTL = APP_CONTEXT + "/ctl/QueryProfileCtl";
+	public String QUERY_PROFILE_JSON_CTL = APP_CONTEXT + "/ctl/admin/queries";
+
 	/** JavaDoc page */
 	public String JAVA_DOC = "/ORSProject-04/doc/index.html";
 }
@@ -0,0 +1,77 @@
+package in.co.rays.proj4.controller;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Map;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import in.co.rays.proj4.bean.RoleBean;
+import in.co.rays.proj4.bean.UserBean;
+import in.co.rays.proj4.model.ReferenceDataCache;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.JSONUtility;
+
+/**
+ * PoolStatsCtl is a read-only admin endpoint that returns the live connection
+ * pool statistics of {@link JDBCDataSource} as JSON.
+ *
+ * <p>
+ * The response contains busy / idle connections, threads waiting for a
+ * connection, pending pool helper tasks, leaked connections and the acquire
+ * wait and checkout duration histograms, plus the hit / miss counters of
+ * the {@link ReferenceDataCache}. It is used to size
+ * {@code maxpoolsize} from real traffic. Only users with the admin role may
+ * access it; only GET is supported.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+@WebServlet(name = "PoolStatsCtl", urlPatterns = { "/ctl/admin/pool" })
+public class PoolStatsCtl extends BaseCtl {
+
+	/**
+	 * Writes the pool statistics as JSON.
+	 *
+	 * @param request  HttpServletRequest
+	 * @param response HttpServletResponse
+	 * @throws ServletException
+	 * @throws IOException
+	 */
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+
+		UserBean user = (UserBean) request.getSession().getAttribute("user");
+		if (user == null || user.getRoleId() != RoleBean.ADMIN) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return;
+		}
+
+		response.setContentType("application/json");
+		response.setCharacterEncoding("UTF-8");
+		response.setHeader("Cache-Control", "no-store");
+
+		try {
+			Map<String, Object> stats = JDBCDataSource.getPoolStatistics();
+			stats.put("referenceDataCache", ReferenceDataCache.getInstance().getStatistics());
+			response.getWriter().write(JSONUtility.toJson(stats));
+		} catch (SQLException e) {
+			response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
+		}
+	}
+
+	/**
+	 * Not used; the endpoint has no view.
+	 *
+	 * @return null
+	 */
+	@Override
+	protected String getView() {
+		return null;
+	}
+}
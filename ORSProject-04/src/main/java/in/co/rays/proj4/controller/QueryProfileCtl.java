@@ -0,0 +1,131 @@
+package in.co.rays.proj4.controller;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import in.co.rays.proj4.bean.RoleBean;
+import in.co.rays.proj4.bean.UserBean;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.JSONUtility;
+import in.co.rays.proj4.util.QueryProfiler;
+import in.co.rays.proj4.util.ServletUtility;
+
+/**
+ * QueryProfileCtl shows the top statement fingerprints of
+ * {@link QueryProfiler}, so the queries worth an index are found first.
+ *
+ * <p>
+ * {@code /ctl/QueryProfileCtl} renders the admin view and
+ * {@code /ctl/admin/queries} returns the same list as JSON. The "order"
+ * parameter sorts by total (default), count, mean, p99, max, rows or slow and
+ * "n" limits the list, 20 by default. A POST with the Reset operation clears
+ * the profile. Only users with the admin role may access either.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+@WebServlet(name = "QueryProfileCtl", urlPatterns = { "/ctl/QueryProfileCtl", "/ctl/admin/queries" })
+public class QueryProfileCtl extends BaseCtl {
+
+	/** Fingerprints listed when "n" is not given */
+	public static final int DEFAULT_TOP = 20;
+
+	/** Most fingerprints listed */
+	public static final int MAX_TOP = 500;
+
+	/**
+	 * Lists the top fingerprints as a page or as JSON.
+	 *
+	 * @param request  HttpServletRequest
+	 * @param response HttpServletResponse
+	 * @throws ServletException
+	 * @throws IOException
+	 */
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+
+		boolean json = "/ctl/admin/queries".equals(request.getServletPath());
+
+		if (!isAdmin(request)) {
+			if (json) {
+				response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			} else {
+				ServletUtility.setErrorMessage("You are not allowed to view the query profile", request);
+				ServletUtility.forward(getView(), request, response);
+			}
+			return;
+		}
+
+		String order = DataUtility.getString(request.getParameter("order"));
+		int n = DataUtility.getInt(request.getParameter("n"));
+		n = (n > 0) ? Math.min(n, MAX_TOP) : DEFAULT_TOP;
+		List<QueryProfiler.Profile> list = QueryProfiler.top(n, order);
+
+		if (json) {
+			List<Map<String, Object>> profiles = new ArrayList<Map<String, Object>>();
+			for (QueryProfiler.Profile profile : list) {
+				profiles.add(profile.toMap());
+			}
+			Map<String, Object> map = new LinkedHashMap<String, Object>();
+			map.put("fingerprints", QueryProfiler.size());
+			map.put("slowMillis", QueryProfiler.getSlowMillis());
+			map.put("top", profiles);
+			response.setContentType("application/json");
+			response.setCharacterEncoding("UTF-8");
+			response.setHeader("Cache-Control", "no-store");
+			response.getWriter().write(JSONUtility.toJson(map));
+			return;
+		}
+
+		request.setAttribute("order", order);
+		request.setAttribute("n", n);
+		ServletUtility.setList(list, request);
+		if (list.isEmpty()) {
+			ServletUtility.setErrorMessage("No record found", request);
+		}
+		ServletUtility.forward(getView(), request, response);
+	}
+
+	/**
+	 * Resets the profile.
+	 *
+	 * @param request  HttpServletRequest
+	 * @param response HttpServletResponse
+	 * @throws ServletException
+	 * @throws IOException
+	 */
+	@Override
+	protected void doPost(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+
+		if (isAdmin(request) && OP_RESET.equalsIgnoreCase(DataUtility.getString(request.getParameter("operation")))) {
+			QueryProfiler.reset();
+		}
+		ServletUtility.redirect(ORSView.QUERY_PROFILE_CTL, request, response);
+	}
+
+	private boolean isAdmin(HttpServletRequest request) {
+		UserBean user = (UserBean) request.getSession().getAttribute("user");
+		return user != null && user.getRoleId() == RoleBean.ADMIN;
+	}
+
+	/**
+	 * Returns the view of the query profile page.
+	 *
+	 * @return view path
+	 */
+	@Override
+	protected String getView() {
+		return ORSView.QUERY_PROFILE_VIEW;
+	}
+}
@@ -14,8 +14,8 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.RoleModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.FormRules;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -38,29 +38,14 @@ import in.co.rays.proj4.util.ServletUtility;
 public class RoleCtl extends BaseCtl {
 
     /**
-     * Validates the Role form inputs from the request.
-     * 
+     * Returns the rules of the Role form.
+     *
      * @param request HttpServletRequest
-     * @return true if all inputs are valid; false otherwise
+     * @return rules of the form
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("name"))) {
-            request.setAttribute("name", PropertyReader.getValue("error.require", "Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("name"))) {
-            request.setAttribute("name", "Invalid Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("description"))) {
-            request.setAttribute("description", PropertyReader.getValue("error.require", "Description"));
-            pass = false;
-        }
-        return pass;
+    protected RuleSet getRules(HttpServletRequest request) {
+        return FormRules.ROLE;
     }
 
     /**
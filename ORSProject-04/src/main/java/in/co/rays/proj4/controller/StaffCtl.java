@@ -17,8 +17,8 @@ import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.StaffModel;
 import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.FormRules;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 @WebServlet(name = "StaffCtl", urlPatterns = { "/ctl/StaffCtl" })
@@ -36,34 +36,15 @@ public class StaffCtl extends BaseCtl {
 
 	}
 
+	/**
+	 * Returns the rules of the Staff form.
+	 *
+	 * @param request HttpServletRequest
+	 * @return rules of the form
+	 */
 	@Override
-	protected boolean validate(HttpServletRequest request) {
-
-		boolean pass = true;
-
-		if (DataValidator.isNull(request.getParameter("fullName"))) {
-			request.setAttribute("fullName", PropertyReader.getValue("error.require", "firstName"));
-		} else if (!DataValidator.isName(request.getParameter("fullName"))) {
-			request.setAttribute("fullName", "Invalid Full Name");
-			pass = false;
-		}
-
-		if (DataValidator.isNull(request.getParameter("joiningDate"))) {
-			request.setAttribute("joiningDate", PropertyReader.getValue("error.require", "Date"));
-			pass = false;
-		} else if (!DataValidator.isDate(request.getParameter("joiningDate"))) {
-			request.setAttribute("joiningDate", PropertyReader.getValue("error.date", "Date"));
-			pass = false;
-		}
-		if (DataValidator.isNull(request.getParameter("division"))) {
-			request.setAttribute("division", PropertyReader.getValue("error.require", "division"));
-			pass = false;
-		}
-		if (DataValidator.isNull(request.getParameter("previousEmployer"))) {
-			request.setAttribute("previousEmployer", PropertyReader.getValue("error.require", "previousEmployer"));
-			pass = false;
-		}
-		return pass;
+	protected RuleSet getRules(HttpServletRequest request) {
+		return FormRules.STAFF;
 	}
 
 	@Override
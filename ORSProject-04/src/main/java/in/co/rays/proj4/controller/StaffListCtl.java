@@ -13,6 +13,8 @@ import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.StaffBean;
 import in.co.rays.proj4.bean.UserBean;
 import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.Cursor;
+import in.co.rays.proj4.model.Page;
 import in.co.rays.proj4.model.StaffModel;
 import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
@@ -60,20 +62,15 @@ public class StaffListCtl extends BaseCtl {
 		StaffModel model = new StaffModel();
 
 		try {
-			List<StaffBean> list = model.search(bean, pageNo, pageSize);
-			List<StaffBean> next = model.search(bean, pageNo + 1, pageSize);
+			Page<StaffBean> page = model.search(bean, null, pageSize);
+			List<StaffBean> list = page.getList();
 
 			if (list == null || list.isEmpty()) {
 				ServletUtility.setErrorMessage("No record found", request);
 			}
 
-			ServletUtility.setList(list, request);
-			ServletUtility.setPageNo(pageNo, request);
-			ServletUtility.setPageSize(pageSize, request);
+			setPage(page, pageNo, request);
 			ServletUtility.setBean(bean, request);
-			request.setAttribute("nextListSize", next.size());
-
-			System.out.println("nextList --->" + next.size());
 
 			ServletUtility.forward(getView(), request, response);
 
@@ -88,7 +85,7 @@ public class StaffListCtl extends BaseCtl {
 	protected void doPost(HttpServletRequest request, HttpServletResponse response)
 			throws ServletException, IOException {
 		List list = null;
-		List next = null;
+		Cursor cursor = null;
 
 		int pageNo = DataUtility.getInt(request.getParameter("pageNo"));
 		int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
@@ -110,23 +107,25 @@ public class StaffListCtl extends BaseCtl {
 					pageNo = 1;
 				} else if (OP_NEXT.equalsIgnoreCase(op)) {
 					pageNo++;
+					cursor = Cursor.parse(request.getParameter("nextCursor"));
 				} else if (OP_PREVIOUS.equalsIgnoreCase(op) && pageNo > 1) {
 					pageNo--;
+					cursor = Cursor.parse(request.getParameter("prevCursor"));
 				}
 
 			} else if (OP_NEW.equalsIgnoreCase(op)) {
 				ServletUtility.redirect(ORSView.STAFF_CTL, request, response);
 				return;
 
+			} else if (OP_EXPORT.equalsIgnoreCase(op)) {
+				exportCsv("staff.csv", out -> model.export(bean, out), response);
+				return;
+
 			} else if (OP_DELETE.equalsIgnoreCase(op)) {
 				pageNo = 1;
 				if (ids != null && ids.length > 0) {
-					StaffBean deletebean = new StaffBean();
-					for (String id : ids) {
-						deletebean.setId(DataUtility.getInt(id));
-						model.delete(deletebean);
-						ServletUtility.setSuccessMessage("User deleted successfully", request);
-					}
+					model.deleteAll(getIds(ids));
+					ServletUtility.setSuccessMessage("User deleted successfully", request);
 				} else {
 					ServletUtility.setErrorMessage("Select at least one record", request);
 				}
@@ -140,18 +139,15 @@ public class StaffListCtl extends BaseCtl {
 				return;
 			}
 
-			list = model.search(bean, pageNo, pageSize);
-			next = model.search(bean, pageNo + 1, pageSize);
+			Page<StaffBean> page = model.search(bean, cursor, pageSize);
+			list = page.getList();
 
 			if (list == null || list.size() == 0) {
 				ServletUtility.setErrorMessage("No record found ", request);
 			}
 
-			ServletUtility.setList(list, request);
-			ServletUtility.setPageNo(pageNo, request);
-			ServletUtility.setPageSize(pageSize, request);
+			setPage(page, pageNo, request);
 			ServletUtility.setBean(bean, request);
-			request.setAttribute("nextListSize", next.size());
 
 			ServletUtility.forward(getView(), request, response);
 
@@ -15,8 +15,8 @@ import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.CourseModel;
 import in.co.rays.proj4.model.SubjectModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.FormRules;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -51,32 +51,14 @@ public class SubjectCtl extends BaseCtl {
     }
 
     /**
-     * Validates user inputs from the Subject form.
-     * 
-     * @param request the HttpServletRequest object
-     * @return true if validation passes, false otherwise
+     * Returns the rules of the Subject form.
+     *
+     * @param request HttpServletRequest
+     * @return rules of the form
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("name"))) {
-            request.setAttribute("name", PropertyReader.getValue("error.require", "Subject Name"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("courseId"))) {
-            request.setAttribute("courseId", PropertyReader.getValue("error.require", "Course Name"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("description"))) {
-            request.setAttribute("description", PropertyReader.getValue("error.require", "Description"));
-            pass = false;
-        }
-
-        return pass;
+    protected RuleSet getRules(HttpServletRequest request) {
+        return FormRules.SUBJECT;
     }
 
     /**
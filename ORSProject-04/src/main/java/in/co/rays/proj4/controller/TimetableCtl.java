@@ -16,8 +16,8 @@ import in.co.rays.proj4.model.CourseModel;
 import in.co.rays.proj4.model.SubjectModel;
 import in.co.rays.proj4.model.TimetableModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.FormRules;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -54,54 +54,14 @@ public class TimetableCtl extends BaseCtl {
     }
 
     /**
-     * Validates Timetable form input fields.
-     * Ensures that required fields are not empty and validates date format and constraints.
+     * Returns the rules of the Timetable form; exams are not held on Sundays.
      *
-     * @param request the HTTP request containing form data
-     * @return true if validation passes, false otherwise
+     * @param request HttpServletRequest
+     * @return rules of the form
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("semester"))) {
-            request.setAttribute("semester", PropertyReader.getValue("error.require", "Semester"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("examDate"))) {
-            request.setAttribute("examDate", PropertyReader.getValue("error.require", "Date of Exam"));
-            pass = false;
-        } else if (!DataValidator.isDate(request.getParameter("examDate"))) {
-            request.setAttribute("examDate", PropertyReader.getValue("error.date", "Date of Exam"));
-            pass = false;
-        } else if (DataValidator.isSunday(request.getParameter("examDate"))) {
-            request.setAttribute("examDate", "Exam should not be on Sunday");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("examTime"))) {
-            request.setAttribute("examTime", PropertyReader.getValue("error.require", "Exam Time"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("description"))) {
-            request.setAttribute("description", PropertyReader.getValue("error.require", "Description"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("courseId"))) {
-            request.setAttribute("courseId", PropertyReader.getValue("error.require", "Course Name"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("subjectId"))) {
-            request.setAttribute("subjectId", PropertyReader.getValue("error.require", "Subject Name"));
-            pass = false;
-        }
-
-        return pass;
+    protected RuleSet getRules(HttpServletRequest request) {
+        return FormRules.TIMETABLE;
     }
 
     /**
@@ -175,24 +135,17 @@ public class TimetableCtl extends BaseCtl {
 
             TimetableBean bean = (TimetableBean) populateBean(request);
 
-            TimetableBean bean1;
-            TimetableBean bean2;
-            TimetableBean bean3;
-
             try {
-                bean1 = model.checkByCourseName(bean.getCourseId(), bean.getExamDate());
-                bean2 = model.checkBySubjectName(bean.getCourseId(), bean.getSubjectId(), bean.getExamDate());
-                bean3 = model.checkBySemester(bean.getCourseId(), bean.getSubjectId(), bean.getSemester(),
-                        bean.getExamDate());
+                List<TimetableModel.Conflict> conflicts = model.checkConflicts(bean);
 
-                if (bean1 == null && bean2 == null && bean3 == null) {
+                if (conflicts.isEmpty()) {
                     long pk = model.add(bean);
                     ServletUtility.setBean(bean, request);
                     ServletUtility.setSuccessMessage("Timetable added successfully", request);
                 } else {
                     bean = (TimetableBean) populateBean(request);
                     ServletUtility.setBean(bean, request);
-                    ServletUtility.setErrorMessage("Timetable already exist!", request);
+                    ServletUtility.setErrorMessage(conflicts.get(0).getMessage(), request);
                 }
             } catch (DuplicateRecordException e) {
                 ServletUtility.setBean(bean, request);
@@ -207,14 +160,16 @@ public class TimetableCtl extends BaseCtl {
 
             TimetableBean bean = (TimetableBean) populateBean(request);
 
-            TimetableBean bean4;
-
             try {
 
-                bean4 = model.checkByExamTime(bean.getCourseId(), bean.getSubjectId(), bean.getSemester(),
-                        bean.getExamDate(), bean.getExamTime(), bean.getDescription());
+                TimetableModel.Conflict duplicate = null;
+                for (TimetableModel.Conflict conflict : model.checkConflicts(bean)) {
+                    if (TimetableModel.Conflict.EXAM.equals(conflict.getRule())) {
+                        duplicate = conflict;
+                    }
+                }
 
-                if (id > 0 && bean4 == null) {
+                if (id > 0 && duplicate == null) {
                     model.update(bean);
                     ServletUtility.setBean(bean, request);
                     ServletUtility.setSuccessMessage("Timetable updated successfully", request);
@@ -0,0 +1,211 @@
+package in.co.rays.proj4.controller;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import in.co.rays.proj4.bean.BaseBean;
+import in.co.rays.proj4.bean.SubjectBean;
+import in.co.rays.proj4.bean.TimetableBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.model.CourseModel;
+import in.co.rays.proj4.model.ExamScheduler;
+import in.co.rays.proj4.model.SubjectModel;
+import in.co.rays.proj4.model.TimetableIndex;
+import in.co.rays.proj4.model.TimetableModel;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.FormRules;
+import in.co.rays.proj4.util.RuleSet;
+import in.co.rays.proj4.util.ServletUtility;
+
+/**
+ * TimetableScheduleCtl generates the exam timetable of a semester with
+ * {@link ExamScheduler}: one exam for every subject of the selected course,
+ * or of all courses, from a start date on.
+ *
+ * <p>
+ * Generate shows the proposed schedule, Save adds it with
+ * {@link TimetableModel#addAll(List)}. The proposal is kept in the session
+ * between the two; if a timetable added meanwhile conflicts with it, Save is
+ * rejected and the schedule has to be generated again.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+@WebServlet(name = "TimetableScheduleCtl", urlPatterns = { "/ctl/TimetableScheduleCtl" })
+public class TimetableScheduleCtl extends BaseCtl {
+
+	public static final String OP_GENERATE = "Generate";
+
+	/** Session attribute holding the proposed schedule */
+	private static final String SCHEDULE = "examSchedule";
+
+	/**
+	 * Preloads the course list.
+	 *
+	 * @param request HttpServletRequest
+	 */
+	@Override
+	protected void preload(HttpServletRequest request) {
+		try {
+			request.setAttribute("courseList", new CourseModel().list());
+		} catch (ApplicationException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Returns the rules of the schedule parameters of Generate.
+	 *
+	 * @param request HttpServletRequest
+	 * @return rules of the form
+	 */
+	@Override
+	protected RuleSet getRules(HttpServletRequest request) {
+		String op = request.getParameter("operation");
+		if (!OP_GENERATE.equalsIgnoreCase(op)) {
+			return null;
+		}
+		return FormRules.TIMETABLE_SCHEDULE;
+	}
+
+	/**
+	 * Populates the schedule parameters.
+	 *
+	 * @param request HttpServletRequest
+	 * @return TimetableBean with course, semester, start date and description
+	 */
+	@Override
+	protected BaseBean populateBean(HttpServletRequest request) {
+
+		TimetableBean bean = new TimetableBean();
+
+		bean.setSemester(DataUtility.getString(request.getParameter("semester")));
+		bean.setDescription(DataUtility.getString(request.getParameter("description")));
+		bean.setExamDate(DataUtility.getDate(request.getParameter("examDate")));
+		bean.setCourseId(DataUtility.getLong(request.getParameter("courseId")));
+
+		populateDTO(bean, request);
+
+		return bean;
+	}
+
+	/**
+	 * Displays the schedule form.
+	 *
+	 * @param request  HttpServletRequest
+	 * @param response HttpServletResponse
+	 * @throws ServletException
+	 * @throws IOException
+	 */
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+		request.getSession().removeAttribute(SCHEDULE);
+		ServletUtility.forward(getView(), request, response);
+	}
+
+	/**
+	 * Handles the Generate, Save and Reset operations.
+	 *
+	 * @param request  HttpServletRequest
+	 * @param response HttpServletResponse
+	 * @throws ServletException
+	 * @throws IOException
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	protected void doPost(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+
+		String op = DataUtility.getString(request.getParameter("operation"));
+
+		if (OP_RESET.equalsIgnoreCase(op)) {
+			ServletUtility.redirect(ORSView.TIMETABLE_SCHEDULE_CTL, request, response);
+			return;
+		}
+
+		TimetableBean bean = (TimetableBean) populateBean(request);
+		ServletUtility.setBean(bean, request);
+
+		try {
+			if (OP_GENERATE.equalsIgnoreCase(op)) {
+				List<TimetableBean> exams = new ArrayList<TimetableBean>();
+				for (SubjectBean subject : new SubjectModel().list()) {
+					if (bean.getCourseId() > 0 && subject.getCourseId() != bean.getCourseId()) {
+						continue;
+					}
+					TimetableBean exam = new TimetableBean();
+					exam.setCourseId(subject.getCourseId());
+					exam.setCourseName(subject.getCourseName());
+					exam.setSubjectId(subject.getId());
+					exam.setSubjectName(subject.getName());
+					exam.setSemester(bean.getSemester());
+					exam.setDescription(bean.getDescription());
+					exams.add(exam);
+				}
+
+				LocalDate start = DataUtility.getLocalDate(bean.getExamDate());
+				ExamScheduler.Schedule schedule = new ExamScheduler().schedule(exams, TimetableIndex.load(start));
+
+				for (TimetableBean exam : schedule.getExams()) {
+					exam.setCreatedBy(bean.getCreatedBy());
+					exam.setModifiedBy(bean.getModifiedBy());
+					exam.setCreatedDatetime(bean.getCreatedDatetime());
+					exam.setModifiedDatetime(bean.getModifiedDatetime());
+				}
+				request.getSession().setAttribute(SCHEDULE, schedule.getExams());
+				ServletUtility.setList(schedule.getExams(), request);
+
+				if (exams.isEmpty()) {
+					ServletUtility.setErrorMessage("No subject found", request);
+				} else if (!schedule.getUnscheduled().isEmpty()) {
+					ServletUtility.setErrorMessage(schedule.getUnscheduled().size()
+							+ " exams could not be scheduled, try a later start date", request);
+				} else {
+					ServletUtility.setSuccessMessage(schedule.getExams().size() + " exams scheduled over "
+							+ schedule.getDays() + " days", request);
+				}
+
+			} else if (OP_SAVE.equalsIgnoreCase(op)) {
+				List<TimetableBean> exams = (List<TimetableBean>) request.getSession().getAttribute(SCHEDULE);
+				if (exams == null || exams.isEmpty()) {
+					ServletUtility.setErrorMessage("Generate a schedule first", request);
+				} else {
+					try {
+						int count = new TimetableModel().addAll(exams);
+						ServletUtility.setSuccessMessage(count + " exams added to the timetable", request);
+					} catch (DuplicateRecordException e) {
+						ServletUtility.setErrorMessage(
+								e.getMessage() + ", the timetable has changed, generate the schedule again", request);
+					}
+					request.getSession().removeAttribute(SCHEDULE);
+				}
+			}
+		} catch (ApplicationException e) {
+			e.printStackTrace();
+			ServletUtility.handleException(e, request, response);
+			return;
+		}
+
+		ServletUtility.forward(getView(), request, response);
+	}
+
+	/**
+	 * Returns the view of the schedule page.
+	 *
+	 * @return view path
+	 */
+	@Override
+	protected String getView() {
+		return ORSView.TIMETABLE_SCHEDULE_VIEW;
+	}
+}
@@ -11,6 +11,8 @@ import javax.servlet.http.HttpServletResponse;
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.UserBean;
 import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.Cursor;
+import in.co.rays.proj4.model.Page;
 import in.co.rays.proj4.model.RoleModel;
 import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
@@ -105,20 +107,15 @@ public class UserListCtl extends BaseCtl {
 		UserModel model = new UserModel();
 
 		try {
-			List<UserBean> list = model.search(bean, pageNo, pageSize);
-			List<UserBean> next = model.search(bean, pageNo + 1, pageSize);
+			Page<UserBean> page = model.search(bean, null, pageSize);
+			List<UserBean> list = page.getList();
 
 			if (list == null || list.isEmpty()) {
 				ServletUtility.setErrorMessage("No record found", request);
 			}
 
-			ServletUtility.setList(list, request);
-			ServletUtility.setPageNo(pageNo, request);
-			ServletUtility.setPageSize(pageSize, request);
+			setPage(page, pageNo, request);
 			ServletUtility.setBean(bean, request);
-			request.setAttribute("nextListSize", next.size());
-
-			System.out.println("nextList --->" + next.size());
 
 			ServletUtility.forward(getView(), request, response);
 
@@ -144,7 +141,7 @@ public class UserListCtl extends BaseCtl {
 			throws ServletException, IOException {
 
 		List list = null;
-		List next = null;
+		Cursor cursor = null;
 
 		int pageNo = DataUtility.getInt(request.getParameter("pageNo"));
 		int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
@@ -166,23 +163,25 @@ public class UserListCtl extends BaseCtl {
 					pageNo = 1;
 				} else if (OP_NEXT.equalsIgnoreCase(op)) {
 					pageNo++;
+					cursor = Cursor.parse(request.getParameter("nextCursor"));
 				} else if (OP_PREVIOUS.equalsIgnoreCase(op) && pageNo > 1) {
 					pageNo--;
+					cursor = Cursor.parse(request.getParameter("prevCursor"));
 				}
 
 			} else if (OP_NEW.equalsIgnoreCase(op)) {
 				ServletUtility.redirect(ORSView.USER_CTL, request, response);
 				return;
 
+			} else if (OP_EXPORT.equalsIgnoreCase(op)) {
+				exportCsv("users.csv", out -> model.export(bean, out), response);
+				return;
+
 			} else if (OP_DELETE.equalsIgnoreCase(op)) {
 				pageNo = 1;
 				if (ids != null && ids.length > 0) {
-					UserBean deletebean = new UserBean();
-					for (String id : ids) {
-						deletebean.setId(DataUtility.getInt(id));
-						model.delete(deletebean);
-						ServletUtility.setSuccessMessage("User deleted successfully", request);
-					}
+					model.deleteAll(getIds(ids));
+					ServletUtility.setSuccessMessage("User deleted successfully", request);
 				} else {
 					ServletUtility.setErrorMessage("Select at least one record", request);
 				}
@@ -196,18 +195,15 @@ public class UserListCtl extends BaseCtl {
 				return;
 			}
 
-			list = model.search(bean, pageNo, pageSize);
-			next = model.search(bean, pageNo + 1, pageSize);
+			Page<UserBean> page = model.search(bean, cursor, pageSize);
+			list = page.getList();
 
 			if (list == null || list.size() == 0) {
 				ServletUtility.setErrorMessage("No record found ", request);
 			}
 
-			ServletUtility.setList(list, request);
-			ServletUtility.setPageNo(pageNo, request);
-			ServletUtility.setPageSize(pageSize, request);
+			setPage(page, pageNo, request);
 			ServletUtility.setBean(bean, request);
-			request.setAttribute("nextListSize", next.size());
 
 			ServletUtility.forward(getView(), request, response);
 
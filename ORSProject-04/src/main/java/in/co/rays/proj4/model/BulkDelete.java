@@ -0,0 +1,95 @@
+package in.co.rays.proj4.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import in.co.rays.proj4.util.JDBCDataSource;
+
+/**
+ * BulkDelete runs the multi-record deletes of the list screens shared by all
+ * models.
+ *
+ * <p>
+ * All ids are deleted with {@code delete ... where id in (...)} statements in
+ * a single transaction, instead of one connection and one commit per record.
+ * Large selections are split into chunks of {@link #CHUNK_SIZE} ids so the
+ * statement stays small; either all chunks are committed or none.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public final class BulkDelete {
+
+	/** Maximum number of ids bound to one statement */
+	public static final int CHUNK_SIZE = 500;
+
+	private BulkDelete() {
+	}
+
+	/**
+	 * Deletes the records of the given ids from a table in one transaction.
+	 * Ids that are not positive are ignored.
+	 *
+	 * @param table table name
+	 * @param ids   primary keys to delete
+	 * @return number of deleted records
+	 * @throws SQLException if a delete fails; nothing is deleted in that case
+	 */
+	public static int deleteAll(String table, long[] ids) throws SQLException {
+
+		long[] keys = Arrays.stream(ids).filter(id -> id > 0).distinct().toArray();
+		if (keys.length == 0) {
+			return 0;
+		}
+
+		int count = 0;
+		Connection conn = null;
+		try {
+			conn = JDBCDataSource.getConnection();
+			conn.setAutoCommit(false); // Begin transaction
+
+			PreparedStatement pstmt = null;
+			int prepared = 0;
+			for (int from = 0; from < keys.length; from += CHUNK_SIZE) {
+				int size = Math.min(CHUNK_SIZE, keys.length - from);
+				if (size != prepared) {
+					if (pstmt != null) {
+						pstmt.close();
+					}
+					pstmt = conn.prepareStatement(sql(table, size));
+					prepared = size;
+				}
+				for (int i = 0; i < size; i++) {
+					pstmt.setLong(i + 1, keys[from + i]);
+				}
+				count += pstmt.executeUpdate();
+			}
+			pstmt.close();
+
+			conn.commit(); // End transaction
+		} catch (SQLException e) {
+			if (conn != null) {
+				try {
+					conn.rollback();
+				} catch (SQLException ex) {
+					e.addSuppressed(ex);
+				}
+			}
+			throw e;
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+		return count;
+	}
+
+	private static String sql(String table, int size) {
+		StringBuilder sql = new StringBuilder("delete from ").append(table).append(" where id in (?");
+		for (int i = 1; i < size; i++) {
+			sql.append(", ?");
+		}
+		return sql.append(")").toString();
+	}
+}
@@ -1,11 +1,15 @@
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.log4j.LogSF;
 import org.apache.log4j.Logger;
 
 import in.co.rays.proj4.bean.CollegeBean;
@@ -13,6 +17,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.KeyAllocatorFactory;
 
 /**
  * CollegeModel provides CRUD and search operations for {@link CollegeBean}
@@ -35,27 +40,7 @@ public class CollegeModel {
      * @throws DatabaseException if a database error occurs while retrieving the maximum id
      */
 	public Integer nextPk() throws DatabaseException {
-		
-		 log.debug("CollegeModel nextPk started");
-		 
-		Connection conn = null;
-		int pk = 0;
-
-		try {
-			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement("select max(id) from st_college");
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				pk = rs.getInt(1);
-			}
-			rs.close();
-			pstmt.close();
-		} catch (Exception e) {
-			throw new DatabaseException("Exception : Exception in getting PK");
-		} finally {
-			JDBCDataSource.closeConnection(conn);
-		}
-		return pk + 1;
+		return (int) KeyAllocatorFactory.getAllocator().nextKey("st_college");
 	}
 
 	  /**
@@ -101,6 +86,7 @@ public class CollegeModel {
 			pstmt.setTimestamp(10, bean.getModifiedDatetime());
 			pstmt.executeUpdate();
 			conn.commit();
+			ReferenceDataCache.getInstance().invalidate("st_college");
 			pstmt.close();
 		} catch (Exception e) {
 			try {
@@ -130,7 +116,7 @@ public class CollegeModel {
      */
 	public void update(CollegeBean bean) throws ApplicationException, DuplicateRecordException {
 
-		 log.debug("CollegeModel update started for ID : " + bean.getId());
+		 LogSF.debug(log, "CollegeModel update started for ID : {}", bean.getId());
 		
 		Connection conn = null;
 
@@ -157,6 +143,7 @@ public class CollegeModel {
 			pstmt.setLong(10, bean.getId());
 			pstmt.executeUpdate();
 			conn.commit();
+			ReferenceDataCache.getInstance().invalidate("st_college");
 			pstmt.close();
 		} catch (Exception e) {
 			try {
@@ -178,7 +165,7 @@ public class CollegeModel {
      */
 	public void delete(CollegeBean bean) throws ApplicationException {
 		
-		log.debug("CollegeModel delete started for ID : " + bean.getId());
+		LogSF.debug(log, "CollegeModel delete started for ID : {}", bean.getId());
 		
 		Connection conn = null;
 		try {
@@ -188,6 +175,7 @@ public class CollegeModel {
 			pstmt.setLong(1, bean.getId());
 			pstmt.executeUpdate();
 			conn.commit();
+			ReferenceDataCache.getInstance().invalidate("st_college");
 			pstmt.close();
 		} catch (Exception e) {
 			try {
@@ -201,6 +189,50 @@ public class CollegeModel {
 		}
 	}
 
+	/**
+	 * Deletes the colleges of the given ids with a single statement per
+	 * {@link BulkDelete#CHUNK_SIZE} ids, in one transaction.
+	 *
+	 * @param ids primary keys of the records to delete
+	 * @return number of deleted records
+	 * @throws ApplicationException if the delete fails; nothing is deleted then
+	 */
+	public int deleteAll(long[] ids) throws ApplicationException {
+
+		LogSF.debug(log, "CollegeModel deleteAll started, count = {}", ids.length);
+
+		try {
+			int count = BulkDelete.deleteAll("st_college", ids);
+			ReferenceDataCache.getInstance().invalidate("st_college");
+			LogSF.info(log, "{} College records deleted", count);
+			return count;
+		} catch (SQLException e) {
+			log.error("Exception in delete college", e);
+			throw new ApplicationException("Exception : Exception in delete college");
+		}
+	}
+
+	/**
+	 * Writes the colleges matching the search filters to CSV, streaming them
+	 * from the database without loading the whole list.
+	 *
+	 * @param bean search filters, null for all records
+	 * @param out  CSV output
+	 * @return number of records written
+	 * @throws ApplicationException if the export fails
+	 */
+	public long export(CollegeBean bean, Writer out) throws ApplicationException {
+
+		log.debug("CollegeModel export started");
+
+		try {
+			return CsvExport.write(criteria(bean), out);
+		} catch (SQLException | IOException e) {
+			log.error("Exception in export College", e);
+			throw new ApplicationException("Exception : Exception in export College");
+		}
+	}
+
 	  /**
      * Finds a College record by primary key.
      *
@@ -210,7 +242,7 @@ public class CollegeModel {
      */
 	public CollegeBean findByPk(long pk) throws ApplicationException {
 		
-		 log.debug("CollegeModel findByPk started, PK = " + pk);
+		 LogSF.debug(log, "CollegeModel findByPk started, PK = {}", pk);
 
 		StringBuffer sql = new StringBuffer("select * from st_college where id = ?");
 
@@ -218,7 +250,7 @@ public class CollegeModel {
 		Connection conn = null;
 
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection();
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
 			pstmt.setLong(1, pk);
 			ResultSet rs = pstmt.executeQuery();
@@ -254,7 +286,7 @@ public class CollegeModel {
      */
 	public CollegeBean findByName(String name) throws ApplicationException {
 		
-		log.debug("CollegeModel findByName started, Name = " + name);
+		LogSF.debug(log, "CollegeModel findByName started, Name = {}", name);
 
 		StringBuffer sql = new StringBuffer("select * from st_college where name = ?");
 
@@ -291,14 +323,29 @@ public class CollegeModel {
 
 
     /**
-     * Returns a list of all colleges. This is a convenience wrapper around
-     * {@link #search(CollegeBean, int, int)} with no filter and no pagination.
+     * Returns a list of all colleges, served from the
+     * {@link ReferenceDataCache} and loaded from the primary.
      *
-     * @return list of all {@link CollegeBean}
+     * @return unmodifiable list of all {@link CollegeBean}
      * @throws ApplicationException if a general application/database error occurs
      */
 	public List<CollegeBean> list() throws ApplicationException {
-		return search(null, 0, 0);
+		return ReferenceDataCache.getInstance().get("st_college", this::listAll);
+	}
+
+	/**
+	 * Reads all colleges from the primary for the cache, so a reload right
+	 * after a write cannot cache a replica that has not caught up.
+	 *
+	 * @return list of all CollegeBean
+	 * @throws ApplicationException if a general application/database error occurs
+	 */
+	private List<CollegeBean> listAll() throws ApplicationException {
+		try {
+			return Pagination.all(criteria(null), this::populate);
+		} catch (Exception e) {
+			throw new ApplicationException("Exception : Exception in list College");
+		}
 	}
 	
 	  /**
@@ -312,66 +359,85 @@ public class CollegeModel {
      * @throws ApplicationException if a general application/database error occurs
      */
 	public List<CollegeBean> search(CollegeBean bean, int pageNo, int pageSize) throws ApplicationException {
-		
-		log.debug("CollegeModel search started");
-
-		StringBuffer sql = new StringBuffer("select * from st_college where 1 = 1");
-
-		if (bean != null) {
-			if (bean.getId() > 0) {
-				sql.append(" and id = " + bean.getId());
-			}
-			if (bean.getName() != null && bean.getName().length() > 0) {
-				sql.append(" and name like '" + bean.getName() + "%'");
-			}
-			if (bean.getAddress() != null && bean.getAddress().length() > 0) {
-				sql.append(" and address like '" + bean.getAddress() + "%'");
-			}
-			if (bean.getState() != null && bean.getState().length() > 0) {
-				sql.append(" and state like '" + bean.getState() + "%'");
-			}
-			if (bean.getCity() != null && bean.getCity().length() > 0) {
-				sql.append(" and city like '" + bean.getCity() + "%'");
-			}
-			if (bean.getPhoneNo() != null && bean.getPhoneNo().length() > 0) {
-				sql.append(" and phone_no = " + bean.getPhoneNo());
-			}
-		}
+		return searchPage(bean, pageNo, pageSize).getList();
+	}
 
-		if (pageSize > 0) {
-			pageNo = (pageNo - 1) * pageSize;
-			sql.append(" limit " + pageNo + ", " + pageSize);
+	/**
+	 * Searches college records a page at a time. A single query reads one
+	 * record more than the page size to find out whether a next page exists.
+	 *
+	 * @param bean     filter criteria (nullable)
+	 * @param pageNo   page number, starting at 1
+	 * @param pageSize number of records per page, 0 for all records
+	 * @return page of matching CollegeBean
+	 * @throws ApplicationException for general DB errors
+	 */
+	public Page<CollegeBean> searchPage(CollegeBean bean, int pageNo, int pageSize) throws ApplicationException {
+		try {
+			return Pagination.offset(criteria(bean), pageNo, pageSize, this::populate);
+		} catch (Exception e) {
+			throw new ApplicationException("Exception : Exception in search college");
 		}
+	}
 
-		ArrayList<CollegeBean> list = new ArrayList<CollegeBean>();
-		Connection conn = null;
-
+	/**
+	 * Searches college records with keyset (seek) pagination ordered by id.
+	 * Every page costs the same as the first one, however deep the user pages.
+	 *
+	 * @param bean     filter criteria (nullable)
+	 * @param cursor   position to read from, null for the first page
+	 * @param pageSize number of records per page
+	 * @return page of matching CollegeBean
+	 * @throws ApplicationException for general DB errors
+	 */
+	public Page<CollegeBean> search(CollegeBean bean, Cursor cursor, int pageSize) throws ApplicationException {
 		try {
-			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				bean = new CollegeBean();
-				bean.setId(rs.getLong(1));
-				bean.setName(rs.getString(2));
-				bean.setAddress(rs.getString(3));
-				bean.setState(rs.getString(4));
-				bean.setCity(rs.getString(5));
-				bean.setPhoneNo(rs.getString(6));
-				bean.setCreatedBy(rs.getString(7));
-				bean.setModifiedBy(rs.getString(8));
-				bean.setCreatedDatetime(rs.getTimestamp(9));
-				bean.setModifiedDatetime(rs.getTimestamp(10));
-				list.add(bean);
-			}
-			rs.close();
-			pstmt.close();
+			return Pagination.seek(criteria(bean), cursor, pageSize, this::populate);
 		} catch (Exception e) {
-			throw new ApplicationException("Exception : Exception in search college");
-		} finally {
-			JDBCDataSource.closeConnection(conn);
+			log.error("Exception in search College", e);
+			throw new ApplicationException("Exception : Exception in search College");
 		}
-		return list;
+	}
+
+	/**
+	 * Builds the parameterized st_college search with the filters set in the bean.
+	 *
+	 * @param bean filter criteria (nullable)
+	 * @return Criteria
+	 */
+	private Criteria criteria(CollegeBean bean) {
+		Criteria c = Criteria.from("st_college");
+		if (bean != null) {
+			c.eq("id", bean.getId());
+			c.startsWith("name", bean.getName());
+			c.startsWith("address", bean.getAddress());
+			c.startsWith("state", bean.getState());
+			c.startsWith("city", bean.getCity());
+			c.eq("phone_no", bean.getPhoneNo());
+		}
+		return c;
+	}
+
+	/**
+	 * Maps the current row of st_college to a CollegeBean.
+	 *
+	 * @param rs ResultSet positioned on a row
+	 * @return populated bean
+	 * @throws SQLException if a column cannot be read
+	 */
+	CollegeBean populate(ResultSet rs) throws SQLException {
+		CollegeBean bean = new CollegeBean();
+		bean.setId(rs.getLong(1));
+		bean.setName(rs.getString(2));
+		bean.setAddress(rs.getString(3));
+		bean.setState(rs.getString(4));
+		bean.setCity(rs.getString(5));
+		bean.setPhoneNo(rs.getString(6));
+		bean.setCreatedBy(rs.getString(7));
+		bean.setModifiedBy(rs.getString(8));
+		bean.setCreatedDatetime(rs.getTimestamp(9));
+		bean.setModifiedDatetime(rs.getTimestamp(10));
+		return bean;
 	}
 }
 
@@ -1,12 +1,16 @@
 
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.log4j.LogSF;
 import org.apache.log4j.Logger;
 
 import in.co.rays.proj4.bean.CourseBean;
@@ -14,6 +18,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.KeyAllocatorFactory;
 
 /**
  * Handles all database operations related to Course.
@@ -33,32 +38,7 @@ public class CourseModel {
      * @throws DatabaseException if database failure occurs
      */
     public Integer nextPk() throws DatabaseException {
-
-        log.debug("CourseModel nextPk started");
-
-        Connection conn = null;
-        int pk = 0;
-
-        try {
-            conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt = conn.prepareStatement("select max(id) from st_course");
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next())
-                pk = rs.getInt(1);
-
-            rs.close();
-            pstmt.close();
-
-            log.debug("Next PK generated : " + (pk + 1));
-
-        } catch (Exception e) {
-            log.error("Exception in getting PK", e);
-            throw new DatabaseException("Exception : Exception in getting PK");
-        } finally {
-            JDBCDataSource.closeConnection(conn);
-        }
-        return pk + 1;
+        return (int) KeyAllocatorFactory.getAllocator().nextKey("st_course");
     }
 
     /**
@@ -101,9 +81,10 @@ public class CourseModel {
 
             pstmt.executeUpdate();
             conn.commit();
+            ReferenceDataCache.getInstance().invalidate("st_course");
             pstmt.close();
 
-            log.info("Course added successfully, PK = " + pk);
+            LogSF.info(log, "Course added successfully, PK = {}", pk);
 
         } catch (Exception e) {
             try {
@@ -130,7 +111,7 @@ public class CourseModel {
      */
     public void update(CourseBean bean) throws ApplicationException, DuplicateRecordException {
 
-        log.debug("CourseModel update started for ID : " + bean.getId());
+        LogSF.debug(log, "CourseModel update started for ID : {}", bean.getId());
 
         Connection conn = null;
 
@@ -159,9 +140,10 @@ public class CourseModel {
 
             pstmt.executeUpdate();
             conn.commit();
+            ReferenceDataCache.getInstance().invalidate("st_course");
             pstmt.close();
 
-            log.info("Course updated successfully, ID = " + bean.getId());
+            LogSF.info(log, "Course updated successfully, ID = {}", bean.getId());
 
         } catch (Exception e) {
             try {
@@ -185,7 +167,7 @@ public class CourseModel {
      */
     public void delete(CourseBean bean) throws ApplicationException {
 
-        log.debug("CourseModel delete started for ID : " + bean.getId());
+        LogSF.debug(log, "CourseModel delete started for ID : {}", bean.getId());
 
         Connection conn = null;
 
@@ -198,9 +180,10 @@ public class CourseModel {
             pstmt.executeUpdate();
 
             conn.commit();
+            ReferenceDataCache.getInstance().invalidate("st_course");
             pstmt.close();
 
-            log.info("Course deleted successfully, ID = " + bean.getId());
+            LogSF.info(log, "Course deleted successfully, ID = {}", bean.getId());
 
         } catch (Exception e) {
             try {
@@ -216,6 +199,50 @@ public class CourseModel {
         }
     }
 
+    /**
+     * Deletes the courses of the given ids with a single statement per
+     * {@link BulkDelete#CHUNK_SIZE} ids, in one transaction.
+     *
+     * @param ids primary keys of the records to delete
+     * @return number of deleted records
+     * @throws ApplicationException if the delete fails; nothing is deleted then
+     */
+    public int deleteAll(long[] ids) throws ApplicationException {
+
+        LogSF.debug(log, "CourseModel deleteAll started, count = {}", ids.length);
+
+        try {
+            int count = BulkDelete.deleteAll("st_course", ids);
+            ReferenceDataCache.getInstance().invalidate("st_course");
+            LogSF.info(log, "{} Course records deleted", count);
+            return count;
+        } catch (SQLException e) {
+            log.error("Exception in delete Course", e);
+            throw new ApplicationException("Exception : Exception in delete Course");
+        }
+    }
+
+    /**
+     * Writes the courses matching the search filters to CSV, streaming them
+     * from the database without loading the whole list.
+     *
+     * @param bean search filters, null for all records
+     * @param out  CSV output
+     * @return number of records written
+     * @throws ApplicationException if the export fails
+     */
+    public long export(CourseBean bean, Writer out) throws ApplicationException {
+
+        log.debug("CourseModel export started");
+
+        try {
+            return CsvExport.write(criteria(bean), out);
+        } catch (SQLException | IOException e) {
+            log.error("Exception in export Course", e);
+            throw new ApplicationException("Exception : Exception in export Course");
+        }
+    }
+
     /**
      * Finds course by primary key.
      *
@@ -225,14 +252,14 @@ public class CourseModel {
      */
     public CourseBean findByPk(long pk) throws ApplicationException {
 
-        log.debug("CourseModel findByPk started, PK = " + pk);
+        LogSF.debug(log, "CourseModel findByPk started, PK = {}", pk);
 
         StringBuffer sql = new StringBuffer("select * from st_course where id = ?");
         CourseBean bean = null;
         Connection conn = null;
 
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setLong(1, pk);
 
@@ -271,7 +298,7 @@ public class CourseModel {
      */
     public CourseBean findByName(String name) throws ApplicationException {
 
-        log.debug("CourseModel findByName started, Name = " + name);
+        LogSF.debug(log, "CourseModel findByName started, Name = {}", name);
 
         StringBuffer sql = new StringBuffer("select * from st_course where name = ?");
         CourseBean bean = null;
@@ -308,13 +335,28 @@ public class CourseModel {
     }
 
     /**
-     * Returns all courses.
+     * Returns all courses, served from the {@link ReferenceDataCache}.
      *
-     * @return list of courses
+     * @return unmodifiable list of courses
      * @throws ApplicationException on database failure
      */
     public List<CourseBean> list() throws ApplicationException {
-        return search(null, 0, 0);
+        return ReferenceDataCache.getInstance().get("st_course", this::listAll);
+    }
+
+    /**
+     * Reads all courses from the primary for the cache, so a reload right
+     * after a write cannot cache a replica that has not caught up.
+     *
+     * @return list of all CourseBean
+     * @throws ApplicationException if a general application/database error occurs
+     */
+    private List<CourseBean> listAll() throws ApplicationException {
+        try {
+            return Pagination.all(criteria(null), this::populate);
+        } catch (Exception e) {
+            throw new ApplicationException("Exception : Exception in list Course");
+        }
     }
 
     /**
@@ -328,64 +370,81 @@ public class CourseModel {
      */
     public List<CourseBean> search(CourseBean bean, int pageNo, int pageSize)
             throws ApplicationException {
+        return searchPage(bean, pageNo, pageSize).getList();
+    }
 
-        log.debug("CourseModel search started");
-
-        StringBuffer sql = new StringBuffer("select * from st_course where 1=1");
-
-        if (bean != null) {
-
-            if (bean.getId() > 0)
-                sql.append(" and id = " + bean.getId());
-
-            if (bean.getName() != null && bean.getName().length() > 0)
-                sql.append(" and name like '" + bean.getName() + "%'");
-
-            if (bean.getDuration() != null && bean.getDuration().length() > 0)
-                sql.append(" and duration like '" + bean.getDuration() + "%'");
-
-            if (bean.getDescription() != null && bean.getDescription().length() > 0)
-                sql.append(" and description like '" + bean.getDescription() + "%'");
-        }
-
-        if (pageSize > 0) {
-            pageNo = (pageNo - 1) * pageSize;
-            sql.append(" limit " + pageNo + ", " + pageSize);
+    /**
+     * Searches course records a page at a time. A single query reads one
+     * record more than the page size to find out whether a next page exists.
+     *
+     * @param bean     filter criteria (nullable)
+     * @param pageNo   page number, starting at 1
+     * @param pageSize number of records per page, 0 for all records
+     * @return page of matching CourseBean
+     * @throws ApplicationException for general DB errors
+     */
+    public Page<CourseBean> searchPage(CourseBean bean, int pageNo, int pageSize) throws ApplicationException {
+        try {
+            return Pagination.offset(criteria(bean), pageNo, pageSize, this::populate);
+        } catch (Exception e) {
+            log.error("Exception in search Course", e);
+            throw new ApplicationException("Exception : Exception in search Course");
         }
+    }
 
-        List<CourseBean> list = new ArrayList<>();
-        Connection conn = null;
-
+    /**
+     * Searches course records with keyset (seek) pagination ordered by id.
+     * Every page costs the same as the first one, however deep the user pages.
+     *
+     * @param bean     filter criteria (nullable)
+     * @param cursor   position to read from, null for the first page
+     * @param pageSize number of records per page
+     * @return page of matching CourseBean
+     * @throws ApplicationException for general DB errors
+     */
+    public Page<CourseBean> search(CourseBean bean, Cursor cursor, int pageSize) throws ApplicationException {
         try {
-            conn = JDBCDataSource.getConnection();
-
-            PreparedStatement pstmt = conn.prepareStatement(sql.toString());
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                bean = new CourseBean();
-                bean.setId(rs.getLong(1));
-                bean.setName(rs.getString(2));
-                bean.setDuration(rs.getString(3));
-                bean.setDescription(rs.getString(4));
-                bean.setCreatedBy(rs.getString(5));
-                bean.setModifiedBy(rs.getString(6));
-                bean.setCreatedDatetime(rs.getTimestamp(7));
-                bean.setModifiedDatetime(rs.getTimestamp(8));
-
-                list.add(bean);
-            }
-
-            rs.close();
-            pstmt.close();
-
+            return Pagination.seek(criteria(bean), cursor, pageSize, this::populate);
         } catch (Exception e) {
             log.error("Exception in search Course", e);
             throw new ApplicationException("Exception : Exception in search Course");
-        } finally {
-            JDBCDataSource.closeConnection(conn);
         }
+    }
 
-        return list;
+    /**
+     * Builds the parameterized st_course search with the filters set in the bean.
+     *
+     * @param bean filter criteria (nullable)
+     * @return Criteria
+     */
+    private Criteria criteria(CourseBean bean) {
+        Criteria c = Criteria.from("st_course");
+        if (bean != null) {
+            c.eq("id", bean.getId());
+            c.startsWith("name", bean.getName());
+            c.startsWith("duration", bean.getDuration());
+            c.startsWith("description", bean.getDescription());
+        }
+        return c;
+    }
+
+    /**
+     * Maps the current row of st_course to a CourseBean.
+     *
+     * @param rs ResultSet positioned on a row
+     * @return populated bean
+     * @throws SQLException if a column cannot be read
+     */
+    CourseBean populate(ResultSet rs) throws SQLException {
+        CourseBean bean = new CourseBean();
+        bean.setId(rs.getLong(1));
+        bean.setName(rs.getString(2));
+        bean.setDuration(rs.getString(3));
+        bean.setDescription(rs.getString(4));
+        bean.setCreatedBy(rs.getString(5));
+        bean.setModifiedBy(rs.getString(6));
+        bean.setCreatedDatetime(rs.getTimestamp(7));
+        bean.setModifiedDatetime(rs.getTimestamp(8));
+        return bean;
     }
 }
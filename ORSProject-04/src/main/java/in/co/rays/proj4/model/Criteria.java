@@ -0,0 +1,155 @@
+package in.co.rays.proj4.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Criteria builds the parameterized where clause of a search query.
+ *
+ * <p>
+ * Filter values are never written into the SQL text; every condition adds a
+ * {@code ?} placeholder and its value is bound later. The SQL therefore only
+ * depends on which filters are set, not on their values, so the driver and
+ * MySQL can reuse one prepared statement per filter combination.
+ * </p>
+ *
+ * <p>
+ * Like the search forms, every method ignores an empty filter (null, empty
+ * string or a non positive id) so callers can pass bean values directly:
+ * </p>
+ *
+ * <pre>
+ * Criteria c = Criteria.from("st_role").eq("id", bean.getId()).startsWith("name", bean.getName());
+ * </pre>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public class Criteria {
+
+	private final StringBuilder sql;
+	private final List<Object> params = new ArrayList<Object>();
+
+	private Criteria(String table) {
+		sql = new StringBuilder("select * from ").append(table).append(" where 1=1");
+	}
+
+	/**
+	 * Starts a search on all columns of a table.
+	 *
+	 * @param table table name
+	 * @return Criteria
+	 */
+	public static Criteria from(String table) {
+		return new Criteria(table);
+	}
+
+	/**
+	 * Adds {@code column = ?} if the value is greater than 0.
+	 *
+	 * @param column column name
+	 * @param value  id or number to match
+	 * @return this Criteria
+	 */
+	public Criteria eq(String column, long value) {
+		if (value > 0) {
+			add(column + " = ?", value);
+		}
+		return this;
+	}
+
+	/**
+	 * Adds {@code column = ?} if the value is not empty.
+	 *
+	 * @param column column name
+	 * @param value  text to match
+	 * @return this Criteria
+	 */
+	public Criteria eq(String column, String value) {
+		if (value != null && value.length() > 0) {
+			add(column + " = ?", value);
+		}
+		return this;
+	}
+
+	/**
+	 * Adds {@code column = ?} on the date part if the value is not null.
+	 *
+	 * @param column date column name
+	 * @param value  date to match
+	 * @return this Criteria
+	 */
+	public Criteria eq(String column, Date value) {
+		if (value != null && value.getTime() > 0) {
+			add(column + " = ?", new java.sql.Date(value.getTime()));
+		}
+		return this;
+	}
+
+	/**
+	 * Adds {@code column in (...)}. An empty collection matches no record.
+	 *
+	 * @param column column name
+	 * @param values values to match
+	 * @return this criteria
+	 */
+	public Criteria in(String column, Collection<?> values) {
+		if (values.isEmpty()) {
+			sql.append(" and 1=0");
+			return this;
+		}
+		sql.append(" and ").append(column).append(" in (?");
+		for (int i = 1; i < values.size(); i++) {
+			sql.append(", ?");
+		}
+		sql.append(")");
+		params.addAll(values);
+		return this;
+	}
+
+	/**
+	 * Adds {@code column like ?} matching values that start with the given
+	 * text, if it is not empty. LIKE wildcards in the value are escaped.
+	 *
+	 * @param column column name
+	 * @param value  prefix to match
+	 * @return this Criteria
+	 */
+	public Criteria startsWith(String column, String value) {
+		if (value != null && value.length() > 0) {
+			add(column + " like ?", escape(value) + "%");
+		}
+		return this;
+	}
+
+	/**
+	 * @return parameterized query ending in its where clause
+	 */
+	public String getSql() {
+		return sql.toString();
+	}
+
+	/**
+	 * @return values of the placeholders, in order
+	 */
+	public List<Object> getParams() {
+		return Collections.unmodifiableList(params);
+	}
+
+	@Override
+	public String toString() {
+		return getSql() + " " + params;
+	}
+
+	private void add(String condition, Object value) {
+		sql.append(" and ").append(condition);
+		params.add(value);
+	}
+
+	private static String escape(String value) {
+		return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+}
@@ -0,0 +1,97 @@
+package in.co.rays.proj4.model;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import in.co.rays.proj4.util.CsvWriter;
+import in.co.rays.proj4.util.JDBCDataSource;
+
+/**
+ * CsvExport writes the records matching a search to CSV, shared by the
+ * export of all list screens.
+ *
+ * <p>
+ * Rows are read with a forward-only, read-only statement whose fetch size
+ * makes the MySQL driver stream the result row by row instead of loading it
+ * into memory, and every row is written to the output as soon as it is read.
+ * Memory use therefore does not depend on the number of records exported.
+ * The header holds the column names of the table.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public final class CsvExport {
+
+	/** Fetch size that makes MySQL Connector/J stream the result set */
+	private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+	/** Rows written between flushes of the output */
+	private static final int FLUSH_ROWS = 1000;
+
+	private CsvExport() {
+	}
+
+	/**
+	 * Writes the records matching the criteria, ordered by id.
+	 *
+	 * @param criteria search filters
+	 * @param out      CSV output
+	 * @param excluded columns not to export, e.g. passwords
+	 * @return number of records written
+	 * @throws SQLException if the query fails
+	 * @throws IOException  if the output fails
+	 */
+	public static long write(Criteria criteria, Writer out, String... excluded) throws SQLException, IOException {
+
+		CsvWriter csv = new CsvWriter(out);
+		long count = 0;
+
+		Connection conn = null;
+		try {
+			conn = JDBCDataSource.getReadConnection();
+			PreparedStatement pstmt = conn.prepareStatement(criteria.getSql() + " order by id",
+					ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			pstmt.setFetchSize(STREAMING_FETCH_SIZE);
+			List<Object> params = criteria.getParams();
+			for (int i = 0; i < params.size(); i++) {
+				pstmt.setObject(i + 1, params.get(i));
+			}
+			ResultSet rs = pstmt.executeQuery();
+
+			ResultSetMetaData meta = rs.getMetaData();
+			List<Integer> columns = new ArrayList<Integer>();
+			for (int i = 1; i <= meta.getColumnCount(); i++) {
+				if (!Arrays.asList(excluded).contains(meta.getColumnLabel(i).toLowerCase())) {
+					columns.add(i);
+					csv.field(meta.getColumnLabel(i));
+				}
+			}
+			csv.endRecord();
+
+			while (rs.next()) {
+				for (int column : columns) {
+					csv.field(rs.getString(column));
+				}
+				csv.endRecord();
+				if (++count % FLUSH_ROWS == 0) {
+					csv.flush();
+				}
+			}
+			rs.close();
+			pstmt.close();
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+		csv.flush();
+		return count;
+	}
+}
@@ -0,0 +1,486 @@
+package in.co.rays.proj4.model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.log4j.LogSF;
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.bean.BaseBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.exception.DatabaseException;
+import in.co.rays.proj4.util.CsvReader;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.KeyAllocatorFactory;
+import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
+
+/**
+ * CsvImport loads records from an uploaded CSV file in bulk. Subclasses
+ * define the columns, how a row is validated and turned into a bean, how
+ * referenced data is looked up and how a bean is inserted.
+ *
+ * <p>
+ * The file is streamed and processed in chunks of {@code import.chunksize}
+ * rows:
+ * </p>
+ * <ol>
+ * <li>the rows of the chunk are checked against the {@link #getRules()} in
+ * parallel and the valid ones parsed,</li>
+ * <li>referenced records and duplicates of the valid rows are looked up with
+ * one set-based query each ({@link #resolve(List, Connection)}),</li>
+ * <li>the remaining rows are inserted with a JDBC batch in one transaction.</li>
+ * </ol>
+ *
+ * <p>
+ * A row that fails is reported with its line number and skipped; it does not
+ * abort the load. If a batch is rejected by the database, the chunk is rolled
+ * back and its rows are inserted one by one so only the offending rows fail.
+ * At most {@code import.maxerrors} errors are kept in the {@link Result}.
+ * </p>
+ *
+ * <p>
+ * The first line of the file must be a header naming the columns of
+ * {@link #getColumns()}, in any order and case.
+ * </p>
+ *
+ * @param <T> bean type
+ * @author Lucky
+ * @version 1.0
+ */
+public abstract class CsvImport<T extends BaseBean> {
+
+	private static Logger log = Logger.getLogger(CsvImport.class);
+
+	/** Default number of rows per chunk / transaction */
+	public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+	/** Default number of row errors kept in the result */
+	public static final int DEFAULT_MAX_ERRORS = 1000;
+
+	private final int chunkSize;
+	private final int maxErrors;
+
+	/** Login of the user running the import, stored in created_by */
+	private String user;
+
+	/** Rules bound to the columns, null if the import has none */
+	private RuleSet.Binding rules;
+
+	/**
+	 * A row of the file and its outcome.
+	 *
+	 * @param <T> bean type
+	 */
+	public static final class Line<T> {
+
+		private final long row;
+		private final String[] values;
+		private T bean;
+		private String error;
+
+		private Line(long row, String[] values) {
+			this.row = row;
+			this.values = values;
+		}
+
+		/**
+		 * @return line number of the row in the file
+		 */
+		public long getRow() {
+			return row;
+		}
+
+		/**
+		 * @return bean parsed from the row, null if it is invalid
+		 */
+		public T getBean() {
+			return bean;
+		}
+
+		/**
+		 * Marks the row as failed. The first error of a row is kept.
+		 *
+		 * @param message reason
+		 */
+		public void reject(String message) {
+			if (error == null) {
+				error = message;
+			}
+		}
+
+		/**
+		 * @return true if the row has not failed
+		 */
+		public boolean isValid() {
+			return error == null;
+		}
+	}
+
+	/**
+	 * Error of a single row.
+	 */
+	public static final class RowError {
+
+		private final long row;
+		private final String message;
+
+		private RowError(long row, String message) {
+			this.row = row;
+			this.message = message;
+		}
+
+		public long getRow() {
+			return row;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+	}
+
+	/**
+	 * Outcome of an import.
+	 */
+	public static final class Result {
+
+		private long total;
+		private long imported;
+		private long failed;
+		private long elapsed;
+		private final List<RowError> errors = new ArrayList<RowError>();
+
+		/**
+		 * @return number of data rows read
+		 */
+		public long getTotal() {
+			return total;
+		}
+
+		/**
+		 * @return number of rows inserted
+		 */
+		public long getImported() {
+			return imported;
+		}
+
+		/**
+		 * @return number of rows rejected
+		 */
+		public long getFailed() {
+			return failed;
+		}
+
+		/**
+		 * @return duration of the import in milliseconds
+		 */
+		public long getElapsed() {
+			return elapsed;
+		}
+
+		/**
+		 * @return row errors, at most {@code import.maxerrors}
+		 */
+		public List<RowError> getErrors() {
+			return Collections.unmodifiableList(errors);
+		}
+	}
+
+	protected CsvImport() {
+		int size = DataUtility.getInt(PropertyReader.getValue("import.chunksize"));
+		int max = DataUtility.getInt(PropertyReader.getValue("import.maxerrors"));
+		chunkSize = (size > 0) ? size : DEFAULT_CHUNK_SIZE;
+		maxErrors = (max > 0) ? max : DEFAULT_MAX_ERRORS;
+	}
+
+	/**
+	 * @return names of the CSV columns; the values handed to
+	 *         {@link #parse(String[], Line)} are in this order
+	 */
+	protected abstract String[] getColumns();
+
+	/**
+	 * @return table the records are inserted into
+	 */
+	protected abstract String getTable();
+
+	/**
+	 * @return parameterized insert statement of the table
+	 */
+	protected abstract String getInsertSql();
+
+	/**
+	 * Returns the rules every row is checked against before it is parsed; a
+	 * field with the name of each column. None by default.
+	 *
+	 * @return rules of a row, or null
+	 */
+	protected RuleSet getRules() {
+		return null;
+	}
+
+	/**
+	 * Builds the bean of a row that passed the {@link #getRules()}, and checks
+	 * what the rules do not cover. Called in parallel for the rows of a chunk,
+	 * so it must not touch shared state.
+	 *
+	 * @param values field values in the order of {@link #getColumns()}
+	 * @param line   row, to {@link Line#reject(String)} it
+	 * @return bean, or null if the row was rejected
+	 */
+	protected abstract T parse(String[] values, Line<T> line);
+
+	/**
+	 * Looks up the referenced records and duplicates of the valid rows of a
+	 * chunk with set-based queries, completes the beans and rejects rows that
+	 * cannot be inserted.
+	 *
+	 * @param lines valid rows of the chunk
+	 * @param conn  connection to read with
+	 * @throws SQLException if a lookup fails
+	 */
+	protected abstract void resolve(List<Line<T>> lines, Connection conn) throws SQLException;
+
+	/**
+	 * Binds a bean to the insert statement.
+	 *
+	 * @param pstmt statement of {@link #getInsertSql()}
+	 * @param pk    primary key of the record
+	 * @param bean  record
+	 * @throws SQLException if binding fails
+	 */
+	protected abstract void bind(PreparedStatement pstmt, long pk, T bean) throws SQLException;
+
+	/**
+	 * Called with the rows of a chunk once they are committed. Does nothing by
+	 * default.
+	 *
+	 * @param beans inserted records with their primary keys
+	 */
+	protected void inserted(List<T> beans) {
+	}
+
+	/**
+	 * Reads the CSV and inserts its valid rows.
+	 *
+	 * @param in   CSV input, closed by the caller
+	 * @param user login of the user running the import
+	 * @return counts and row errors
+	 * @throws ApplicationException if the file cannot be read, has no valid
+	 *                              header or the database is unavailable
+	 */
+	public Result load(Reader in, String user) throws ApplicationException {
+
+		LogSF.debug(log, "{} load started", getClass().getSimpleName());
+
+		long start = System.currentTimeMillis();
+		this.user = user;
+		this.rules = (getRules() == null) ? null : getRules().bind(getColumns());
+		Result result = new Result();
+
+		CsvReader reader = new CsvReader(in);
+		try {
+			int[] index = header(reader.next());
+
+			List<Line<T>> chunk = new ArrayList<Line<T>>(chunkSize);
+			String[] record;
+			while ((record = reader.next()) != null) {
+				chunk.add(new Line<T>(reader.getLineNumber(), select(record, index)));
+				if (chunk.size() == chunkSize) {
+					process(chunk, result);
+					chunk.clear();
+				}
+			}
+			if (!chunk.isEmpty()) {
+				process(chunk, result);
+			}
+		} catch (IOException e) {
+			log.error("Exception in reading import file", e);
+			throw new ApplicationException("Exception : " + e.getMessage());
+		} catch (SQLException e) {
+			log.error("Exception in import", e);
+			throw new ApplicationException("Exception : Exception in import, " + result.imported
+					+ " records were imported before the error");
+		}
+
+		result.elapsed = System.currentTimeMillis() - start;
+		LogSF.info(log, "{} imported {} of {} rows in {} ms", getClass().getSimpleName(), result.imported,
+				result.total, result.elapsed);
+		return result;
+	}
+
+	/**
+	 * Runs a lookup query on the import connection.
+	 *
+	 * @param <R>      row type
+	 * @param conn     connection
+	 * @param criteria query
+	 * @param mapper   maps a row
+	 * @return rows read
+	 * @throws SQLException if the query fails
+	 */
+	protected static <R> List<R> query(Connection conn, Criteria criteria, RowMapper<R> mapper) throws SQLException {
+		List<R> list = new ArrayList<R>();
+		try (PreparedStatement pstmt = conn.prepareStatement(criteria.getSql())) {
+			List<Object> params = criteria.getParams();
+			for (int i = 0; i < params.size(); i++) {
+				pstmt.setObject(i + 1, params.get(i));
+			}
+			try (ResultSet rs = pstmt.executeQuery()) {
+				while (rs.next()) {
+					list.add(mapper.map(rs));
+				}
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * @return login of the user running the import
+	 */
+	protected String getUser() {
+		return user;
+	}
+
+	/**
+	 * Maps the header to the position of each column.
+	 */
+	private int[] header(String[] header) throws ApplicationException {
+		if (header == null) {
+			throw new ApplicationException("File is empty");
+		}
+		String[] columns = getColumns();
+		int[] index = new int[columns.length];
+		for (int i = 0; i < columns.length; i++) {
+			index[i] = -1;
+			for (int j = 0; j < header.length; j++) {
+				if (columns[i].equalsIgnoreCase(header[j].trim())) {
+					index[i] = j;
+					break;
+				}
+			}
+			if (index[i] < 0) {
+				throw new ApplicationException("Column " + columns[i] + " is missing in the header");
+			}
+		}
+		return index;
+	}
+
+	private static String[] select(String[] record, int[] index) {
+		String[] values = new String[index.length];
+		for (int i = 0; i < index.length; i++) {
+			values[i] = (index[i] < record.length) ? record[index[i]] : "";
+		}
+		return values;
+	}
+
+	/**
+	 * Validates, resolves and inserts one chunk.
+	 */
+	private void process(List<Line<T>> chunk, Result result) throws SQLException, ApplicationException {
+
+		result.total += chunk.size();
+
+		chunk.parallelStream().forEach(line -> {
+			String error = (rules == null) ? null : rules.check(line.values);
+			if (error != null) {
+				line.reject(error);
+			} else {
+				line.bean = parse(line.values, line);
+			}
+		});
+
+		List<Line<T>> valid = valid(chunk);
+
+		Connection conn = null;
+		try {
+			conn = JDBCDataSource.getConnection();
+			if (!valid.isEmpty()) {
+				resolve(valid, conn);
+				valid = valid(valid);
+			}
+			if (!valid.isEmpty()) {
+				insert(valid, conn);
+			}
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+
+		List<T> inserted = new ArrayList<T>(valid.size());
+		for (Line<T> line : chunk) {
+			if (line.isValid()) {
+				inserted.add(line.bean);
+				result.imported++;
+			} else {
+				result.failed++;
+				if (result.errors.size() < maxErrors) {
+					result.errors.add(new RowError(line.row, line.error));
+				}
+			}
+		}
+		if (!inserted.isEmpty()) {
+			inserted(inserted);
+		}
+	}
+
+	private List<Line<T>> valid(List<Line<T>> lines) {
+		List<Line<T>> valid = new ArrayList<Line<T>>(lines.size());
+		for (Line<T> line : lines) {
+			if (line.isValid()) {
+				valid.add(line);
+			}
+		}
+		return valid;
+	}
+
+	/**
+	 * Inserts the rows with one batch in one transaction; if the batch fails,
+	 * falls back to inserting the rows one by one.
+	 */
+	private void insert(List<Line<T>> lines, Connection conn) throws SQLException, ApplicationException {
+
+		long[] keys;
+		try {
+			keys = KeyAllocatorFactory.getAllocator().nextKeys(getTable(), lines.size());
+		} catch (DatabaseException e) {
+			throw new ApplicationException(e.getMessage());
+		}
+
+		conn.setAutoCommit(false); // Begin transaction
+		try (PreparedStatement pstmt = conn.prepareStatement(getInsertSql())) {
+			for (int i = 0; i < lines.size(); i++) {
+				lines.get(i).bean.setId(keys[i]);
+				bind(pstmt, keys[i], lines.get(i).bean);
+				pstmt.addBatch();
+			}
+			pstmt.executeBatch();
+			conn.commit(); // End transaction
+			return;
+		} catch (SQLException e) {
+			conn.rollback();
+			log.warn("Batch insert into " + getTable() + " failed, inserting rows one by one : " + e.getMessage());
+		}
+
+		conn.setAutoCommit(true);
+		try (PreparedStatement pstmt = conn.prepareStatement(getInsertSql())) {
+			for (int i = 0; i < lines.size(); i++) {
+				Line<T> line = lines.get(i);
+				try {
+					line.bean.setId(keys[i]);
+					bind(pstmt, keys[i], line.bean);
+					pstmt.executeUpdate();
+				} catch (SQLException e) {
+					line.reject("Not saved : " + e.getMessage());
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package in.co.rays.proj4.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor marks a position in an id ordered result for keyset (seek)
+ * pagination.
+ *
+ * <p>
+ * A cursor points either after or before a record id. Reading the page after
+ * a cursor runs {@code where id > ? order by id limit n}, which costs the same
+ * on every page, unlike {@code limit offset, n} that reads and discards all
+ * skipped rows.
+ * </p>
+ *
+ * <p>
+ * Cursors travel through the list forms as opaque tokens created by
+ * {@link #toString()} and read back with {@link #parse(String)}.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public final class Cursor {
+
+	private final boolean after;
+	private final long id;
+
+	private Cursor(boolean after, long id) {
+		this.after = after;
+		this.id = id;
+	}
+
+	/**
+	 * Returns a cursor for the records after the given id.
+	 *
+	 * @param id last id of the current page
+	 * @return Cursor
+	 */
+	public static Cursor after(long id) {
+		return new Cursor(true, id);
+	}
+
+	/**
+	 * Returns a cursor for the records before the given id.
+	 *
+	 * @param id first id of the current page
+	 * @return Cursor
+	 */
+	public static Cursor before(long id) {
+		return new Cursor(false, id);
+	}
+
+	/**
+	 * @return true if the cursor reads forward (records after {@link #getId()})
+	 */
+	public boolean isAfter() {
+		return after;
+	}
+
+	/**
+	 * @return id the cursor points at
+	 */
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * Reads a token created by {@link #toString()}.
+	 *
+	 * @param token cursor token, may be null
+	 * @return Cursor, or null if the token is missing or invalid
+	 */
+	public static Cursor parse(String token) {
+		if (token == null || token.trim().length() == 0) {
+			return null;
+		}
+		try {
+			String value = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.US_ASCII);
+			char dir = value.charAt(0);
+			long id = Long.parseLong(value.substring(1));
+			if ((dir == 'a' || dir == 'b') && id >= 0) {
+				return new Cursor(dir == 'a', id);
+			}
+		} catch (RuntimeException e) {
+			// invalid token, start from the first page
+		}
+		return null;
+	}
+
+	/**
+	 * @return opaque, URL safe token for this cursor
+	 */
+	@Override
+	public String toString() {
+		String value = (after ? "a" : "b") + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+	}
+}
@@ -0,0 +1,222 @@
+package in.co.rays.proj4.model;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import in.co.rays.proj4.bean.TimetableBean;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.PropertyReader;
+
+/**
+ * ExamScheduler assigns an exam date and time to a set of exams so that the
+ * schedule is free of the conflicts {@link TimetableModel#checkConflicts}
+ * reports:
+ * <ul>
+ * <li>a course has at most one exam a day, including the exams already in
+ * the timetable,</li>
+ * <li>no exam is held on a Sunday,</li>
+ * <li>no exam time holds more than {@code timetable.slotcapacity} exams.</li>
+ * </ul>
+ *
+ * <p>
+ * The exams are placed greedily on the earliest free day, courses with most
+ * exams first. Several candidate schedules are built in parallel, each with
+ * its own course order and slot choice, on a copy of the
+ * {@link TimetableIndex}; the one that places most exams and ends earliest
+ * is returned.
+ * </p>
+ *
+ * <p>
+ * Supported properties:
+ * </p>
+ * <pre>
+ * timetable.slotcapacity = 50
+ * timetable.candidates = 8
+ * timetable.maxdays = 90
+ * </pre>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public class ExamScheduler {
+
+	/** Default number of exams a slot can hold */
+	public static final int DEFAULT_SLOT_CAPACITY = 50;
+
+	/** Default number of candidate schedules searched */
+	public static final int DEFAULT_CANDIDATES = 8;
+
+	/** Default number of days after the start an exam may be placed */
+	public static final int DEFAULT_MAX_DAYS = 90;
+
+	/**
+	 * Exams with their assigned date and time.
+	 */
+	public static final class Schedule {
+
+		private final List<TimetableBean> exams = new ArrayList<TimetableBean>();
+		private final List<TimetableBean> unscheduled = new ArrayList<TimetableBean>();
+		private int lastDay = -1;
+		private long dayTotal;
+
+		/**
+		 * @return scheduled exams ordered by date and time
+		 */
+		public List<TimetableBean> getExams() {
+			return exams;
+		}
+
+		/**
+		 * @return exams that did not fit within the maximum number of days
+		 */
+		public List<TimetableBean> getUnscheduled() {
+			return unscheduled;
+		}
+
+		/**
+		 * @return number of days from the start to the last exam, 0 if nothing
+		 *         was scheduled
+		 */
+		public int getDays() {
+			return lastDay + 1;
+		}
+	}
+
+	/** Better schedule first: fewer unscheduled exams, earlier end, earlier exams */
+	private static final Comparator<Schedule> BEST = Comparator
+			.comparingInt((Schedule s) -> s.unscheduled.size())
+			.thenComparingInt(s -> s.lastDay)
+			.thenComparingLong(s -> s.dayTotal);
+
+	private final int capacity;
+	private final int candidates;
+	private final int maxDays;
+
+	/**
+	 * Creates a scheduler with the configured limits.
+	 */
+	public ExamScheduler() {
+		this(DataUtility.getInt(PropertyReader.getValue("timetable.slotcapacity")),
+				DataUtility.getInt(PropertyReader.getValue("timetable.candidates")),
+				DataUtility.getInt(PropertyReader.getValue("timetable.maxdays")));
+	}
+
+	/**
+	 * Creates a scheduler with the given limits; values below 1 select the
+	 * defaults.
+	 *
+	 * @param capacity   exams a slot can hold
+	 * @param candidates candidate schedules searched
+	 * @param maxDays    days after the start an exam may be placed
+	 */
+	public ExamScheduler(int capacity, int candidates, int maxDays) {
+		this.capacity = (capacity > 0) ? capacity : DEFAULT_SLOT_CAPACITY;
+		this.candidates = (candidates > 0) ? candidates : DEFAULT_CANDIDATES;
+		this.maxDays = (maxDays > 0) ? maxDays : DEFAULT_MAX_DAYS;
+	}
+
+	/**
+	 * Schedules the exams after the slots already taken in the index. The
+	 * index and the exams are not changed; the schedule holds copies.
+	 *
+	 * @param exams exams with course, subject, semester and description set
+	 * @param taken slots already taken, from the first possible exam date
+	 * @return best schedule found
+	 */
+	public Schedule schedule(List<TimetableBean> exams, TimetableIndex taken) {
+
+		Map<Long, List<TimetableBean>> byCourse = new LinkedHashMap<Long, List<TimetableBean>>();
+		for (TimetableBean exam : exams) {
+			byCourse.computeIfAbsent(exam.getCourseId(), k -> new ArrayList<TimetableBean>()).add(exam);
+		}
+		List<List<TimetableBean>> courses = new ArrayList<List<TimetableBean>>(byCourse.values());
+		courses.sort(Comparator.comparingInt((List<TimetableBean> c) -> c.size()).reversed());
+
+		return IntStream.range(0, candidates).parallel()
+				.mapToObj(candidate -> attempt(candidate, courses, taken.copy()))
+				.min(BEST).orElseGet(Schedule::new);
+	}
+
+	/**
+	 * Builds one candidate schedule. Candidate 0 keeps the largest courses
+	 * first; the others shuffle the course order. Odd candidates use the
+	 * least loaded slot of a day, even ones the first slot with room.
+	 */
+	private Schedule attempt(int candidate, List<List<TimetableBean>> courses, TimetableIndex index) {
+
+		List<List<TimetableBean>> order = new ArrayList<List<TimetableBean>>(courses);
+		if (candidate > 0) {
+			Collections.shuffle(order, new Random(candidate));
+		}
+		boolean balance = (candidate % 2 == 1);
+
+		Schedule schedule = new Schedule();
+		for (List<TimetableBean> course : order) {
+			int day = 0;
+			for (TimetableBean exam : course) {
+				int slot = -1;
+				for (; day < maxDays; day++) {
+					if (index.isExamDay(day) && index.isCourseFree(exam.getCourseId(), day)) {
+						slot = slot(index, day, balance);
+						if (slot >= 0) {
+							break;
+						}
+					}
+				}
+				if (slot < 0) {
+					schedule.unscheduled.add(exam);
+					continue;
+				}
+				index.add(exam.getCourseId(), day, slot);
+				schedule.exams.add(copy(exam, index, day, slot));
+				schedule.lastDay = Math.max(schedule.lastDay, day);
+				schedule.dayTotal += day;
+				day++;
+			}
+		}
+
+		List<String> times = Arrays.asList(TimetableIndex.EXAM_TIMES);
+		schedule.exams.sort(Comparator.comparing(TimetableBean::getExamDate)
+				.thenComparingInt(e -> times.indexOf(e.getExamTime()))
+				.thenComparingLong(TimetableBean::getCourseId));
+		return schedule;
+	}
+
+	/**
+	 * Slot of the day with room left, -1 if the day is full.
+	 */
+	private int slot(TimetableIndex index, int day, boolean balance) {
+		int best = -1;
+		for (int slot = 0; slot < TimetableIndex.EXAM_TIMES.length; slot++) {
+			int load = index.getLoad(day, slot);
+			if (load < capacity && (best < 0 || (balance && load < index.getLoad(day, best)))) {
+				best = slot;
+				if (!balance) {
+					break;
+				}
+			}
+		}
+		return best;
+	}
+
+	private static TimetableBean copy(TimetableBean exam, TimetableIndex index, int day, int slot) {
+		TimetableBean bean = new TimetableBean();
+		bean.setCourseId(exam.getCourseId());
+		bean.setCourseName(exam.getCourseName());
+		bean.setSubjectId(exam.getSubjectId());
+		bean.setSubjectName(exam.getSubjectName());
+		bean.setSemester(exam.getSemester());
+		bean.setDescription(exam.getDescription());
+		bean.setExamDate(Date.valueOf(index.dateOf(day)));
+		bean.setExamTime(TimetableIndex.EXAM_TIMES[slot]);
+		return bean;
+	}
+}
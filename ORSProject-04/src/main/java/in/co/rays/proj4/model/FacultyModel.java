@@ -1,12 +1,16 @@
 
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.log4j.LogSF;
 import org.apache.log4j.Logger;
 
 import in.co.rays.proj4.bean.CollegeBean;
@@ -17,6 +21,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.KeyAllocatorFactory;
 
 /**
  * FacultyModel manages all CRUD operations for the st_faculty table.
@@ -37,28 +42,7 @@ public class FacultyModel {
      * @throws DatabaseException when database error occurs
      */
     public Integer nextPk() throws DatabaseException {
-
-        log.debug("FacultyModel nextPk started");
-
-        Connection conn = null;
-        int pk = 0;
-        try {
-            conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt = conn.prepareStatement("select max(id) from st_faculty");
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) pk = rs.getInt(1);
-            rs.close();
-            pstmt.close();
-
-            log.debug("Next PK generated : " + (pk + 1));
-
-        } catch (Exception e) {
-            log.error("Exception in getting PK", e);
-            throw new DatabaseException("Exception : Exception in getting PK");
-        } finally {
-            JDBCDataSource.closeConnection(conn);
-        }
-        return pk + 1;
+        return (int) KeyAllocatorFactory.getAllocator().nextKey("st_faculty");
     }
 
     /**
@@ -121,7 +105,7 @@ public class FacultyModel {
             conn.commit();
             pstmt.close();
 
-            log.info("Faculty added successfully, PK = " + pk);
+            LogSF.info(log, "Faculty added successfully, PK = {}", pk);
 
         } catch (Exception e) {
             try { conn.rollback(); }
@@ -146,7 +130,7 @@ public class FacultyModel {
      */
     public void update(FacultyBean bean) throws ApplicationException, DuplicateRecordException {
 
-        log.debug("FacultyModel update started for ID : " + bean.getId());
+        LogSF.debug(log, "FacultyModel update started for ID : {}", bean.getId());
 
         Connection conn = null;
 
@@ -191,7 +175,7 @@ public class FacultyModel {
             conn.commit();
             pstmt.close();
 
-            log.info("Faculty updated successfully, ID = " + bean.getId());
+            LogSF.info(log, "Faculty updated successfully, ID = {}", bean.getId());
 
         } catch (Exception e) {
             try { conn.rollback(); }
@@ -214,7 +198,7 @@ public class FacultyModel {
      */
     public void delete(FacultyBean bean) throws ApplicationException {
 
-        log.debug("FacultyModel delete started for ID : " + bean.getId());
+        LogSF.debug(log, "FacultyModel delete started for ID : {}", bean.getId());
 
         Connection conn = null;
 
@@ -229,7 +213,7 @@ public class FacultyModel {
             conn.commit();
             pstmt.close();
 
-            log.info("Faculty deleted successfully, ID = " + bean.getId());
+            LogSF.info(log, "Faculty deleted successfully, ID = {}", bean.getId());
 
         } catch (Exception e) {
             try { conn.rollback(); }
@@ -244,6 +228,49 @@ public class FacultyModel {
         }
     }
 
+    /**
+     * Deletes the facultys of the given ids with a single statement per
+     * {@link BulkDelete#CHUNK_SIZE} ids, in one transaction.
+     *
+     * @param ids primary keys of the records to delete
+     * @return number of deleted records
+     * @throws ApplicationException if the delete fails; nothing is deleted then
+     */
+    public int deleteAll(long[] ids) throws ApplicationException {
+
+        LogSF.debug(log, "FacultyModel deleteAll started, count = {}", ids.length);
+
+        try {
+            int count = BulkDelete.deleteAll("st_faculty", ids);
+            LogSF.info(log, "{} Faculty records deleted", count);
+            return count;
+        } catch (SQLException e) {
+            log.error("Exception in delete Faculty", e);
+            throw new ApplicationException("Exception : Exception in delete Faculty");
+        }
+    }
+
+    /**
+     * Writes the facultys matching the search filters to CSV, streaming them
+     * from the database without loading the whole list.
+     *
+     * @param bean search filters, null for all records
+     * @param out  CSV output
+     * @return number of records written
+     * @throws ApplicationException if the export fails
+     */
+    public long export(FacultyBean bean, Writer out) throws ApplicationException {
+
+        log.debug("FacultyModel export started");
+
+        try {
+            return CsvExport.write(criteria(bean), out);
+        } catch (SQLException | IOException e) {
+            log.error("Exception in export Faculty", e);
+            throw new ApplicationException("Exception : Exception in export Faculty");
+        }
+    }
+
     /**
      * Fetches Faculty by primary key.
      *
@@ -253,14 +280,14 @@ public class FacultyModel {
      */
     public FacultyBean findByPk(long pk) throws ApplicationException {
 
-        log.debug("FacultyModel findByPk started, PK = " + pk);
+        LogSF.debug(log, "FacultyModel findByPk started, PK = {}", pk);
 
         StringBuffer sql = new StringBuffer("select * from st_faculty where id = ?");
         FacultyBean bean = null;
         Connection conn = null;
 
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setLong(1, pk);
 
@@ -307,7 +334,7 @@ public class FacultyModel {
      */
     public FacultyBean findByEmail(String email) throws ApplicationException {
 
-        log.debug("FacultyModel findByEmail started, Email = " + email);
+        LogSF.debug(log, "FacultyModel findByEmail started, Email = {}", email);
 
         StringBuffer sql = new StringBuffer("select * from st_faculty where email = ?");
         FacultyBean bean = null;
@@ -374,90 +401,99 @@ public class FacultyModel {
      */
     public List<FacultyBean> search(FacultyBean bean, int pageNo, int pageSize)
             throws ApplicationException {
+        return searchPage(bean, pageNo, pageSize).getList();
+    }
 
-        log.debug("FacultyModel search started");
-
-        StringBuffer sql = new StringBuffer("select * from st_faculty where 1=1");
-
-        if (bean != null) {
-            if (bean.getId() > 0) sql.append(" and id = " + bean.getId());
-            if (bean.getCollegeId() > 0) sql.append(" and college_id = " + bean.getCollegeId());
-            if (bean.getSubjectId() > 0) sql.append(" and subject_id = " + bean.getSubjectId());
-            if (bean.getCourseId() > 0) sql.append(" and course_id = " + bean.getCourseId());
-
-            if (bean.getFirstName() != null && bean.getFirstName().length() > 0)
-                sql.append(" and first_name like '" + bean.getFirstName() + "%'");
-
-            if (bean.getLastName() != null && bean.getLastName().length() > 0)
-                sql.append(" and last_name like '" + bean.getLastName() + "%'");
-
-            if (bean.getGender() != null && bean.getGender().length() > 0)
-                sql.append(" and gender like '" + bean.getGender() + "%'");
-
-            if (bean.getDob() != null && bean.getDob().getDate() > 0)
-                sql.append(" and dob = " + bean.getDob());
-
-            if (bean.getEmail() != null && bean.getEmail().length() > 0)
-                sql.append(" and email like '" + bean.getEmail() + "%'");
-
-            if (bean.getMobileNo() != null && bean.getMobileNo().length() > 0)
-                sql.append(" and mobile_no = " + bean.getMobileNo());
-
-            if (bean.getCourseName() != null && bean.getCourseName().length() > 0)
-                sql.append(" and course_name like '" + bean.getCourseName() + "%'");
-
-            if (bean.getCollegeName() != null && bean.getCollegeName().length() > 0)
-                sql.append(" and college_name like '" + bean.getCollegeName() + "%'");
-
-            if (bean.getSubjectName() != null && bean.getSubjectName().length() > 0)
-                sql.append(" and subject_name like '" + bean.getSubjectName() + "%'");
-        }
-
-        if (pageSize > 0) {
-            pageNo = (pageNo - 1) * pageSize;
-            sql.append(" limit " + pageNo + ", " + pageSize);
+    /**
+     * Searches faculty records a page at a time. A single query reads one
+     * record more than the page size to find out whether a next page exists.
+     *
+     * @param bean     filter criteria (nullable)
+     * @param pageNo   page number, starting at 1
+     * @param pageSize number of records per page, 0 for all records
+     * @return page of matching FacultyBean
+     * @throws ApplicationException for general DB errors
+     */
+    public Page<FacultyBean> searchPage(FacultyBean bean, int pageNo, int pageSize) throws ApplicationException {
+        try {
+            return Pagination.offset(criteria(bean), pageNo, pageSize, this::populate);
+        } catch (Exception e) {
+            log.error("Exception in search Faculty", e);
+            throw new ApplicationException("Exception : Exception in search Faculty");
         }
+    }
 
-        ArrayList<FacultyBean> list = new ArrayList<>();
-        Connection conn = null;
-
+    /**
+     * Searches faculty records with keyset (seek) pagination ordered by id.
+     * Every page costs the same as the first one, however deep the user pages.
+     *
+     * @param bean     filter criteria (nullable)
+     * @param cursor   position to read from, null for the first page
+     * @param pageSize number of records per page
+     * @return page of matching FacultyBean
+     * @throws ApplicationException for general DB errors
+     */
+    public Page<FacultyBean> search(FacultyBean bean, Cursor cursor, int pageSize) throws ApplicationException {
         try {
-            conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql.toString());
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                bean = new FacultyBean();
-                bean.setId(rs.getLong(1));
-                bean.setFirstName(rs.getString(2));
-                bean.setLastName(rs.getString(3));
-                bean.setDob(rs.getDate(4));
-                bean.setGender(rs.getString(5));
-                bean.setMobileNo(rs.getString(6));
-                bean.setEmail(rs.getString(7));
-                bean.setCollegeId(rs.getLong(8));
-                bean.setCollegeName(rs.getString(9));
-                bean.setCourseId(rs.getLong(10));
-                bean.setCourseName(rs.getString(11));
-                bean.setSubjectId(rs.getLong(12));
-                bean.setSubjectName(rs.getString(13));
-                bean.setCreatedBy(rs.getString(14));
-                bean.setModifiedBy(rs.getString(15));
-                bean.setCreatedDatetime(rs.getTimestamp(16));
-                bean.setModifiedDatetime(rs.getTimestamp(17));
-
-                list.add(bean);
-            }
-
-            rs.close();
-            pstmt.close();
-
+            return Pagination.seek(criteria(bean), cursor, pageSize, this::populate);
         } catch (Exception e) {
             log.error("Exception in search Faculty", e);
             throw new ApplicationException("Exception : Exception in search Faculty");
-        } finally {
-            JDBCDataSource.closeConnection(conn);
         }
-        return list;
+    }
+
+    /**
+     * Builds the parameterized st_faculty search with the filters set in the bean.
+     *
+     * @param bean filter criteria (nullable)
+     * @return Criteria
+     */
+    private Criteria criteria(FacultyBean bean) {
+        Criteria c = Criteria.from("st_faculty");
+        if (bean != null) {
+            c.eq("id", bean.getId());
+            c.eq("college_id", bean.getCollegeId());
+            c.eq("subject_id", bean.getSubjectId());
+            c.eq("course_id", bean.getCourseId());
+            c.startsWith("first_name", bean.getFirstName());
+            c.startsWith("last_name", bean.getLastName());
+            c.startsWith("gender", bean.getGender());
+            c.eq("dob", bean.getDob());
+            c.startsWith("email", bean.getEmail());
+            c.eq("mobile_no", bean.getMobileNo());
+            c.startsWith("course_name", bean.getCourseName());
+            c.startsWith("college_name", bean.getCollegeName());
+            c.startsWith("subject_name", bean.getSubjectName());
+        }
+        return c;
+    }
+
+    /**
+     * Maps the current row of st_faculty to a FacultyBean.
+     *
+     * @param rs ResultSet positioned on a row
+     * @return populated bean
+     * @throws SQLException if a column cannot be read
+     */
+    FacultyBean populate(ResultSet rs) throws SQLException {
+        FacultyBean bean = new FacultyBean();
+        bean.setId(rs.getLong(1));
+        bean.setFirstName(rs.getString(2));
+        bean.setLastName(rs.getString(3));
+        bean.setDob(rs.getDate(4));
+        bean.setGender(rs.getString(5));
+        bean.setMobileNo(rs.getString(6));
+        bean.setEmail(rs.getString(7));
+        bean.setCollegeId(rs.getLong(8));
+        bean.setCollegeName(rs.getString(9));
+        bean.setCourseId(rs.getLong(10));
+        bean.setCourseName(rs.getString(11));
+        bean.setSubjectId(rs.getLong(12));
+        bean.setSubjectName(rs.getString(13));
+        bean.setCreatedBy(rs.getString(14));
+        bean.setModifiedBy(rs.getString(15));
+        bean.setCreatedDatetime(rs.getTimestamp(16));
+        bean.setModifiedDatetime(rs.getTimestamp(17));
+        return bean;
     }
 }
@@ -0,0 +1,459 @@
+package in.co.rays.proj4.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.LogSF;
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.PropertyReader;
+
+/**
+ * MarksheetAnalytics computes result statistics over {@code st_marksheet}:
+ * per subject mean, standard deviation, median and percentiles, pass rate,
+ * grade distribution and a histogram of the marks.
+ *
+ * <p>
+ * The table is split into id ranges that are scanned in parallel, each on its
+ * own read connection with a streaming result set, so no marksheet is kept in
+ * memory. Every range fills a {@link Stats} per subject: primitive counters
+ * plus one count per possible mark. As marks are whole numbers from 0 to 100,
+ * the counts are an exact, mergeable quantile sketch of fixed size; the
+ * ranges are merged by adding them up.
+ * </p>
+ *
+ * <p>
+ * Supported properties:
+ * </p>
+ * <pre>
+ * analytics.chunks = 4
+ * </pre>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public class MarksheetAnalytics {
+
+	private static Logger log = Logger.getLogger(MarksheetAnalytics.class);
+
+	/** Default number of id ranges scanned in parallel */
+	public static final int DEFAULT_CHUNKS = 4;
+
+	/** Highest marks of a subject */
+	public static final int MAX_MARKS = 100;
+
+	/** Subjects in the order of the st_marksheet columns */
+	public static final String[] SUBJECTS = { "physics", "chemistry", "maths" };
+
+	/** Grades with their lowest marks, as on the marksheet */
+	public static final String[] GRADES = { "A+", "A", "B+", "C+", "C", "D", "F" };
+	private static final int[] GRADE_MIN = { 91, 81, 71, 61, 51, 33, 0 };
+
+	/** Percentiles reported for every subject */
+	private static final int[] PERCENTILES = { 10, 25, 50, 75, 90, 99 };
+
+	/** Fetch size that makes MySQL Connector/J stream the result set */
+	private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+	/**
+	 * Distribution of whole number values from 0 to a maximum. Values outside
+	 * the range are counted at the nearest end.
+	 */
+	public static final class Stats {
+
+		private final long[] counts;
+		private final int bucketWidth;
+		private final boolean graded;
+		private long count;
+		private long sum;
+		private long sumOfSquares;
+		private long passed;
+
+		private Stats(int max, int bucketWidth, boolean graded) {
+			this.counts = new long[max + 1];
+			this.bucketWidth = bucketWidth;
+			this.graded = graded;
+		}
+
+		private void add(int value, boolean pass) {
+			int v = Math.max(0, Math.min(value, counts.length - 1));
+			counts[v]++;
+			count++;
+			sum += v;
+			sumOfSquares += (long) v * v;
+			if (pass) {
+				passed++;
+			}
+		}
+
+		private void merge(Stats other) {
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] += other.counts[i];
+			}
+			count += other.count;
+			sum += other.sum;
+			sumOfSquares += other.sumOfSquares;
+			passed += other.passed;
+		}
+
+		/**
+		 * @return number of values
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * @return number of passing values
+		 */
+		public long getPassed() {
+			return passed;
+		}
+
+		/**
+		 * @return passing values in percent, 0 if there are none
+		 */
+		public double getPassRate() {
+			return (count == 0) ? 0 : 100.0 * passed / count;
+		}
+
+		/**
+		 * @return mean, 0 if there are no values
+		 */
+		public double getMean() {
+			return (count == 0) ? 0 : (double) sum / count;
+		}
+
+		/**
+		 * @return population standard deviation, 0 if there are no values
+		 */
+		public double getStdDev() {
+			if (count == 0) {
+				return 0;
+			}
+			double mean = getMean();
+			return Math.sqrt(Math.max(0, (double) sumOfSquares / count - mean * mean));
+		}
+
+		/**
+		 * @return lowest value, 0 if there are no values
+		 */
+		public int getMin() {
+			for (int i = 0; i < counts.length; i++) {
+				if (counts[i] > 0) {
+					return i;
+				}
+			}
+			return 0;
+		}
+
+		/**
+		 * @return highest value, 0 if there are no values
+		 */
+		public int getMax() {
+			for (int i = counts.length - 1; i >= 0; i--) {
+				if (counts[i] > 0) {
+					return i;
+				}
+			}
+			return 0;
+		}
+
+		/**
+		 * @return median
+		 */
+		public int getMedian() {
+			return getPercentile(50);
+		}
+
+		/**
+		 * Returns a percentile by the nearest rank method.
+		 *
+		 * @param p percentile from 0 to 100
+		 * @return smallest value with at least p percent of the values at or
+		 *         below it, 0 if there are no values
+		 */
+		public int getPercentile(double p) {
+			if (count == 0) {
+				return 0;
+			}
+			long rank = Math.max(1, (long) Math.ceil(p / 100 * count));
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank) {
+					return i;
+				}
+			}
+			return counts.length - 1;
+		}
+
+		/**
+		 * @return number of values per grade of {@link MarksheetAnalytics#GRADES}
+		 */
+		public long[] getGrades() {
+			long[] grades = new long[GRADES.length];
+			for (int i = 0; i < counts.length; i++) {
+				int g = 0;
+				while (i < GRADE_MIN[g]) {
+					g++;
+				}
+				grades[g] += counts[i];
+			}
+			return grades;
+		}
+
+		/**
+		 * Returns the histogram. Bucket {@code i} counts the values from
+		 * {@code i * width} to {@code (i + 1) * width - 1}; the maximum is
+		 * counted in the last bucket.
+		 *
+		 * @return number of values per bucket
+		 */
+		public long[] getHistogram() {
+			int max = counts.length - 1;
+			long[] buckets = new long[Math.max(1, (max + bucketWidth - 1) / bucketWidth)];
+			for (int i = 0; i < counts.length; i++) {
+				buckets[Math.min(i / bucketWidth, buckets.length - 1)] += counts[i];
+			}
+			return buckets;
+		}
+
+		/**
+		 * @return width of a histogram bucket
+		 */
+		public int getBucketWidth() {
+			return bucketWidth;
+		}
+
+		/**
+		 * @return statistics as a map for JSON
+		 */
+		public Map<String, Object> toMap() {
+			Map<String, Object> map = new LinkedHashMap<String, Object>();
+			map.put("count", count);
+			map.put("passed", passed);
+			map.put("passRate", getPassRate());
+			map.put("mean", getMean());
+			map.put("stdDev", getStdDev());
+			map.put("min", getMin());
+			map.put("max", getMax());
+			map.put("median", getMedian());
+			Map<String, Object> percentiles = new LinkedHashMap<String, Object>();
+			for (int p : PERCENTILES) {
+				percentiles.put("p" + p, getPercentile(p));
+			}
+			map.put("percentiles", percentiles);
+			if (graded) {
+				Map<String, Object> grades = new LinkedHashMap<String, Object>();
+				long[] g = getGrades();
+				for (int i = 0; i < GRADES.length; i++) {
+					grades.put(GRADES[i], g[i]);
+				}
+				map.put("grades", grades);
+			}
+			map.put("bucketWidth", bucketWidth);
+			map.put("histogram", getHistogram());
+			return map;
+		}
+	}
+
+	/**
+	 * Statistics of all subjects and of the total marks.
+	 */
+	public static final class Report {
+
+		private final Stats[] subjects = new Stats[SUBJECTS.length];
+		private final Stats total = new Stats(MAX_MARKS * SUBJECTS.length, 30, false);
+		private long elapsed;
+
+		private Report() {
+			for (int i = 0; i < subjects.length; i++) {
+				subjects[i] = new Stats(MAX_MARKS, 10, true);
+			}
+		}
+
+		private void add(int[] marks) {
+			boolean all = true;
+			int sum = 0;
+			for (int i = 0; i < subjects.length; i++) {
+				boolean pass = marks[i] > MeritRanking.PASS_MARKS;
+				subjects[i].add(marks[i], pass);
+				all &= pass;
+				sum += marks[i];
+			}
+			total.add(sum, all);
+		}
+
+		private void merge(Report other) {
+			for (int i = 0; i < subjects.length; i++) {
+				subjects[i].merge(other.subjects[i]);
+			}
+			total.merge(other.total);
+		}
+
+		/**
+		 * @param subject index in {@link MarksheetAnalytics#SUBJECTS}
+		 * @return statistics of the subject
+		 */
+		public Stats getSubject(int subject) {
+			return subjects[subject];
+		}
+
+		/**
+		 * Statistics of the total marks; a marksheet passes if it passes every
+		 * subject.
+		 *
+		 * @return statistics of the total
+		 */
+		public Stats getTotal() {
+			return total;
+		}
+
+		/**
+		 * @return time taken to compute the report in milliseconds
+		 */
+		public long getElapsed() {
+			return elapsed;
+		}
+
+		/**
+		 * @return report as a map for JSON
+		 */
+		public Map<String, Object> toMap() {
+			Map<String, Object> map = new LinkedHashMap<String, Object>();
+			map.put("marksheets", total.getCount());
+			map.put("passed", total.getPassed());
+			map.put("passRate", total.getPassRate());
+			for (int i = 0; i < SUBJECTS.length; i++) {
+				map.put(SUBJECTS[i], subjects[i].toMap());
+			}
+			map.put("total", total.toMap());
+			map.put("elapsedMillis", elapsed);
+			return map;
+		}
+	}
+
+	private final int chunks;
+
+	/**
+	 * Creates the service with the configured number of parallel scans.
+	 */
+	public MarksheetAnalytics() {
+		int n = DataUtility.getInt(PropertyReader.getValue("analytics.chunks"));
+		chunks = (n > 0) ? n : DEFAULT_CHUNKS;
+	}
+
+	/**
+	 * Computes the statistics of all marksheets.
+	 *
+	 * @return report
+	 * @throws ApplicationException if the marksheets cannot be read
+	 */
+	public Report analyze() throws ApplicationException {
+
+		log.debug("MarksheetAnalytics analyze started");
+
+		long start = System.currentTimeMillis();
+		Report report = new Report();
+
+		ExecutorService executor = null;
+		try {
+			long[] range = idRange();
+			if (range[1] >= range[0]) {
+				long width = (range[1] - range[0]) / chunks + 1;
+				List<Callable<Report>> scans = new ArrayList<Callable<Report>>();
+				for (long from = range[0]; from <= range[1]; from += width) {
+					long first = from;
+					long last = Math.min(from + width - 1, range[1]);
+					scans.add(() -> scan(first, last));
+				}
+				executor = Executors.newFixedThreadPool(scans.size());
+				for (Future<Report> part : executor.invokeAll(scans)) {
+					report.merge(part.get());
+				}
+			}
+		} catch (SQLException | ExecutionException e) {
+			log.error("Exception in marksheet analytics", e);
+			throw new ApplicationException("Exception in getting marksheet analytics");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ApplicationException("Exception in getting marksheet analytics");
+		} finally {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+		}
+
+		report.elapsed = System.currentTimeMillis() - start;
+		LogSF.info(log, "Marksheet analytics of {} records in {} ms", report.total.getCount(), report.elapsed);
+		return report;
+	}
+
+	/**
+	 * @return lowest and highest id of st_marksheet; the highest is lower than
+	 *         the lowest if the table is empty
+	 */
+	private long[] idRange() throws SQLException {
+		long[] range = { 1, 0 };
+		Connection conn = null;
+		try {
+			conn = JDBCDataSource.getReadConnection();
+			PreparedStatement pstmt = conn.prepareStatement("select min(id), max(id) from st_marksheet");
+			ResultSet rs = pstmt.executeQuery();
+			if (rs.next() && rs.getObject(1) != null) {
+				range[0] = rs.getLong(1);
+				range[1] = rs.getLong(2);
+			}
+			rs.close();
+			pstmt.close();
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+		return range;
+	}
+
+	/**
+	 * Streams the marks of an id range into a partial report.
+	 */
+	private Report scan(long from, long to) throws SQLException {
+		Report report = new Report();
+		int[] marks = new int[SUBJECTS.length];
+		Connection conn = null;
+		try {
+			conn = JDBCDataSource.getReadConnection();
+			PreparedStatement pstmt = conn.prepareStatement(
+					"select physics, chemistry, maths from st_marksheet where id between ? and ?",
+					ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			pstmt.setFetchSize(STREAMING_FETCH_SIZE);
+			pstmt.setLong(1, from);
+			pstmt.setLong(2, to);
+			ResultSet rs = pstmt.executeQuery();
+			while (rs.next()) {
+				marks[0] = rs.getInt(1);
+				marks[1] = rs.getInt(2);
+				marks[2] = rs.getInt(3);
+				report.add(marks);
+			}
+			rs.close();
+			pstmt.close();
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+		return report;
+	}
+}
@@ -0,0 +1,141 @@
+package in.co.rays.proj4.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import in.co.rays.proj4.bean.MarksheetBean;
+import in.co.rays.proj4.bean.StudentBean;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.FormRules;
+import in.co.rays.proj4.util.RuleSet;
+
+/**
+ * MarksheetImport loads marksheets from a CSV file into {@code st_marksheet}.
+ *
+ * <p>
+ * Expected columns:
+ * </p>
+ * <pre>
+ * rollNo,studentId,physics,chemistry,maths
+ * AB101,12,78,65,90
+ * </pre>
+ *
+ * <p>
+ * Rows are checked with the rules of the marksheet form,
+ * {@link FormRules#MARKSHEET}. The student names of a chunk are read with
+ * one query, and roll numbers that already exist in the table or earlier in
+ * the file are rejected.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ * @see CsvImport
+ */
+public class MarksheetImport extends CsvImport<MarksheetBean> {
+
+	private static final String[] COLUMNS = { "rollNo", "studentId", "physics", "chemistry", "maths" };
+
+	/** Roll numbers seen so far in the file, upper case */
+	private final Set<String> rollNos = new HashSet<String>();
+
+	@Override
+	protected String[] getColumns() {
+		return COLUMNS;
+	}
+
+	@Override
+	protected String getTable() {
+		return "st_marksheet";
+	}
+
+	@Override
+	protected String getInsertSql() {
+		return MarksheetModel.INSERT_SQL;
+	}
+
+	@Override
+	protected RuleSet getRules() {
+		return FormRules.MARKSHEET;
+	}
+
+	@Override
+	protected MarksheetBean parse(String[] values, Line<MarksheetBean> line) {
+		MarksheetBean bean = new MarksheetBean();
+		bean.setRollNo(values[0]);
+		bean.setStudentId(DataUtility.getLong(values[1]));
+		bean.setPhysics(DataUtility.getInt(values[2]));
+		bean.setChemistry(DataUtility.getInt(values[3]));
+		bean.setMaths(DataUtility.getInt(values[4]));
+		bean.setCreatedBy(getUser());
+		bean.setModifiedBy(getUser());
+		bean.setCreatedDatetime(DataUtility.getCurrentTimestamp());
+		bean.setModifiedDatetime(bean.getCreatedDatetime());
+		return bean;
+	}
+
+	@Override
+	protected void resolve(List<Line<MarksheetBean>> lines, Connection conn) throws SQLException {
+
+		Set<Long> studentIds = new HashSet<Long>();
+		List<String> chunkRollNos = new ArrayList<String>();
+		for (Line<MarksheetBean> line : lines) {
+			studentIds.add(line.getBean().getStudentId());
+			chunkRollNos.add(line.getBean().getRollNo());
+		}
+
+		Map<Long, String> names = new HashMap<Long, String>();
+		for (StudentBean student : query(conn, Criteria.from("st_student").in("id", studentIds), rs -> {
+			StudentBean s = new StudentBean();
+			s.setId(rs.getLong("id"));
+			s.setFirstName(rs.getString("first_name"));
+			s.setLastName(rs.getString("last_name"));
+			return s;
+		})) {
+			names.put(student.getId(), student.getFirstName() + " " + student.getLastName());
+		}
+
+		Set<String> existing = new HashSet<String>(
+				query(conn, Criteria.from("st_marksheet").in("roll_no", chunkRollNos), rs -> rs.getString("roll_no").toUpperCase()));
+
+		for (Line<MarksheetBean> line : lines) {
+			MarksheetBean bean = line.getBean();
+			String name = names.get(bean.getStudentId());
+			if (name == null) {
+				line.reject("Student " + bean.getStudentId() + " does not exist");
+			} else if (existing.contains(bean.getRollNo().toUpperCase()) || !rollNos.add(bean.getRollNo().toUpperCase())) {
+				line.reject("Roll Number already exists");
+			} else {
+				bean.setName(name);
+			}
+		}
+	}
+
+	@Override
+	protected void bind(PreparedStatement pstmt, long pk, MarksheetBean bean) throws SQLException {
+		pstmt.setLong(1, pk);
+		pstmt.setString(2, bean.getRollNo());
+		pstmt.setLong(3, bean.getStudentId());
+		pstmt.setString(4, bean.getName());
+		pstmt.setInt(5, bean.getPhysics());
+		pstmt.setInt(6, bean.getChemistry());
+		pstmt.setInt(7, bean.getMaths());
+		pstmt.setString(8, bean.getCreatedBy());
+		pstmt.setString(9, bean.getModifiedBy());
+		pstmt.setTimestamp(10, bean.getCreatedDatetime());
+		pstmt.setTimestamp(11, bean.getModifiedDatetime());
+	}
+
+	@Override
+	protected void inserted(List<MarksheetBean> beans) {
+		for (MarksheetBean bean : beans) {
+			MeritRanking.getInstance().put(bean);
+		}
+	}
+}
@@ -1,11 +1,15 @@
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.log4j.LogSF;
 import org.apache.log4j.Logger;
 
 import in.co.rays.proj4.bean.MarksheetBean;
@@ -14,6 +18,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.KeyAllocatorFactory;
 
 /**
  * MarksheetModel provides CRUD and search operations for {@link MarksheetBean}
@@ -25,10 +30,22 @@ import in.co.rays.proj4.util.JDBCDataSource;
  * Responsibilities: - generate next primary key - add / update / delete
  * marksheet records - find marksheet by PK or roll number - search and list
  * marksheets with optional pagination - get merit list ordered by total marks
+ * - keep the in-memory {@link MeritRanking} current after every write
  *
- * Note: SQL uses simple string-building for filters (consistent with the rest
- * of the project). Care should be taken if inputs can contain special
- * characters � ideally use parameterized queries for filters.
+ * Search filters are bound as statement parameters through {@link Criteria}.
+ *
+ * <p>
+ * The merit list is read from the stored {@code total} and {@code passed}
+ * columns through an index, instead of computing and sorting the total of
+ * every row on each request. MySQL keeps both columns up to date in the same
+ * statement (and transaction) as every insert and update:
+ * </p>
+ * <pre>
+ * alter table st_marksheet
+ *     add column total  int as (physics + chemistry + maths) stored,
+ *     add column passed tinyint(1) as (physics &gt; 33 and chemistry &gt; 33 and maths &gt; 33) stored,
+ *     add index idx_marksheet_merit (passed, total desc, id);
+ * </pre>
  *
  * @author Lucky
  * @version 1.0
@@ -37,6 +54,10 @@ public class MarksheetModel {
 
 	private static Logger log = Logger.getLogger(MarksheetModel.class);
 
+	/** Insert with a column list, the generated merit columns are left to MySQL */
+	static final String INSERT_SQL = "insert into st_marksheet (id, roll_no, student_id, name, physics, chemistry, maths,"
+			+ " created_by, modified_by, created_datetime, modified_datetime) values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
 	/**
 	 * Returns the next primary key value for the st_marksheet table.
 	 *
@@ -47,30 +68,12 @@ public class MarksheetModel {
 	public Integer nextPk() throws DatabaseException {
 
 		log.debug("MarksheetModel nextPk started");
-		int pk = 0;
-		Connection conn = null;
-
-		try {
-			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement("select max(id) from st_marksheet");
-			ResultSet rs = pstmt.executeQuery();
 
-			while (rs.next()) {
-				pk = rs.getInt(1);
-			}
-			rs.close();
-			pstmt.close();
-
-			log.debug("Next PK generated : " + (pk + 1));
-
-		} catch (Exception e) {
-			throw new DatabaseException("Exception : Exception in getting PK");
-		} finally {
-			JDBCDataSource.closeConnection(conn);
-		}
+		long pk = KeyAllocatorFactory.getAllocator().nextKey("st_marksheet");
 
-		return pk + 1;
+		LogSF.debug(log, "Next PK generated : {}", pk);
 
+		return (int) pk;
 	}
 
 	/**
@@ -106,7 +109,7 @@ public class MarksheetModel {
 			pk = nextPk();
 			conn.setAutoCommit(false); // Begin transaction
 			PreparedStatement pstmt = conn
-					.prepareStatement("insert into st_marksheet values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+					.prepareStatement(INSERT_SQL);
 			pstmt.setInt(1, pk);
 			pstmt.setString(2, bean.getRollNo());
 			pstmt.setLong(3, bean.getStudentId());
@@ -122,7 +125,10 @@ public class MarksheetModel {
 			conn.commit(); // End transaction
 			pstmt.close();
 
-			log.info("Marksheet added successfully, PK = " + pk);
+			bean.setId(pk);
+			MeritRanking.getInstance().put(bean);
+
+			LogSF.info(log, "Marksheet added successfully, PK = {}", pk);
 		} catch (Exception e) {
 			e.printStackTrace();
 			try {
@@ -149,7 +155,7 @@ public class MarksheetModel {
 	 */
 	public void update(MarksheetBean bean) throws ApplicationException, DuplicateRecordException {
 
-		log.debug("MarksheetModel update started, ID = " + bean.getId());
+		LogSF.debug(log, "MarksheetModel update started, ID = {}", bean.getId());
 
 		Connection conn = null;
 
@@ -185,7 +191,9 @@ public class MarksheetModel {
 			conn.commit(); // End transaction
 			pstmt.close();
 
-			log.info("Marksheet updated successfully, ID = " + bean.getId());
+			MeritRanking.getInstance().put(bean);
+
+			LogSF.info(log, "Marksheet updated successfully, ID = {}", bean.getId());
 
 		} catch (Exception e) {
 			try {
@@ -209,7 +217,7 @@ public class MarksheetModel {
 	 */
 	public void delete(MarksheetBean bean) throws ApplicationException {
 
-		log.debug("MarksheetModel delete started, ID = " + bean.getId());
+		LogSF.debug(log, "MarksheetModel delete started, ID = {}", bean.getId());
 
 		Connection conn = null;
 
@@ -223,7 +231,9 @@ public class MarksheetModel {
 			conn.commit(); // End transaction
 			pstmt.close();
 
-			log.info("Marksheet deleted successfully, ID = " + bean.getId());
+			MeritRanking.getInstance().remove(bean.getId());
+
+			LogSF.info(log, "Marksheet deleted successfully, ID = {}", bean.getId());
 
 		} catch (Exception e) {
 			try {
@@ -239,6 +249,52 @@ public class MarksheetModel {
 		}
 	}
 
+	/**
+	 * Deletes the marksheets of the given ids with a single statement per
+	 * {@link BulkDelete#CHUNK_SIZE} ids, in one transaction.
+	 *
+	 * @param ids primary keys of the records to delete
+	 * @return number of deleted records
+	 * @throws ApplicationException if the delete fails; nothing is deleted then
+	 */
+	public int deleteAll(long[] ids) throws ApplicationException {
+
+		LogSF.debug(log, "MarksheetModel deleteAll started, count = {}", ids.length);
+
+		try {
+			int count = BulkDelete.deleteAll("st_marksheet", ids);
+			for (long id : ids) {
+				MeritRanking.getInstance().remove(id);
+			}
+			LogSF.info(log, "{} Marksheet records deleted", count);
+			return count;
+		} catch (SQLException e) {
+			log.error("Exception in delete marksheet", e);
+			throw new ApplicationException("Exception in delete marksheet");
+		}
+	}
+
+	/**
+	 * Writes the marksheets matching the search filters to CSV, streaming them
+	 * from the database without loading the whole list.
+	 *
+	 * @param bean search filters, null for all records
+	 * @param out  CSV output
+	 * @return number of records written
+	 * @throws ApplicationException if the export fails
+	 */
+	public long export(MarksheetBean bean, Writer out) throws ApplicationException {
+
+		log.debug("MarksheetModel export started");
+
+		try {
+			return CsvExport.write(criteria(bean), out);
+		} catch (SQLException | IOException e) {
+			log.error("Exception in export Marksheet", e);
+			throw new ApplicationException("Exception in export Marksheet");
+		}
+	}
+
 	/**
 	 * Finds a marksheet by primary key.
 	 *
@@ -248,14 +304,14 @@ public class MarksheetModel {
 	 */
 	public MarksheetBean findByPk(long pk) throws ApplicationException {
 
-		log.debug("MarksheetModel findByPk started, PK = " + pk);
+		LogSF.debug(log, "MarksheetModel findByPk started, PK = {}", pk);
 
 		StringBuffer sql = new StringBuffer("select * from st_marksheet where id = ?");
 		MarksheetBean bean = null;
 		Connection conn = null;
 
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection();
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
 			pstmt.setLong(1, pk);
 			ResultSet rs = pstmt.executeQuery();
@@ -293,7 +349,7 @@ public class MarksheetModel {
 	 */
 	public MarksheetBean findByRollNo(String rollNo) throws ApplicationException {
 
-		log.debug("MarksheetModel findByRollNo started, RollNo = " + rollNo);
+		LogSF.debug(log, "MarksheetModel findByRollNo started, RollNo = {}", rollNo);
 
 		StringBuffer sql = new StringBuffer("select * from st_marksheet where roll_no = ?");
 		MarksheetBean bean = null;
@@ -342,71 +398,99 @@ public class MarksheetModel {
 	 * @throws ApplicationException for general DB errors
 	 */
 	public List<MarksheetBean> search(MarksheetBean bean, int pageNo, int pageSize) throws ApplicationException {
+		return searchPage(bean, pageNo, pageSize).getList();
+	}
 
-		log.debug("MarksheetModel search started");
-
-		StringBuffer sql = new StringBuffer("select * from st_marksheet where 1=1");
-
-		if (bean != null) {
-			if (bean.getId() > 0) {
-				sql.append(" and id = " + bean.getId());
-			}
-			if (bean.getRollNo() != null && bean.getRollNo().length() > 0) {
-				sql.append(" and roll_no like '" + bean.getRollNo() + "%'");
-			}
-			if (bean.getName() != null && bean.getName().length() > 0) {
-				sql.append(" and name like '" + bean.getName() + "%'");
-			}
-			if (bean.getPhysics() != 0 && bean.getPhysics() > 0) {
-				sql.append(" and physics = " + bean.getPhysics());
-			}
-			if (bean.getChemistry() != 0 && bean.getChemistry() > 0) {
-				sql.append(" and chemistry = " + bean.getChemistry());
-			}
-			if (bean.getMaths() != 0 && bean.getMaths() > 0) {
-				sql.append(" and maths = '" + bean.getMaths());
-			}
-		}
-
-		if (pageSize > 0) {
-			pageNo = (pageNo - 1) * pageSize;
-			sql.append(" limit " + pageNo + ", " + pageSize);
+	/**
+	 * Searches marksheet records a page at a time. A single query reads one
+	 * record more than the page size to find out whether a next page exists.
+	 *
+	 * @param bean     filter criteria (nullable)
+	 * @param pageNo   page number, starting at 1
+	 * @param pageSize number of records per page, 0 for all records
+	 * @return page of matching MarksheetBean
+	 * @throws ApplicationException for general DB errors
+	 */
+	public Page<MarksheetBean> searchPage(MarksheetBean bean, int pageNo, int pageSize) throws ApplicationException {
+		try {
+			return Pagination.offset(criteria(bean), pageNo, pageSize, this::populate);
+		} catch (Exception e) {
+			log.error("Exception in search Marksheet", e);
+			throw new ApplicationException("Update rollback exception " + e.getMessage());
 		}
+	}
 
-		ArrayList<MarksheetBean> list = new ArrayList<MarksheetBean>();
-		Connection conn = null;
+	/**
+	 * Searches marksheet records with keyset (seek) pagination ordered by id.
+	 * Every page costs the same as the first one, however deep the user pages.
+	 *
+	 * @param bean     filter criteria (nullable)
+	 * @param cursor   position to read from, null for the first page
+	 * @param pageSize number of records per page
+	 * @return page of matching MarksheetBean
+	 * @throws ApplicationException for general DB errors
+	 */
+	public Page<MarksheetBean> search(MarksheetBean bean, Cursor cursor, int pageSize) throws ApplicationException {
 		try {
-			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				bean = new MarksheetBean();
-				bean.setId(rs.getLong(1));
-				bean.setRollNo(rs.getString(2));
-				bean.setStudentId(rs.getLong(3));
-				bean.setName(rs.getString(4));
-				bean.setPhysics(rs.getInt(5));
-				bean.setChemistry(rs.getInt(6));
-				bean.setMaths(rs.getInt(7));
-				bean.setCreatedBy(rs.getString(8));
-				bean.setModifiedBy(rs.getString(9));
-				bean.setCreatedDatetime(rs.getTimestamp(10));
-				bean.setModifiedDatetime(rs.getTimestamp(11));
-				list.add(bean);
-			}
-			rs.close();
+			return Pagination.seek(criteria(bean), cursor, pageSize, this::populate);
 		} catch (Exception e) {
 			log.error("Exception in search Marksheet", e);
-			throw new ApplicationException("Update rollback exception " + e.getMessage());
-		} finally {
-			JDBCDataSource.closeConnection(conn);
+			throw new ApplicationException("Exception : Exception in search Marksheet");
 		}
-		return list;
+	}
+
+	/**
+	 * Builds the parameterized st_marksheet search with the filters set in the bean.
+	 *
+	 * @param bean filter criteria (nullable)
+	 * @return Criteria
+	 */
+	private Criteria criteria(MarksheetBean bean) {
+		Criteria c = Criteria.from("st_marksheet");
+		if (bean != null) {
+			c.eq("id", bean.getId());
+			c.startsWith("roll_no", bean.getRollNo());
+			c.startsWith("name", bean.getName());
+			c.eq("physics", bean.getPhysics());
+			c.eq("chemistry", bean.getChemistry());
+			c.eq("maths", bean.getMaths());
+		}
+		return c;
+	}
+
+	/**
+	 * Maps the current row of st_marksheet to a MarksheetBean.
+	 *
+	 * @param rs ResultSet positioned on a row
+	 * @return populated bean
+	 * @throws SQLException if a column cannot be read
+	 */
+	MarksheetBean populate(ResultSet rs) throws SQLException {
+		MarksheetBean bean = new MarksheetBean();
+		bean.setId(rs.getLong(1));
+		bean.setRollNo(rs.getString(2));
+		bean.setStudentId(rs.getLong(3));
+		bean.setName(rs.getString(4));
+		bean.setPhysics(rs.getInt(5));
+		bean.setChemistry(rs.getInt(6));
+		bean.setMaths(rs.getInt(7));
+		bean.setCreatedBy(rs.getString(8));
+		bean.setModifiedBy(rs.getString(9));
+		bean.setCreatedDatetime(rs.getTimestamp(10));
+		bean.setModifiedDatetime(rs.getTimestamp(11));
+		return bean;
 	}
 
 	/**
 	 * Returns merit list: students who passed all subjects (marks &gt; 33) ordered
-	 * by total marks desc. Supports pagination.
+	 * by total marks desc, with their rank. Equal totals share a rank (1, 2, 2,
+	 * 4). Supports pagination.
+	 *
+	 * <p>
+	 * Rows are read from the {@code idx_marksheet_merit} index in order, so
+	 * only the requested page is touched; the rank of the first row of a later
+	 * page is one index range count.
+	 * </p>
 	 *
 	 * @param pageNo   page number (1-based) if using pagination
 	 * @param pageSize page size; pass 0 to disable pagination
@@ -419,18 +503,23 @@ public class MarksheetModel {
 
 		ArrayList<MarksheetBean> list = new ArrayList<MarksheetBean>();
 		StringBuffer sql = new StringBuffer(
-				"select id, roll_no, name, physics, chemistry, maths, (physics + chemistry + maths) as total from st_marksheet where physics > 33 and chemistry > 33 and maths > 33 order by total desc");
+				"select id, roll_no, name, physics, chemistry, maths, total from st_marksheet where passed = 1 order by total desc, id asc");
 
+		int offset = 0;
 		if (pageSize > 0) {
-			pageNo = (pageNo - 1) * pageSize;
-			sql.append(" limit " + pageNo + ", " + pageSize);
+			offset = (pageNo - 1) * pageSize;
+			sql.append(" limit ?, ?");
 		}
 
 		Connection conn = null;
 
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection();
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
+			if (pageSize > 0) {
+				pstmt.setInt(1, offset);
+				pstmt.setInt(2, pageSize);
+			}
 			ResultSet rs = pstmt.executeQuery();
 			while (rs.next()) {
 				MarksheetBean bean = new MarksheetBean();
@@ -444,6 +533,17 @@ public class MarksheetModel {
 			}
 			rs.close();
 			pstmt.close();
+
+			for (int i = 0; i < list.size(); i++) {
+				MarksheetBean bean = list.get(i);
+				if (i > 0 && bean.getTotal() == list.get(i - 1).getTotal()) {
+					bean.setRank(list.get(i - 1).getRank());
+				} else if (i > 0 || offset == 0) {
+					bean.setRank(offset + i + 1);
+				} else {
+					bean.setRank(countAbove(conn, bean.getTotal()) + 1);
+				}
+			}
 		} catch (Exception e) {
 			log.error("Exception in getting merit list of Marksheet", e);
 			throw new ApplicationException("Exception in getting merit list of Marksheet");
@@ -453,4 +553,20 @@ public class MarksheetModel {
 		return list;
 	}
 
+	/**
+	 * Counts the passed marksheets with a higher total.
+	 */
+	private int countAbove(Connection conn, int total) throws SQLException {
+		int count = 0;
+		PreparedStatement pstmt = conn.prepareStatement("select count(*) from st_marksheet where passed = 1 and total > ?");
+		pstmt.setInt(1, total);
+		ResultSet rs = pstmt.executeQuery();
+		if (rs.next()) {
+			count = rs.getInt(1);
+		}
+		rs.close();
+		pstmt.close();
+		return count;
+	}
+
 }
@@ -0,0 +1,516 @@
+package in.co.rays.proj4.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.log4j.LogSF;
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.bean.MarksheetBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.PropertyReader;
+
+/**
+ * MeritRanking keeps the merit list of passed marksheets in memory, so the
+ * merit list pages and the rank of a student are answered without a query.
+ *
+ * <p>
+ * The marksheets are held in an order statistics tree (a treap whose nodes
+ * count their subtree) keyed by a single <code>long</code> made of the total,
+ * descending, and the id. Top N, a page of the merit list and the rank of a
+ * roll number are found in O(log n); equal totals share a rank (1, 2, 2, 4),
+ * as in {@link MarksheetModel#getMeritList(int, int)}.
+ * </p>
+ *
+ * <p>
+ * The tree is loaded from {@code st_marksheet} on startup and kept current by
+ * {@link MarksheetModel} and {@link MarksheetImport} after each committed
+ * write. Writes made by other application instances are picked up when the
+ * tree is reloaded in the background, every {@code merit.reloadseconds}
+ * after {@link #start()}. A reload builds a new tree without blocking the
+ * readers and swaps it in when it is complete:
+ * </p>
+ * <pre>
+ * merit.reloadseconds = 600
+ * </pre>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public final class MeritRanking {
+
+	private static Logger log = Logger.getLogger(MeritRanking.class);
+
+	/** Default interval between reloads from the database, in seconds */
+	public static final long DEFAULT_RELOAD_SECONDS = 600;
+
+	/** Passing marks of every subject, as in the {@code passed} column */
+	public static final int PASS_MARKS = 33;
+
+	/**
+	 * Ranked marksheet. Immutable, copied to a new bean for every caller.
+	 */
+	private static final class Entry {
+		private final long id;
+		private final String rollNo;
+		private final String name;
+		private final int physics;
+		private final int chemistry;
+		private final int maths;
+
+		private Entry(MarksheetBean bean) {
+			this.id = bean.getId();
+			this.rollNo = bean.getRollNo();
+			this.name = bean.getName();
+			this.physics = bean.getPhysics();
+			this.chemistry = bean.getChemistry();
+			this.maths = bean.getMaths();
+		}
+
+		private int total() {
+			return physics + chemistry + maths;
+		}
+
+		private MarksheetBean toBean(int rank) {
+			MarksheetBean bean = new MarksheetBean();
+			bean.setId(id);
+			bean.setRollNo(rollNo);
+			bean.setName(name);
+			bean.setPhysics(physics);
+			bean.setChemistry(chemistry);
+			bean.setMaths(maths);
+			bean.setRank(rank);
+			return bean;
+		}
+	}
+
+	/**
+	 * Tree node; {@code size} is the number of nodes of its subtree.
+	 */
+	private static final class Node {
+		private final long key;
+		private final int priority;
+		private final Entry entry;
+		private int size = 1;
+		private Node left;
+		private Node right;
+
+		private Node(long key, int priority, Entry entry) {
+			this.key = key;
+			this.priority = priority;
+			this.entry = entry;
+		}
+	}
+
+	/**
+	 * Merit order of a set of marksheets. Mutated only under the lock of the
+	 * ranking, except while a reload builds a new one.
+	 */
+	private static final class Tree {
+		private Node root;
+		private final Map<Long, Node> byId = new HashMap<Long, Node>();
+		private final Map<String, Long> byRollNo = new HashMap<String, Long>();
+		private final SplittableRandom random = new SplittableRandom();
+
+		/**
+		 * Replaces the marksheet with the given id; a null entry removes it.
+		 */
+		private void put(long id, Entry entry) {
+			remove(id);
+			if (entry != null) {
+				insert(entry);
+			}
+		}
+
+		private void insert(Entry entry) {
+			long key = key(entry.total(), entry.id);
+			Node node = new Node(key, random.nextInt(), entry);
+			Node[] parts = split(root, key);
+			root = merge(merge(parts[0], node), parts[1]);
+			byId.put(entry.id, node);
+			byRollNo.put(normalize(entry.rollNo), entry.id);
+		}
+
+		private void remove(long id) {
+			Node node = byId.remove(id);
+			if (node == null) {
+				return;
+			}
+			byRollNo.remove(normalize(node.entry.rollNo));
+			Node[] parts = split(root, node.key);
+			Node[] rest = split(parts[1], node.key + 1);
+			root = merge(parts[0], rest[1]);
+		}
+
+		/**
+		 * Competition rank of a total: one more than the number of higher
+		 * totals.
+		 */
+		private int rank(int total) {
+			return countLess(key(total, 0)) + 1;
+		}
+
+		/**
+		 * Number of nodes with a key lower than the given one.
+		 */
+		private int countLess(long key) {
+			int count = 0;
+			Node node = root;
+			while (node != null) {
+				if (node.key < key) {
+					count += size(node.left) + 1;
+					node = node.right;
+				} else {
+					node = node.left;
+				}
+			}
+			return count;
+		}
+
+		/**
+		 * Entry at a position of the merit order, starting at 0.
+		 */
+		private Entry select(int index) {
+			Node node = root;
+			while (true) {
+				int left = size(node.left);
+				if (index < left) {
+					node = node.left;
+				} else if (index == left) {
+					return node.entry;
+				} else {
+					index -= left + 1;
+					node = node.right;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Lazy holder, initialized on first use by the class loader.
+	 */
+	private static final class Holder {
+		private static final MeritRanking INSTANCE = new MeritRanking();
+	}
+
+	private final long reloadInterval;
+
+	/** Current ranking, null until the first load; replaced and mutated under this */
+	private volatile Tree tree;
+
+	/** Writes made while a reload builds its tree, guarded by this */
+	private List<Consumer<Tree>> pending;
+
+	/** Held by the running reload, so only one tree is built at a time */
+	private final Object reloadLock = new Object();
+
+	private ScheduledExecutorService reloader;
+
+	private MeritRanking() {
+		long seconds = DataUtility.getLong(PropertyReader.getValue("merit.reloadseconds"));
+		reloadInterval = ((seconds > 0) ? seconds : DEFAULT_RELOAD_SECONDS) * 1000;
+	}
+
+	/**
+	 * @return shared MeritRanking instance
+	 */
+	public static MeritRanking getInstance() {
+		return Holder.INSTANCE;
+	}
+
+	/**
+	 * Starts reloading the ranking in the background every
+	 * {@code merit.reloadseconds}.
+	 */
+	public synchronized void start() {
+		if (reloader != null) {
+			return;
+		}
+		reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "merit-reload");
+			t.setDaemon(true);
+			return t;
+		});
+		reloader.scheduleWithFixedDelay(() -> {
+			try {
+				reload();
+			} catch (Exception e) {
+				log.error("Merit ranking reload failed", e);
+			}
+		}, reloadInterval, reloadInterval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the background reloads.
+	 */
+	public synchronized void stop() {
+		if (reloader != null) {
+			reloader.shutdownNow();
+			reloader = null;
+		}
+	}
+
+	/**
+	 * Returns the best marksheets.
+	 *
+	 * @param n number of marksheets
+	 * @return up to n marksheets in merit order, with their rank
+	 * @throws ApplicationException if the ranking cannot be loaded
+	 */
+	public List<MarksheetBean> top(int n) throws ApplicationException {
+		return page(1, n);
+	}
+
+	/**
+	 * Returns a page of the merit list.
+	 *
+	 * @param pageNo   page number, starting at 1
+	 * @param pageSize number of marksheets per page, 0 for all
+	 * @return marksheets of the page in merit order, with their rank
+	 * @throws ApplicationException if the ranking cannot be loaded
+	 */
+	public List<MarksheetBean> page(int pageNo, int pageSize) throws ApplicationException {
+
+		ensureLoaded();
+
+		synchronized (this) {
+			int size = size(tree.root);
+			int from = (pageSize > 0) ? Math.max(pageNo - 1, 0) * pageSize : 0;
+			int to = (pageSize > 0) ? Math.min(from + pageSize, size) : size;
+
+			List<MarksheetBean> list = new ArrayList<MarksheetBean>(Math.max(to - from, 0));
+			Entry previous = null;
+			int rank = 0;
+			for (int i = from; i < to; i++) {
+				Entry entry = tree.select(i);
+				if (previous == null) {
+					rank = tree.rank(entry.total());
+				} else if (entry.total() != previous.total()) {
+					rank = i + 1;
+				}
+				list.add(entry.toBean(rank));
+				previous = entry;
+			}
+			return list;
+		}
+	}
+
+	/**
+	 * Returns the merit rank of a roll number.
+	 *
+	 * @param rollNo roll number
+	 * @return rank starting at 1, or 0 if the marksheet is not on the merit
+	 *         list
+	 * @throws ApplicationException if the ranking cannot be loaded
+	 */
+	public int rankOf(String rollNo) throws ApplicationException {
+
+		ensureLoaded();
+
+		synchronized (this) {
+			Long id = (rollNo == null) ? null : tree.byRollNo.get(rollNo.trim().toUpperCase());
+			if (id == null) {
+				return 0;
+			}
+			return tree.rank(tree.byId.get(id).entry.total());
+		}
+	}
+
+	/**
+	 * @return number of marksheets on the merit list
+	 * @throws ApplicationException if the ranking cannot be loaded
+	 */
+	public int size() throws ApplicationException {
+		ensureLoaded();
+		synchronized (this) {
+			return size(tree.root);
+		}
+	}
+
+	/**
+	 * Adds or replaces a marksheet after a committed insert or update. A
+	 * marksheet that does not pass is removed from the merit list.
+	 *
+	 * @param bean saved marksheet with its id
+	 */
+	public synchronized void put(MarksheetBean bean) {
+		long id = bean.getId();
+		Entry entry = (bean.getPhysics() > PASS_MARKS && bean.getChemistry() > PASS_MARKS
+				&& bean.getMaths() > PASS_MARKS) ? new Entry(bean) : null;
+		apply(t -> t.put(id, entry));
+	}
+
+	/**
+	 * Removes a marksheet after a committed delete.
+	 *
+	 * @param id primary key of the marksheet
+	 */
+	public synchronized void remove(long id) {
+		apply(t -> t.remove(id));
+	}
+
+	/**
+	 * Applies a write to the current tree, and records it for the tree being
+	 * built by a running reload, which may have read the row before the write.
+	 */
+	private void apply(Consumer<Tree> write) {
+		if (tree != null) {
+			write.accept(tree);
+		}
+		if (pending != null) {
+			pending.add(write);
+		}
+	}
+
+	/**
+	 * Reloads all passed marksheets from the database. The primary is read, as
+	 * a replica may not have the marksheets just added or changed yet.
+	 *
+	 * <p>
+	 * The new tree is built without holding the lock of the ranking, so
+	 * readers keep using the current tree until it is swapped in. Writes made
+	 * meanwhile are replayed on the new tree before the swap. If the load
+	 * fails, the current tree is kept.
+	 * </p>
+	 *
+	 * @throws ApplicationException if the marksheets cannot be read
+	 */
+	public void reload() throws ApplicationException {
+
+		synchronized (reloadLock) {
+			log.debug("MeritRanking reload started");
+
+			long start = System.currentTimeMillis();
+			synchronized (this) {
+				pending = new ArrayList<Consumer<Tree>>();
+			}
+			Tree fresh = new Tree();
+			Connection conn = null;
+			try {
+				conn = JDBCDataSource.getConnection();
+				PreparedStatement pstmt = conn.prepareStatement(
+						"select id, roll_no, name, physics, chemistry, maths from st_marksheet where passed = 1");
+				ResultSet rs = pstmt.executeQuery();
+				while (rs.next()) {
+					MarksheetBean bean = new MarksheetBean();
+					bean.setId(rs.getLong(1));
+					bean.setRollNo(rs.getString(2));
+					bean.setName(rs.getString(3));
+					bean.setPhysics(rs.getInt(4));
+					bean.setChemistry(rs.getInt(5));
+					bean.setMaths(rs.getInt(6));
+					fresh.insert(new Entry(bean));
+				}
+				rs.close();
+				pstmt.close();
+			} catch (SQLException e) {
+				synchronized (this) {
+					pending = null;
+				}
+				log.error("Exception in loading merit ranking", e);
+				throw new ApplicationException("Exception in getting merit list of Marksheet");
+			} finally {
+				JDBCDataSource.closeConnection(conn);
+			}
+
+			synchronized (this) {
+				for (Consumer<Tree> write : pending) {
+					write.accept(fresh);
+				}
+				pending = null;
+				tree = fresh;
+			}
+
+			LogSF.info(log, "Merit ranking loaded, {} marksheets in {} ms", fresh.byId.size(),
+					System.currentTimeMillis() - start);
+		}
+	}
+
+	/**
+	 * Loads the ranking on first use, if the startup load failed.
+	 */
+	private void ensureLoaded() throws ApplicationException {
+		if (tree == null) {
+			synchronized (reloadLock) {
+				if (tree == null) {
+					reload();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sort key: higher totals first, then lower ids.
+	 */
+	private static long key(int total, long id) {
+		return ((long) (Integer.MAX_VALUE - total) << 32) | id;
+	}
+
+	private static String normalize(String rollNo) {
+		return (rollNo == null) ? "" : rollNo.trim().toUpperCase();
+	}
+
+	private static int size(Node node) {
+		return (node == null) ? 0 : node.size;
+	}
+
+	private static void update(Node node) {
+		node.size = 1 + size(node.left) + size(node.right);
+	}
+
+	/**
+	 * Splits a tree into the nodes with a key lower than the given one and the
+	 * rest.
+	 */
+	private static Node[] split(Node node, long key) {
+		if (node == null) {
+			return new Node[2];
+		}
+		Node[] parts;
+		if (node.key < key) {
+			parts = split(node.right, key);
+			node.right = parts[0];
+			parts[0] = node;
+		} else {
+			parts = split(node.left, key);
+			node.left = parts[1];
+			parts[1] = node;
+		}
+		update(node);
+		return parts;
+	}
+
+	/**
+	 * Joins two trees where every key of the first is lower than the keys of
+	 * the second.
+	 */
+	private static Node merge(Node a, Node b) {
+		if (a == null) {
+			return b;
+		}
+		if (b == null) {
+			return a;
+		}
+		if (a.priority > b.priority) {
+			a.right = merge(a.right, b);
+			update(a);
+			return a;
+		}
+		b.left = merge(a, b.left);
+		update(b);
+		return b;
+	}
+}
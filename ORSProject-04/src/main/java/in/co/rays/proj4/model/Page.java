@@ -0,0 +1,76 @@
+package in.co.rays.proj4.model;
+
+import java.util.List;
+
+import in.co.rays.proj4.bean.BaseBean;
+
+/**
+ * Page holds one page of a search result together with the information the
+ * list screens need for their Next / Previous buttons.
+ *
+ * @param <T> bean type
+ * @author Lucky
+ * @version 1.0
+ */
+public class Page<T extends BaseBean> {
+
+	private final List<T> list;
+	private final int pageSize;
+	private final boolean hasNext;
+	private final boolean hasPrevious;
+
+	/**
+	 * @param list        records of the page
+	 * @param pageSize    requested page size
+	 * @param hasNext     whether a following page exists
+	 * @param hasPrevious whether a preceding page exists
+	 */
+	public Page(List<T> list, int pageSize, boolean hasNext, boolean hasPrevious) {
+		this.list = list;
+		this.pageSize = pageSize;
+		this.hasNext = hasNext;
+		this.hasPrevious = hasPrevious;
+	}
+
+	/**
+	 * @return records of the page
+	 */
+	public List<T> getList() {
+		return list;
+	}
+
+	/**
+	 * @return requested page size
+	 */
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * @return true if a following page exists
+	 */
+	public boolean hasNext() {
+		return hasNext;
+	}
+
+	/**
+	 * @return true if a preceding page exists
+	 */
+	public boolean hasPrevious() {
+		return hasPrevious;
+	}
+
+	/**
+	 * @return cursor of the following page, null if there is none
+	 */
+	public Cursor getNextCursor() {
+		return (hasNext && !list.isEmpty()) ? Cursor.after(list.get(list.size() - 1).getId()) : null;
+	}
+
+	/**
+	 * @return cursor of the preceding page, null if there is none
+	 */
+	public Cursor getPreviousCursor() {
+		return (hasPrevious && !list.isEmpty()) ? Cursor.before(list.get(0).getId()) : null;
+	}
+}
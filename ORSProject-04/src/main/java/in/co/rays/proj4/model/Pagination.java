@@ -0,0 +1,151 @@
+package in.co.rays.proj4.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import in.co.rays.proj4.bean.BaseBean;
+import in.co.rays.proj4.util.JDBCDataSource;
+
+/**
+ * Pagination runs the paged searches shared by all models.
+ *
+ * <p>
+ * Every query reads one row more than the page size; that extra row only
+ * tells whether another page exists and is not returned.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public final class Pagination {
+
+	private Pagination() {
+	}
+
+	/**
+	 * Reads the page at the cursor with keyset (seek) pagination, ordered by
+	 * id. The cost does not grow with the page number.
+	 *
+	 * @param <T>      bean type
+	 * @param criteria search filters
+	 * @param cursor   position to read from, null for the first page
+	 * @param pageSize number of records per page (&gt; 0)
+	 * @param mapper   maps a row to a bean
+	 * @return page of records
+	 * @throws SQLException if the query fails
+	 */
+	public static <T extends BaseBean> Page<T> seek(Criteria criteria, Cursor cursor, int pageSize,
+			RowMapper<T> mapper) throws SQLException {
+
+		boolean forward = (cursor == null || cursor.isAfter());
+
+		StringBuilder query = new StringBuilder(criteria.getSql());
+		List<Object> params = new ArrayList<Object>(criteria.getParams());
+		if (cursor != null) {
+			query.append(forward ? " and id > ?" : " and id < ?");
+			params.add(cursor.getId());
+		}
+		query.append(forward ? " order by id asc" : " order by id desc");
+		query.append(" limit ?");
+		params.add(pageSize + 1);
+
+		List<T> list = read(query.toString(), params, mapper, false);
+
+		boolean more = list.size() > pageSize;
+		if (more) {
+			list.remove(pageSize);
+		}
+
+		if (forward) {
+			return new Page<T>(list, pageSize, more, cursor != null);
+		}
+		Collections.reverse(list);
+		return new Page<T>(list, pageSize, true, more);
+	}
+
+	/**
+	 * Reads page {@code pageNo} with {@code limit offset, n}. One query reads
+	 * {@code pageSize + 1} rows, so the caller learns whether a next page
+	 * exists without a second query. A page size of 0 reads all records.
+	 *
+	 * @param <T>      bean type
+	 * @param criteria search filters
+	 * @param pageNo   page number, starting at 1
+	 * @param pageSize number of records per page, 0 for all records
+	 * @param mapper   maps a row to a bean
+	 * @return page of records
+	 * @throws SQLException if the query fails
+	 */
+	public static <T extends BaseBean> Page<T> offset(Criteria criteria, int pageNo, int pageSize,
+			RowMapper<T> mapper) throws SQLException {
+
+		if (pageSize <= 0) {
+			return new Page<T>(read(criteria.getSql(), criteria.getParams(), mapper, false), pageSize, false,
+					false);
+		}
+
+		pageNo = (pageNo < 1) ? 1 : pageNo;
+		List<Object> params = new ArrayList<Object>(criteria.getParams());
+		params.add((long) (pageNo - 1) * pageSize);
+		params.add(pageSize + 1);
+		List<T> list = read(criteria.getSql() + " limit ?, ?", params, mapper, false);
+
+		boolean more = list.size() > pageSize;
+		if (more) {
+			list.remove(pageSize);
+		}
+		return new Page<T>(list, pageSize, more, pageNo > 1);
+	}
+
+	/**
+	 * Reads all records from the primary. Used to load the lists of the
+	 * {@link ReferenceDataCache}: a reload right after a write must not cache
+	 * a replica that has not caught up yet.
+	 *
+	 * @param <T>      bean type
+	 * @param criteria search filters
+	 * @param mapper   maps a row to a bean
+	 * @return all matching records
+	 * @throws SQLException if the query fails
+	 */
+	public static <T extends BaseBean> List<T> all(Criteria criteria, RowMapper<T> mapper) throws SQLException {
+		return read(criteria.getSql(), criteria.getParams(), mapper, true);
+	}
+
+	/**
+	 * Runs a query and maps all rows.
+	 *
+	 * @param query   SQL with positional parameters
+	 * @param params  parameter values, in order
+	 * @param mapper  maps a row to a bean
+	 * @param primary true to read from the primary, false from the read connection
+	 * @return mapped rows
+	 * @throws SQLException if the query fails
+	 */
+	private static <T> List<T> read(String query, List<Object> params, RowMapper<T> mapper, boolean primary)
+			throws SQLException {
+		List<T> list = new ArrayList<T>();
+		Connection conn = null;
+		try {
+			conn = primary ? JDBCDataSource.getConnection() : JDBCDataSource.getReadConnection();
+			PreparedStatement pstmt = conn.prepareStatement(query);
+			for (int i = 0; i < params.size(); i++) {
+				pstmt.setObject(i + 1, params.get(i));
+			}
+			ResultSet rs = pstmt.executeQuery();
+			while (rs.next()) {
+				list.add(mapper.map(rs));
+			}
+			rs.close();
+			pstmt.close();
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+		return list;
+	}
+}
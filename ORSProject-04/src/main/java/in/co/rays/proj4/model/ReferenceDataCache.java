@@ -0,0 +1,249 @@
+package in.co.rays.proj4.model;
+
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.log4j.LogSF;
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.PropertyReader;
+
+/**
+ * ReferenceDataCache keeps the small, rarely changing lists used by the
+ * drop-downs of the forms (colleges, courses, subjects and roles) in memory.
+ *
+ * <p>
+ * Lists are cached per table as immutable {@link Snapshot}s. A snapshot is
+ * dropped when its TTL expires or when {@link #invalidate(String)} is called
+ * after a committed add / update / delete on the table. The TTL also bounds how stale
+ * the lists of other application instances can get. At most
+ * {@code maxEntries} lists are kept; the least recently used one is evicted
+ * first.
+ * </p>
+ *
+ * <p>
+ * Supported properties:
+ * </p>
+ * <pre>
+ * cache.refdata.ttlseconds = 300
+ * cache.refdata.maxentries = 32
+ * </pre>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public final class ReferenceDataCache {
+
+	private static Logger log = Logger.getLogger(ReferenceDataCache.class);
+
+	/** Default time to live of a list, in seconds */
+	public static final long DEFAULT_TTL_SECONDS = 300;
+
+	/** Default maximum number of cached lists */
+	public static final int DEFAULT_MAX_ENTRIES = 32;
+
+	/**
+	 * Loads a list on a cache miss.
+	 *
+	 * @param <T> bean type
+	 */
+	@FunctionalInterface
+	public interface Loader<T> {
+
+		/**
+		 * @return fresh list from the database
+		 * @throws ApplicationException if the list cannot be read
+		 */
+		public List<T> load() throws ApplicationException;
+	}
+
+	/**
+	 * Immutable list handed out by the cache. Every load gets a new, unique
+	 * version, so renderers can cache output per version (see
+	 * {@code HTMLUtility}).
+	 *
+	 * @param <T> bean type
+	 */
+	public static final class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+
+		private static final AtomicLong VERSIONS = new AtomicLong();
+
+		private final Object[] items;
+		private final long version;
+
+		private Snapshot(List<T> list) {
+			this.items = list.toArray();
+			this.version = VERSIONS.incrementAndGet();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public T get(int index) {
+			return (T) items[index];
+		}
+
+		@Override
+		public int size() {
+			return items.length;
+		}
+
+		/**
+		 * @return unique version of this snapshot
+		 */
+		public long getVersion() {
+			return version;
+		}
+	}
+
+	/**
+	 * Cached snapshot with its expiry time.
+	 */
+	private static final class Entry {
+		private final Snapshot<?> list;
+		private final long expires;
+
+		private Entry(Snapshot<?> list, long expires) {
+			this.list = list;
+			this.expires = expires;
+		}
+	}
+
+	/**
+	 * Lazy holder, initialized on first use by the class loader.
+	 */
+	private static final class Holder {
+		private static final ReferenceDataCache INSTANCE = new ReferenceDataCache();
+	}
+
+	private final long ttl;
+	private final int maxEntries;
+
+	/** LRU ordered snapshots, guarded by this */
+	private final LinkedHashMap<String, Entry> entries;
+
+	/** Bumped on every invalidation so loads racing a write are not cached */
+	private final Map<String, AtomicLong> generations = new ConcurrentHashMap<String, AtomicLong>();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	private ReferenceDataCache() {
+		long ttlSeconds = DataUtility.getLong(PropertyReader.getValue("cache.refdata.ttlseconds"));
+		int max = DataUtility.getInt(PropertyReader.getValue("cache.refdata.maxentries"));
+
+		ttl = ((ttlSeconds > 0) ? ttlSeconds : DEFAULT_TTL_SECONDS) * 1000;
+		maxEntries = (max > 0) ? max : DEFAULT_MAX_ENTRIES;
+		entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() > maxEntries) {
+					evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * @return shared ReferenceDataCache instance
+	 */
+	public static ReferenceDataCache getInstance() {
+		return Holder.INSTANCE;
+	}
+
+	/**
+	 * Returns the cached list of a table, loading it on a miss.
+	 *
+	 * @param <T>    bean type
+	 * @param table  table the list is read from, used as the cache key
+	 * @param loader reads the list on a miss
+	 * @return immutable {@link Snapshot} of the list
+	 * @throws ApplicationException if the loader fails
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> List<T> get(String table, Loader<T> loader) throws ApplicationException {
+
+		long now = System.currentTimeMillis();
+
+		synchronized (this) {
+			Entry entry = entries.get(table);
+			if (entry != null && entry.expires > now) {
+				hits.increment();
+				return (List<T>) entry.list;
+			}
+		}
+
+		misses.increment();
+		long generation = generation(table).get();
+		Snapshot<T> list = new Snapshot<T>(loader.load());
+
+		synchronized (this) {
+			if (generation(table).get() == generation) {
+				entries.put(table, new Entry(list, now + ttl));
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Drops the cached list of a table. Called after a committed write.
+	 *
+	 * @param table table name
+	 */
+	public void invalidate(String table) {
+		generation(table).incrementAndGet();
+		synchronized (this) {
+			entries.remove(table);
+		}
+		invalidations.increment();
+		LogSF.debug(log, "Reference data invalidated : {}", table);
+	}
+
+	/**
+	 * Drops all cached lists.
+	 */
+	public void clear() {
+		for (AtomicLong generation : generations.values()) {
+			generation.incrementAndGet();
+		}
+		synchronized (this) {
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Returns the cache counters.
+	 *
+	 * @return map of counter name to value
+	 */
+	public Map<String, Object> getStatistics() {
+		Map<String, Object> stats = new LinkedHashMap<String, Object>();
+		synchronized (this) {
+			stats.put("size", entries.size());
+		}
+		stats.put("maxEntries", maxEntries);
+		stats.put("ttlSeconds", ttl / 1000);
+		stats.put("hits", hits.sum());
+		stats.put("misses", misses.sum());
+		stats.put("invalidations", invalidations.sum());
+		stats.put("evictions", evictions.sum());
+		return stats;
+	}
+
+	private AtomicLong generation(String table) {
+		return generations.computeIfAbsent(table, k -> new AtomicLong());
+	}
+}
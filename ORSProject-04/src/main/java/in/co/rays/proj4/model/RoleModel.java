@@ -1,5 +1,7 @@
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -12,6 +14,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.KeyAllocatorFactory;
 
 /**
  * RoleModel provides CRUD operations and search/list utilities for RoleBean.
@@ -33,26 +36,7 @@ public class RoleModel {
 	 * @throws DatabaseException if a database access error occurs
 	 */
 	public Integer nextPk() throws DatabaseException {
-
-		Connection conn = null;
-		int pk = 0;
-		try {
-			conn = JDBCDataSource.getConnection();
-
-			PreparedStatement pstmt = conn.prepareStatement("select max(id) from st_role");
-			ResultSet rs = pstmt.executeQuery();
-
-			while (rs.next()) {
-				pk = rs.getInt(1);
-			}
-			rs.close();
-			pstmt.close();
-		} catch (Exception e) {
-			throw new DatabaseException("Exception : Exception in getting PK");
-		} finally {
-			JDBCDataSource.closeConnection(conn);
-		}
-		return pk + 1;
+		return (int) KeyAllocatorFactory.getAllocator().nextKey("st_role");
 	}
 
 	/**
@@ -90,6 +74,7 @@ public class RoleModel {
 			pstmt.setTimestamp(7, bean.getModifiedDatetime());
 			pstmt.executeUpdate();
 			conn.commit();
+			ReferenceDataCache.getInstance().invalidate("st_role");
 			pstmt.close();
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -135,6 +120,7 @@ public class RoleModel {
 			pstmt.setLong(7, bean.getId());
 			pstmt.executeUpdate();
 			conn.commit();
+			ReferenceDataCache.getInstance().invalidate("st_role");
 			pstmt.close();
 		} catch (Exception e) {
 			try {
@@ -165,6 +151,7 @@ public class RoleModel {
 			pstmt.setLong(1, bean.getId());
 			pstmt.executeUpdate();
 			conn.commit();
+			ReferenceDataCache.getInstance().invalidate("st_role");
 			pstmt.close();
 		} catch (Exception e) {
 			try {
@@ -178,6 +165,43 @@ public class RoleModel {
 		}
 	}
 
+	/**
+	 * Deletes the roles of the given ids with a single statement per
+	 * {@link BulkDelete#CHUNK_SIZE} ids, in one transaction.
+	 *
+	 * @param ids primary keys of the records to delete
+	 * @return number of deleted records
+	 * @throws ApplicationException if the delete fails; nothing is deleted then
+	 */
+	public int deleteAll(long[] ids) throws ApplicationException {
+
+		try {
+			int count = BulkDelete.deleteAll("st_role", ids);
+			ReferenceDataCache.getInstance().invalidate("st_role");
+			return count;
+		} catch (SQLException e) {
+			throw new ApplicationException("Exception : Exception in delete Role");
+		}
+	}
+
+	/**
+	 * Writes the roles matching the search filters to CSV, streaming them
+	 * from the database without loading the whole list.
+	 *
+	 * @param bean search filters, null for all records
+	 * @param out  CSV output
+	 * @return number of records written
+	 * @throws ApplicationException if the export fails
+	 */
+	public long export(RoleBean bean, Writer out) throws ApplicationException {
+
+		try {
+			return CsvExport.write(criteria(bean), out);
+		} catch (SQLException | IOException e) {
+			throw new ApplicationException("Exception : Exception in export Role");
+		}
+	}
+
 	/**
 	 * Finds a role by primary key.
 	 *
@@ -193,7 +217,7 @@ public class RoleModel {
 		StringBuffer sql = new StringBuffer("select * from st_role where id = ?");
 
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection();
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
 			pstmt.setLong(1, pk);
 			ResultSet rs = pstmt.executeQuery();
@@ -254,13 +278,28 @@ public class RoleModel {
 	}
 	
 	/**
-	 * Returns all roles.
+	 * Returns all roles, served from the {@link ReferenceDataCache}.
 	 *
-	 * @return List of RoleBean
+	 * @return unmodifiable List of RoleBean
 	 * @throws ApplicationException if a SQL error occurs during retrieval
 	 */
 	public List<RoleBean> list() throws ApplicationException {
-		return search(null, 0, 0);
+		return ReferenceDataCache.getInstance().get("st_role", this::listAll);
+	}
+
+	/**
+	 * Reads all roles from the primary for the cache, so a reload right
+	 * after a write cannot cache a replica that has not caught up.
+	 *
+	 * @return list of all RoleBean
+	 * @throws ApplicationException if a general application/database error occurs
+	 */
+	private List<RoleBean> listAll() throws ApplicationException {
+		try {
+			return Pagination.all(criteria(null), this::populate);
+		} catch (Exception e) {
+			throw new ApplicationException("Exception : Exception in list Role");
+		}
 	}
 	
 	/**
@@ -273,52 +312,78 @@ public class RoleModel {
 	 * @throws ApplicationException if a SQL error occurs during search
 	 */
 	public List<RoleBean> search(RoleBean bean, int pageNo, int pageSize) throws ApplicationException {
+		return searchPage(bean, pageNo, pageSize).getList();
+	}
 
-		StringBuffer sql = new StringBuffer("select * from st_role where 1=1");
-
-		if (bean != null) {
-			if (bean.getId() > 0) {
-				sql.append(" and id = " + bean.getId());
-			}
-			if (bean.getName() != null && bean.getName().length() > 0) {
-				sql.append(" and name like '" + bean.getName() + "%'");
-			}
-			if (bean.getDescription() != null && bean.getDescription().length() > 0) {
-				sql.append(" and description like '" + bean.getDescription() + "%'");
-			}
-		}
-
-		if (pageSize > 0) {
-			pageNo = (pageNo - 1) * pageSize;
-			sql.append(" limit " + pageNo + ", " + pageSize);
+	/**
+	 * Searches role records a page at a time. A single query reads one
+	 * record more than the page size to find out whether a next page exists.
+	 *
+	 * @param bean     filter criteria (nullable)
+	 * @param pageNo   page number, starting at 1
+	 * @param pageSize number of records per page, 0 for all records
+	 * @return page of matching RoleBean
+	 * @throws ApplicationException for general DB errors
+	 */
+	public Page<RoleBean> searchPage(RoleBean bean, int pageNo, int pageSize) throws ApplicationException {
+		try {
+			return Pagination.offset(criteria(bean), pageNo, pageSize, this::populate);
+		} catch (Exception e) {
+			throw new ApplicationException("Exception : Exception in search Role");
 		}
+	}
 
-		Connection conn = null;
-		ArrayList<RoleBean> list = new ArrayList<RoleBean>();
-
+	/**
+	 * Searches role records with keyset (seek) pagination ordered by id.
+	 * Every page costs the same as the first one, however deep the user pages.
+	 *
+	 * @param bean     filter criteria (nullable)
+	 * @param cursor   position to read from, null for the first page
+	 * @param pageSize number of records per page
+	 * @return page of matching RoleBean
+	 * @throws ApplicationException for general DB errors
+	 */
+	public Page<RoleBean> search(RoleBean bean, Cursor cursor, int pageSize) throws ApplicationException {
 		try {
-			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				bean = new RoleBean();
-				bean.setId(rs.getLong(1));
-				bean.setName(rs.getString(2));
-				bean.setDescription(rs.getString(3));
-				bean.setCreatedBy(rs.getString(4));
-				bean.setModifiedBy(rs.getString(5));
-				bean.setCreatedDatetime(rs.getTimestamp(6));
-				bean.setModifiedDatetime(rs.getTimestamp(7));
-				list.add(bean);
-			}
-			rs.close();
-			pstmt.close();
+			return Pagination.seek(criteria(bean), cursor, pageSize, this::populate);
 		} catch (Exception e) {
 			throw new ApplicationException("Exception : Exception in search Role");
-		} finally {
-			JDBCDataSource.closeConnection(conn);
 		}
-		return list;
+	}
+
+	/**
+	 * Builds the parameterized st_role search with the filters set in the bean.
+	 *
+	 * @param bean filter criteria (nullable)
+	 * @return Criteria
+	 */
+	private Criteria criteria(RoleBean bean) {
+		Criteria c = Criteria.from("st_role");
+		if (bean != null) {
+			c.eq("id", bean.getId());
+			c.startsWith("name", bean.getName());
+			c.startsWith("description", bean.getDescription());
+		}
+		return c;
+	}
+
+	/**
+	 * Maps the current row of st_role to a RoleBean.
+	 *
+	 * @param rs ResultSet positioned on a row
+	 * @return populated bean
+	 * @throws SQLException if a column cannot be read
+	 */
+	RoleBean populate(ResultSet rs) throws SQLException {
+		RoleBean bean = new RoleBean();
+		bean.setId(rs.getLong(1));
+		bean.setName(rs.getString(2));
+		bean.setDescription(rs.getString(3));
+		bean.setCreatedBy(rs.getString(4));
+		bean.setModifiedBy(rs.getString(5));
+		bean.setCreatedDatetime(rs.getTimestamp(6));
+		bean.setModifiedDatetime(rs.getTimestamp(7));
+		return bean;
 	}
 }
 
@@ -0,0 +1,25 @@
+package in.co.rays.proj4.model;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * RowMapper converts the current row of a {@link ResultSet} into a bean.
+ *
+ * @param <T> bean type
+ * @author Lucky
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+	/**
+	 * Maps the current row. Must not move the cursor of the ResultSet.
+	 *
+	 * @param rs ResultSet positioned on a row
+	 * @return populated bean
+	 * @throws SQLException if a column cannot be read
+	 */
+	public T map(ResultSet rs) throws SQLException;
+
+}
@@ -1,8 +1,11 @@
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -13,29 +16,12 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.KeyAllocatorFactory;
 
 public class StaffModel {
 
 	public Integer nextPk() throws DatabaseException {
-
-		Connection conn = null;
-		int pk = 0;
-
-		try {
-			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement("select max(id) from st_staff");
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				pk = rs.getInt(1);
-			}
-			rs.close();
-			pstmt.close();
-		} catch (Exception e) {
-			throw new DatabaseException("Exception : Exception in getting PK");
-		} finally {
-			JDBCDataSource.closeConnection(conn);
-		}
-		return pk + 1;
+		return (int) KeyAllocatorFactory.getAllocator().nextKey("st_staff");
 	}
 	
 	public long add(StaffBean bean) throws ApplicationException, DuplicateRecordException {
@@ -135,6 +121,41 @@ public class StaffModel {
 			JDBCDataSource.closeConnection(conn);
 		}
 	}
+
+	/**
+	 * Deletes the staffs of the given ids with a single statement per
+	 * {@link BulkDelete#CHUNK_SIZE} ids, in one transaction.
+	 *
+	 * @param ids primary keys of the records to delete
+	 * @return number of deleted records
+	 * @throws ApplicationException if the delete fails; nothing is deleted then
+	 */
+	public int deleteAll(long[] ids) throws ApplicationException {
+
+		try {
+			return BulkDelete.deleteAll("st_staff", ids);
+		} catch (SQLException e) {
+			throw new ApplicationException("Exception : Exception in delete staff");
+		}
+	}
+
+	/**
+	 * Writes the staffs matching the search filters to CSV, streaming them
+	 * from the database without loading the whole list.
+	 *
+	 * @param bean search filters, null for all records
+	 * @param out  CSV output
+	 * @return number of records written
+	 * @throws ApplicationException if the export fails
+	 */
+	public long export(StaffBean bean, Writer out) throws ApplicationException {
+
+		try {
+			return CsvExport.write(criteria(bean), out);
+		} catch (SQLException | IOException e) {
+			throw new ApplicationException("Exception : Exception in export Staff");
+		}
+	}
 	
 	public StaffBean findByPk(long pk) throws ApplicationException {
 
@@ -144,7 +165,7 @@ public class StaffModel {
 		StringBuffer sql = new StringBuffer("select * from st_staff where id = ?");
 
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection();
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
 			pstmt.setLong(1, pk);
 			ResultSet rs = pstmt.executeQuery();
@@ -176,61 +197,83 @@ public class StaffModel {
 	}
 	
 	public List<StaffBean> search(StaffBean bean, int pageNo, int pageSize) throws ApplicationException {
+		return searchPage(bean, pageNo, pageSize).getList();
+	}
 
-		Connection conn = null;
-		ArrayList<StaffBean> list = new ArrayList<StaffBean>();
-
-		StringBuffer sql = new StringBuffer("select * from st_staff where 1=1");
-
-		if (bean != null) {
-			if (bean.getId() > 0) {
-				sql.append(" and id = " + bean.getId());
-			}
-			if (bean.getFullName() != null && bean.getFullName().length() > 0) {
-				sql.append(" and full_name like '" + bean.getFullName() + "%'");
-			}
-			if (bean.getJoiningDate() != null && bean.getJoiningDate().getTime() > 0) {
-				sql.append(" and joining_date like '" + new java.sql.Date(bean.getJoiningDate().getTime()) + "%'");
-			}
-			if (bean.getDivision() != null && bean.getDivision().length() > 0) {
-				sql.append(" and division like '" + bean.getDivision() + "%'");
-			}
-			if (bean.getPreviousEmployer() != null && bean.getPreviousEmployer().length() > 0) {
-				sql.append(" and previous_employer like '" + bean.getPreviousEmployer() + "%'");
-			}
-		}
-
-		if (pageSize > 0) {
-			pageNo = (pageNo - 1) * pageSize;
-			sql.append(" limit " + pageNo + ", " + pageSize);
-		}
-		System.out.println("sql ===== > " + sql.toString());
+	/**
+	 * Searches staff records a page at a time. A single query reads one
+	 * record more than the page size to find out whether a next page exists.
+	 *
+	 * @param bean     filter criteria (nullable)
+	 * @param pageNo   page number, starting at 1
+	 * @param pageSize number of records per page, 0 for all records
+	 * @return page of matching StaffBean
+	 * @throws ApplicationException for general DB errors
+	 */
+	public Page<StaffBean> searchPage(StaffBean bean, int pageNo, int pageSize) throws ApplicationException {
 		try {
-			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				bean = new StaffBean();
-				bean.setId(rs.getLong(1));
-				bean.setFullName(rs.getString(2));
-				bean.setJoiningDate(rs.getDate(3));
-				bean.setDivision(rs.getString(4));
-				bean.setPreviousEmployer(rs.getString(5));
-				bean.setCreatedBy(rs.getString(6));
-				bean.setModifiedBy(rs.getString(7));
-				bean.setCreatedDatetime(rs.getTimestamp(8));
-				bean.setModifiedDatetime(rs.getTimestamp(9));
-				list.add(bean);
-			}
-			rs.close();
-			pstmt.close();
+			return Pagination.offset(criteria(bean), pageNo, pageSize, this::populate);
 		} catch (Exception e) {
 			e.printStackTrace();
 			throw new ApplicationException("Exception : Exception in search staff");
-		} finally {
-			JDBCDataSource.closeConnection(conn);
 		}
-		return list;
+	}
+
+	/**
+	 * Searches staff records with keyset (seek) pagination ordered by id.
+	 * Every page costs the same as the first one, however deep the user pages.
+	 *
+	 * @param bean     filter criteria (nullable)
+	 * @param cursor   position to read from, null for the first page
+	 * @param pageSize number of records per page
+	 * @return page of matching StaffBean
+	 * @throws ApplicationException for general DB errors
+	 */
+	public Page<StaffBean> search(StaffBean bean, Cursor cursor, int pageSize) throws ApplicationException {
+		try {
+			return Pagination.seek(criteria(bean), cursor, pageSize, this::populate);
+		} catch (Exception e) {
+			throw new ApplicationException("Exception : Exception in search Staff");
+		}
+	}
+
+	/**
+	 * Builds the parameterized st_staff search with the filters set in the bean.
+	 *
+	 * @param bean filter criteria (nullable)
+	 * @return Criteria
+	 */
+	private Criteria criteria(StaffBean bean) {
+		Criteria c = Criteria.from("st_staff");
+		if (bean != null) {
+			c.eq("id", bean.getId());
+			c.startsWith("full_name", bean.getFullName());
+			c.eq("joining_date", bean.getJoiningDate());
+			c.startsWith("division", bean.getDivision());
+			c.startsWith("previous_employer", bean.getPreviousEmployer());
+		}
+		return c;
+	}
+
+	/**
+	 * Maps the current row of st_staff to a StaffBean.
+	 *
+	 * @param rs ResultSet positioned on a row
+	 * @return populated bean
+	 * @throws SQLException if a column cannot be read
+	 */
+	StaffBean populate(ResultSet rs) throws SQLException {
+		StaffBean bean = new StaffBean();
+		bean.setId(rs.getLong(1));
+		bean.setFullName(rs.getString(2));
+		bean.setJoiningDate(rs.getDate(3));
+		bean.setDivision(rs.getString(4));
+		bean.setPreviousEmployer(rs.getString(5));
+		bean.setCreatedBy(rs.getString(6));
+		bean.setModifiedBy(rs.getString(7));
+		bean.setCreatedDatetime(rs.getTimestamp(8));
+		bean.setModifiedDatetime(rs.getTimestamp(9));
+		return bean;
 	}
 
 }
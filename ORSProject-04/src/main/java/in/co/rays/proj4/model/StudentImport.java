@@ -0,0 +1,136 @@
+package in.co.rays.proj4.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import in.co.rays.proj4.bean.CollegeBean;
+import in.co.rays.proj4.bean.StudentBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.FormRules;
+import in.co.rays.proj4.util.RuleSet;
+
+/**
+ * StudentImport loads students from a CSV file into {@code st_student}.
+ *
+ * <p>
+ * Expected columns ({@code dob} as dd-MM-yyyy):
+ * </p>
+ * <pre>
+ * firstName,lastName,dob,gender,mobileNo,email,collegeId
+ * Ravi,Sharma,21-04-2004,Male,9876543210,ravi@gmail.com,3
+ * </pre>
+ *
+ * <p>
+ * Rows are checked with the rules of the student form,
+ * {@link FormRules#STUDENT_IMPORT}. College names come from the cached
+ * college list, and emails that already exist in the table or earlier in the
+ * file are rejected.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ * @see CsvImport
+ */
+public class StudentImport extends CsvImport<StudentBean> {
+
+	private static final String[] COLUMNS = { "firstName", "lastName", "dob", "gender", "mobileNo", "email",
+			"collegeId" };
+
+	/** Emails seen so far in the file, lower case */
+	private final Set<String> emails = new HashSet<String>();
+
+	@Override
+	protected String[] getColumns() {
+		return COLUMNS;
+	}
+
+	@Override
+	protected String getTable() {
+		return "st_student";
+	}
+
+	@Override
+	protected String getInsertSql() {
+		return "insert into st_student values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+	}
+
+	@Override
+	protected RuleSet getRules() {
+		return FormRules.STUDENT_IMPORT;
+	}
+
+	@Override
+	protected StudentBean parse(String[] values, Line<StudentBean> line) {
+		StudentBean bean = new StudentBean();
+		bean.setFirstName(values[0]);
+		bean.setLastName(values[1]);
+		bean.setDob(java.sql.Date.valueOf(DataUtility.getLocalDate(values[2])));
+		bean.setGender(values[3]);
+		bean.setMobileNo(values[4]);
+		bean.setEmail(values[5]);
+		bean.setCollegeId(DataUtility.getLong(values[6]));
+		bean.setCreatedBy(getUser());
+		bean.setModifiedBy(getUser());
+		bean.setCreatedDatetime(DataUtility.getCurrentTimestamp());
+		bean.setModifiedDatetime(bean.getCreatedDatetime());
+		return bean;
+	}
+
+	@Override
+	protected void resolve(List<Line<StudentBean>> lines, Connection conn) throws SQLException {
+
+		Map<Long, String> colleges = new HashMap<Long, String>();
+		try {
+			for (CollegeBean college : new CollegeModel().list()) {
+				colleges.put(college.getId(), college.getName());
+			}
+		} catch (ApplicationException e) {
+			throw new SQLException("Exception in reading colleges", e);
+		}
+
+		List<String> chunkEmails = new ArrayList<String>();
+		for (Line<StudentBean> line : lines) {
+			chunkEmails.add(line.getBean().getEmail());
+		}
+		Set<String> existing = new HashSet<String>(
+				query(conn, Criteria.from("st_student").in("email", chunkEmails), rs -> rs.getString("email").toLowerCase()));
+
+		for (Line<StudentBean> line : lines) {
+			StudentBean bean = line.getBean();
+			String college = colleges.get(bean.getCollegeId());
+			String email = bean.getEmail().toLowerCase();
+			if (college == null) {
+				line.reject("College " + bean.getCollegeId() + " does not exist");
+			} else if (existing.contains(email) || !emails.add(email)) {
+				line.reject("Email already exists");
+			} else {
+				bean.setCollegeName(college);
+			}
+		}
+	}
+
+	@Override
+	protected void bind(PreparedStatement pstmt, long pk, StudentBean bean) throws SQLException {
+		pstmt.setLong(1, pk);
+		pstmt.setString(2, bean.getFirstName());
+		pstmt.setString(3, bean.getLastName());
+		pstmt.setDate(4, new java.sql.Date(bean.getDob().getTime()));
+		pstmt.setString(5, bean.getGender());
+		pstmt.setString(6, bean.getMobileNo());
+		pstmt.setString(7, bean.getEmail());
+		pstmt.setLong(8, bean.getCollegeId());
+		pstmt.setString(9, bean.getCollegeName());
+		pstmt.setString(10, bean.getCreatedBy());
+		pstmt.setString(11, bean.getModifiedBy());
+		pstmt.setTimestamp(12, bean.getCreatedDatetime());
+		pstmt.setTimestamp(13, bean.getModifiedDatetime());
+	}
+}
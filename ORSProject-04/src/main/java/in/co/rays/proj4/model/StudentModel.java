@@ -1,5 +1,7 @@
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -13,6 +15,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.KeyAllocatorFactory;
 
 /**
  * StudentModel provides CRUD and search operations for StudentBean,
@@ -35,27 +38,8 @@ public class StudentModel {
 	 * @throws DatabaseException if a database access error occurs
 	 */
 	public Integer nextPk() throws DatabaseException {
-
-		Connection conn = null;
-		int pk = 0;
-
-		try {
-			conn = JDBCDataSource.getConnection();
-            PreparedStatement pstmt = conn.prepareStatement("select max(id) from st_student");
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-				pk = rs.getInt(1);
-			}
-			rs.close();
-			pstmt.close();
-		} catch (Exception e) {
-			throw new DatabaseException("Exception : Exception in getting PK");
-					}
-		 finally {
-				JDBCDataSource.closeConnection(conn);
-			}
-			return pk + 1;
-		}
+		return (int) KeyAllocatorFactory.getAllocator().nextKey("st_student");
+	}
 	
 	/**
 	 * Adds a new student record into database.
@@ -203,6 +187,41 @@ public class StudentModel {
 		}
 	}
 
+	/**
+	 * Deletes the students of the given ids with a single statement per
+	 * {@link BulkDelete#CHUNK_SIZE} ids, in one transaction.
+	 *
+	 * @param ids primary keys of the records to delete
+	 * @return number of deleted records
+	 * @throws ApplicationException if the delete fails; nothing is deleted then
+	 */
+	public int deleteAll(long[] ids) throws ApplicationException {
+
+		try {
+			return BulkDelete.deleteAll("st_student", ids);
+		} catch (SQLException e) {
+			throw new ApplicationException("Exception : Exception in delete Student");
+		}
+	}
+
+	/**
+	 * Writes the students matching the search filters to CSV, streaming them
+	 * from the database without loading the whole list.
+	 *
+	 * @param bean search filters, null for all records
+	 * @param out  CSV output
+	 * @return number of records written
+	 * @throws ApplicationException if the export fails
+	 */
+	public long export(StudentBean bean, Writer out) throws ApplicationException {
+
+		try {
+			return CsvExport.write(criteria(bean), out);
+		} catch (SQLException | IOException e) {
+			throw new ApplicationException("Exception : Exception in export Student");
+		}
+	}
+
 	/**
 	 * Finds a student by primary key.
 	 *
@@ -217,7 +236,7 @@ public class StudentModel {
 		Connection conn = null;
 
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection();
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
 			pstmt.setLong(1, pk);
 			ResultSet rs = pstmt.executeQuery();
@@ -311,72 +330,89 @@ public class StudentModel {
 	 * @throws ApplicationException if a SQL error occurs during search
 	 */
 	public List<StudentBean> search(StudentBean bean, int pageNo, int pageSize) throws ApplicationException {
+		return searchPage(bean, pageNo, pageSize).getList();
+	}
 
-		StringBuffer sql = new StringBuffer("select * from st_student where 1 = 1");
-
-		if (bean != null) {
-			if (bean.getId() > 0) {
-				sql.append(" and id = " + bean.getId());
-			}
-			if (bean.getFirstName() != null && bean.getFirstName().length() > 0) {
-				sql.append(" and first_name like '" + bean.getFirstName() + "%'");
-			}
-			if (bean.getLastName() != null && bean.getLastName().length() > 0) {
-				sql.append(" and last_name like '" + bean.getLastName() + "%'");
-			}
-			if (bean.getDob() != null && bean.getDob().getDate() > 0) {
-				sql.append(" and dob = " + bean.getDob());
-			}
-			if (bean.getGender() != null && bean.getGender().length() > 0) {
-				sql.append(" and gender like '" + bean.getGender() + "%'");
-			}
-			if (bean.getMobileNo() != null && bean.getMobileNo().length() > 0) {
-				sql.append(" and mobile_no like '" + bean.getMobileNo() + "%'");
-			}
-			if (bean.getEmail() != null && bean.getEmail().length() > 0) {
-				sql.append(" and email like '" + bean.getEmail() + "%'");
-			}
-			if (bean.getCollegeName() != null && bean.getCollegeName().length() > 0) {
-				sql.append(" and college_name = " + bean.getCollegeName());
-			}
-		}
-
-		if (pageSize > 0) {
-			pageNo = (pageNo - 1) * pageSize;
-			sql.append(" limit " + pageNo + ", " + pageSize);
+	/**
+	 * Searches student records a page at a time. A single query reads one
+	 * record more than the page size to find out whether a next page exists.
+	 *
+	 * @param bean     filter criteria (nullable)
+	 * @param pageNo   page number, starting at 1
+	 * @param pageSize number of records per page, 0 for all records
+	 * @return page of matching StudentBean
+	 * @throws ApplicationException for general DB errors
+	 */
+	public Page<StudentBean> searchPage(StudentBean bean, int pageNo, int pageSize) throws ApplicationException {
+		try {
+			return Pagination.offset(criteria(bean), pageNo, pageSize, this::populate);
+		} catch (Exception e) {
+			throw new ApplicationException("Exception : Exception in search Student");
 		}
+	}
 
-		ArrayList<StudentBean> list = new ArrayList<StudentBean>();
-		Connection conn = null;
+	/**
+	 * Searches student records with keyset (seek) pagination ordered by id.
+	 * Every page costs the same as the first one, however deep the user pages.
+	 *
+	 * @param bean     filter criteria (nullable)
+	 * @param cursor   position to read from, null for the first page
+	 * @param pageSize number of records per page
+	 * @return page of matching StudentBean
+	 * @throws ApplicationException for general DB errors
+	 */
+	public Page<StudentBean> search(StudentBean bean, Cursor cursor, int pageSize) throws ApplicationException {
 		try {
-			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				bean = new StudentBean();
-				bean.setId(rs.getLong(1));
-				bean.setFirstName(rs.getString(2));
-				bean.setLastName(rs.getString(3));
-				bean.setDob(rs.getDate(4));
-				bean.setGender(rs.getString(5));
-				bean.setMobileNo(rs.getString(6));
-				bean.setEmail(rs.getString(7));
-				bean.setCollegeId(rs.getLong(8));
-				bean.setCollegeName(rs.getString(9));
-				bean.setCreatedBy(rs.getString(10));
-				bean.setModifiedBy(rs.getString(11));
-				bean.setCreatedDatetime(rs.getTimestamp(12));
-				bean.setModifiedDatetime(rs.getTimestamp(13));
-				list.add(bean);
-			}
-			rs.close();
-			pstmt.close();
+			return Pagination.seek(criteria(bean), cursor, pageSize, this::populate);
 		} catch (Exception e) {
 			throw new ApplicationException("Exception : Exception in search Student");
-		} finally {
-			JDBCDataSource.closeConnection(conn);
 		}
-		return list;
+	}
+
+	/**
+	 * Builds the parameterized st_student search with the filters set in the bean.
+	 *
+	 * @param bean filter criteria (nullable)
+	 * @return Criteria
+	 */
+	private Criteria criteria(StudentBean bean) {
+		Criteria c = Criteria.from("st_student");
+		if (bean != null) {
+			c.eq("id", bean.getId());
+			c.startsWith("first_name", bean.getFirstName());
+			c.startsWith("last_name", bean.getLastName());
+			c.eq("dob", bean.getDob());
+			c.startsWith("gender", bean.getGender());
+			c.startsWith("mobile_no", bean.getMobileNo());
+			c.startsWith("email", bean.getEmail());
+			c.eq("college_name", bean.getCollegeName());
+		}
+		return c;
+	}
+
+	/**
+	 * Maps the current row of st_student to a StudentBean.
+	 *
+	 * @param rs ResultSet positioned on a row
+	 * @return populated bean
+	 * @throws SQLException if a column cannot be read
+	 */
+	StudentBean populate(ResultSet rs) throws SQLException {
+		StudentBean bean = new StudentBean();
+		bean.setId(rs.getLong(1));
+		bean.setFirstName(rs.getString(2));
+		bean.setLastName(rs.getString(3));
+		bean.setDob(rs.getDate(4));
+		bean.setGender(rs.getString(5));
+		bean.setMobileNo(rs.getString(6));
+		bean.setEmail(rs.getString(7));
+		bean.setCollegeId(rs.getLong(8));
+		bean.setCollegeName(rs.getString(9));
+		bean.setCreatedBy(rs.getString(10));
+		bean.setModifiedBy(rs.getString(11));
+		bean.setCreatedDatetime(rs.getTimestamp(12));
+		bean.setModifiedDatetime(rs.getTimestamp(13));
+		return bean;
 	}
 
 	}
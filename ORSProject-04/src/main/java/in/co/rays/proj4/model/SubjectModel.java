@@ -1,8 +1,11 @@
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -12,6 +15,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.KeyAllocatorFactory;
 
 /**
  * SubjectModel provides CRUD and search operations for SubjectBean,
@@ -35,23 +39,7 @@ public class SubjectModel {
 	 * @throws DatabaseException if a database access error occurs
 	 */
 	public Integer nextPk() throws DatabaseException {
-		Connection conn = null;
-		int pk = 0;
-		try {
-			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement("select max(id) from st_subject");
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				pk = rs.getInt(1);
-			}
-			rs.close();
-			pstmt.close();
-		} catch (Exception e) {
-			throw new DatabaseException("Exception : Exception in getting PK");
-		} finally {
-			JDBCDataSource.closeConnection(conn);
-		}
-		return pk + 1;
+		return (int) KeyAllocatorFactory.getAllocator().nextKey("st_subject");
 	}
 
 	/**
@@ -91,6 +79,7 @@ public class SubjectModel {
 			pstmt.setTimestamp(9, bean.getModifiedDatetime());
 			pstmt.executeUpdate();
 			conn.commit(); // End transaction
+			ReferenceDataCache.getInstance().invalidate("st_subject");
 			pstmt.close();
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -134,6 +123,7 @@ public class SubjectModel {
 			pstmt.setLong(9, bean.getId());
 			pstmt.executeUpdate();
 			conn.commit(); // End transaction
+			ReferenceDataCache.getInstance().invalidate("st_subject");
 			pstmt.close();
 		} catch (Exception e) {
 			try {
@@ -162,6 +152,7 @@ public class SubjectModel {
 			pstmt.setLong(1, bean.getId());
 			pstmt.executeUpdate();
 			conn.commit(); // End transaction
+			ReferenceDataCache.getInstance().invalidate("st_subject");
 			pstmt.close();
 		} catch (Exception e) {
 			try {
@@ -175,6 +166,43 @@ public class SubjectModel {
 		}
 	}
 
+	/**
+	 * Deletes the subjects of the given ids with a single statement per
+	 * {@link BulkDelete#CHUNK_SIZE} ids, in one transaction.
+	 *
+	 * @param ids primary keys of the records to delete
+	 * @return number of deleted records
+	 * @throws ApplicationException if the delete fails; nothing is deleted then
+	 */
+	public int deleteAll(long[] ids) throws ApplicationException {
+
+		try {
+			int count = BulkDelete.deleteAll("st_subject", ids);
+			ReferenceDataCache.getInstance().invalidate("st_subject");
+			return count;
+		} catch (SQLException e) {
+			throw new ApplicationException("Exception : Exception in delete Subject");
+		}
+	}
+
+	/**
+	 * Writes the subjects matching the search filters to CSV, streaming them
+	 * from the database without loading the whole list.
+	 *
+	 * @param bean search filters, null for all records
+	 * @param out  CSV output
+	 * @return number of records written
+	 * @throws ApplicationException if the export fails
+	 */
+	public long export(SubjectBean bean, Writer out) throws ApplicationException {
+
+		try {
+			return CsvExport.write(criteria(bean), out);
+		} catch (SQLException | IOException e) {
+			throw new ApplicationException("Exception : Exception in export Subject");
+		}
+	}
+
 	/**
 	 * Finds a subject by primary key.
 	 *
@@ -187,7 +215,7 @@ public class SubjectModel {
 		SubjectBean bean = null;
 		Connection conn = null;
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection();
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
 			pstmt.setLong(1, pk);
 			ResultSet rs = pstmt.executeQuery();
@@ -252,13 +280,28 @@ public class SubjectModel {
 	}
 
 	/**
-	 * Returns all subjects.
+	 * Returns all subjects, served from the {@link ReferenceDataCache}.
 	 *
-	 * @return List of SubjectBean
+	 * @return unmodifiable List of SubjectBean
 	 * @throws ApplicationException if a SQL error occurs during retrieval
 	 */
 	public List<SubjectBean> list() throws ApplicationException {
-		return search(null, 0, 0);
+		return ReferenceDataCache.getInstance().get("st_subject", this::listAll);
+	}
+
+	/**
+	 * Reads all subjects from the primary for the cache, so a reload right
+	 * after a write cannot cache a replica that has not caught up.
+	 *
+	 * @return list of all SubjectBean
+	 * @throws ApplicationException if a general application/database error occurs
+	 */
+	private List<SubjectBean> listAll() throws ApplicationException {
+		try {
+			return Pagination.all(criteria(null), this::populate);
+		} catch (Exception e) {
+			throw new ApplicationException("Exception : Exception in list Subject");
+		}
 	}
 
 	/**
@@ -271,59 +314,82 @@ public class SubjectModel {
 	 * @throws ApplicationException if a SQL error occurs during search
 	 */
 	public List<SubjectBean> search(SubjectBean bean, int pageNo, int pageSize) throws ApplicationException {
-		StringBuffer sql = new StringBuffer("select * from st_subject where 1=1");
-
-		if (bean != null) {
-			if (bean.getId() > 0) {
-				sql.append(" and id = " + bean.getId());
-			}
-			if (bean.getName() != null && bean.getName().length() > 0) {
-				sql.append(" and name like '" + bean.getName() + "%'");
-			}
-			if (bean.getCourseId() > 0) {
-				sql.append(" and course_id = " + bean.getCourseId());
-			}
-			if (bean.getCourseName() != null && bean.getCourseName().length() > 0) {
-				sql.append(" and course_name like '" + bean.getCourseName() + "%'");
-			}
-			if (bean.getDescription() != null && bean.getDescription().length() > 0) {
-				sql.append(" and description like '" + bean.getDescription() + "%'");
-			}
-
-		}
+		return searchPage(bean, pageNo, pageSize).getList();
+	}
 
-		if (pageSize > 0) {
-			pageNo = (pageNo - 1) * pageSize;
-			sql.append(" limit " + pageNo + ", " + pageSize);
+	/**
+	 * Searches subject records a page at a time. A single query reads one
+	 * record more than the page size to find out whether a next page exists.
+	 *
+	 * @param bean     filter criteria (nullable)
+	 * @param pageNo   page number, starting at 1
+	 * @param pageSize number of records per page, 0 for all records
+	 * @return page of matching SubjectBean
+	 * @throws ApplicationException for general DB errors
+	 */
+	public Page<SubjectBean> searchPage(SubjectBean bean, int pageNo, int pageSize) throws ApplicationException {
+		try {
+			return Pagination.offset(criteria(bean), pageNo, pageSize, this::populate);
+		} catch (Exception e) {
+			throw new ApplicationException("Exception : Exception in search Subject");
 		}
+	}
 
-		ArrayList<SubjectBean> list = new ArrayList<SubjectBean>();
-		Connection conn = null;
+	/**
+	 * Searches subject records with keyset (seek) pagination ordered by id.
+	 * Every page costs the same as the first one, however deep the user pages.
+	 *
+	 * @param bean     filter criteria (nullable)
+	 * @param cursor   position to read from, null for the first page
+	 * @param pageSize number of records per page
+	 * @return page of matching SubjectBean
+	 * @throws ApplicationException for general DB errors
+	 */
+	public Page<SubjectBean> search(SubjectBean bean, Cursor cursor, int pageSize) throws ApplicationException {
 		try {
-			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				bean = new SubjectBean();
-				bean.setId(rs.getLong(1));
-				bean.setName(rs.getString(2));
-				bean.setCourseId(rs.getLong(3));
-				bean.setCourseName(rs.getString(4));
-				bean.setDescription(rs.getString(5));
-				bean.setCreatedBy(rs.getString(6));
-				bean.setModifiedBy(rs.getString(7));
-				bean.setCreatedDatetime(rs.getTimestamp(8));
-				bean.setModifiedDatetime(rs.getTimestamp(9));
-				list.add(bean);
-			}
-			rs.close();
-			pstmt.close();
+			return Pagination.seek(criteria(bean), cursor, pageSize, this::populate);
 		} catch (Exception e) {
 			throw new ApplicationException("Exception : Exception in search Subject");
-		} finally {
-			JDBCDataSource.closeConnection(conn);
 		}
-		return list;
+	}
+
+	/**
+	 * Builds the parameterized st_subject search with the filters set in the bean.
+	 *
+	 * @param bean filter criteria (nullable)
+	 * @return Criteria
+	 */
+	private Criteria criteria(SubjectBean bean) {
+		Criteria c = Criteria.from("st_subject");
+		if (bean != null) {
+			c.eq("id", bean.getId());
+			c.startsWith("name", bean.getName());
+			c.eq("course_id", bean.getCourseId());
+			c.startsWith("course_name", bean.getCourseName());
+			c.startsWith("description", bean.getDescription());
+		}
+		return c;
+	}
+
+	/**
+	 * Maps the current row of st_subject to a SubjectBean.
+	 *
+	 * @param rs ResultSet positioned on a row
+	 * @return populated bean
+	 * @throws SQLException if a column cannot be read
+	 */
+	SubjectBean populate(ResultSet rs) throws SQLException {
+		SubjectBean bean = new SubjectBean();
+		bean.setId(rs.getLong(1));
+		bean.setName(rs.getString(2));
+		bean.setCourseId(rs.getLong(3));
+		bean.setCourseName(rs.getString(4));
+		bean.setDescription(rs.getString(5));
+		bean.setCreatedBy(rs.getString(6));
+		bean.setModifiedBy(rs.getString(7));
+		bean.setCreatedDatetime(rs.getTimestamp(8));
+		bean.setModifiedDatetime(rs.getTimestamp(9));
+		return bean;
 	}
 	
 }
@@ -0,0 +1,239 @@
+package in.co.rays.proj4.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.util.JDBCDataSource;
+
+/**
+ * TimetableIndex is an in-memory index of the exam slots taken from a start
+ * date on, used by {@link ExamScheduler} to place exams without a query per
+ * candidate slot.
+ *
+ * <p>
+ * Days are numbered from the start date. For every course the index keeps a
+ * {@link BitSet} of the days it already has an exam on (a course has at most
+ * one exam a day, as {@link TimetableModel#checkConflicts} enforces), and for
+ * every day and exam time the number of exams held. Exam times are intervals
+ * such as <code>08:00 AM to 11:00 AM</code>; an exam is counted in every
+ * {@link #EXAM_TIMES} slot its interval overlaps.
+ * </p>
+ *
+ * <p>
+ * An index is not thread-safe; parallel searches work on their own
+ * {@link #copy()}.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public class TimetableIndex {
+
+	/** Exam times offered by the timetable form */
+	public static final String[] EXAM_TIMES = { "08:00 AM to 11:00 AM", "12:00 PM to 03:00 PM",
+			"04:00 PM to 07:00 PM" };
+
+	private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("hh:mm a", Locale.ENGLISH);
+
+	/** Start and end of the exam times in minutes of the day */
+	private static final int[][] SLOTS = new int[EXAM_TIMES.length][];
+
+	static {
+		for (int i = 0; i < EXAM_TIMES.length; i++) {
+			SLOTS[i] = interval(EXAM_TIMES[i]);
+		}
+	}
+
+	private final LocalDate start;
+
+	/** Days with an exam, per course id */
+	private final Map<Long, BitSet> courseDays;
+
+	/** Exams per day and slot, at day * slots + slot */
+	private int[] load;
+
+	/**
+	 * Creates an empty index.
+	 *
+	 * @param start first day of the index
+	 */
+	public TimetableIndex(LocalDate start) {
+		this.start = start;
+		this.courseDays = new HashMap<Long, BitSet>();
+		this.load = new int[64 * SLOTS.length];
+	}
+
+	private TimetableIndex(TimetableIndex other) {
+		this.start = other.start;
+		this.courseDays = new HashMap<Long, BitSet>(other.courseDays.size() * 2);
+		for (Map.Entry<Long, BitSet> e : other.courseDays.entrySet()) {
+			courseDays.put(e.getKey(), (BitSet) e.getValue().clone());
+		}
+		this.load = other.load.clone();
+	}
+
+	/**
+	 * Loads the timetables of st_timetable from the start date on. They are
+	 * read from the primary, as a lagging replica could miss exams just added.
+	 *
+	 * @param start first day of the index
+	 * @return index of the taken slots
+	 * @throws ApplicationException if the timetables cannot be read
+	 */
+	public static TimetableIndex load(LocalDate start) throws ApplicationException {
+		TimetableIndex index = new TimetableIndex(start);
+		Connection conn = null;
+		try {
+			conn = JDBCDataSource.getConnection();
+			PreparedStatement pstmt = conn
+					.prepareStatement("select course_id, exam_date, exam_time from st_timetable where exam_date >= ?");
+			pstmt.setDate(1, java.sql.Date.valueOf(start));
+			ResultSet rs = pstmt.executeQuery();
+			while (rs.next()) {
+				index.add(rs.getLong(1), index.dayOf(rs.getDate(2).toLocalDate()), rs.getString(3));
+			}
+			rs.close();
+			pstmt.close();
+		} catch (Exception e) {
+			throw new ApplicationException("Exception : Exception in getting Timetable");
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+		return index;
+	}
+
+	/**
+	 * @return independent copy of this index
+	 */
+	public TimetableIndex copy() {
+		return new TimetableIndex(this);
+	}
+
+	/**
+	 * @return first day of the index
+	 */
+	public LocalDate getStart() {
+		return start;
+	}
+
+	/**
+	 * @param day day number
+	 * @return date of the day
+	 */
+	public LocalDate dateOf(int day) {
+		return start.plusDays(day);
+	}
+
+	/**
+	 * @param date date on or after the start
+	 * @return day number of the date
+	 */
+	public int dayOf(LocalDate date) {
+		return (int) ChronoUnit.DAYS.between(start, date);
+	}
+
+	/**
+	 * @param day day number
+	 * @return true if exams may be held on the day; Sundays are skipped
+	 */
+	public boolean isExamDay(int day) {
+		return dateOf(day).getDayOfWeek() != DayOfWeek.SUNDAY;
+	}
+
+	/**
+	 * @param courseId course id
+	 * @param day      day number
+	 * @return true if the course has no exam on the day yet
+	 */
+	public boolean isCourseFree(long courseId, int day) {
+		BitSet days = courseDays.get(courseId);
+		return days == null || !days.get(day);
+	}
+
+	/**
+	 * @param day  day number
+	 * @param slot index in {@link #EXAM_TIMES}
+	 * @return number of exams held in the slot
+	 */
+	public int getLoad(int day, int slot) {
+		int i = day * SLOTS.length + slot;
+		return (i < load.length) ? load[i] : 0;
+	}
+
+	/**
+	 * Records an exam in one of the {@link #EXAM_TIMES} slots.
+	 *
+	 * @param courseId course id
+	 * @param day      day number
+	 * @param slot     index in {@link #EXAM_TIMES}
+	 */
+	public void add(long courseId, int day, int slot) {
+		courseDays.computeIfAbsent(courseId, k -> new BitSet()).set(day);
+		increment(day, slot);
+	}
+
+	/**
+	 * Records an exam with any exam time; it is counted in every slot its
+	 * interval overlaps. Exams before the start of the index are ignored.
+	 *
+	 * @param courseId course id
+	 * @param day      day number
+	 * @param examTime exam time, e.g. <code>08:00 AM to 11:00 AM</code>
+	 */
+	public void add(long courseId, int day, String examTime) {
+		if (day < 0) {
+			return;
+		}
+		courseDays.computeIfAbsent(courseId, k -> new BitSet()).set(day);
+		int[] time = interval(examTime);
+		for (int slot = 0; time != null && slot < SLOTS.length; slot++) {
+			if (time[0] < SLOTS[slot][1] && SLOTS[slot][0] < time[1]) {
+				increment(day, slot);
+			}
+		}
+	}
+
+	private void increment(int day, int slot) {
+		int i = day * SLOTS.length + slot;
+		if (i >= load.length) {
+			load = Arrays.copyOf(load, Math.max(load.length * 2, (day + 1) * SLOTS.length));
+		}
+		load[i]++;
+	}
+
+	/**
+	 * Parses an exam time into its start and end minute of the day.
+	 *
+	 * @param examTime exam time, e.g. <code>08:00 AM to 11:00 AM</code>
+	 * @return start and end minute, null if the time cannot be parsed
+	 */
+	static int[] interval(String examTime) {
+		if (examTime == null) {
+			return null;
+		}
+		String[] parts = examTime.trim().toUpperCase(Locale.ENGLISH).split("\\s+TO\\s+");
+		if (parts.length != 2) {
+			return null;
+		}
+		try {
+			LocalTime from = LocalTime.parse(parts[0], TIME_FORMAT);
+			LocalTime to = LocalTime.parse(parts[1], TIME_FORMAT);
+			return new int[] { from.getHour() * 60 + from.getMinute(), to.getHour() * 60 + to.getMinute() };
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+}
@@ -4,18 +4,28 @@
  * prevent duplicate timetable entries. This model interacts with the st_timetable 
  * table in the database.
  * 
+ * Conflicts are found by {@link #checkConflicts(TimetableBean)} with one query
+ * over the index:
+ * <pre>
+ * create index idx_timetable_course_date on st_timetable (course_id, exam_date);
+ * </pre>
+ * 
  * @author Lucky
  * @version 1.0
  */
 
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import in.co.rays.proj4.bean.CourseBean;
 import in.co.rays.proj4.bean.SubjectBean;
@@ -24,6 +34,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.KeyAllocatorFactory;
 
 public class TimetableModel {
 
@@ -34,23 +45,7 @@ public class TimetableModel {
      * @throws DatabaseException if database access fails
      */
 	public Integer nextPk() throws DatabaseException {
-		Connection conn = null;
-		int pk = 0;
-		try {
-			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement("select max(id) from st_timetable");
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				pk = rs.getInt(1);
-			}
-			rs.close();
-			pstmt.close();
-		} catch (Exception e) {
-			throw new DatabaseException("Exception : Exception in getting PK");
-		} finally {
-			JDBCDataSource.closeConnection(conn);
-		}
-		return pk + 1;
+		return (int) KeyAllocatorFactory.getAllocator().nextKey("st_timetable");
 	}
 
 	  /**
@@ -65,13 +60,7 @@ public class TimetableModel {
 		Connection conn = null;
 		int pk = 0;
 
-		CourseModel courseModel = new CourseModel();
-		CourseBean courseBean = courseModel.findByPk(bean.getCourseId());
-		bean.setCourseName(courseBean.getName());
-
-		SubjectModel subjectModel = new SubjectModel();
-		SubjectBean subjectBean = subjectModel.findByPk(bean.getSubjectId());
-		bean.setSubjectName(subjectBean.getName());
+		resolveNames(bean);
 
 		try {
 			conn = JDBCDataSource.getConnection();
@@ -109,6 +98,119 @@ public class TimetableModel {
 		return pk;
 	}
 
+	/**
+	 * Adds a set of timetables, e.g. a schedule of {@link ExamScheduler}, with
+	 * one batch in one transaction. Either all or none are added.
+	 *
+	 * <p>
+	 * The schedule may have been computed a while ago, so the transaction first
+	 * checks with one locking query that none of its courses has gained an exam
+	 * on the same date since.
+	 * </p>
+	 *
+	 * @param beans timetables with course and subject names set
+	 * @return number of added records
+	 * @throws ApplicationException     if unable to add the records
+	 * @throws DuplicateRecordException if a course already has an exam on the
+	 *                                  date of one of the timetables
+	 */
+	public int addAll(List<TimetableBean> beans) throws ApplicationException, DuplicateRecordException {
+		if (beans.isEmpty()) {
+			return 0;
+		}
+		Connection conn = null;
+		try {
+			long[] keys = KeyAllocatorFactory.getAllocator().nextKeys("st_timetable", beans.size());
+			conn = JDBCDataSource.getConnection();
+			conn.setAutoCommit(false); // Begin transaction
+			TimetableBean conflict = findTaken(conn, beans);
+			if (conflict != null) {
+				conn.rollback();
+				throw new DuplicateRecordException("Course " + conflict.getCourseName() + " already has an exam on "
+						+ new java.sql.Date(conflict.getExamDate().getTime()));
+			}
+			PreparedStatement pstmt = conn
+					.prepareStatement("insert into st_timetable values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+			for (int i = 0; i < beans.size(); i++) {
+				TimetableBean bean = beans.get(i);
+				bean.setId(keys[i]);
+				pstmt.setLong(1, bean.getId());
+				pstmt.setString(2, bean.getSemester());
+				pstmt.setString(3, bean.getDescription());
+				pstmt.setDate(4, new java.sql.Date(bean.getExamDate().getTime()));
+				pstmt.setString(5, bean.getExamTime());
+				pstmt.setLong(6, bean.getCourseId());
+				pstmt.setString(7, bean.getCourseName());
+				pstmt.setLong(8, bean.getSubjectId());
+				pstmt.setString(9, bean.getSubjectName());
+				pstmt.setString(10, bean.getCreatedBy());
+				pstmt.setString(11, bean.getModifiedBy());
+				pstmt.setTimestamp(12, bean.getCreatedDatetime());
+				pstmt.setTimestamp(13, bean.getModifiedDatetime());
+				pstmt.addBatch();
+			}
+			pstmt.executeBatch();
+			conn.commit(); // End transaction
+			pstmt.close();
+		} catch (DuplicateRecordException e) {
+			throw e;
+		} catch (Exception e) {
+			try {
+				if (conn != null) {
+					conn.rollback();
+				}
+			} catch (Exception ex) {
+				throw new ApplicationException("Exception : add rollback exception " + ex.getMessage());
+			}
+			throw new ApplicationException("Exception : Exception in add Timetable");
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+		return beans.size();
+	}
+
+	/**
+	 * Looks up the {@code (course_id, exam_date)} pairs of the timetables with
+	 * one query over the index. The rows and gaps read are locked until the
+	 * transaction ends, so no other exam of these courses and dates can be
+	 * added meanwhile.
+	 *
+	 * @param conn  connection of the open transaction
+	 * @param beans timetables to be added
+	 * @return the first timetable whose course already has an exam on its
+	 *         date, null if there is none
+	 * @throws SQLException if the query fails
+	 */
+	private TimetableBean findTaken(Connection conn, List<TimetableBean> beans) throws SQLException {
+		Map<String, TimetableBean> pairs = new LinkedHashMap<String, TimetableBean>();
+		for (TimetableBean bean : beans) {
+			java.sql.Date date = new java.sql.Date(bean.getExamDate().getTime());
+			pairs.putIfAbsent(bean.getCourseId() + " " + date, bean);
+		}
+
+		StringBuilder sql = new StringBuilder(
+				"select course_id, exam_date from st_timetable where (course_id, exam_date) in (");
+		for (int i = 0; i < pairs.size(); i++) {
+			sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+		}
+		sql.append(") limit 1 for update");
+
+		TimetableBean taken = null;
+		PreparedStatement pstmt = conn.prepareStatement(sql.toString());
+		int i = 1;
+		for (TimetableBean bean : pairs.values()) {
+			pstmt.setLong(i++, bean.getCourseId());
+			pstmt.setDate(i++, new java.sql.Date(bean.getExamDate().getTime()));
+		}
+		ResultSet rs = pstmt.executeQuery();
+		if (rs.next()) {
+			taken = pairs.getOrDefault(rs.getLong(1) + " " + rs.getDate(2), beans.get(0));
+		}
+		rs.close();
+		pstmt.close();
+		return taken;
+	}
+
 	 /**
      * Updates an existing timetable entry.
      *
@@ -120,13 +222,7 @@ public class TimetableModel {
 
 		Connection conn = null;
 
-		CourseModel courseModel = new CourseModel();
-		CourseBean courseBean = courseModel.findByPk(bean.getCourseId());
-		bean.setCourseName(courseBean.getName());
-
-		SubjectModel subjectModel = new SubjectModel();
-		SubjectBean subjectBean = subjectModel.findByPk(bean.getSubjectId());
-		bean.setSubjectName(subjectBean.getName());
+		resolveNames(bean);
 
 		try {
 			conn = JDBCDataSource.getConnection();
@@ -163,6 +259,23 @@ public class TimetableModel {
 		}
 	}
 
+	/**
+	 * Sets the course and subject names of the bean, unless
+	 * {@link #checkConflicts(TimetableBean)} already read them.
+	 */
+	private void resolveNames(TimetableBean bean) throws ApplicationException {
+		if (bean.getCourseName() == null) {
+			CourseModel courseModel = new CourseModel();
+			CourseBean courseBean = courseModel.findByPk(bean.getCourseId());
+			bean.setCourseName(courseBean.getName());
+		}
+		if (bean.getSubjectName() == null) {
+			SubjectModel subjectModel = new SubjectModel();
+			SubjectBean subjectBean = subjectModel.findByPk(bean.getSubjectId());
+			bean.setSubjectName(subjectBean.getName());
+		}
+	}
+
 	 /**
      * Deletes a timetable entry.
      *
@@ -192,6 +305,41 @@ public class TimetableModel {
 		}
 	}
 
+	/**
+	 * Deletes the timetables of the given ids with a single statement per
+	 * {@link BulkDelete#CHUNK_SIZE} ids, in one transaction.
+	 *
+	 * @param ids primary keys of the records to delete
+	 * @return number of deleted records
+	 * @throws ApplicationException if the delete fails; nothing is deleted then
+	 */
+	public int deleteAll(long[] ids) throws ApplicationException {
+
+		try {
+			return BulkDelete.deleteAll("st_timetable", ids);
+		} catch (SQLException e) {
+			throw new ApplicationException("Exception : Exception in delete Timetable");
+		}
+	}
+
+	/**
+	 * Writes the timetables matching the search filters to CSV, streaming them
+	 * from the database without loading the whole list.
+	 *
+	 * @param bean search filters, null for all records
+	 * @param out  CSV output
+	 * @return number of records written
+	 * @throws ApplicationException if the export fails
+	 */
+	public long export(TimetableBean bean, Writer out) throws ApplicationException {
+
+		try {
+			return CsvExport.write(criteria(bean), out);
+		} catch (SQLException | IOException e) {
+			throw new ApplicationException("Exception : Exception in export Timetable");
+		}
+	}
+
 	   /**
      * Finds timetable by its primary key.
      *
@@ -204,7 +352,7 @@ public class TimetableModel {
 		TimetableBean bean = null;
 		Connection conn = null;
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection();
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
 			pstmt.setLong(1, pk);
 			ResultSet rs = pstmt.executeQuery();
@@ -234,173 +382,116 @@ public class TimetableModel {
 		return bean;
 	}
 
-	 /**
-     * Checks if timetable exists for given course on a specific exam date.
-     */
-	public TimetableBean checkByCourseName(Long courseId, Date examDate) throws ApplicationException {
-		StringBuffer sql = new StringBuffer("select * from st_timetable where course_id = ? and exam_date = ?");
-		TimetableBean bean = null;
-		Connection conn = null;
-
-		try {
-			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
-			pstmt.setLong(1, courseId);
-			pstmt.setDate(2, new java.sql.Date(examDate.getTime()));
+	/**
+	 * A timetable that conflicts with the one being saved, with the most
+	 * specific rule it breaks.
+	 */
+	public static final class Conflict {
 
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				bean = new TimetableBean();
-				bean.setId(rs.getLong(1));
-				bean.setSemester(rs.getString(2));
-				bean.setDescription(rs.getString(3));
-				bean.setExamDate(rs.getDate(4));
-				bean.setExamTime(rs.getString(5));
-				bean.setCourseId(rs.getLong(6));
-				bean.setCourseName(rs.getString(7));
-				bean.setSubjectId(rs.getLong(8));
-				bean.setSubjectName(rs.getString(9));
-				bean.setCreatedBy(rs.getString(10));
-				bean.setModifiedBy(rs.getString(11));
-				bean.setCreatedDatetime(rs.getTimestamp(12));
-				bean.setModifiedDatetime(rs.getTimestamp(13));
-			}
-			rs.close();
-			pstmt.close();
-		} catch (Exception e) {
-			throw new ApplicationException("Exception : Exception in get Timetable");
+		/** Another exam of the same course on the exam date */
+		public static final String COURSE = "course";
 
-		} finally {
-			JDBCDataSource.closeConnection(conn);
-		}
-		return bean;
-	}
+		/** Another exam of the same course and subject on the exam date */
+		public static final String SUBJECT = "subject";
 
-	  /**
-     * Checks if timetable exists for given subject, course, and exam date.
-     */
-	public TimetableBean checkBySubjectName(Long courseId, Long subjectId, Date examDate) throws ApplicationException {
-		StringBuffer sql = new StringBuffer(
-				"select * from st_timetable where course_id = ? and subject_id = ? and exam_date = ?");
-		TimetableBean bean = null;
-		Connection conn = null;
+		/** Another exam of the same course, subject and semester on the exam date */
+		public static final String SEMESTER = "semester";
 
-		try {
-			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
-			pstmt.setLong(1, courseId);
-			pstmt.setLong(2, subjectId);
-			pstmt.setDate(3, new java.sql.Date(examDate.getTime()));
+		/** The same exam, including time and description */
+		public static final String EXAM = "exam";
 
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				bean = new TimetableBean();
-				bean.setId(rs.getLong(1));
-				bean.setSemester(rs.getString(2));
-				bean.setDescription(rs.getString(3));
-				bean.setExamDate(rs.getDate(4));
-				bean.setExamTime(rs.getString(5));
-				bean.setCourseId(rs.getLong(6));
-				bean.setCourseName(rs.getString(7));
-				bean.setSubjectId(rs.getLong(8));
-				bean.setSubjectName(rs.getString(9));
-				bean.setCreatedBy(rs.getString(10));
-				bean.setModifiedBy(rs.getString(11));
-				bean.setCreatedDatetime(rs.getTimestamp(12));
-				bean.setModifiedDatetime(rs.getTimestamp(13));
-			}
-			rs.close();
-			pstmt.close();
-		} catch (Exception e) {
-			throw new ApplicationException("Exception : Exception in get Timetable");
+		private final String rule;
+		private final TimetableBean timetable;
 
-		} finally {
-			JDBCDataSource.closeConnection(conn);
+		private Conflict(String rule, TimetableBean timetable) {
+			this.rule = rule;
+			this.timetable = timetable;
 		}
-		return bean;
-	}
 
-	 /**
-     * Checks timetable by semester, course, subject, and exam date.
-     */
-	public TimetableBean checkBySemester(Long courseId, Long subjectId, String semester, Date examDate)
-			throws ApplicationException {
-		StringBuffer sql = new StringBuffer(
-				"select * from st_timetable where course_id = ? and subject_id = ? and semester = ? and exam_date = ?");
-		TimetableBean bean = null;
-		Connection conn = null;
+		/**
+		 * @return one of {@link #COURSE}, {@link #SUBJECT}, {@link #SEMESTER}
+		 *         and {@link #EXAM}
+		 */
+		public String getRule() {
+			return rule;
+		}
 
-		try {
-			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
-			pstmt.setLong(1, courseId);
-			pstmt.setLong(2, subjectId);
-			pstmt.setString(3, semester);
-			pstmt.setDate(4, new java.sql.Date(examDate.getTime()));
+		/**
+		 * @return the conflicting timetable
+		 */
+		public TimetableBean getTimetable() {
+			return timetable;
+		}
 
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				bean = new TimetableBean();
-				bean.setId(rs.getLong(1));
-				bean.setSemester(rs.getString(2));
-				bean.setDescription(rs.getString(3));
-				bean.setExamDate(rs.getDate(4));
-				bean.setExamTime(rs.getString(5));
-				bean.setCourseId(rs.getLong(6));
-				bean.setCourseName(rs.getString(7));
-				bean.setSubjectId(rs.getLong(8));
-				bean.setSubjectName(rs.getString(9));
-				bean.setCreatedBy(rs.getString(10));
-				bean.setModifiedBy(rs.getString(11));
-				bean.setCreatedDatetime(rs.getTimestamp(12));
-				bean.setModifiedDatetime(rs.getTimestamp(13));
+		/**
+		 * @return message for the user
+		 */
+		public String getMessage() {
+			String exam = timetable.getSubjectName() + " (" + timetable.getExamTime() + ")";
+			switch (rule) {
+			case EXAM:
+				return "Timetable already exist!";
+			case SEMESTER:
+				return "Semester " + timetable.getSemester() + " already has the exam " + exam + " on this date";
+			case SUBJECT:
+				return "Subject already has an exam on this date in semester " + timetable.getSemester();
+			default:
+				return "Course already has the exam " + exam + " on this date";
 			}
-			rs.close();
-			pstmt.close();
-		} catch (Exception e) {
-			throw new ApplicationException("Exception : Exception in get Timetable");
-		} finally {
-			JDBCDataSource.closeConnection(conn);
 		}
-		return bean;
 	}
 
 	/**
-     * Checks timetable by exam time and description.
-     */
-	public TimetableBean checkByExamTime(Long courseId, Long subjectId, String semester, Date examDate, String examTime,
-			String description) throws ApplicationException {
-		StringBuffer sql = new StringBuffer(
-				"select * from st_timetable where course_id = ? and subject_id = ? and semester = ? and exam_date = ? and exam_time = ? and description = ?");
-		TimetableBean bean = null;
+	 * Finds every timetable that conflicts with the given one, with a single
+	 * query over the {@code (course_id, exam_date)} index; all conflict rules
+	 * are refinements of the same course on the same date. The record itself is
+	 * not reported when it is being updated.
+	 *
+	 * <p>
+	 * The same query reads the course and subject names into the bean, so
+	 * {@link #add(TimetableBean)} and {@link #update(TimetableBean)} do not
+	 * look them up again.
+	 * </p>
+	 *
+	 * @param bean timetable to be saved
+	 * @return conflicting timetables, empty if there are none
+	 * @throws ApplicationException if the course or subject does not exist or
+	 *                              the query fails
+	 */
+	public List<Conflict> checkConflicts(TimetableBean bean) throws ApplicationException {
+
+		List<Conflict> conflicts = new ArrayList<Conflict>();
+		boolean found = false;
 		Connection conn = null;
 
 		try {
 			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
-			pstmt.setLong(1, courseId);
-			pstmt.setLong(2, subjectId);
-			pstmt.setString(3, semester);
-			pstmt.setDate(4, new java.sql.Date(examDate.getTime()));
-			pstmt.setString(5, examTime);
-			pstmt.setString(6, description);
-
+			PreparedStatement pstmt = conn.prepareStatement("select c.name, s.name, t.id, t.semester, t.description,"
+					+ " t.exam_date, t.exam_time, t.subject_id, t.subject_name from st_course c join st_subject s on s.id = ?"
+					+ " left join st_timetable t on t.course_id = c.id and t.exam_date = ? and t.id <> ? where c.id = ?");
+			pstmt.setLong(1, bean.getSubjectId());
+			pstmt.setDate(2, new java.sql.Date(bean.getExamDate().getTime()));
+			pstmt.setLong(3, bean.getId());
+			pstmt.setLong(4, bean.getCourseId());
 			ResultSet rs = pstmt.executeQuery();
 			while (rs.next()) {
-				bean = new TimetableBean();
-				bean.setId(rs.getLong(1));
-				bean.setSemester(rs.getString(2));
-				bean.setDescription(rs.getString(3));
-				bean.setExamDate(rs.getDate(4));
-				bean.setExamTime(rs.getString(5));
-				bean.setCourseId(rs.getLong(6));
-				bean.setCourseName(rs.getString(7));
-				bean.setSubjectId(rs.getLong(8));
-				bean.setSubjectName(rs.getString(9));
-				bean.setCreatedBy(rs.getString(10));
-				bean.setModifiedBy(rs.getString(11));
-				bean.setCreatedDatetime(rs.getTimestamp(12));
-				bean.setModifiedDatetime(rs.getTimestamp(13));
+				found = true;
+				bean.setCourseName(rs.getString(1));
+				bean.setSubjectName(rs.getString(2));
+				if (rs.getObject(3) == null) {
+					continue;
+				}
+				TimetableBean other = new TimetableBean();
+				other.setId(rs.getLong(3));
+				other.setSemester(rs.getString(4));
+				other.setDescription(rs.getString(5));
+				other.setExamDate(rs.getDate(6));
+				other.setExamTime(rs.getString(7));
+				other.setCourseId(bean.getCourseId());
+				other.setCourseName(bean.getCourseName());
+				other.setSubjectId(rs.getLong(8));
+				other.setSubjectName(rs.getString(9));
+				conflicts.add(new Conflict(rule(bean, other), other));
 			}
 			rs.close();
 			pstmt.close();
@@ -409,7 +500,35 @@ public class TimetableModel {
 		} finally {
 			JDBCDataSource.closeConnection(conn);
 		}
-		return bean;
+
+		if (!found) {
+			throw new ApplicationException("Exception : Course or Subject does not exist");
+		}
+		return conflicts;
+	}
+
+	/**
+	 * Most specific rule broken by a timetable of the same course and date.
+	 */
+	private static String rule(TimetableBean bean, TimetableBean other) {
+		if (other.getSubjectId() != bean.getSubjectId()) {
+			return Conflict.COURSE;
+		}
+		if (!equalsIgnoreCase(other.getSemester(), bean.getSemester())) {
+			return Conflict.SUBJECT;
+		}
+		if (!equalsIgnoreCase(other.getExamTime(), bean.getExamTime())
+				|| !equalsIgnoreCase(other.getDescription(), bean.getDescription())) {
+			return Conflict.SEMESTER;
+		}
+		return Conflict.EXAM;
+	}
+
+	/**
+	 * String comparison of MySQL's default case insensitive collation.
+	 */
+	private static boolean equalsIgnoreCase(String a, String b) {
+		return (a == null) ? b == null : a.equalsIgnoreCase(b);
 	}
 
 	 /**
@@ -422,73 +541,89 @@ public class TimetableModel {
      * @throws ApplicationException if search fails
      */
 	public List<TimetableBean> search(TimetableBean bean, int pageNo, int pageSize) throws ApplicationException {
-		StringBuffer sql = new StringBuffer("select * from st_timetable where 1=1");
-
-		if (bean != null) {
-			if (bean.getId() > 0) {
-				sql.append(" and id = " + bean.getId());
-			}
-			if (bean.getCourseId() > 0) {
-				sql.append(" and course_id = " + bean.getCourseId());
-			}
-			if (bean.getCourseName() != null && bean.getCourseName().length() > 0) {
-				sql.append(" and course_name like '" + bean.getCourseName() + "%'");
-			}
-			if (bean.getSubjectId() > 0) {
-				sql.append(" and subject_id = " + bean.getSubjectId());
-			}
-			if (bean.getSubjectName() != null && bean.getSubjectName().length() > 0) {
-				sql.append(" and subject_name like '" + bean.getSubjectName() + "%'");
-			}
-			if (bean.getSemester() != null && bean.getSemester().length() > 0) {
-				sql.append(" and semester like '" + bean.getSemester() + "%'");
-			}
-			if (bean.getDescription() != null && bean.getDescription().length() > 0) {
-				sql.append(" and description like '" + bean.getDescription() + "%'");
-			}
-			if (bean.getExamDate() != null && bean.getExamDate().getDate() > 0) {
-				sql.append(" and exam_date like '" + new java.sql.Date(bean.getExamDate().getTime()) + "%'");
-			}
-			if (bean.getExamTime() != null && bean.getExamTime().length() > 0) {
-				sql.append(" and exam_time like '" + bean.getExamTime() + "%'");
-			}
-		}
+		return searchPage(bean, pageNo, pageSize).getList();
+	}
 
-		if (pageSize > 0) {
-			pageNo = (pageNo - 1) * pageSize;
-			sql.append(" limit " + pageNo + ", " + pageSize);
+	/**
+	 * Searches timetable records a page at a time. A single query reads one
+	 * record more than the page size to find out whether a next page exists.
+	 *
+	 * @param bean     filter criteria (nullable)
+	 * @param pageNo   page number, starting at 1
+	 * @param pageSize number of records per page, 0 for all records
+	 * @return page of matching TimetableBean
+	 * @throws ApplicationException for general DB errors
+	 */
+	public Page<TimetableBean> searchPage(TimetableBean bean, int pageNo, int pageSize) throws ApplicationException {
+		try {
+			return Pagination.offset(criteria(bean), pageNo, pageSize, this::populate);
+		} catch (Exception e) {
+			throw new ApplicationException("Exception : Exception in search Timetable");
 		}
+	}
 
-		ArrayList<TimetableBean> list = new ArrayList<TimetableBean>();
-		Connection conn = null;
+	/**
+	 * Searches timetable records with keyset (seek) pagination ordered by id.
+	 * Every page costs the same as the first one, however deep the user pages.
+	 *
+	 * @param bean     filter criteria (nullable)
+	 * @param cursor   position to read from, null for the first page
+	 * @param pageSize number of records per page
+	 * @return page of matching TimetableBean
+	 * @throws ApplicationException for general DB errors
+	 */
+	public Page<TimetableBean> search(TimetableBean bean, Cursor cursor, int pageSize) throws ApplicationException {
 		try {
-			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				bean = new TimetableBean();
-				bean.setId(rs.getLong(1));
-				bean.setSemester(rs.getString(2));
-				bean.setDescription(rs.getString(3));
-				bean.setExamDate(rs.getDate(4));
-				bean.setExamTime(rs.getString(5));
-				bean.setCourseId(rs.getLong(6));
-				bean.setCourseName(rs.getString(7));
-				bean.setSubjectId(rs.getLong(8));
-				bean.setSubjectName(rs.getString(9));
-				bean.setCreatedBy(rs.getString(10));
-				bean.setModifiedBy(rs.getString(11));
-				bean.setCreatedDatetime(rs.getTimestamp(12));
-				bean.setModifiedDatetime(rs.getTimestamp(13));
-				list.add(bean);
-			}
-			rs.close();
-			pstmt.close();
+			return Pagination.seek(criteria(bean), cursor, pageSize, this::populate);
 		} catch (Exception e) {
 			throw new ApplicationException("Exception : Exception in search Timetable");
-		} finally {
-			JDBCDataSource.closeConnection(conn);
 		}
-		return list;
+	}
+
+	/**
+	 * Builds the parameterized st_timetable search with the filters set in the bean.
+	 *
+	 * @param bean filter criteria (nullable)
+	 * @return Criteria
+	 */
+	private Criteria criteria(TimetableBean bean) {
+		Criteria c = Criteria.from("st_timetable");
+		if (bean != null) {
+			c.eq("id", bean.getId());
+			c.eq("course_id", bean.getCourseId());
+			c.startsWith("course_name", bean.getCourseName());
+			c.eq("subject_id", bean.getSubjectId());
+			c.startsWith("subject_name", bean.getSubjectName());
+			c.startsWith("semester", bean.getSemester());
+			c.startsWith("description", bean.getDescription());
+			c.eq("exam_date", bean.getExamDate());
+			c.startsWith("exam_time", bean.getExamTime());
+		}
+		return c;
+	}
+
+	/**
+	 * Maps the current row of st_timetable to a TimetableBean.
+	 *
+	 * @param rs ResultSet positioned on a row
+	 * @return populated bean
+	 * @throws SQLException if a column cannot be read
+	 */
+	TimetableBean populate(ResultSet rs) throws SQLException {
+		TimetableBean bean = new TimetableBean();
+		bean.setId(rs.getLong(1));
+		bean.setSemester(rs.getString(2));
+		bean.setDescription(rs.getString(3));
+		bean.setExamDate(rs.getDate(4));
+		bean.setExamTime(rs.getString(5));
+		bean.setCourseId(rs.getLong(6));
+		bean.setCourseName(rs.getString(7));
+		bean.setSubjectId(rs.getLong(8));
+		bean.setSubjectName(rs.getString(9));
+		bean.setCreatedBy(rs.getString(10));
+		bean.setModifiedBy(rs.getString(11));
+		bean.setCreatedDatetime(rs.getTimestamp(12));
+		bean.setModifiedDatetime(rs.getTimestamp(13));
+		return bean;
 	}
 }
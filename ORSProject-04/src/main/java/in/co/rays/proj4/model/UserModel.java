@@ -1,8 +1,11 @@
 package in.co.rays.proj4.model;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -14,8 +17,9 @@ import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.exception.RecordNotFoundException;
 import in.co.rays.proj4.util.EmailBuilder;
 import in.co.rays.proj4.util.EmailMessage;
-import in.co.rays.proj4.util.EmailUtility;
+import in.co.rays.proj4.util.EmailOutbox;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.KeyAllocatorFactory;
 
 /**
  * UserModel handles all database operations related to User entity such as add,
@@ -36,25 +40,7 @@ public class UserModel {
 	 * @throws DatabaseException if any database error occurs
 	 */
 	public Integer nextPk() throws DatabaseException {
-
-		Connection conn = null;
-		int pk = 0;
-
-		try {
-			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement("select max(id) from st_user");
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				pk = rs.getInt(1);
-			}
-			rs.close();
-			pstmt.close();
-		} catch (Exception e) {
-			throw new DatabaseException("Exception : Exception in getting PK");
-		} finally {
-			JDBCDataSource.closeConnection(conn);
-		}
-		return pk + 1;
+		return (int) KeyAllocatorFactory.getAllocator().nextKey("st_user");
 	}
 
 	/**
@@ -66,6 +52,19 @@ public class UserModel {
 	 * @throws DuplicateRecordException if the login ID already exists
 	 */
 	public long add(UserBean bean) throws ApplicationException, DuplicateRecordException {
+		return add(bean, null);
+	}
+
+	/**
+	 * Adds a new User and queues an email in the same transaction.
+	 *
+	 * @param bean the UserBean containing user details
+	 * @param mail email to queue in {@link EmailOutbox}, or null
+	 * @return primary key of the newly added user
+	 * @throws ApplicationException     if an application-level exception occurs
+	 * @throws DuplicateRecordException if the login ID already exists
+	 */
+	private long add(UserBean bean, EmailMessage mail) throws ApplicationException, DuplicateRecordException {
 
 		Connection conn = null;
 		int pk = 0;
@@ -96,6 +95,9 @@ public class UserModel {
 			pstmt.setTimestamp(12, bean.getCreatedDatetime());
 			pstmt.setTimestamp(13, bean.getModifiedDatetime());
 			pstmt.executeUpdate();
+			if (mail != null) {
+				EmailOutbox.enqueue(conn, mail);
+			}
 
 			conn.commit();
 			pstmt.close();
@@ -123,6 +125,19 @@ public class UserModel {
 	 * @throws ApplicationException     if an application-level exception occurs
 	 */
 	public void update(UserBean bean) throws DuplicateRecordException, ApplicationException {
+		update(bean, null);
+	}
+
+	/**
+	 * Updates an existing user and queues an email in the same transaction.
+	 *
+	 * @param bean the UserBean containing updated user details
+	 * @param mail email to queue in {@link EmailOutbox}, or null
+	 * @throws DuplicateRecordException if the login ID already exists for another
+	 *                                  user
+	 * @throws ApplicationException     if an application-level exception occurs
+	 */
+	private void update(UserBean bean, EmailMessage mail) throws DuplicateRecordException, ApplicationException {
 
 		Connection conn = null;
 
@@ -151,6 +166,9 @@ public class UserModel {
 			pstmt.setTimestamp(12, bean.getModifiedDatetime());
 			pstmt.setLong(13, bean.getId());
 			pstmt.executeUpdate();
+			if (mail != null) {
+				EmailOutbox.enqueue(conn, mail);
+			}
 			conn.commit();
 			pstmt.close();
 		} catch (Exception e) {
@@ -196,6 +214,41 @@ public class UserModel {
 		}
 	}
 
+	/**
+	 * Deletes the users of the given ids with a single statement per
+	 * {@link BulkDelete#CHUNK_SIZE} ids, in one transaction.
+	 *
+	 * @param ids primary keys of the records to delete
+	 * @return number of deleted records
+	 * @throws ApplicationException if the delete fails; nothing is deleted then
+	 */
+	public int deleteAll(long[] ids) throws ApplicationException {
+
+		try {
+			return BulkDelete.deleteAll("st_user", ids);
+		} catch (SQLException e) {
+			throw new ApplicationException("Exception : Exception in delete User");
+		}
+	}
+
+	/**
+	 * Writes the users matching the search filters to CSV, streaming them
+	 * from the database without loading the whole list. Passwords are not exported.
+	 *
+	 * @param bean search filters, null for all records
+	 * @param out  CSV output
+	 * @return number of records written
+	 * @throws ApplicationException if the export fails
+	 */
+	public long export(UserBean bean, Writer out) throws ApplicationException {
+
+		try {
+			return CsvExport.write(criteria(bean), out, "password");
+		} catch (SQLException | IOException e) {
+			throw new ApplicationException("Exception : Exception in export User");
+		}
+	}
+
 	/**
 	 * Finds a user by primary key.
 	 *
@@ -211,7 +264,7 @@ public class UserModel {
 		StringBuffer sql = new StringBuffer("select * from st_user where id = ?");
 
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection();
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
 			pstmt.setLong(1, pk);
 			ResultSet rs = pstmt.executeQuery();
@@ -345,81 +398,96 @@ public class UserModel {
 	 * @throws ApplicationException if an application-level exception occurs
 	 */
 	public List<UserBean> search(UserBean bean, int pageNo, int pageSize) throws ApplicationException {
+		return searchPage(bean, pageNo, pageSize).getList();
+	}
 
-		Connection conn = null;
-		ArrayList<UserBean> list = new ArrayList<UserBean>();
-
-		StringBuffer sql = new StringBuffer("select * from st_user where 1=1");
-
-		if (bean != null) {
-			if (bean.getId() > 0) {
-				sql.append(" and id = " + bean.getId());
-			}
-			if (bean.getFirstName() != null && bean.getFirstName().length() > 0) {
-				sql.append(" and first_name like '" + bean.getFirstName() + "%'");
-			}
-			if (bean.getLastName() != null && bean.getLastName().length() > 0) {
-				sql.append(" and last_name like '" + bean.getLastName() + "%'");
-			}
-			if (bean.getLogin() != null && bean.getLogin().length() > 0) {
-				sql.append(" and login like '" + bean.getLogin() + "%'");
-			}
-			if (bean.getPassword() != null && bean.getPassword().length() > 0) {
-				sql.append(" and password like '" + bean.getPassword() + "%'");
-			}
-			if (bean.getDob() != null && bean.getDob().getTime() > 0) {
-				sql.append(" and dob like '" + new java.sql.Date(bean.getDob().getTime()) + "%'");
-			}
-			if (bean.getMobileNo() != null && bean.getMobileNo().length() > 0) {
-				sql.append(" and mobile_no = " + bean.getMobileNo());
-			}
-			if (bean.getRoleId() > 0) {
-				sql.append(" and role_id = " + bean.getRoleId());
-			}
-			if (bean.getGender() != null && bean.getGender().length() > 0) {
-				sql.append(" and gender like '" + bean.getGender() + "%'");
-			}
-		}
-
-		if (pageSize > 0) {
-			pageNo = (pageNo - 1) * pageSize;
-			sql.append(" limit " + pageNo + ", " + pageSize);
-		}
-		System.out.println("sql ===== > " + sql.toString());
+	/**
+	 * Searches user records a page at a time. A single query reads one
+	 * record more than the page size to find out whether a next page exists.
+	 *
+	 * @param bean     filter criteria (nullable)
+	 * @param pageNo   page number, starting at 1
+	 * @param pageSize number of records per page, 0 for all records
+	 * @return page of matching UserBean
+	 * @throws ApplicationException for general DB errors
+	 */
+	public Page<UserBean> searchPage(UserBean bean, int pageNo, int pageSize) throws ApplicationException {
 		try {
-			conn = JDBCDataSource.getConnection();
-			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				bean = new UserBean();
-				bean.setId(rs.getLong(1));
-				bean.setFirstName(rs.getString(2));
-				bean.setLastName(rs.getString(3));
-				bean.setLogin(rs.getString(4));
-				bean.setPassword(rs.getString(5));
-				bean.setDob(rs.getDate(6));
-				bean.setMobileNo(rs.getString(7));
-				bean.setRoleId(rs.getLong(8));
-				bean.setGender(rs.getString(9));
-				bean.setCreatedBy(rs.getString(10));
-				bean.setModifiedBy(rs.getString(11));
-				bean.setCreatedDatetime(rs.getTimestamp(12));
-				bean.setModifiedDatetime(rs.getTimestamp(13));
-				list.add(bean);
-			}
-			rs.close();
-			pstmt.close();
+			return Pagination.offset(criteria(bean), pageNo, pageSize, this::populate);
 		} catch (Exception e) {
 			e.printStackTrace();
 			throw new ApplicationException("Exception : Exception in search user");
-		} finally {
-			JDBCDataSource.closeConnection(conn);
 		}
-		return list;
 	}
 
 	/**
-	 * Changes the password of a user.
+	 * Searches user records with keyset (seek) pagination ordered by id.
+	 * Every page costs the same as the first one, however deep the user pages.
+	 *
+	 * @param bean     filter criteria (nullable)
+	 * @param cursor   position to read from, null for the first page
+	 * @param pageSize number of records per page
+	 * @return page of matching UserBean
+	 * @throws ApplicationException for general DB errors
+	 */
+	public Page<UserBean> search(UserBean bean, Cursor cursor, int pageSize) throws ApplicationException {
+		try {
+			return Pagination.seek(criteria(bean), cursor, pageSize, this::populate);
+		} catch (Exception e) {
+			throw new ApplicationException("Exception : Exception in search User");
+		}
+	}
+
+	/**
+	 * Builds the parameterized st_user search with the filters set in the bean.
+	 *
+	 * @param bean filter criteria (nullable)
+	 * @return Criteria
+	 */
+	private Criteria criteria(UserBean bean) {
+		Criteria c = Criteria.from("st_user");
+		if (bean != null) {
+			c.eq("id", bean.getId());
+			c.startsWith("first_name", bean.getFirstName());
+			c.startsWith("last_name", bean.getLastName());
+			c.startsWith("login", bean.getLogin());
+			c.startsWith("password", bean.getPassword());
+			c.eq("dob", bean.getDob());
+			c.eq("mobile_no", bean.getMobileNo());
+			c.eq("role_id", bean.getRoleId());
+			c.startsWith("gender", bean.getGender());
+		}
+		return c;
+	}
+
+	/**
+	 * Maps the current row of st_user to a UserBean.
+	 *
+	 * @param rs ResultSet positioned on a row
+	 * @return populated bean
+	 * @throws SQLException if a column cannot be read
+	 */
+	UserBean populate(ResultSet rs) throws SQLException {
+		UserBean bean = new UserBean();
+		bean.setId(rs.getLong(1));
+		bean.setFirstName(rs.getString(2));
+		bean.setLastName(rs.getString(3));
+		bean.setLogin(rs.getString(4));
+		bean.setPassword(rs.getString(5));
+		bean.setDob(rs.getDate(6));
+		bean.setMobileNo(rs.getString(7));
+		bean.setRoleId(rs.getLong(8));
+		bean.setGender(rs.getString(9));
+		bean.setCreatedBy(rs.getString(10));
+		bean.setModifiedBy(rs.getString(11));
+		bean.setCreatedDatetime(rs.getTimestamp(12));
+		bean.setModifiedDatetime(rs.getTimestamp(13));
+		return bean;
+	}
+
+	/**
+	 * Changes the password of a user. The notification email is queued in
+	 * {@link EmailOutbox} in the same transaction as the update.
 	 *
 	 * @param id          the user ID
 	 * @param oldPassword the current password
@@ -435,17 +503,11 @@ public class UserModel {
 
 		UserBean beanExist = findByPk(id);
 
-		if (beanExist != null && beanExist.getPassword().equals(oldPassword)) {
-			beanExist.setPassword(newPassword);
-			try {
-				update(beanExist);
-				flag = true;
-			} catch (DuplicateRecordException e) {
-				throw new ApplicationException("Login Id already exist");
-			}
-		} else {
+		if (beanExist == null || !beanExist.getPassword().equals(oldPassword)) {
 			throw new RecordNotFoundException("Old Password is Invalid");
 		}
+		beanExist.setPassword(newPassword);
+
 		HashMap<String, String> map = new HashMap<String, String>();
 		map.put("login", beanExist.getLogin());
 		map.put("password", beanExist.getPassword());
@@ -460,16 +522,22 @@ public class UserModel {
 		msg.setMessage(message);
 		msg.setMessageType(EmailMessage.HTML_MSG);
 
-		EmailUtility.sendMail(msg);
+		try {
+			update(beanExist, msg);
+			flag = true;
+		} catch (DuplicateRecordException e) {
+			throw new ApplicationException("Login Id already exist");
+		}
 
 		return flag;
 	}
 
 	/**
-	 * Sends a password to the user's email for password recovery.
+	 * Queues an email with the password for password recovery. The email is
+	 * sent in the background by {@link EmailOutbox}.
 	 *
 	 * @param login the login ID (email)
-	 * @return true if email sent successfully
+	 * @return true if the email was queued
 	 * @throws RecordNotFoundException if login ID does not exist
 	 * @throws ApplicationException    if an application-level exception occurs
 	 */
@@ -497,16 +565,17 @@ public class UserModel {
 			msg.setMessage(message);
 			msg.setMessageType(EmailMessage.HTML_MSG);
 
-			EmailUtility.sendMail(msg);
+			EmailOutbox.enqueue(msg);
 			flag = true;
 		} catch (Exception e) {
-			throw new ApplicationException("Please check your internet connection..!!");
+			throw new ApplicationException("Please try again later..!!");
 		}
 		return flag;
 	}
 
 	/**
-	 * Registers a new user and sends confirmation email.
+	 * Registers a new user and queues the confirmation email in the same
+	 * transaction; it is sent in the background by {@link EmailOutbox}.
 	 *
 	 * @param bean the UserBean containing user details
 	 * @return primary key of the newly registered user
@@ -515,8 +584,6 @@ public class UserModel {
 	 */
 	public long registerUser(UserBean bean) throws DuplicateRecordException, ApplicationException {
 
-		long pk = add(bean);
-
 		HashMap<String, String> map = new HashMap<String, String>();
 		map.put("login", bean.getLogin());
 		map.put("password", bean.getPassword());
@@ -530,9 +597,7 @@ public class UserModel {
 		msg.setMessage(message);
 		msg.setMessageType(EmailMessage.HTML_MSG);
 
-		EmailUtility.sendMail(msg);
-
-		return pk;
+		return add(bean, msg);
 	}
 
 }
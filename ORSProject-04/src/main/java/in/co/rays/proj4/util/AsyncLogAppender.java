@@ -0,0 +1,281 @@
+package in.co.rays.proj4.util;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Level;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.log4j.helpers.AppenderAttachableImpl;
+import org.apache.log4j.spi.AppenderAttachable;
+import org.apache.log4j.spi.LoggingEvent;
+
+/**
+ * AsyncLogAppender hands logging events to a bounded ring buffer that a
+ * background writer drains into the file and console appenders, so request
+ * threads do not wait on disk or console output or on the appender locks.
+ *
+ * <p>
+ * {@link #install()} wraps the appenders that <code>Log4j.properties</code>
+ * attached to each logger, after the configuration is read. The thread name,
+ * NDC, MDC and message of an event are captured on the calling thread; the
+ * location (<code>%L</code>, <code>%M</code>) is not, as it needs a stack
+ * trace per event. The writer drains the buffer in batches and reports the
+ * events dropped since its last batch as a WARN event.
+ * </p>
+ *
+ * <p>
+ * When the buffer is full the {@code log.overflow} policy applies:
+ * </p>
+ * <pre>
+ * block         the caller waits for space (backpressure, nothing is lost)
+ * drop          the event is dropped and counted
+ * dropbelowwarn DEBUG and INFO events are dropped, WARN and above wait
+ * </pre>
+ *
+ * <p>
+ * Supported properties:
+ * </p>
+ * <pre>
+ * log.buffersize = 8192            (events per logger, 0 = synchronous logging)
+ * log.overflow   = dropbelowwarn
+ * </pre>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public class AsyncLogAppender extends AppenderSkeleton implements AppenderAttachable {
+
+    public static final String BLOCK = "block";
+    public static final String DROP = "drop";
+    public static final String DROP_BELOW_WARN = "dropbelowwarn";
+
+    /** Default capacity of the buffer */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /** Events written per batch */
+    private static final int BATCH_SIZE = 256;
+
+    /** Events dropped by all async appenders */
+    private static final LongAdder totalDropped = new LongAdder();
+
+    private final AppenderAttachableImpl appenders = new AppenderAttachableImpl();
+
+    private final BlockingQueue<LoggingEvent> buffer;
+
+    private final String overflow;
+
+    private final Thread writer;
+
+    private final LongAdder dropped = new LongAdder();
+
+    /** Dropped count already reported by the writer */
+    private long reported;
+
+    /**
+     * Creates the appender and starts its writer.
+     *
+     * @param name       appender name, also names the writer thread
+     * @param bufferSize capacity of the buffer
+     * @param overflow   policy when the buffer is full
+     */
+    public AsyncLogAppender(String name, int bufferSize, String overflow) {
+        setName(name);
+        this.buffer = new ArrayBlockingQueue<LoggingEvent>(bufferSize);
+        this.overflow = overflow;
+        this.writer = new Thread(this::drain, "log-writer-" + name);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Wraps the appenders of the root logger and of every other logger that
+     * has appenders in an AsyncLogAppender, as configured by
+     * {@code log.buffersize} and {@code log.overflow}. Does nothing when the
+     * buffer size is 0.
+     */
+    public static void install() {
+        String size = PropertyReader.getValue("log.buffersize");
+        int bufferSize = "log.buffersize".equals(size) ? DEFAULT_BUFFER_SIZE : DataUtility.getInt(size);
+        if (bufferSize <= 0) {
+            return;
+        }
+        String overflow = PropertyReader.getValue("log.overflow");
+        if (!BLOCK.equals(overflow) && !DROP.equals(overflow)) {
+            overflow = DROP_BELOW_WARN;
+        }
+
+        List<Logger> loggers = new ArrayList<Logger>();
+        loggers.add(LogManager.getRootLogger());
+        for (Enumeration<?> e = LogManager.getCurrentLoggers(); e.hasMoreElements();) {
+            loggers.add((Logger) e.nextElement());
+        }
+        for (Logger logger : loggers) {
+            List<Appender> attached = new ArrayList<Appender>();
+            for (Enumeration<?> e = logger.getAllAppenders(); e.hasMoreElements();) {
+                attached.add((Appender) e.nextElement());
+            }
+            if (attached.isEmpty() || attached.get(0) instanceof AsyncLogAppender) {
+                continue;
+            }
+            String name = (logger == LogManager.getRootLogger()) ? "root" : logger.getName();
+            AsyncLogAppender async = new AsyncLogAppender(name, bufferSize, overflow);
+            for (Appender appender : attached) {
+                // removeAllAppenders() would close them
+                logger.removeAppender(appender);
+                async.addAppender(appender);
+            }
+            logger.addAppender(async);
+        }
+    }
+
+    /**
+     * @return events dropped because a buffer was full
+     */
+    public static long getDropped() {
+        return totalDropped.sum();
+    }
+
+    /**
+     * Captures the thread dependent parts of the event and buffers it. Unlike
+     * {@link AppenderSkeleton#doAppend(LoggingEvent)} this takes no lock of
+     * its own.
+     *
+     * @param event logging event
+     */
+    @Override
+    public void doAppend(LoggingEvent event) {
+        if (closed || !isAsSevereAsThreshold(event.getLevel())) {
+            return;
+        }
+        append(event);
+    }
+
+    @Override
+    protected void append(LoggingEvent event) {
+        event.getNDC();
+        event.getThreadName();
+        event.getMDCCopy();
+        event.getRenderedMessage();
+        event.getThrowableStrRep();
+
+        if (buffer.offer(event)) {
+            return;
+        }
+        if (DROP.equals(overflow)
+                || (DROP_BELOW_WARN.equals(overflow) && !event.getLevel().isGreaterOrEqual(Level.WARN))) {
+            dropped.increment();
+            totalDropped.increment();
+            return;
+        }
+        try {
+            buffer.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.increment();
+            totalDropped.increment();
+        }
+    }
+
+    /**
+     * Writer loop: waits for an event and writes it with the rest of the
+     * buffer, up to a batch. Once interrupted by {@link #close()} it writes
+     * what is left and ends.
+     */
+    private void drain() {
+        List<LoggingEvent> batch = new ArrayList<LoggingEvent>(BATCH_SIZE);
+        try {
+            while (true) {
+                batch.add(buffer.take());
+                buffer.drainTo(batch, BATCH_SIZE - 1);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            buffer.drainTo(batch);
+            write(batch);
+        }
+    }
+
+    private void write(List<LoggingEvent> batch) {
+        long total = dropped.sum();
+        if (total > reported) {
+            Logger logger = Logger.getLogger(AsyncLogAppender.class);
+            appenders.appendLoopOnAppenders(new LoggingEvent(Logger.class.getName(), logger, Level.WARN,
+                    (total - reported) + " log events dropped, log buffer full", null));
+            reported = total;
+        }
+        for (LoggingEvent event : batch) {
+            appenders.appendLoopOnAppenders(event);
+        }
+    }
+
+    /**
+     * Stops accepting events, writes the buffered ones and closes the wrapped
+     * appenders.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        writer.interrupt();
+        try {
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Enumeration<?> e = appenders.getAllAppenders(); e != null && e.hasMoreElements();) {
+            ((Appender) e.nextElement()).close();
+        }
+    }
+
+    @Override
+    public boolean requiresLayout() {
+        return false;
+    }
+
+    @Override
+    public void addAppender(Appender appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Enumeration<?> getAllAppenders() {
+        return appenders.getAllAppenders();
+    }
+
+    @Override
+    public Appender getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void removeAllAppenders() {
+        appenders.removeAllAppenders();
+    }
+
+    @Override
+    public void removeAppender(Appender appender) {
+        appenders.removeAppender(appender);
+    }
+
+    @Override
+    public void removeAppender(String name) {
+        appenders.removeAppender(name);
+    }
+}
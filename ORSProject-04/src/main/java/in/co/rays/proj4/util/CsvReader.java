@@ -0,0 +1,168 @@
+package in.co.rays.proj4.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * CsvReader reads comma separated records one at a time from a stream, so
+ * files of any size can be processed without loading them into memory.
+ * </p>
+ *
+ * <p>
+ * Fields may be enclosed in double quotes; a quoted field may contain
+ * commas, line breaks and doubled quotes (<code>""</code>). Both LF and CRLF
+ * line endings are accepted, blank lines are skipped and unquoted fields are
+ * trimmed. A byte order mark at the start of the input, as written by Excel
+ * and by the CSV export of this application, is skipped.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public class CsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader in;
+
+    private final char[] buf = new char[BUFFER_SIZE];
+    private int pos;
+    private int len;
+
+    /** Current line of the input, starting at 1 */
+    private long line = 1;
+
+    /** Line on which the last returned record started */
+    private long recordLine;
+
+    private final StringBuilder field = new StringBuilder();
+
+    /** True once the byte order mark check at the start has been done */
+    private boolean started;
+
+    /**
+     * Creates a reader over the given character stream.
+     *
+     * @param in CSV input
+     */
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return field values of the record, or null at the end of the input
+     * @throws IOException if the input cannot be read or a quote is not closed
+     */
+    public String[] next() throws IOException {
+
+        List<String> fields = new ArrayList<String>();
+        int c;
+
+        if (!started) {
+            started = true;
+            c = read();
+            if (c != '\uFEFF' && c >= 0) {
+                pos--;
+            }
+        }
+
+        // skip blank lines
+        while ((c = read()) == '\r' || c == '\n') {
+            if (c == '\n') {
+                line++;
+            }
+        }
+        if (c < 0) {
+            return null;
+        }
+        recordLine = line;
+
+        while (true) {
+            field.setLength(0);
+            boolean quoted = false;
+
+            while (c == ' ' || c == '\t') {
+                field.append((char) c);
+                c = read();
+            }
+            if (c == '"') {
+                field.setLength(0);
+                quoted = true;
+                while (true) {
+                    c = read();
+                    if (c < 0) {
+                        throw new IOException("Unclosed quote in record at line " + recordLine);
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            break;
+                        }
+                    } else if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            }
+
+            // rest of the field up to the separator
+            while (c >= 0 && c != ',' && c != '\n' && c != '\r') {
+                field.append((char) c);
+                c = read();
+            }
+
+            fields.add(quoted ? field.toString() : field.toString().trim());
+
+            if (c == ',') {
+                c = read();
+                continue;
+            }
+            if (c == '\r') {
+                c = read();
+                if (c != '\n' && c >= 0) {
+                    pos--;
+                }
+            }
+            if (c == '\n') {
+                line++;
+            }
+            return fields.toArray(new String[fields.size()]);
+        }
+    }
+
+    /**
+     * @return line number on which the last record returned by
+     *         {@link #next()} started
+     */
+    public long getLineNumber() {
+        return recordLine;
+    }
+
+    /**
+     * Closes the underlying stream.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int read() throws IOException {
+        if (pos == len) {
+            len = in.read(buf, 0, BUFFER_SIZE);
+            pos = 0;
+            if (len <= 0) {
+                len = 0;
+                return -1;
+            }
+        }
+        return buf[pos++];
+    }
+}
@@ -0,0 +1,113 @@
+package in.co.rays.proj4.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * <p>
+ * CsvWriter writes comma separated records to a stream, one record at a
+ * time; the counterpart of {@link CsvReader}.
+ * </p>
+ *
+ * <p>
+ * Fields containing commas, quotes or line breaks are enclosed in double
+ * quotes. Text that a spreadsheet would run as a formula (starting with
+ * <code>=</code>, <code>+</code>, <code>-</code> or <code>@</code>) is
+ * prefixed with a single quote, numbers are written as they are.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public class CsvWriter {
+
+    private final Writer out;
+
+    /** True until the first field of the current record is written */
+    private boolean first = true;
+
+    /**
+     * Creates a writer over the given character stream.
+     *
+     * @param out CSV output
+     */
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes a field of the current record. Null is written as an empty field.
+     *
+     * @param value field value
+     * @return this writer
+     * @throws IOException if the output fails
+     */
+    public CsvWriter field(String value) throws IOException {
+        if (!first) {
+            out.write(',');
+        }
+        first = false;
+
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+
+        char c = value.charAt(0);
+        boolean formula = (c == '=' || c == '+' || c == '@' || (c == '-' && !DataValidator.isLong(value)));
+        boolean quote = formula;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            c = value.charAt(i);
+            quote = (c == ',' || c == '"' || c == '\n' || c == '\r');
+        }
+
+        if (!quote) {
+            out.write(value);
+            return this;
+        }
+        out.write('"');
+        if (formula) {
+            out.write('\'');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+        return this;
+    }
+
+    /**
+     * Ends the current record.
+     *
+     * @throws IOException if the output fails
+     */
+    public void endRecord() throws IOException {
+        out.write("\r\n");
+        first = true;
+    }
+
+    /**
+     * Writes a whole record.
+     *
+     * @param values field values
+     * @throws IOException if the output fails
+     */
+    public void record(String... values) throws IOException {
+        for (String value : values) {
+            field(value);
+        }
+        endRecord();
+    }
+
+    /**
+     * Flushes the underlying stream.
+     *
+     * @throws IOException if the output fails
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+}
@@ -2,7 +2,13 @@
 package in.co.rays.proj4.util;
 
 import java.sql.Timestamp;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Date;
 
 /**
@@ -19,6 +25,14 @@ import java.util.Date;
  * </ul>
  * </p>
  *
+ * <p>
+ * Dates are handled with immutable {@code java.time} types, so the methods
+ * are safe to call from all request threads without locking. Date strings
+ * are parsed by hand: invalid input returns null without throwing an
+ * exception, and impossible dates such as 31-02-2024 are rejected instead of
+ * rolling over into the next month.
+ * </p>
+ *
  * @author Lucky
  * @version 1.0
  */
@@ -30,9 +44,10 @@ public class DataUtility {
 	/** Application time format used for parsing and formatting timestamps. */
 	public static final String APP_TIME_FORMAT = "dd-MM-yyyy HH:mm:ss";
 
-	private static final SimpleDateFormat formatter = new SimpleDateFormat(APP_DATE_FORMAT);
+	/** Formatter of {@link #APP_DATE_FORMAT}, immutable and thread-safe */
+	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-uuuu");
 
-	private static final SimpleDateFormat timeFormatter = new SimpleDateFormat(APP_TIME_FORMAT);
+	private static final ZoneId ZONE = ZoneId.systemDefault();
 
 	/**
 	 * Returns trimmed version of the input string when it is non-null and not
@@ -91,6 +106,56 @@ public class DataUtility {
 		}
 	}
 
+	/**
+	 * Parses a date string in the application date format, or in the
+	 * {@code yyyy-MM-dd} format sent by HTML date inputs.
+	 *
+	 * @param val date string in {@value #APP_DATE_FORMAT} or yyyy-MM-dd format
+	 * @return parsed {@link LocalDate} or {@code null} if the string is not a
+	 *         valid date
+	 */
+	public static LocalDate getLocalDate(String val) {
+		if (val == null) {
+			return null;
+		}
+		String s = val.trim();
+		int n = s.length();
+		int day;
+		int month;
+		int year;
+		if (n == 10 && s.charAt(4) == '-' && s.charAt(7) == '-') {
+			year = digits(s, 0, 4);
+			month = digits(s, 5, 7);
+			day = digits(s, 8, 10);
+		} else {
+			int a = s.indexOf('-');
+			int b = s.indexOf('-', a + 1);
+			if (a < 1 || a > 2 || b - a < 2 || b - a > 3 || n - b != 5) {
+				return null;
+			}
+			day = digits(s, 0, a);
+			month = digits(s, a + 1, b);
+			year = digits(s, b + 1, n);
+		}
+		if (year < 1 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+			return null;
+		}
+		return LocalDate.of(year, month, day);
+	}
+
+	/**
+	 * Converts a {@link Date} to the local date it falls on.
+	 *
+	 * @param date date, may be a {@link java.sql.Date}
+	 * @return local date or {@code null} if date is null
+	 */
+	public static LocalDate getLocalDate(Date date) {
+		if (date == null) {
+			return null;
+		}
+		return Instant.ofEpochMilli(date.getTime()).atZone(ZONE).toLocalDate();
+	}
+
 	/**
 	 * Parses a date string using the application date format.
 	 *
@@ -98,27 +163,24 @@ public class DataUtility {
 	 * @return parsed {@link Date} or {@code null} on parse failure
 	 */
 	public static Date getDate(String val) {
-		Date date = null;
-		try {
-			date = formatter.parse(val);
-		} catch (Exception e) {
-
+		LocalDate date = getLocalDate(val);
+		if (date == null) {
+			return null;
 		}
-		return date;
+		return Date.from(date.atStartOfDay(ZONE).toInstant());
 	}
 
 	/**
 	 * Formats a {@link Date} using the application date format.
 	 *
 	 * @param date the date to format
-	 * @return formatted date string or empty string on failure
+	 * @return formatted date string or empty string if date is null
 	 */
 	public static String getDateString(Date date) {
-		try {
-			return formatter.format(date);
-		} catch (Exception e) {
+		if (date == null) {
+			return "";
 		}
-		return "";
+		return DATE_FORMATTER.format(getLocalDate(date));
 	}
 
 	/**
@@ -128,13 +190,43 @@ public class DataUtility {
 	 * @return parsed {@link Timestamp} or {@code null} on parse failure
 	 */
 	public static Timestamp getTimestamp(String val) {
-		Timestamp timeStamp = null;
-		try {
-			timeStamp = new Timestamp((timeFormatter.parse(val)).getTime());
-		} catch (Exception e) {
+		if (val == null) {
 			return null;
 		}
-		return timeStamp;
+		String s = val.trim();
+		int space = s.indexOf(' ');
+		if (space < 0 || s.length() - space != 9 || s.charAt(space + 3) != ':' || s.charAt(space + 6) != ':') {
+			return null;
+		}
+		LocalDate date = getLocalDate(s.substring(0, space));
+		int hour = digits(s, space + 1, space + 3);
+		int minute = digits(s, space + 4, space + 6);
+		int second = digits(s, space + 7, space + 9);
+		if (date == null || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+			return null;
+		}
+		return Timestamp.valueOf(LocalDateTime.of(date.getYear(), date.getMonth(), date.getDayOfMonth(), hour,
+				minute, second));
+	}
+
+	/**
+	 * Reads the decimal digits of s from index from to index to.
+	 *
+	 * @return value of the digits, -1 if there are none or any other character
+	 */
+	private static int digits(String s, int from, int to) {
+		if (from >= to) {
+			return -1;
+		}
+		int value = 0;
+		for (int i = from; i < to; i++) {
+			char c = s.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
 	}
 
 	/**
@@ -1,8 +1,9 @@
 
 package in.co.rays.proj4.util;
 
-import java.util.Calendar;
-import java.util.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.regex.Pattern;
 
 /**
  * DataValidator provides validation utilities for common input patterns used
@@ -21,13 +22,26 @@ import java.util.Date;
  *     <li>Whether a given date falls on Sunday</li>
  * </ul>
  *
- * <p>All methods are static so the class can be used without creating an instance.</p>
+ * <p>All methods are static so the class can be used without creating an instance.
+ * The regular expressions are compiled once, when the class is loaded.</p>
  *
  * @author Lucky
  * @version 1.0
  */
 public class DataValidator {
 
+    private static final Pattern EMAIL = Pattern
+            .compile("^[_A-Za-z0-9-]+(\\.[_A-Za-z0-9-]+)*@[A-Za-z0-9]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$");
+
+    private static final Pattern NAME = Pattern.compile("^[^-\\s][\\p{L} .'-]+$");
+
+    private static final Pattern ROLL_NO = Pattern.compile("[a-zA-Z]{2}[0-9]{3}");
+
+    private static final Pattern PASSWORD = Pattern
+            .compile("(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[@#$%^&+=])(?=\\S+$).{8,12}");
+
+    private static final Pattern PHONE_NO = Pattern.compile("^[6-9][0-9]{9}$");
+
     /**
      * Checks if the input string is null or empty after trimming.
      *
@@ -98,19 +112,7 @@ public class DataValidator {
      * @return true if valid email, otherwise false
      */
     public static boolean isEmail(String val) {
-
-        String emailreg = "^[_A-Za-z0-9-]+(\\.[_A-Za-z0-9-]+)*@[A-Za-z0-9]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$";
-
-        if (isNotNull(val)) {
-            try {
-                return val.matches(emailreg);
-            } catch (NumberFormatException e) {
-                return false;
-            }
-
-        } else {
-            return false;
-        }
+        return isNotNull(val) && EMAIL.matcher(val).matches();
     }
 
     /**
@@ -120,18 +122,7 @@ public class DataValidator {
      * @return true if valid name, otherwise false
      */
     public static boolean isName(String val) {
-
-        String namereg = "^[^-\\s][\\p{L} .'-]+$";
-
-        if (isNotNull(val)) {
-            try {
-                return val.matches(namereg);
-            } catch (NumberFormatException e) {
-                return false;
-            }
-        } else {
-            return false;
-        }
+        return isNotNull(val) && NAME.matcher(val).matches();
     }
 
     /**
@@ -141,18 +132,7 @@ public class DataValidator {
      * @return true if valid roll number, otherwise false
      */
     public static boolean isRollNo(String val) {
-
-        String rollreg = "[a-zA-Z]{2}[0-9]{3}";
-
-        if (isNotNull(val)) {
-            try {
-                return val.matches(rollreg);
-            } catch (NumberFormatException e) {
-                return false;
-            }
-        } else {
-            return false;
-        }
+        return isNotNull(val) && ROLL_NO.matcher(val).matches();
     }
 
     /**
@@ -170,19 +150,7 @@ public class DataValidator {
      * @return true if password is strong, otherwise false
      */
     public static boolean isPassword(String val) {
-
-        String passreg = "(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[@#$%^&+=])(?=\\S+$).{8,12}";
-
-        if (isNotNull(val)) {
-            try {
-                return val.matches(passreg);
-            } catch (NumberFormatException e) {
-                return false;
-            }
-
-        } else {
-            return false;
-        }
+        return isNotNull(val) && PASSWORD.matcher(val).matches();
     }
 
     /**
@@ -207,19 +175,7 @@ public class DataValidator {
      * @return true if valid phone number, otherwise false
      */
     public static boolean isPhoneNo(String val) {
-
-        String phonereg = "^[6-9][0-9]{9}$";
-
-        if (isNotNull(val)) {
-            try {
-                return val.matches(phonereg);
-            } catch (NumberFormatException e) {
-                return false;
-            }
-
-        } else {
-            return false;
-        }
+        return isNotNull(val) && PHONE_NO.matcher(val).matches();
     }
 
     /**
@@ -244,31 +200,18 @@ public class DataValidator {
      * @return true if valid date, otherwise false
      */
     public static boolean isDate(String val) {
-
-        Date d = null;
-        if (isNotNull(val)) {
-            d = DataUtility.getDate(val);
-        }
-        return d != null;
+        return isNotNull(val) && DataUtility.getLocalDate(val) != null;
     }
 
     /**
      * Checks whether the given date string falls on Sunday.
      *
-     * @param val date string in format yyyy-MM-dd
-     * @return true if Sunday, otherwise false
+     * @param val date string in format dd-MM-yyyy or yyyy-MM-dd
+     * @return true if Sunday, false otherwise or if val is not a valid date
      */
     public static boolean isSunday(String val) {
-
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(DataUtility.getDate(val));
-        int i = cal.get(Calendar.DAY_OF_WEEK);
-
-        if (i == Calendar.SUNDAY) {
-            return true;
-        } else {
-            return false;
-        }
+        LocalDate date = DataUtility.getLocalDate(val);
+        return date != null && date.getDayOfWeek() == DayOfWeek.SUNDAY;
     }
 
     /**
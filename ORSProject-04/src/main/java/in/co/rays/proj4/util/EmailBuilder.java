@@ -1,7 +1,7 @@
 
 package in.co.rays.proj4.util;
 
-import java.util.HashMap;
+import java.util.Map;
 
 /**
  * EmailBuilder is a utility class responsible for generating HTML-based email
@@ -14,9 +14,10 @@ import java.util.HashMap;
  * </p>
  *
  * <p>
- * This class uses a {@link HashMap} of String key-value pairs to dynamically
- * insert user-specific data such as login ID, password, first name, and last
- * name.
+ * The messages are rendered from precompiled {@link EmailTemplate}s
+ * (<code>in/co/rays/proj4/template/*.html</code>) using a {@link Map} of
+ * String key-value pairs holding user-specific data such as login ID,
+ * password, first name, and last name.
  * </p>
  *
  * <p>
@@ -33,6 +34,12 @@ import java.util.HashMap;
  */
 public class EmailBuilder {
 
+    private static final EmailTemplate REGISTRATION_TEMPLATE = EmailTemplate.get("UserRegistration");
+
+    private static final EmailTemplate FORGET_PASSWORD_TEMPLATE = EmailTemplate.get("ForgetPassword");
+
+    private static final EmailTemplate CHANGE_PASSWORD_TEMPLATE = EmailTemplate.get("ChangePassword");
+
     /**
      * Builds the HTML email content for user registration confirmation.
      *
@@ -50,17 +57,8 @@ public class EmailBuilder {
      *            </ul>
      * @return HTML formatted registration success message
      */
-    public static String getUserRegistrationMessage(HashMap<String, String> map) {
-        StringBuilder msg = new StringBuilder();
-        msg.append("<HTML><BODY>");
-        msg.append("<H1>Welcome to ORS, ").append(map.get("login")).append("!</H1>");
-        msg.append("<P>Your registration is successful. You can now log in and manage your account.</P>");
-        msg.append("<P><B>Login Id: ").append(map.get("login"))
-           .append("<BR>Password: ").append(map.get("password")).append("</B></P>");
-        msg.append("<P>Change your password after logging in for security reasons.</P>");
-        msg.append("<P>For support, contact +91 98273 60504 or hrd@sunrays.co.in.</P>");
-        msg.append("</BODY></HTML>");
-        return msg.toString();
+    public static String getUserRegistrationMessage(Map<String, String> map) {
+        return REGISTRATION_TEMPLATE.render(map);
     }
 
     /**
@@ -83,16 +81,8 @@ public class EmailBuilder {
      *            </ul>
      * @return HTML formatted forget password email
      */
-    public static String getForgetPasswordMessage(HashMap<String, String> map) {
-        StringBuilder msg = new StringBuilder();
-        msg.append("<HTML><BODY>");
-        msg.append("<H1>Password Recovery</H1>");
-        msg.append("<P>Hello, ").append(map.get("firstName")).append(" ").append(map.get("lastName")).append(".</P>");
-        msg.append("<P>Your login details are:</P>");
-        msg.append("<P><B>Login Id: ").append(map.get("login"))
-           .append("<BR>Password: ").append(map.get("password")).append("</B></P>");
-        msg.append("</BODY></HTML>");
-        return msg.toString();
+    public static String getForgetPasswordMessage(Map<String, String> map) {
+        return FORGET_PASSWORD_TEMPLATE.render(map);
     }
 
     /**
@@ -115,16 +105,7 @@ public class EmailBuilder {
      *            </ul>
      * @return HTML formatted change password notification email
      */
-    public static String getChangePasswordMessage(HashMap<String, String> map) {
-        StringBuilder msg = new StringBuilder();
-        msg.append("<HTML><BODY>");
-        msg.append("<H1>Password Changed Successfully</H1>");
-        msg.append("<P>Dear ").append(map.get("firstName")).append(" ").append(map.get("lastName"))
-           .append(", your password has been updated.</P>");
-        msg.append("<P>Your updated login details are:</P>");
-        msg.append("<P><B>Login Id: ").append(map.get("login"))
-           .append("<BR>New Password: ").append(map.get("password")).append("</B></P>");
-        msg.append("</BODY></HTML>");
-        return msg.toString();
+    public static String getChangePasswordMessage(Map<String, String> map) {
+        return CHANGE_PASSWORD_TEMPLATE.render(map);
     }
 }
@@ -0,0 +1,577 @@
+package in.co.rays.proj4.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.exception.ApplicationException;
+
+/**
+ * EmailOutbox is a persistent, asynchronous queue for outgoing email.
+ *
+ * <p>
+ * Instead of talking to the SMTP server on the servlet thread, models write
+ * the message into {@code st_email_outbox}, preferably with
+ * {@link #enqueue(Connection, EmailMessage)} inside the transaction of the
+ * change that triggers it, so the mail is sent if and only if the change
+ * commits. A background poller claims due messages and hands them to a
+ * bounded pool of workers that send them with {@link EmailUtility}.
+ * </p>
+ *
+ * <p>
+ * A failed message is retried with exponential backoff (with jitter). After
+ * {@code email.outbox.maxattempts} failures it is moved to the {@code DEAD}
+ * status (dead letter) and kept with its last error for inspection. Claimed
+ * messages are leased; if the server dies while sending, the message becomes
+ * due again when the lease expires. Several application instances can drain
+ * the same table.
+ * </p>
+ *
+ * <p>
+ * The subject and body of a sent message are cleared, as they may contain
+ * credentials. The poller deletes sent messages and dead letters older than
+ * {@code email.outbox.retentiondays}, checking once per hour.
+ * </p>
+ *
+ * <p>
+ * Required table:
+ * </p>
+ * <pre>
+ * create table st_email_outbox (
+ *     id               bigint       not null auto_increment primary key,
+ *     recipient        varchar(255) not null,
+ *     subject          varchar(255),
+ *     message          mediumtext,
+ *     message_type     int          not null,
+ *     status           varchar(10)  not null,   -- PENDING | SENDING | SENT | DEAD
+ *     attempts         int          not null default 0,
+ *     next_attempt_at  timestamp    not null,
+ *     last_error       varchar(500),
+ *     created_datetime timestamp    not null,
+ *     sent_datetime    timestamp    null,
+ *     key idx_outbox_due (status, next_attempt_at),
+ *     key idx_outbox_sent (status, sent_datetime)
+ * );
+ * </pre>
+ *
+ * <p>
+ * Supported properties:
+ * </p>
+ * <pre>
+ * email.outbox.workers        = 2     (0 = this instance does not send)
+ * email.outbox.queuesize      = 50    (batches waiting for a worker)
+ * email.outbox.batchsize      = 10    (messages sent per SMTP connection checkout)
+ * email.outbox.pollseconds    = 5
+ * email.outbox.maxattempts    = 6
+ * email.outbox.backoffseconds = 30    (doubled per failed attempt)
+ * email.outbox.maxbackoffseconds = 3600
+ * email.outbox.leaseseconds   = 300
+ * email.outbox.retentiondays  = 30    (0 = keep sent and dead messages)
+ * </pre>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public final class EmailOutbox {
+
+    private static Logger log = Logger.getLogger(EmailOutbox.class);
+
+    public static final String PENDING = "PENDING";
+    public static final String SENDING = "SENDING";
+    public static final String SENT = "SENT";
+    public static final String DEAD = "DEAD";
+
+    /** Interval between retention purges */
+    private static final long PURGE_INTERVAL = TimeUnit.HOURS.toMillis(1);
+
+    /** Rows deleted per purge statement, to keep the locks short */
+    private static final int PURGE_CHUNK = 1000;
+
+    /**
+     * A claimed message.
+     */
+    private static final class Item {
+        private final long id;
+        private final EmailMessage message;
+        private final int attempts;
+        private final long created;
+
+        private Item(long id, EmailMessage message, int attempts, long created) {
+            this.id = id;
+            this.message = message;
+            this.attempts = attempts;
+            this.created = created;
+        }
+    }
+
+    private static EmailOutbox instance;
+
+    private final int workers;
+    private final int queueSize;
+    private final int batchSize;
+    private final long pollSeconds;
+    private final int maxAttempts;
+    private final long backoff;
+    private final long maxBackoff;
+    private final long lease;
+    private final long retention;
+
+    /** Time of the next retention purge, used by the poller thread only */
+    private long nextPurge;
+
+    private ScheduledExecutorService poller;
+    private ThreadPoolExecutor pool;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dead = new LongAdder();
+
+    /** Time from enqueue to successful delivery */
+    private final LatencyHistogram deliveryLatency = new LatencyHistogram(
+            new long[] { 100, 500, 1000, 5000, 10000, 30000, 60000, 300000, 900000, 3600000 });
+
+    /** Average SMTP send time per message of a batch */
+    private final LatencyHistogram sendDuration = new LatencyHistogram();
+
+    private EmailOutbox() {
+        workers = getInt("email.outbox.workers", 2, true);
+        queueSize = getInt("email.outbox.queuesize", 50, false);
+        batchSize = getInt("email.outbox.batchsize", 10, false);
+        pollSeconds = getInt("email.outbox.pollseconds", 5, false);
+        maxAttempts = getInt("email.outbox.maxattempts", 6, false);
+        backoff = getInt("email.outbox.backoffseconds", 30, false) * 1000L;
+        maxBackoff = getInt("email.outbox.maxbackoffseconds", 3600, false) * 1000L;
+        lease = getInt("email.outbox.leaseseconds", 300, false) * 1000L;
+        retention = TimeUnit.DAYS.toMillis(getInt("email.outbox.retentiondays", 30, true));
+    }
+
+    /**
+     * @return shared EmailOutbox instance
+     */
+    public static synchronized EmailOutbox getInstance() {
+        if (instance == null) {
+            instance = new EmailOutbox();
+        }
+        return instance;
+    }
+
+    /**
+     * Writes a message into the outbox using the caller's connection. Call it
+     * before the caller commits, so the message is part of the transaction.
+     *
+     * @param conn    open connection of the caller's transaction
+     * @param message message to send
+     * @throws SQLException if the insert fails
+     */
+    public static void enqueue(Connection conn, EmailMessage message) throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        PreparedStatement pstmt = conn.prepareStatement(
+                "insert into st_email_outbox (recipient, subject, message, message_type, status, attempts, next_attempt_at, created_datetime) values (?, ?, ?, ?, ?, 0, ?, ?)");
+        pstmt.setString(1, message.getTo());
+        pstmt.setString(2, message.getSubject());
+        pstmt.setString(3, message.getMessage());
+        pstmt.setInt(4, message.getMessageType());
+        pstmt.setString(5, PENDING);
+        pstmt.setTimestamp(6, now);
+        pstmt.setTimestamp(7, now);
+        pstmt.executeUpdate();
+        pstmt.close();
+        getInstance().enqueued.increment();
+    }
+
+    /**
+     * Writes a message into the outbox in its own transaction.
+     *
+     * @param message message to send
+     * @throws ApplicationException if the message cannot be stored
+     */
+    public static void enqueue(EmailMessage message) throws ApplicationException {
+        Connection conn = null;
+        try {
+            conn = JDBCDataSource.getConnection();
+            conn.setAutoCommit(false);
+            enqueue(conn, message);
+            conn.commit();
+        } catch (Exception e) {
+            log.error("Email outbox insert failed", e);
+            try {
+                if (conn != null) {
+                    conn.rollback();
+                }
+            } catch (Exception ex) {
+                log.error("Email outbox rollback failed", ex);
+            }
+            throw new ApplicationException("Exception : Exception in email outbox " + e.getMessage());
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Starts the poller and the workers. Does nothing if
+     * {@code email.outbox.workers} is 0.
+     */
+    public synchronized void start() {
+        if (poller != null || workers == 0) {
+            return;
+        }
+        pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize), threads("email-outbox-worker"),
+                new ThreadPoolExecutor.AbortPolicy());
+        poller = Executors.newSingleThreadScheduledExecutor(threads("email-outbox-poller"));
+        poller.scheduleWithFixedDelay(this::poll, pollSeconds, pollSeconds, TimeUnit.SECONDS);
+        log.info("Email outbox started with " + workers + " workers");
+    }
+
+    /**
+     * Stops the poller and waits briefly for messages being sent. Messages
+     * still queued in memory stay claimed and are retried after their lease.
+     */
+    public synchronized void stop() {
+        if (poller == null) {
+            return;
+        }
+        poller.shutdownNow();
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        poller = null;
+        pool = null;
+        log.info("Email outbox stopped");
+    }
+
+    /**
+     * Claims as many due messages as the workers have room for and submits
+     * them in batches of {@code email.outbox.batchsize}, each sent over one
+     * SMTP connection, after the retention purge when it is due. Runs on the
+     * poller thread.
+     */
+    void poll() {
+        if (retention > 0 && System.currentTimeMillis() >= nextPurge) {
+            nextPurge = System.currentTimeMillis() + PURGE_INTERVAL;
+            try {
+                int count = purge(System.currentTimeMillis() - retention);
+                if (count > 0) {
+                    log.info("Email outbox purged " + count + " sent and dead messages");
+                }
+            } catch (Exception e) {
+                log.error("Email outbox purge failed", e);
+            }
+        }
+        try {
+            int capacity = pool.getQueue().remainingCapacity();
+            if (capacity == 0) {
+                return;
+            }
+            List<Item> items = claim(capacity * batchSize);
+            for (int i = 0; i < items.size(); i += batchSize) {
+                List<Item> batch = items.subList(i, Math.min(i + batchSize, items.size()));
+                pool.execute(() -> deliver(batch));
+            }
+        } catch (Exception e) {
+            log.error("Email outbox poll failed", e);
+        }
+    }
+
+    /**
+     * Claims up to {@code limit} due messages by leasing them to this
+     * instance. Rows locked by another instance are skipped.
+     *
+     * @param limit maximum number of messages
+     * @return claimed messages
+     * @throws SQLException if the database fails
+     */
+    private List<Item> claim(int limit) throws SQLException {
+        List<Item> items = new ArrayList<Item>();
+        Connection conn = null;
+        try {
+            conn = JDBCDataSource.getConnection();
+            conn.setAutoCommit(false);
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+
+            PreparedStatement pstmt = conn.prepareStatement(
+                    "select id, recipient, subject, message, message_type, attempts, created_datetime from st_email_outbox"
+                            + " where status in (?, ?) and next_attempt_at <= ? order by next_attempt_at limit ?"
+                            + " for update skip locked");
+            pstmt.setString(1, PENDING);
+            pstmt.setString(2, SENDING);
+            pstmt.setTimestamp(3, now);
+            pstmt.setInt(4, limit);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                EmailMessage message = new EmailMessage(rs.getString(2), rs.getString(3), rs.getString(4));
+                message.setMessageType(rs.getInt(5));
+                items.add(new Item(rs.getLong(1), message, rs.getInt(6), rs.getTimestamp(7).getTime()));
+            }
+            rs.close();
+            pstmt.close();
+
+            if (!items.isEmpty()) {
+                PreparedStatement update = conn
+                        .prepareStatement("update st_email_outbox set status = ?, next_attempt_at = ? where id = ?");
+                Timestamp leaseEnd = new Timestamp(now.getTime() + lease);
+                for (Item item : items) {
+                    update.setString(1, SENDING);
+                    update.setTimestamp(2, leaseEnd);
+                    update.setLong(3, item.id);
+                    update.addBatch();
+                }
+                update.executeBatch();
+                update.close();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            if (conn != null) {
+                conn.rollback();
+            }
+            throw e;
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+        return items;
+    }
+
+    /**
+     * Sends a batch of messages and records the outcome of each. Runs on a
+     * worker thread.
+     *
+     * @param batch claimed messages
+     */
+    private void deliver(List<Item> batch) {
+        List<EmailMessage> messages = new ArrayList<EmailMessage>(batch.size());
+        for (Item item : batch) {
+            messages.add(item.message);
+        }
+
+        long start = System.currentTimeMillis();
+        List<Exception> errors = EmailUtility.sendBatch(messages);
+        long end = System.currentTimeMillis();
+        sendDuration.record((end - start) / batch.size());
+
+        for (int i = 0; i < batch.size(); i++) {
+            Item item = batch.get(i);
+            Exception e = errors.get(i);
+            try {
+                if (e == null) {
+                    deliveryLatency.record(end - item.created);
+                    update(item.id, SENT, item.attempts + 1, null, new Timestamp(end), null);
+                    sent.increment();
+                } else {
+                    failed(item, e);
+                }
+            } catch (SQLException ex) {
+                log.error("Email outbox update failed for " + item.id, ex);
+            }
+        }
+    }
+
+    /**
+     * Schedules a retry of a failed message, or moves it to the dead letters.
+     *
+     * @param item failed message
+     * @param e    reason
+     * @throws SQLException if the outbox cannot be updated
+     */
+    private void failed(Item item, Exception e) throws SQLException {
+        int attempts = item.attempts + 1;
+        String error = String.valueOf(e.getMessage());
+        error = (error.length() > 500) ? error.substring(0, 500) : error;
+        if (attempts >= maxAttempts) {
+            update(item.id, DEAD, attempts, null, null, error);
+            dead.increment();
+            log.error("Email " + item.id + " to " + item.message.getTo() + " moved to dead letter after " + attempts
+                    + " attempts : " + error);
+        } else {
+            Timestamp next = new Timestamp(System.currentTimeMillis() + backoff(attempts));
+            update(item.id, PENDING, attempts, next, null, error);
+            failed.increment();
+            log.warn("Email " + item.id + " failed, attempt " + attempts + ", retry at " + next + " : " + error);
+        }
+    }
+
+    /**
+     * Returns the delay before the next attempt: the base backoff doubled per
+     * failed attempt, capped, with up to 20% random jitter.
+     *
+     * @param attempts failed attempts so far (&gt;= 1)
+     * @return delay in milliseconds
+     */
+    long backoff(int attempts) {
+        long delay = backoff << Math.min(attempts - 1, 20);
+        delay = Math.min(delay, maxBackoff);
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    /**
+     * Records the outcome of an attempt. A sent message loses its subject and
+     * body, which may contain credentials.
+     */
+    private void update(long id, String status, int attempts, Timestamp next, Timestamp sentAt, String error)
+            throws SQLException {
+        Connection conn = null;
+        try {
+            conn = JDBCDataSource.getConnection();
+            PreparedStatement pstmt = conn.prepareStatement(
+                    "update st_email_outbox set status = ?, attempts = ?, next_attempt_at = coalesce(?, next_attempt_at), sent_datetime = ?, last_error = ?"
+                            + (SENT.equals(status) ? ", subject = null, message = null" : "") + " where id = ?");
+            pstmt.setString(1, status);
+            pstmt.setInt(2, attempts);
+            pstmt.setTimestamp(3, next);
+            pstmt.setTimestamp(4, sentAt);
+            pstmt.setString(5, error);
+            pstmt.setLong(6, id);
+            pstmt.executeUpdate();
+            pstmt.close();
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Deletes sent messages and dead letters that were last touched before
+     * {@code cutoff}, in chunks of {@link #PURGE_CHUNK} rows.
+     *
+     * @param cutoff oldest time to keep, in milliseconds
+     * @return number of messages deleted
+     * @throws SQLException if the database fails
+     */
+    int purge(long cutoff) throws SQLException {
+        int count = 0;
+        Connection conn = null;
+        try {
+            conn = JDBCDataSource.getConnection();
+            Timestamp before = new Timestamp(cutoff);
+            String[][] purges = { { SENT, "sent_datetime" }, { DEAD, "next_attempt_at" } };
+            for (String[] purge : purges) {
+                PreparedStatement pstmt = conn.prepareStatement("delete from st_email_outbox where status = ? and "
+                        + purge[1] + " < ? limit " + PURGE_CHUNK);
+                pstmt.setString(1, purge[0]);
+                pstmt.setTimestamp(2, before);
+                int deleted;
+                do {
+                    deleted = pstmt.executeUpdate();
+                    count += deleted;
+                } while (deleted == PURGE_CHUNK);
+                pstmt.close();
+            }
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+        return count;
+    }
+
+    /**
+     * Moves all dead letters back to the queue, e.g. after fixing the SMTP
+     * settings.
+     *
+     * @return number of messages requeued
+     * @throws ApplicationException if the database fails
+     */
+    public int requeueDead() throws ApplicationException {
+        Connection conn = null;
+        try {
+            conn = JDBCDataSource.getConnection();
+            PreparedStatement pstmt = conn.prepareStatement(
+                    "update st_email_outbox set status = ?, attempts = 0, next_attempt_at = ? where status = ?");
+            pstmt.setString(1, PENDING);
+            pstmt.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+            pstmt.setString(3, DEAD);
+            int count = pstmt.executeUpdate();
+            pstmt.close();
+            return count;
+        } catch (SQLException e) {
+            throw new ApplicationException("Exception : Exception in email outbox " + e.getMessage());
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Returns the queue depth per status and the delivery counters.
+     *
+     * @return statistic name to value
+     * @throws SQLException if the depth cannot be read
+     */
+    public Map<String, Object> getStatistics() throws SQLException {
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+
+        Map<String, Object> depth = new LinkedHashMap<String, Object>();
+        for (String status : new String[] { PENDING, SENDING, DEAD }) {
+            depth.put(status, 0L);
+        }
+        Connection conn = null;
+        try {
+            conn = JDBCDataSource.getConnection();
+            PreparedStatement pstmt = conn.prepareStatement(
+                    "select status, count(*) from st_email_outbox where status <> ? group by status");
+            pstmt.setString(1, SENT);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                depth.put(rs.getString(1), rs.getLong(2));
+            }
+            rs.close();
+            pstmt.close();
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+        stats.put("depth", depth);
+
+        stats.put("running", poller != null);
+        stats.put("workers", workers);
+        ThreadPoolExecutor executor = pool;
+        stats.put("inFlight", executor == null ? 0 : executor.getActiveCount() + executor.getQueue().size());
+        stats.put("enqueued", enqueued.sum());
+        stats.put("sent", sent.sum());
+        stats.put("retried", failed.sum());
+        stats.put("dead", dead.sum());
+        stats.put("deliveryLatency", deliveryLatency.snapshot());
+        stats.put("sendDuration", sendDuration.snapshot());
+        stats.put("smtp", EmailUtility.getStatistics());
+        return stats;
+    }
+
+    private static ThreadFactory threads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Returns a positive int property, or the default.
+     */
+    private static int getInt(String key, int defaultValue, boolean zeroAllowed) {
+        String value = PropertyReader.getValue(key);
+        if (key.equals(value)) {
+            return defaultValue;
+        }
+        int i = DataUtility.getInt(value);
+        return (i > 0 || (zeroAllowed && i == 0 && "0".equals(value.trim()))) ? i : defaultValue;
+    }
+}
@@ -0,0 +1,177 @@
+package in.co.rays.proj4.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * EmailTemplate is a precompiled email body template. Templates are HTML
+ * files under <code>in/co/rays/proj4/template/</code> with
+ * <code>${name}</code> placeholders, for example:
+ * </p>
+ *
+ * <pre>
+ * &lt;P&gt;Hello, ${firstName} ${lastName}.&lt;/P&gt;
+ * </pre>
+ *
+ * <p>
+ * A template is read and split into its text segments and placeholder slots
+ * once, on first use, and cached. Rendering only appends the segments and
+ * values, so bulk notifications can render thousands of messages without
+ * re-parsing or building intermediate strings. A placeholder without a
+ * value renders as an empty string.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public final class EmailTemplate {
+
+    /** Resource folder of the templates */
+    private static final String PATH = "/in/co/rays/proj4/template/";
+
+    /** Compiled templates by name */
+    private static final Map<String, EmailTemplate> templates = new ConcurrentHashMap<String, EmailTemplate>();
+
+    /** Buffers larger than this are not kept for reuse */
+    private static final int MAX_BUFFER = 64 * 1024;
+
+    /** Render buffer reused by each thread */
+    private static final ThreadLocal<StringBuilder> buffer = new ThreadLocal<StringBuilder>();
+
+    /** Text around the slots; always one more than slots */
+    private final String[] segments;
+
+    /** Placeholder name of each slot */
+    private final String[] slots;
+
+    /** Length of all text segments, used to size the output */
+    private final int textLength;
+
+    private EmailTemplate(String[] segments, String[] slots) {
+        this.segments = segments;
+        this.slots = slots;
+        int length = 0;
+        for (String segment : segments) {
+            length += segment.length();
+        }
+        this.textLength = length;
+    }
+
+    /**
+     * Returns the compiled template of the given name, loading it from
+     * <code>in/co/rays/proj4/template/&lt;name&gt;.html</code> on first use.
+     *
+     * @param name template name, e.g. "ForgetPassword"
+     * @return compiled template
+     * @throws IllegalArgumentException if the template does not exist or is malformed
+     */
+    public static EmailTemplate get(String name) {
+        return templates.computeIfAbsent(name, n -> compile(load(n)));
+    }
+
+    /**
+     * Compiles template text into segments and slots.
+     *
+     * @param text template text with <code>${name}</code> placeholders
+     * @return compiled template
+     * @throws IllegalArgumentException if a placeholder is not closed
+     */
+    public static EmailTemplate compile(String text) {
+        List<String> segments = new ArrayList<String>();
+        List<String> slots = new ArrayList<String>();
+
+        int from = 0;
+        int start;
+        while ((start = text.indexOf("${", from)) >= 0) {
+            int end = text.indexOf('}', start + 2);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at " + start);
+            }
+            segments.add(text.substring(from, start));
+            slots.add(text.substring(start + 2, end).trim());
+            from = end + 1;
+        }
+        segments.add(text.substring(from));
+
+        return new EmailTemplate(segments.toArray(new String[0]), slots.toArray(new String[0]));
+    }
+
+    /**
+     * Renders the template into the given output, e.g. a StringBuilder or a
+     * Writer of the message body.
+     *
+     * @param values placeholder values
+     * @param out    output to append to
+     * @throws IOException if the output fails
+     */
+    public void render(Map<String, String> values, Appendable out) throws IOException {
+        out.append(segments[0]);
+        for (int i = 0; i < slots.length; i++) {
+            String value = values.get(slots[i]);
+            if (value != null) {
+                out.append(value);
+            }
+            out.append(segments[i + 1]);
+        }
+    }
+
+    /**
+     * Renders the template into a StringBuilder.
+     *
+     * @param values placeholder values
+     * @param out    builder to append to
+     */
+    public void render(Map<String, String> values, StringBuilder out) {
+        out.ensureCapacity(out.length() + textLength + 16 * slots.length);
+        out.append(segments[0]);
+        for (int i = 0; i < slots.length; i++) {
+            String value = values.get(slots[i]);
+            if (value != null) {
+                out.append(value);
+            }
+            out.append(segments[i + 1]);
+        }
+    }
+
+    /**
+     * Renders the template to a String, using a buffer reused by the
+     * calling thread.
+     *
+     * @param values placeholder values
+     * @return rendered text
+     */
+    public String render(Map<String, String> values) {
+        StringBuilder sb = buffer.get();
+        if (sb == null) {
+            sb = new StringBuilder(textLength + 16 * slots.length);
+            buffer.set(sb);
+        }
+        sb.setLength(0);
+        render(values, sb);
+        String result = sb.toString();
+        if (sb.capacity() > MAX_BUFFER) {
+            buffer.remove();
+        }
+        return result;
+    }
+
+    /**
+     * Reads a template resource as UTF-8.
+     */
+    private static String load(String name) {
+        try (InputStream in = EmailTemplate.class.getResourceAsStream(PATH + name + ".html")) {
+            if (in == null) {
+                throw new IllegalArgumentException("Email template not found : " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Email template not readable : " + name, e);
+        }
+    }
+}
@@ -1,11 +1,20 @@
 
 package in.co.rays.proj4.util;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.ResourceBundle;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.mail.Authenticator;
 import javax.mail.Message;
+import javax.mail.MessagingException;
 import javax.mail.PasswordAuthentication;
 import javax.mail.Session;
 import javax.mail.Transport;
@@ -29,6 +38,7 @@ import in.co.rays.proj4.exception.ApplicationException;
  *     <li>SSL/TLS configuration</li>
  *     <li>Sending email to one or multiple recipients</li>
  *     <li>Sending HTML or Plain Text messages</li>
+ *     <li>Pooled, reused SMTP connections and batched delivery</li>
  * </ul>
  *
  * <p>
@@ -45,27 +55,44 @@ import in.co.rays.proj4.exception.ApplicationException;
  * smtp.port   = 465
  * email.login = your-email@gmail.com
  * email.pwd   = your-password
+ * smtp.ssl    = true    (false for a local SMTP stand-in such as MailHog)
+ * smtp.auth   = true
+ * smtp.debug  = false
+ * smtp.pool.size        = 2     (open SMTP connections)
+ * smtp.pool.maxmessages = 100   (messages per connection before reconnecting)
+ * smtp.pool.idleseconds = 60    (idle connections are closed after this)
  * </pre>
  *
+ * <p>
+ * A JVM system property of the same name overrides a property, e.g.
+ * <code>-Dsmtp.server=localhost -Dsmtp.ssl=false</code>.
+ * </p>
+ *
+ * <p>
+ * SMTP connections are kept open and reused (keep-alive) instead of opening,
+ * authenticating and closing a TLS connection per message; use
+ * {@link #sendBatch(List)} to send many messages over the same connections.
+ * </p>
+ *
  * @author Lucky
  * @version 1.0
  */
 public class EmailUtility {
 
     /** Load SMTP configuration from properties file */
-    static ResourceBundle rb = ResourceBundle.getBundle("in.co.rays.proj4.bundle.system");
+    static ResourceBundle rb = ResourceBundle.getBundle("in.co.rays.proj4.bundle.System");
 
     /** SMTP Host (e.g., smtp.gmail.com) */
-    private static final String SMTP_HOST_NAME = rb.getString("smtp.server");
+    private static final String SMTP_HOST_NAME = getString("smtp.server");
 
     /** SMTP Port (e.g., 465 or 587) */
-    private static final String SMTP_PORT = rb.getString("smtp.port");
+    private static final String SMTP_PORT = getString("smtp.port");
 
     /** Email address used to authenticate with SMTP server */
-    private static final String emailFromAddress = rb.getString("email.login");
+    private static final String emailFromAddress = getString("email.login");
 
     /** Password for SMTP authentication */
-    private static final String emailPassword = rb.getString("email.pwd");
+    private static final String emailPassword = getString("email.pwd");
 
     /** Stores JavaMail SMTP properties */
     private static Properties props = new Properties();
@@ -73,53 +100,273 @@ public class EmailUtility {
     // Static initialization block for SMTP configuration
     static {
         props.put("mail.smtp.host", SMTP_HOST_NAME);
-        props.put("mail.smtp.auth", "true");
-        props.put("mail.smtp.starttls.enable", "true");
-        props.put("mail.smtp.ssl.protocols", "TLSv1.2");
-        props.put("mail.debug", "true");
+        props.put("mail.smtp.auth", getFlag("smtp.auth", "true"));
+        props.put("mail.debug", getFlag("smtp.debug", "false"));
         props.put("mail.smtp.port", SMTP_PORT);
-        props.put("mail.smtp.socketFactory.port", SMTP_PORT);
-        props.put("mail.smtp.socketFactory.class", "javax.net.ssl.SSLSocketFactory");
-        props.put("mail.smtp.socketFactory.fallback", "false");
+        props.put("mail.smtp.connectiontimeout", "10000");
+        props.put("mail.smtp.timeout", "10000");
+        props.put("mail.smtp.writetimeout", "10000");
+        if ("true".equals(getFlag("smtp.ssl", "true"))) {
+            props.put("mail.smtp.starttls.enable", "true");
+            props.put("mail.smtp.ssl.protocols", "TLSv1.2");
+            props.put("mail.smtp.socketFactory.port", SMTP_PORT);
+            props.put("mail.smtp.socketFactory.class", "javax.net.ssl.SSLSocketFactory");
+            props.put("mail.smtp.socketFactory.fallback", "false");
+        }
+    }
+
+    /** Mail session, created once and shared by all pooled connections */
+    private static final Session session = Session.getInstance(props, new Authenticator() {
+        protected PasswordAuthentication getPasswordAuthentication() {
+            return new PasswordAuthentication(emailFromAddress, emailPassword);
+        }
+    });
+
+    /** Maximum number of open SMTP connections */
+    private static final int POOL_SIZE = getInt("smtp.pool.size", 2);
+
+    /** Messages sent over one connection before it is replaced */
+    private static final int MAX_MESSAGES = getInt("smtp.pool.maxmessages", 100);
+
+    /** Idle time after which a pooled connection is closed */
+    private static final long IDLE_MILLIS = getInt("smtp.pool.idleseconds", 60) * 1000L;
+
+    /** Idle time after which a pooled connection is checked with NOOP before use */
+    private static final long VALIDATE_MILLIS = 5000;
+
+    /** Idle, connected transports, most recently used first */
+    private static final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<PooledTransport>();
+
+    /** Bounds the number of open connections */
+    private static final Semaphore permits = new Semaphore(POOL_SIZE, true);
+
+    private static final LongAdder connectionsOpened = new LongAdder();
+    private static final LongAdder messagesSent = new LongAdder();
+    private static final LongAdder messagesFailed = new LongAdder();
+
+    /**
+     * An open SMTP connection with its usage counters.
+     */
+    private static final class PooledTransport {
+        private final Transport transport;
+        private int sent;
+        private long lastUsed = System.currentTimeMillis();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
     }
 
     /**
      * Sends an email using the values provided in the {@link EmailMessage} object.
+     * A pooled SMTP connection is reused if one is open.
      *
      * @param emailMessageDTO object containing email details such as
      *                        To, Subject, Message, and Message Type
      * @throws ApplicationException if any SMTP or configuration error occurs
      */
     public static void sendMail(EmailMessage emailMessageDTO) throws ApplicationException {
+        Exception error = sendBatch(Collections.singletonList(emailMessageDTO)).get(0);
+        if (error != null) {
+            throw new ApplicationException("Email Error: " + error.getMessage());
+        }
+    }
+
+    /**
+     * Sends a batch of messages over pooled SMTP connections. A connection
+     * is replaced after {@code smtp.pool.maxmessages} messages or after a
+     * message fails on it; a failed message does not stop the batch. The
+     * connection is not checked between messages, which would cost a NOOP
+     * round trip each.
+     *
+     * @param messages messages to send
+     * @return one entry per message, in order: null if it was sent, otherwise
+     *         the reason it failed
+     */
+    public static List<Exception> sendBatch(List<EmailMessage> messages) {
+
+        List<Exception> result = new ArrayList<Exception>(messages.size());
+        if (messages.isEmpty()) {
+            return result;
+        }
+
         try {
-            // Create authenticated mail session
-            Session session = Session.getDefaultInstance(props, new Authenticator() {
-                protected PasswordAuthentication getPasswordAuthentication() {
-                    return new PasswordAuthentication(emailFromAddress, emailPassword);
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (int i = 0; i < messages.size(); i++) {
+                result.add(e);
+            }
+            return result;
+        }
+
+        PooledTransport pt = null;
+        try {
+            for (EmailMessage message : messages) {
+                if (pt == null || pt.sent >= MAX_MESSAGES) {
+                    close(pt);
+                    pt = null;
+                    try {
+                        pt = borrow();
+                    } catch (MessagingException ex) {
+                        // server unreachable, fail the rest of the batch at once
+                        while (result.size() < messages.size()) {
+                            messagesFailed.increment();
+                            result.add(ex);
+                        }
+                        break;
+                    }
+                }
+                Message msg;
+                try {
+                    msg = buildMessage(message);
+                } catch (Exception ex) {
+                    messagesFailed.increment();
+                    result.add(ex);
+                    continue;
                 }
-            });
+                try {
+                    pt.transport.sendMessage(msg, msg.getAllRecipients());
+                    pt.sent++;
+                    pt.lastUsed = System.currentTimeMillis();
+                    messagesSent.increment();
+                    result.add(null);
+                } catch (Exception ex) {
+                    // the connection may be broken, the next message opens another
+                    close(pt);
+                    pt = null;
+                    messagesFailed.increment();
+                    result.add(ex);
+                }
+            }
+        } finally {
+            release(pt);
+            permits.release();
+        }
+        return result;
+    }
 
-            // Build email message
-            Message msg = new MimeMessage(session);
-            msg.setFrom(new InternetAddress(emailFromAddress));
-            msg.setRecipients(Message.RecipientType.TO, getInternetAddresses(emailMessageDTO.getTo()));
-            msg.setSubject(emailMessageDTO.getSubject());
+    /**
+     * Builds the MIME message of an {@link EmailMessage}.
+     */
+    private static Message buildMessage(EmailMessage emailMessageDTO) throws Exception {
+        Message msg = new MimeMessage(session);
+        msg.setFrom(new InternetAddress(emailFromAddress));
+        msg.setRecipients(Message.RecipientType.TO, getInternetAddresses(emailMessageDTO.getTo()));
+        msg.setSubject(emailMessageDTO.getSubject());
 
-            // Determine message type: HTML or Plain Text
-            String contentType = emailMessageDTO.getMessageType() == EmailMessage.HTML_MSG
-                    ? "text/html"
-                    : "text/plain";
+        // Determine message type: HTML or Plain Text
+        String contentType = emailMessageDTO.getMessageType() == EmailMessage.HTML_MSG
+                ? "text/html"
+                : "text/plain";
 
-            msg.setContent(emailMessageDTO.getMessage(), contentType);
+        msg.setContent(emailMessageDTO.getMessage(), contentType);
+        msg.saveChanges();
+        return msg;
+    }
 
-            // Send email
-            Transport.send(msg);
+    /**
+     * Takes an idle connection that is still usable, or opens a new one.
+     * Must be called with a permit held.
+     */
+    private static PooledTransport borrow() throws MessagingException {
+        long now = System.currentTimeMillis();
+        PooledTransport pt;
+        while ((pt = idle.pollFirst()) != null) {
+            long idleTime = now - pt.lastUsed;
+            if (pt.sent < MAX_MESSAGES && idleTime < IDLE_MILLIS
+                    && (idleTime < VALIDATE_MILLIS || pt.transport.isConnected())) {
+                return pt;
+            }
+            close(pt);
+        }
+        Transport transport = session.getTransport("smtp");
+        if (Boolean.parseBoolean(props.getProperty("mail.smtp.auth"))) {
+            transport.connect(SMTP_HOST_NAME, Integer.parseInt(SMTP_PORT.trim()), emailFromAddress, emailPassword);
+        } else {
+            transport.connect();
+        }
+        connectionsOpened.increment();
+        return new PooledTransport(transport);
+    }
 
-        } catch (Exception ex) {
-            throw new ApplicationException("Email Error: " + ex.getMessage());
+    /**
+     * Returns a connection to the pool, or closes it if it is used up. A
+     * connection dropped by the server meanwhile is found by {@link #borrow()}.
+     */
+    private static void release(PooledTransport pt) {
+        if (pt == null) {
+            return;
+        }
+        if (pt.sent < MAX_MESSAGES) {
+            idle.offerFirst(pt);
+        } else {
+            close(pt);
+        }
+    }
+
+    private static void close(PooledTransport pt) {
+        if (pt != null) {
+            try {
+                pt.transport.close();
+            } catch (MessagingException e) {
+                // connection is gone anyway
+            }
         }
     }
 
+    /**
+     * Closes all idle SMTP connections. Called when the application stops.
+     */
+    public static void shutdown() {
+        PooledTransport pt;
+        while ((pt = idle.pollFirst()) != null) {
+            close(pt);
+        }
+    }
+
+    /**
+     * Returns the SMTP connection pool counters.
+     *
+     * @return statistic name to value
+     */
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        stats.put("poolSize", POOL_SIZE);
+        stats.put("maxMessagesPerConnection", MAX_MESSAGES);
+        stats.put("idleConnections", idle.size());
+        stats.put("busyConnections", POOL_SIZE - permits.availablePermits());
+        stats.put("connectionsOpened", connectionsOpened.sum());
+        stats.put("messagesSent", messagesSent.sum());
+        stats.put("messagesFailed", messagesFailed.sum());
+        return stats;
+    }
+
+    /**
+     * Returns a property, overridden by the system property of the same name.
+     */
+    private static String getString(String key) {
+        String value = System.getProperty(key);
+        return (value != null) ? value : rb.getString(key);
+    }
+
+    /**
+     * Returns "true" or "false" for a boolean property, or the default.
+     */
+    private static String getFlag(String key, String defaultValue) {
+        boolean set = System.getProperty(key) != null || rb.containsKey(key);
+        return set ? String.valueOf(Boolean.parseBoolean(getString(key).trim())) : defaultValue;
+    }
+
+    /**
+     * Returns a positive int property, or the default.
+     */
+    private static int getInt(String key, int defaultValue) {
+        boolean set = System.getProperty(key) != null || rb.containsKey(key);
+        int value = set ? DataUtility.getInt(getString(key).trim()) : 0;
+        return (value > 0) ? value : defaultValue;
+    }
+
     /**
      * Converts a comma-separated list of email IDs into an array of InternetAddress.
      *
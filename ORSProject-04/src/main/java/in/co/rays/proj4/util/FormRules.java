@@ -0,0 +1,189 @@
+package in.co.rays.proj4.util;
+
+/**
+ * FormRules holds the validation {@link RuleSet} of every form of the
+ * application, built once when the class is loaded.
+ *
+ * <p>
+ * Controllers return their rule set from
+ * <code>BaseCtl.getRules(HttpServletRequest)</code>; the CSV imports check
+ * their rows with the same rules through {@link RuleSet#bind(String[])}, so
+ * a record is accepted on the same terms whichever way it is entered.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public final class FormRules {
+
+    private static final String MOBILE_LENGTH = "Mobile No must have 10 digits";
+    private static final String MOBILE_INVALID = "Invalid Mobile No";
+    private static final String PASSWORD_LENGTH = "Password should be 8 to 12 characters";
+    private static final String PASSWORD_STRENGTH = "Must contain uppercase, lowercase, digit & special character";
+    private static final String MARKS_RANGE = "Marks should be in 0 to 100";
+
+    /** Change password form */
+    public static final RuleSet CHANGE_PASSWORD = RuleSet.builder()
+            .field("oldPassword").required("Old Password")
+            .field("newPassword").required("New Password")
+                    .differentFrom("oldPassword", "Old and New passwords should be different")
+                    .length(8, 12, PASSWORD_LENGTH).password(PASSWORD_STRENGTH)
+            .field("confirmPassword").required("Confirm Password")
+                    .sameAs("newPassword", "New and confirm passwords not matched")
+            .build();
+
+    /** College form */
+    public static final RuleSet COLLEGE = RuleSet.builder()
+            .field("name").required("Name").name("Invalid Name")
+            .field("address").required("Address")
+            .field("state").required("State")
+            .field("city").required("City")
+            .field("phoneNo").required("Phone No")
+                    .length(10, 10, "Phone No must have 10 digits").phoneNo("Invalid Phone No")
+            .build();
+
+    /** Course form */
+    public static final RuleSet COURSE = RuleSet.builder()
+            .field("name").required("Name").name("Invalid Name")
+            .field("duration").required("Duration")
+            .field("description").required("Description")
+            .build();
+
+    /** Faculty form */
+    public static final RuleSet FACULTY = RuleSet.builder()
+            .field("firstName").required("First Name").name("Invalid First Name")
+            .field("lastName").required("Last Name").name("Invalid Last Name")
+            .field("gender").required("Gender")
+            .field("dob").required("Date of Birth").date("Date of Birth")
+            .field("email").required("Email").email("Email")
+            .field("mobileNo").required("Mobile No").length(10, 10, MOBILE_LENGTH).phoneNo(MOBILE_INVALID)
+            .field("collegeId").required("College Name")
+            .field("courseId").required("Course Name")
+            .field("subjectId").required("Subject Name")
+            .build();
+
+    /** Forget password form */
+    public static final RuleSet FORGET_PASSWORD = RuleSet.builder()
+            .field("login").required("Email Id").email("Login")
+            .build();
+
+    /** Get marksheet form */
+    public static final RuleSet GET_MARKSHEET = RuleSet.builder()
+            .field("rollNo").required("Roll Number")
+            .build();
+
+    /** Login form */
+    public static final RuleSet LOGIN = RuleSet.builder()
+            .field("login").required("Login Id").email("Login")
+            .field("password").required("Password")
+            .build();
+
+    /** Marksheet form and rows of the marksheet CSV import */
+    public static final RuleSet MARKSHEET = RuleSet.builder()
+            .field("rollNo").required("Roll Number").rollNo("Roll No is invalid")
+            .field("studentId").required("Student Name").id("Student Id is invalid")
+            .field("physics").required("Physics Marks").integer("Physics Marks", 0, 100, MARKS_RANGE)
+            .field("chemistry").required("Chemistry Marks").integer("Chemistry Marks", 0, 100, MARKS_RANGE)
+            .field("maths").required("Maths Marks").integer("Maths Marks", 0, 100, MARKS_RANGE)
+            .build();
+
+    /** My profile form */
+    public static final RuleSet MY_PROFILE = RuleSet.builder()
+            .field("firstName").required("First Name").name("Invalid First Name")
+            .field("lastName").required("Last Name").name("Invalid Last Name")
+            .field("gender").required("Gender")
+            .field("mobileNo").required("Mobile No").length(10, 10, MOBILE_LENGTH).phoneNo(MOBILE_INVALID)
+            .field("dob").required("Date of Birth").date("Date of Birth")
+            .build();
+
+    /** Role form */
+    public static final RuleSet ROLE = RuleSet.builder()
+            .field("name").required("Name").name("Invalid Name")
+            .field("description").required("Description")
+            .build();
+
+    /** Staff form */
+    public static final RuleSet STAFF = RuleSet.builder()
+            .field("fullName").required("Full Name").name("Invalid Full Name")
+            .field("joiningDate").required("Joining Date").date("Joining Date")
+            .field("division").required("Division")
+            .field("previousEmployer").required("Previous Employer")
+            .build();
+
+    /** Student form */
+    public static final RuleSet STUDENT = RuleSet.builder()
+            .field("firstName").required("First Name").name("Invalid First Name")
+            .field("lastName").required("Last Name").name("Invalid Last Name")
+            .field("login").required("Login Id").email("Login")
+            .field("dob").required("Date of Birth").date("Date of Birth")
+            .field("gender").required("Gender")
+            .field("collegeId").required("College Name")
+            .field("mobileNo").required("Mobile No").length(10, 10, MOBILE_LENGTH).phoneNo(MOBILE_INVALID)
+            .build();
+
+    /** Rows of the student CSV import, the student form with email and college id columns */
+    public static final RuleSet STUDENT_IMPORT = RuleSet.builder()
+            .field("firstName").required("First Name").name("Invalid First Name")
+            .field("lastName").required("Last Name").name("Invalid Last Name")
+            .field("dob").required("Date of Birth").date("Date of Birth")
+            .field("gender").required("Gender")
+            .field("mobileNo").required("Mobile No").length(10, 10, MOBILE_LENGTH).phoneNo(MOBILE_INVALID)
+            .field("email").required("Email").email("Email")
+            .field("collegeId").required("College Id").id("College Id is invalid")
+            .build();
+
+    /** Subject form */
+    public static final RuleSet SUBJECT = RuleSet.builder()
+            .field("name").required("Subject Name")
+            .field("courseId").required("Course Name")
+            .field("description").required("Description")
+            .build();
+
+    /** Timetable form */
+    public static final RuleSet TIMETABLE = RuleSet.builder()
+            .field("semester").required("Semester")
+            .field("examDate").required("Date of Exam").date("Date of Exam")
+                    .notSunday("Exam should not be on Sunday")
+            .field("examTime").required("Exam Time")
+            .field("description").required("Description")
+            .field("courseId").required("Course Name")
+            .field("subjectId").required("Subject Name")
+            .build();
+
+    /** Exam schedule form */
+    public static final RuleSet TIMETABLE_SCHEDULE = RuleSet.builder()
+            .field("semester").required("Semester")
+            .field("examDate").required("Start Date").date("Start Date")
+            .field("description").required("Description")
+            .build();
+
+    /** User form */
+    public static final RuleSet USER = RuleSet.builder()
+            .field("firstName").required("First Name").name("Invalid First Name")
+            .field("lastName").required("Last Name").name("Invalid Last Name")
+            .field("login").required("Login Id").email("Login")
+            .field("password").required("Password").length(8, 12, PASSWORD_LENGTH).password(PASSWORD_STRENGTH)
+            .field("confirmPassword").required("Confirm Password")
+                    .sameAs("password", "Password and Confirm Password must be Same!")
+            .field("gender").required("Gender")
+            .field("dob").required("Date of Birth").date("Date of Birth")
+            .field("roleId").required("Role")
+            .field("mobileNo").required("Mobile No").length(10, 10, MOBILE_LENGTH).phoneNo(MOBILE_INVALID)
+            .build();
+
+    /** User registration form */
+    public static final RuleSet USER_REGISTRATION = RuleSet.builder()
+            .field("firstName").required("First Name").name("Invalid First Name")
+            .field("lastName").required("Last Name").name("Invalid Last Name")
+            .field("loginId").required("Login Id").email("Login")
+            .field("password").required("Password").length(8, 12, PASSWORD_LENGTH).password(PASSWORD_STRENGTH)
+            .field("confirmPassword").required("Confirm Password")
+                    .sameAs("password", "Password and Confirm Password must be Same!")
+            .field("gender").required("Gender")
+            .field("dob").required("Date of Birth").date("Date of Birth")
+            .field("mobileNo").required("Mobile No").length(10, 10, MOBILE_LENGTH).phoneNo(MOBILE_INVALID)
+            .build();
+
+    private FormRules() {
+    }
+}
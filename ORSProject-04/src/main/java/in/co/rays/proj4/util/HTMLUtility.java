@@ -1,10 +1,16 @@
 package in.co.rays.proj4.util;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import in.co.rays.proj4.bean.DropdownListBean;
+import in.co.rays.proj4.model.ReferenceDataCache;
 import in.co.rays.proj4.model.RoleModel;
 
 /**
@@ -37,6 +43,17 @@ import in.co.rays.proj4.model.RoleModel;
  */
 public class HTMLUtility {
 
+    private static final String SELECT_START = "<select style=\"width: 169px;text-align-last: center;\"; "
+            + "class='form-control' name='";
+
+    private static final String SELECT_OPTION = "\n<option selected value=''>-------------Select-------------</option>";
+
+    /** Maximum number of rendered lists kept */
+    private static final int MAX_FRAGMENTS = 64;
+
+    /** Rendered option markup by snapshot version */
+    private static final Map<Long, Fragment> FRAGMENTS = new ConcurrentHashMap<>();
+
     /**
      * Generates an HTML dropdown (&lt;select&gt;) using a {@link HashMap}.
      *
@@ -81,31 +98,165 @@ public class HTMLUtility {
      * @param selectedVal  value that should be pre-selected
      * @param list         list of objects implementing DropdownListBean
      * @return HTML string representing the dropdown
+     * @see #writeList(Writer, String, String, List)
      */
     public static String getList(String name, String selectedVal, List list) {
+        BuilderWriter out = new BuilderWriter(SELECT_START.length() + SELECT_OPTION.length() + list.size() * 48);
+        try {
+            writeList(out, name, selectedVal, list);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
+    }
 
-        List<DropdownListBean> dd = (List<DropdownListBean>) list;
+    /**
+     * Writes an HTML dropdown (&lt;select&gt;) for a list of
+     * {@link DropdownListBean} straight to the JSP writer.
+     *
+     * <p>
+     * For the cached drop-down lists ({@link ReferenceDataCache.Snapshot}) the
+     * option markup is rendered once per snapshot version and reused; the
+     * selected option is spliced in while writing.
+     * </p>
+     *
+     * @param out          writer of the page, usually the JSP {@code out}
+     * @param name         name of the HTML select element
+     * @param selectedVal  value that should be pre-selected
+     * @param list         list of objects implementing DropdownListBean
+     * @throws IOException if the writer fails
+     */
+    public static void writeList(Writer out, String name, String selectedVal, List list) throws IOException {
 
-        StringBuffer sb = new StringBuffer("<select style=\"width: 169px;text-align-last: center;\"; "
-                + "class='form-control' name='" + name + "'>");
+        out.write(SELECT_START);
+        out.write(name);
+        out.write("'>");
+        out.write(SELECT_OPTION);
 
-        sb.append("\n<option selected value=''>-------------Select-------------</option>");
+        if (list instanceof ReferenceDataCache.Snapshot) {
+            fragment((ReferenceDataCache.Snapshot<?>) list).write(out, selectedVal);
+        } else {
+            for (DropdownListBean obj : beans(list)) {
+                String key = obj.getKey();
+                out.write(key.trim().equals(selectedVal) ? "\n<option selected value='" : "\n<option value='");
+                out.write(key);
+                out.write("'>");
+                out.write(obj.getValue());
+                out.write("</option>");
+            }
+        }
+        out.write("\n</select>");
+    }
 
-        String key = null;
-        String val = null;
+    /**
+     * Views a raw list passed by a JSP as the drop-down beans it holds. The
+     * cast is unchecked: an element of another type fails with a
+     * ClassCastException when it is read, as before.
+     *
+     * @param list list of objects implementing DropdownListBean
+     * @return the same list
+     */
+    @SuppressWarnings("unchecked")
+    private static List<? extends DropdownListBean> beans(List<?> list) {
+        return (List<? extends DropdownListBean>) list;
+    }
 
-        for (DropdownListBean obj : dd) {
-            key = obj.getKey();
-            val = obj.getValue();
+    /**
+     * Returns the rendered options of a snapshot, rendering them on first use.
+     *
+     * @param list cached drop-down list
+     * @return Fragment of the list
+     */
+    private static Fragment fragment(ReferenceDataCache.Snapshot<?> list) {
+        Fragment fragment = FRAGMENTS.get(list.getVersion());
+        if (fragment == null) {
+            if (FRAGMENTS.size() >= MAX_FRAGMENTS) {
+                FRAGMENTS.clear();
+            }
+            fragment = new Fragment(beans(list));
+            FRAGMENTS.put(list.getVersion(), fragment);
+        }
+        return fragment;
+    }
 
-            if (key.trim().equals(selectedVal)) {
-                sb.append("\n<option selected value='" + key + "'>" + val + "</option>");
-            } else {
-                sb.append("\n<option value='" + key + "'>" + val + "</option>");
+    /**
+     * Option markup of one drop-down list together with the positions where
+     * the {@code selected} attribute goes for each key.
+     */
+    private static final class Fragment {
+
+        private final String body;
+        private final Map<String, int[]> offsets = new HashMap<>();
+
+        private Fragment(List<? extends DropdownListBean> list) {
+            StringBuilder sb = new StringBuilder(list.size() * 48);
+            for (DropdownListBean obj : list) {
+                String key = obj.getKey();
+                sb.append("\n<option");
+                int[] old = offsets.get(key.trim());
+                int[] pos = (old == null) ? new int[1] : Arrays.copyOf(old, old.length + 1);
+                pos[pos.length - 1] = sb.length();
+                offsets.put(key.trim(), pos);
+                sb.append(" value='").append(key).append("'>").append(obj.getValue()).append("</option>");
             }
+            body = sb.toString();
+        }
+
+        private void write(Writer out, String selectedVal) throws IOException {
+            int[] pos = (selectedVal == null) ? null : offsets.get(selectedVal);
+            if (pos == null) {
+                out.write(body);
+                return;
+            }
+            int from = 0;
+            for (int p : pos) {
+                out.write(body, from, p - from);
+                out.write(" selected");
+                from = p;
+            }
+            out.write(body, from, body.length() - from);
+        }
+    }
+
+    /**
+     * Writer into a {@link StringBuilder}. Unlike {@link java.io.StringWriter}
+     * it does not lock a {@link StringBuffer} on every write.
+     */
+    private static final class BuilderWriter extends Writer {
+
+        private final StringBuilder sb;
+
+        private BuilderWriter(int capacity) {
+            sb = new StringBuilder(capacity);
+        }
+
+        @Override
+        public void write(String str) {
+            sb.append(str);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            sb.append(str, off, off + len);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            sb.append(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return sb.toString();
         }
-        sb.append("\n</select>");
-        return sb.toString();
     }
 
     /**
@@ -1,103 +1,391 @@
-
 package in.co.rays.proj4.util;
 
 import java.sql.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.log4j.Logger;
 
 import com.mchange.v2.c3p0.ComboPooledDataSource;
 
 /**
- * 
+ *
  * JDBCDataSource is a Singleton class responsible for managing all database
  * connections using the C3P0 connection pooling library.
- * 
  *
- * 
+ *
+ *
  * This utility:
- * 
- * 
+ *
+ *
  * Loads database configuration from system.properties file
  * Creates and manages a shared connection pool
+ * Optionally manages a second pool on a read replica
  * Provides static methods to acquire and close connections
  * Ensures efficient memory and resource usage
- * 
+ * Records pool statistics (acquire wait, checkout duration, leaks)
+ * Times every statement for {@link Metrics} through {@link SqlTimingInterceptor}
+ *
+ *
  *
- * 
  * Parameters loaded from the ResourceBundle:
- * 
- * 
- *     driver  JDBC driver class
- *     url � Database connection URL
- *     username � DB username
- *     password � DB password
- *     initialpoolsize � starting number of connections
- *     acquireincrement � connections added when pool is exhausted
- *     maxpoolsize � maximum allowed connections
- * 
- *
- * 
- * This class is used throughout the project to safely obtain and release
- * connections for all model classes.
- * 
+ *
+ *
+ *     driver - JDBC driver class
+ *     url - Database connection URL
+ *     username - DB username
+ *     password - DB password
+ *     initialpoolsize - starting number of connections
+ *     acquireincrement - connections added when pool is exhausted
+ *     maxpoolsize - maximum allowed connections
+ *     pool.testquery - validation query run while warming the pool
+ *     pool.leakthreshold - seconds after which a checked out connection is
+ *                          reported as leaked
+ *     replica.url - read replica URL; no replica pool when absent
+ *     replica.username / replica.password - default to username / password
+ *     replica.fallback - use the primary when the replica fails (default true)
+ *     replica.retryseconds - how long a failed replica is skipped (default 30)
+ *     replica.rywseconds - read-your-writes window after a write (default 5)
+ *     metrics.sqltiming - time every statement (default true)
+ *
+ *
+ *
+ * Read-only model operations (search, list, findByPk, merit list) take their
+ * connection from {@link #getReadConnection()}. It returns a replica
+ * connection unless no replica is configured, the replica is failing, or the
+ * current session has written within the read-your-writes window. A write is
+ * detected when a connection used in a transaction (auto-commit off) is
+ * closed; BaseCtl carries the time of the last write from request to request
+ * in the session through {@link #beginRequest(long)} / {@link #endRequest()}.
+ *
+ *
+ *
+ * The pool is created once by {@link #init()}, which is called from
+ * AppContextListener when the web application starts. Calls made before that
+ * (e.g. from the testmodel drivers) create it on first use.
+ *
  *
  * @author Lucky
  * @version 1.0
  */
 public final class JDBCDataSource {
 
+    private static Logger log = Logger.getLogger(JDBCDataSource.class);
+
     /** Singleton instance of JDBCDataSource */
-    private static JDBCDataSource jds = null;
+    private static volatile JDBCDataSource jds = null;
 
     /** C3P0 connection pool instance */
-    private ComboPooledDataSource cpds = null;
+    private final ComboPooledDataSource cpds;
+
+    /** C3P0 pool of the read replica, null when no replica is configured */
+    private final ComboPooledDataSource replica;
 
     /** Loads DB configuration from system.properties file */
     private static ResourceBundle rb = ResourceBundle.getBundle("in.co.rays.proj4.bundle.System");
 
+    /** Time of the last write of the current request's session */
+    private static final ThreadLocal<long[]> lastWrite = new ThreadLocal<long[]>();
+
+    /** Time spent waiting for a connection in getConnection() */
+    private final LatencyHistogram acquireWait = new LatencyHistogram();
+
+    /** Time between getConnection() and closeConnection() */
+    private final LatencyHistogram checkoutDuration = new LatencyHistogram();
+
+    /** Connections currently checked out, with their checkout time */
+    private final ConcurrentHashMap<Connection, Long> checkouts = new ConcurrentHashMap<Connection, Long>();
+
+    /** Failed getConnection() calls */
+    private final LongAdder failedCheckouts = new LongAdder();
+
+    /** Checkout age in milliseconds after which a connection counts as leaked */
+    private final long leakThreshold;
+
+    /** Whether reads fall back to the primary when the replica fails */
+    private final boolean replicaFallback;
+
+    /** Milliseconds a failed replica is skipped */
+    private final long replicaRetry;
+
+    /** Milliseconds after a write during which the session reads the primary */
+    private final long readYourWritesWindow;
+
+    /** Time until which the replica is skipped after a failure */
+    private volatile long replicaDownUntil = 0;
+
+    /** Reads served by the replica */
+    private final LongAdder replicaReads = new LongAdder();
+
+    /** Reads sent to the primary although a replica is configured */
+    private final LongAdder primaryReads = new LongAdder();
+
+    /** Reads that fell back to the primary because the replica failed */
+    private final LongAdder replicaFallbacks = new LongAdder();
+
     /**
      * Private constructor to initialize connection pool.
      * This ensures Singleton implementation.
+     *
+     * @throws Exception if the pool cannot be configured
      */
-    private JDBCDataSource() {
-        try {
-            cpds = new ComboPooledDataSource();
-            cpds.setDriverClass(rb.getString("driver"));
-            cpds.setJdbcUrl(rb.getString("url"));
-            cpds.setUser(rb.getString("username"));
-            cpds.setPassword(rb.getString("password"));
-            cpds.setInitialPoolSize(Integer.parseInt(rb.getString("initialpoolsize")));
-            cpds.setAcquireIncrement(Integer.parseInt(rb.getString("acquireincrement")));
-            cpds.setMaxPoolSize(Integer.parseInt(rb.getString("maxpoolsize")));
-        } catch (Exception e) {
-            e.printStackTrace();
+    private JDBCDataSource() throws Exception {
+        cpds = createPool(rb.getString("url"), rb.getString("username"), rb.getString("password"));
+
+        if (rb.containsKey("replica.url") && DataValidator.isNotNull(rb.getString("replica.url"))) {
+            replica = createPool(rb.getString("replica.url"), getString("replica.username", rb.getString("username")),
+                    getString("replica.password", rb.getString("password")));
+            log.info("Read replica configured : " + rb.getString("replica.url"));
+        } else {
+            replica = null;
         }
+
+        leakThreshold = getLong("pool.leakthreshold", 60) * 1000;
+        replicaFallback = !"false".equalsIgnoreCase(getString("replica.fallback", "true"));
+        replicaRetry = getLong("replica.retryseconds", 30) * 1000;
+        readYourWritesWindow = getLong("replica.rywseconds", 5) * 1000;
+    }
+
+    /**
+     * Creates a C3P0 pool with the common pool settings.
+     *
+     * @param url      JDBC URL
+     * @param user     DB username
+     * @param password DB password
+     * @return configured pool
+     * @throws Exception if the driver cannot be loaded
+     */
+    private static ComboPooledDataSource createPool(String url, String user, String password) throws Exception {
+        ComboPooledDataSource pool = new ComboPooledDataSource();
+        pool.setDriverClass(rb.getString("driver"));
+        pool.setJdbcUrl(withSqlTiming(withStatementCache(url)));
+        pool.setUser(user);
+        pool.setPassword(password);
+        pool.setInitialPoolSize(Integer.parseInt(rb.getString("initialpoolsize")));
+        pool.setAcquireIncrement(Integer.parseInt(rb.getString("acquireincrement")));
+        pool.setMaxPoolSize(Integer.parseInt(rb.getString("maxpoolsize")));
+        pool.setPreferredTestQuery(getTestQuery());
+        return pool;
+    }
+
+    /**
+     * Appends the driver's prepared statement cache settings (key
+     * {@code pool.stmtcache}) to a JDBC URL, so the parameterized searches are
+     * parsed once per connection and reused.
+     *
+     * @param url JDBC URL
+     * @return URL with the cache settings
+     */
+    private static String withStatementCache(String url) {
+        String cache = getString("pool.stmtcache", "");
+        if (cache.length() == 0 || url.contains("cachePrepStmts")) {
+            return url;
+        }
+        return url + (url.indexOf('?') < 0 ? "?" : "&") + cache;
+    }
+
+    /**
+     * Installs {@link SqlTimingInterceptor} in the driver through the JDBC
+     * URL, unless {@code metrics.sqltiming} is false.
+     *
+     * @param url JDBC URL
+     * @return URL with the interceptor
+     */
+    private static String withSqlTiming(String url) {
+        if ("false".equalsIgnoreCase(getString("metrics.sqltiming", "true")) || url.contains("queryInterceptors")) {
+            return url;
+        }
+        return url + (url.indexOf('?') < 0 ? "?" : "&") + "queryInterceptors=" + SqlTimingInterceptor.class.getName();
     }
 
     /**
-     * Returns the Singleton instance of JDBCDataSource.
+     * Returns the Singleton instance of JDBCDataSource, creating the pool on
+     * first use.
      *
      * @return JDBCDataSource instance
      */
     public static JDBCDataSource getInstance() {
-        if (jds == null) {
-            jds = new JDBCDataSource();
+        JDBCDataSource instance = jds;
+        if (instance == null) {
+            synchronized (JDBCDataSource.class) {
+                instance = jds;
+                if (instance == null) {
+                    try {
+                        instance = new JDBCDataSource();
+                    } catch (Exception e) {
+                        log.error("Exception in creating connection pool", e);
+                        throw new IllegalStateException("Connection pool could not be created", e);
+                    }
+                    jds = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Creates the pool and opens {@code initialpoolsize} connections, running
+     * the validation query on each, so the first requests do not pay for
+     * connection setup. The replica pool is warmed the same way; a replica
+     * failure is logged and does not fail the startup.
+     *
+     * @throws SQLException if a primary connection cannot be opened or validated
+     */
+    public static void init() throws SQLException {
+
+        JDBCDataSource ds = getInstance();
+        warm(ds.cpds);
+        log.info("Connection pool warmed with " + ds.cpds.getInitialPoolSize() + " connections");
+
+        if (ds.replica != null) {
+            try {
+                warm(ds.replica);
+                log.info("Replica pool warmed with " + ds.replica.getInitialPoolSize() + " connections");
+            } catch (SQLException e) {
+                ds.replicaDownUntil = System.currentTimeMillis() + ds.replicaRetry;
+                log.error("Replica pool warm up failed", e);
+            }
+        }
+    }
+
+    /**
+     * Opens and validates {@code initialpoolsize} connections of the pool.
+     *
+     * @param pool pool to warm
+     * @throws SQLException if a connection cannot be opened or validated
+     */
+    private static void warm(ComboPooledDataSource pool) throws SQLException {
+
+        int size = pool.getInitialPoolSize();
+        String query = getTestQuery();
+
+        Connection[] warm = new Connection[size];
+        try {
+            for (int i = 0; i < size; i++) {
+                warm[i] = pool.getConnection();
+                Statement stmt = warm[i].createStatement();
+                stmt.execute(query);
+                stmt.close();
+            }
+        } finally {
+            for (Connection conn : warm) {
+                if (conn != null) {
+                    conn.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes the pools and all of their connections.
+     */
+    public static void destroy() {
+        synchronized (JDBCDataSource.class) {
+            if (jds != null) {
+                jds.cpds.close();
+                if (jds.replica != null) {
+                    jds.replica.close();
+                }
+                jds = null;
+            }
         }
-        return jds;
     }
 
     /**
      * Returns a database connection from the C3P0 connection pool.
      *
-     * @return Connection object or null if connection cannot be created
+     * @return Connection object
+     * @throws SQLException if a connection cannot be obtained
      */
-    public static Connection getConnection() {
+    public static Connection getConnection() throws SQLException {
+        JDBCDataSource ds = getInstance();
+        return ds.checkout(ds.cpds);
+    }
+
+    /**
+     * Returns a connection for a read-only operation: from the replica when
+     * one is configured and usable, otherwise from the primary.
+     *
+     * @return Connection object
+     * @throws SQLException if no connection can be obtained
+     */
+    public static Connection getReadConnection() throws SQLException {
+
+        JDBCDataSource ds = getInstance();
+
+        if (ds.replica == null) {
+            return ds.checkout(ds.cpds);
+        }
+
+        long now = System.currentTimeMillis();
+        long[] written = lastWrite.get();
+
+        if (now < ds.replicaDownUntil || (written != null && now - written[0] < ds.readYourWritesWindow)) {
+            ds.primaryReads.increment();
+            return ds.checkout(ds.cpds);
+        }
+
+        try {
+            Connection conn = ds.checkout(ds.replica);
+            ds.replicaReads.increment();
+            return conn;
+        } catch (SQLException e) {
+            if (!ds.replicaFallback) {
+                throw e;
+            }
+            ds.replicaDownUntil = now + ds.replicaRetry;
+            ds.replicaFallbacks.increment();
+            log.warn("Replica unavailable, reading from primary for " + (ds.replicaRetry / 1000) + " s");
+            return ds.checkout(ds.cpds);
+        }
+    }
+
+    /**
+     * Checks out a connection and records the acquire wait.
+     *
+     * @param pool pool to use
+     * @return Connection object
+     * @throws SQLException if a connection cannot be obtained
+     */
+    private Connection checkout(ComboPooledDataSource pool) throws SQLException {
+        long start = System.nanoTime();
         try {
-            return getInstance().cpds.getConnection();
+            Connection conn = pool.getConnection();
+            long now = System.nanoTime();
+            acquireWait.record((now - start) / 1000000);
+            checkouts.put(conn, now);
+            return conn;
         } catch (SQLException e) {
-            return null;
+            failedCheckouts.increment();
+            log.error("Exception in getting connection", e);
+            throw e;
         }
     }
 
+    /**
+     * Starts a request with the time of the session's last write, so reads
+     * within the read-your-writes window go to the primary.
+     *
+     * @param lastWriteMillis time of the last write, 0 if none
+     */
+    public static void beginRequest(long lastWriteMillis) {
+        lastWrite.set(new long[] { lastWriteMillis });
+    }
+
+    /**
+     * Ends the request started by {@link #beginRequest(long)}.
+     *
+     * @return time of the last write, including writes made by this request
+     */
+    public static long endRequest() {
+        long[] written = lastWrite.get();
+        lastWrite.remove();
+        return (written == null) ? 0 : written[0];
+    }
+
     /**
      * Safely closes ResultSet, Statement, and Connection objects.
      *
@@ -114,6 +402,19 @@ public final class JDBCDataSource {
                 stmt.close();
             }
             if (conn != null) {
+                JDBCDataSource ds = jds;
+                if (ds != null) {
+                    Long start = ds.checkouts.remove(conn);
+                    if (start != null) {
+                        ds.checkoutDuration.record((System.nanoTime() - start) / 1000000);
+                    }
+                }
+                if (!conn.getAutoCommit()) {
+                    long[] written = lastWrite.get();
+                    if (written != null) {
+                        written[0] = System.currentTimeMillis();
+                    }
+                }
                 conn.close(); // returns connection back to the pool
             }
         } catch (SQLException e) {
@@ -139,4 +440,88 @@ public final class JDBCDataSource {
     public static void closeConnection(Connection conn) {
         closeConnection(conn, null);
     }
+
+    /**
+     * Returns a snapshot of the pool statistics, in display order.
+     *
+     * @return statistic name to value
+     * @throws SQLException if the pool cannot be queried
+     */
+    public static Map<String, Object> getPoolStatistics() throws SQLException {
+
+        JDBCDataSource ds = getInstance();
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+
+        stats.put("primary", getPoolStatistics(ds.cpds));
+        stats.put("failedCheckouts", ds.failedCheckouts.sum());
+
+        long now = System.nanoTime();
+        int leaked = 0;
+        for (Long start : ds.checkouts.values()) {
+            if ((now - start) / 1000000 > ds.leakThreshold) {
+                leaked++;
+            }
+        }
+        stats.put("checkedOut", ds.checkouts.size());
+        stats.put("leakedConnections", leaked);
+        stats.put("leakThresholdMillis", ds.leakThreshold);
+
+        stats.put("acquireWait", ds.acquireWait.snapshot());
+        stats.put("checkoutDuration", ds.checkoutDuration.snapshot());
+
+        if (ds.replica != null) {
+            Map<String, Object> replica = getPoolStatistics(ds.replica);
+            replica.put("available", System.currentTimeMillis() >= ds.replicaDownUntil);
+            replica.put("replicaReads", ds.replicaReads.sum());
+            replica.put("primaryReads", ds.primaryReads.sum());
+            replica.put("fallbacks", ds.replicaFallbacks.sum());
+            stats.put("replica", replica);
+        }
+
+        return stats;
+    }
+
+    /**
+     * Returns the c3p0 counters of one pool.
+     *
+     * @param pool pool to query
+     * @return statistic name to value
+     * @throws SQLException if the pool cannot be queried
+     */
+    private static Map<String, Object> getPoolStatistics(ComboPooledDataSource pool) throws SQLException {
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        stats.put("maxPoolSize", pool.getMaxPoolSize());
+        stats.put("connections", pool.getNumConnectionsDefaultUser());
+        stats.put("busyConnections", pool.getNumBusyConnectionsDefaultUser());
+        stats.put("idleConnections", pool.getNumIdleConnectionsDefaultUser());
+        stats.put("threadsAwaitingCheckout", pool.getNumThreadsAwaitingCheckoutDefaultUser());
+        stats.put("pendingHelperTasks", pool.getThreadPoolNumTasksPending());
+        stats.put("unclosedOrphanedConnections", pool.getNumUnclosedOrphanedConnectionsDefaultUser());
+        return stats;
+    }
+
+    /**
+     * @return configured validation query, {@code select 1} by default
+     */
+    private static String getTestQuery() {
+        return getString("pool.testquery", "select 1");
+    }
+
+    /**
+     * Returns the property value, or the default when it is missing or empty.
+     */
+    private static String getString(String key, String defaultValue) {
+        if (rb.containsKey(key) && DataValidator.isNotNull(rb.getString(key))) {
+            return rb.getString(key).trim();
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Returns the property as a positive long, or the default.
+     */
+    private static long getLong(String key, long defaultValue) {
+        long value = DataUtility.getLong(getString(key, null));
+        return (value > 0) ? value : defaultValue;
+    }
 }
@@ -0,0 +1,145 @@
+package in.co.rays.proj4.util;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * JSONUtility converts simple values into JSON text for the read-only admin
+ * endpoints.
+ *
+ * <p>
+ * Supported values are {@code null}, {@link Number}, {@link Boolean},
+ * {@link CharSequence}, {@link Map} (keys are written with
+ * {@code toString()}), {@link Collection} and {@code long[]} / {@code double[]}
+ * arrays. Anything else is written as its {@code toString()} value.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public class JSONUtility {
+
+    /**
+     * Converts the value into JSON text.
+     *
+     * @param value value to convert
+     * @return JSON text
+     */
+    public static String toJson(Object value) {
+        StringBuilder sb = new StringBuilder();
+        append(sb, value);
+        return sb.toString();
+    }
+
+    /**
+     * Appends the JSON form of the value to the builder.
+     *
+     * @param sb    target builder
+     * @param value value to append
+     */
+    public static void append(StringBuilder sb, Object value) {
+
+        if (value == null) {
+            sb.append("null");
+
+        } else if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                sb.append("null");
+            } else {
+                sb.append(d);
+            }
+
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+
+        } else if (value instanceof Map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                appendString(sb, String.valueOf(e.getKey()));
+                sb.append(':');
+                append(sb, e.getValue());
+            }
+            sb.append('}');
+
+        } else if (value instanceof Collection) {
+            sb.append('[');
+            boolean first = true;
+            for (Object o : (Collection<?>) value) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                append(sb, o);
+            }
+            sb.append(']');
+
+        } else if (value instanceof long[]) {
+            long[] arr = (long[]) value;
+            sb.append('[');
+            for (int i = 0; i < arr.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(arr[i]);
+            }
+            sb.append(']');
+
+        } else if (value instanceof double[]) {
+            double[] arr = (double[]) value;
+            sb.append('[');
+            for (int i = 0; i < arr.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                append(sb, arr[i]);
+            }
+            sb.append(']');
+
+        } else {
+            appendString(sb, value.toString());
+        }
+    }
+
+    /**
+     * Appends a quoted and escaped JSON string.
+     *
+     * @param sb  target builder
+     * @param str string to append
+     */
+    private static void appendString(StringBuilder sb, String str) {
+        sb.append('"');
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            switch (c) {
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    sb.append(String.format("\\u%04x", (int) c));
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
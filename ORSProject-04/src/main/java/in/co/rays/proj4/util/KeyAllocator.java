@@ -0,0 +1,53 @@
+package in.co.rays.proj4.util;
+
+import in.co.rays.proj4.exception.DatabaseException;
+
+/**
+ * KeyAllocator hands out primary key values for the {@code st_xxx} tables.
+ *
+ * <p>
+ * All model classes obtain the id of a new record through
+ * {@link KeyAllocatorFactory#getAllocator()} instead of running
+ * {@code select max(id)} themselves, so the key generation strategy can be
+ * switched from {@code System.properties} without touching the models.
+ * </p>
+ *
+ * <p>
+ * Implementations must be thread-safe and must never return the same key
+ * twice for a table.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ * @see SegmentKeyAllocator
+ * @see MaxIdKeyAllocator
+ */
+public interface KeyAllocator {
+
+    /**
+     * Returns the next unused primary key for the given table.
+     *
+     * @param table name of the table, e.g. {@code st_marksheet}
+     * @return next primary key value (always &gt; 0)
+     * @throws DatabaseException if a key cannot be reserved
+     */
+    public long nextKey(String table) throws DatabaseException;
+
+    /**
+     * Returns {@code count} unused primary keys for the given table, e.g.
+     * for a batch insert.
+     *
+     * @param table name of the table
+     * @param count number of keys
+     * @return the keys, in ascending order
+     * @throws DatabaseException if the keys cannot be reserved
+     */
+    public default long[] nextKeys(String table, int count) throws DatabaseException {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = nextKey(table);
+        }
+        return keys;
+    }
+
+}
@@ -0,0 +1,61 @@
+package in.co.rays.proj4.util;
+
+/**
+ * KeyAllocatorFactory creates the application wide {@link KeyAllocator}
+ * configured in {@code System.properties}.
+ *
+ * <p>
+ * Supported properties:
+ * </p>
+ * <pre>
+ * key.allocator = segment   (segment | max)
+ * key.blocksize = 50        (keys reserved per round trip, segment only)
+ * </pre>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public final class KeyAllocatorFactory {
+
+    /** Default number of keys reserved per block */
+    public static final int DEFAULT_BLOCK_SIZE = 50;
+
+    private KeyAllocatorFactory() {
+    }
+
+    /**
+     * Lazy holder, initialized on first use by the class loader.
+     */
+    private static final class Holder {
+        private static final KeyAllocator ALLOCATOR = create();
+    }
+
+    /**
+     * Returns the configured allocator.
+     *
+     * @return shared KeyAllocator instance
+     */
+    public static KeyAllocator getAllocator() {
+        return Holder.ALLOCATOR;
+    }
+
+    /**
+     * Builds the allocator named by {@code key.allocator}.
+     *
+     * @return new KeyAllocator
+     */
+    private static KeyAllocator create() {
+
+        String type = PropertyReader.getValue("key.allocator");
+
+        if ("max".equalsIgnoreCase(type)) {
+            return new MaxIdKeyAllocator();
+        }
+
+        int blockSize = DataUtility.getInt(PropertyReader.getValue("key.blocksize"));
+        if (blockSize <= 0) {
+            blockSize = DEFAULT_BLOCK_SIZE;
+        }
+        return new SegmentKeyAllocator(blockSize);
+    }
+}
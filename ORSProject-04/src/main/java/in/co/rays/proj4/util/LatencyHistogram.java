@@ -0,0 +1,174 @@
+package in.co.rays.proj4.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram counts durations into fixed millisecond buckets.
+ *
+ * <p>
+ * Recording is lock-free and does not allocate: it finds the bucket with a
+ * short linear scan over the bounds and increments a {@link LongAdder}. It is
+ * safe to share one instance between all request threads.
+ * </p>
+ *
+ * <p>
+ * Bucket {@code i} counts values {@code <= bounds[i]}; the last bucket counts
+ * everything above the largest bound.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public class LatencyHistogram {
+
+    /** Default bucket upper bounds in milliseconds */
+    public static final long[] DEFAULT_BOUNDS = { 1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000 };
+
+    private final long[] bounds;
+
+    private final LongAdder[] buckets;
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    /**
+     * Creates a histogram with {@link #DEFAULT_BOUNDS}.
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_BOUNDS);
+    }
+
+    /**
+     * Creates a histogram with the given ascending bucket bounds.
+     *
+     * @param bounds bucket upper bounds in milliseconds
+     */
+    public LatencyHistogram(long[] bounds) {
+        this.bounds = bounds.clone();
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one duration.
+     *
+     * @param millis duration in milliseconds
+     */
+    public void record(long millis) {
+        int i = 0;
+        while (i < bounds.length && millis > bounds[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        count.increment();
+        sum.add(millis);
+        max.accumulate(millis);
+    }
+
+    /**
+     * @return copy of the bucket upper bounds
+     */
+    public long[] getBounds() {
+        return bounds.clone();
+    }
+
+    /**
+     * Returns the per bucket counts; the last element is the overflow bucket.
+     *
+     * @return bucket counts (not cumulative)
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * @return number of recorded values
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return sum of recorded values in milliseconds
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return largest recorded value in milliseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return mean of recorded values in milliseconds, 0 when empty
+     */
+    public double getMean() {
+        long c = getCount();
+        return (c == 0) ? 0 : (double) getSum() / c;
+    }
+
+    /**
+     * Estimates a percentile as the upper bound of the bucket holding it; a
+     * percentile in the overflow bucket is the largest recorded value.
+     *
+     * @param percentile percentile, 0 to 100
+     * @return upper bound of the percentile, 0 when empty
+     */
+    public long getPercentile(double percentile) {
+        long[] counts = getBucketCounts();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long cumulative = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return Math.min(bounds[i], getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Returns count, sum, mean, max and the bucket counts keyed by their upper
+     * bound ({@code "+Inf"} for the overflow bucket), for display.
+     *
+     * @return snapshot of the histogram
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("count", getCount());
+        map.put("sumMillis", getSum());
+        map.put("meanMillis", getMean());
+        map.put("maxMillis", getMax());
+
+        Map<String, Object> counts = new LinkedHashMap<String, Object>();
+        long[] values = getBucketCounts();
+        for (int i = 0; i < bounds.length; i++) {
+            counts.put("le" + bounds[i], values[i]);
+        }
+        counts.put("+Inf", values[bounds.length]);
+        map.put("buckets", counts);
+        return map;
+    }
+}
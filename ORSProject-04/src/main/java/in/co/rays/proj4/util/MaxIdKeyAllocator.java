@@ -0,0 +1,81 @@
+package in.co.rays.proj4.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import in.co.rays.proj4.exception.DatabaseException;
+
+/**
+ * MaxIdKeyAllocator is the legacy key strategy: every call runs
+ * {@code select max(id) from <table>} and returns the result plus one.
+ *
+ * <p>
+ * It needs no extra table and is kept for databases where
+ * {@code st_sequence} has not been created yet. It costs one round trip per
+ * insert and concurrent inserts may receive the same key, so
+ * {@link SegmentKeyAllocator} should be preferred.
+ * </p>
+ *
+ * <p>
+ * Enable with {@code key.allocator=max} in {@code System.properties}.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public class MaxIdKeyAllocator implements KeyAllocator {
+
+    /**
+     * Returns max(id) + 1 of the given table.
+     *
+     * @param table name of the table
+     * @return next primary key
+     * @throws DatabaseException if a database error occurs
+     */
+    @Override
+    public long nextKey(String table) throws DatabaseException {
+        return maxId(table) + 1;
+    }
+
+    /**
+     * Returns max(id) + 1 ... max(id) + count of the given table, read with
+     * a single query.
+     *
+     * @param table name of the table
+     * @param count number of keys
+     * @return the keys, in ascending order
+     * @throws DatabaseException if a database error occurs
+     */
+    @Override
+    public long[] nextKeys(String table, int count) throws DatabaseException {
+        long max = maxId(table);
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = max + i + 1;
+        }
+        return keys;
+    }
+
+    private long maxId(String table) throws DatabaseException {
+
+        Connection conn = null;
+        long pk = 0;
+
+        try {
+            conn = JDBCDataSource.getConnection();
+            PreparedStatement pstmt = conn.prepareStatement("select max(id) from " + table);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                pk = rs.getLong(1);
+            }
+            rs.close();
+            pstmt.close();
+        } catch (Exception e) {
+            throw new DatabaseException("Exception : Exception in getting PK");
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+        return pk;
+    }
+}
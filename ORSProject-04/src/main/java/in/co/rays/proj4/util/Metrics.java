@@ -0,0 +1,291 @@
+package in.co.rays.proj4.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics holds the application's request and SQL timings and error counters
+ * and writes them in the Prometheus text format for the <code>/metrics</code>
+ * endpoint.
+ *
+ * <p>
+ * Recording is lock-free. The histogram of a controller and operation, or of
+ * a statement, is found with lookups in concurrent maps that do not allocate
+ * once the entry exists; recording then only adds to {@link LongAdder}s.
+ * Request durations are recorded in milliseconds and statement durations in
+ * microseconds, with {@link #SQL_BOUNDS_MICROS}.
+ * </p>
+ *
+ * <p>
+ * Statements are labelled with the model method that ran them, e.g.
+ * <code>MarksheetModel.search</code>, found on the call stack by
+ * {@link QueryProfiler} for every statement. At most
+ * {@link #MAX_OPERATIONS} operations are kept per controller; further ones
+ * are counted as <code>other</code>.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public final class Metrics {
+
+    /** Statement duration bucket bounds in microseconds, 100 us to 10 s */
+    public static final long[] SQL_BOUNDS_MICROS = { 100, 250, 500, 1000, 2500, 5000, 10000, 25000, 50000,
+            100000, 250000, 500000, 1000000, 2500000, 10000000 };
+
+    /** Operations kept per controller */
+    public static final int MAX_OPERATIONS = 32;
+
+    /** Label of requests without an operation */
+    private static final String NO_OPERATION = "none";
+
+    private static final String OTHER = "other";
+
+    private static final String PACKAGE = "in.co.rays.proj4.";
+
+    /**
+     * JDBC helpers of the model package that run statements for the models;
+     * a statement is labelled with the model method that called them.
+     */
+    private static final Set<String> MODEL_HELPERS = new HashSet<String>(Arrays.asList(
+            PACKAGE + "model.Pagination", PACKAGE + "model.BulkDelete", PACKAGE + "model.CsvExport"));
+
+    private static final String MODEL = PACKAGE + "model.";
+
+    /** Classes of this package that time statements */
+    private static final Set<String> PLUMBING = new HashSet<String>(Arrays.asList(PACKAGE + "util.Metrics",
+            PACKAGE + "util.QueryProfiler", PACKAGE + "util.SqlTimingInterceptor"));
+
+    /** Frames searched for the model method below the driver and pool */
+    private static final int MAX_DEPTH = 48;
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    /** Request latency per controller and operation */
+    private static final Map<String, Map<String, LatencyHistogram>> requests = new ConcurrentHashMap<String, Map<String, LatencyHistogram>>();
+
+    /** Requests that ended with an exception, per controller */
+    private static final Map<String, LongAdder> errors = new ConcurrentHashMap<String, LongAdder>();
+
+    /** Exceptions shown on the error page, per exception class */
+    private static final Map<String, LongAdder> exceptions = new ConcurrentHashMap<String, LongAdder>();
+
+    /** Statement latency per model method */
+    private static final Map<String, LatencyHistogram> methods = new ConcurrentHashMap<String, LatencyHistogram>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the latency histogram of a controller operation.
+     *
+     * @param controller servlet name
+     * @param operation  value of the "operation" parameter, may be null
+     * @return histogram to record milliseconds in
+     */
+    public static LatencyHistogram request(String controller, String operation) {
+        Map<String, LatencyHistogram> operations = requests.computeIfAbsent(controller,
+                k -> new ConcurrentHashMap<String, LatencyHistogram>());
+        String op = (operation == null) ? NO_OPERATION : operation;
+        LatencyHistogram histogram = operations.get(op);
+        if (histogram == null) {
+            if (operations.size() >= MAX_OPERATIONS) {
+                op = OTHER;
+            }
+            histogram = operations.computeIfAbsent(op, k -> new LatencyHistogram());
+        }
+        return histogram;
+    }
+
+    /**
+     * Counts a request that ended with an exception.
+     *
+     * @param controller servlet name
+     */
+    public static void requestError(String controller) {
+        errors.computeIfAbsent(controller, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Counts an exception handled by forwarding to the error page.
+     *
+     * @param e exception
+     */
+    public static void exception(Exception e) {
+        exceptions.computeIfAbsent(e.getClass().getSimpleName(), k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Returns the statement latency histogram of a model method.
+     *
+     * @param method model method, e.g. <code>MarksheetModel.search</code>
+     * @return histogram to record microseconds in
+     */
+    public static LatencyHistogram sql(String method) {
+        return methods.computeIfAbsent(method, k -> new LatencyHistogram(SQL_BOUNDS_MICROS));
+    }
+
+    /**
+     * Finds the model method on the call stack, skipping the shared JDBC
+     * helpers {@link in.co.rays.proj4.model.Pagination},
+     * {@link in.co.rays.proj4.model.BulkDelete} and
+     * {@link in.co.rays.proj4.model.CsvExport}, or else the first application
+     * method outside the JDBC plumbing of this package, in one pass over the
+     * stack that stops at the model method. Must be called on the thread
+     * running the statement.
+     *
+     * @return label such as <code>MarksheetModel.search</code>
+     */
+    static String caller() {
+        return WALKER.walk(frames -> {
+            StackWalker.StackFrame fallback = null;
+            for (Iterator<StackWalker.StackFrame> it = frames.limit(MAX_DEPTH).iterator(); it.hasNext();) {
+                StackWalker.StackFrame frame = it.next();
+                String className = frame.getClassName();
+                if (!className.startsWith(PACKAGE) || MODEL_HELPERS.contains(className)) {
+                    continue;
+                }
+                if (className.startsWith(MODEL)) {
+                    return label(frame);
+                }
+                if (fallback == null && !PLUMBING.contains(className)) {
+                    fallback = frame;
+                }
+            }
+            return (fallback == null) ? OTHER : label(fallback);
+        });
+    }
+
+    private static String label(StackWalker.StackFrame frame) {
+        String className = frame.getClassName();
+        return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+    }
+
+    /**
+     * Writes all metrics in the Prometheus text exposition format, version
+     * 0.0.4.
+     *
+     * @param out output
+     * @throws IOException if the output fails
+     */
+    public static void write(Writer out) throws IOException {
+
+        header(out, "ors_request_duration_seconds", "histogram", "Request latency by controller and operation");
+        for (Map.Entry<String, Map<String, LatencyHistogram>> controller : new TreeMap<String, Map<String, LatencyHistogram>>(
+                requests).entrySet()) {
+            for (Map.Entry<String, LatencyHistogram> op : new TreeMap<String, LatencyHistogram>(controller.getValue())
+                    .entrySet()) {
+                histogram(out, "ors_request_duration_seconds",
+                        "controller=\"" + escape(controller.getKey()) + "\",operation=\"" + escape(op.getKey()) + "\"",
+                        op.getValue(), 3);
+            }
+        }
+
+        header(out, "ors_request_errors_total", "counter", "Requests that ended with an exception");
+        counters(out, "ors_request_errors_total", "controller", errors);
+
+        header(out, "ors_exceptions_total", "counter", "Exceptions shown on the error page by class");
+        counters(out, "ors_exceptions_total", "exception", exceptions);
+
+        header(out, "ors_sql_duration_seconds", "histogram", "Statement latency by model method");
+        for (Map.Entry<String, LatencyHistogram> method : new TreeMap<String, LatencyHistogram>(methods).entrySet()) {
+            histogram(out, "ors_sql_duration_seconds", "method=\"" + escape(method.getKey()) + "\"",
+                    method.getValue(), 6);
+        }
+
+        header(out, "ors_log_events_dropped_total", "counter", "Log events dropped because the log buffer was full");
+        sample(out, "ors_log_events_dropped_total", null, String.valueOf(AsyncLogAppender.getDropped()));
+
+        pool(out);
+    }
+
+    /**
+     * Writes the connection pool gauges of {@link JDBCDataSource}.
+     */
+    @SuppressWarnings("unchecked")
+    private static void pool(Writer out) throws IOException {
+        Map<String, Object> stats;
+        try {
+            stats = JDBCDataSource.getPoolStatistics();
+        } catch (SQLException | IllegalStateException e) {
+            return; // pool unavailable, its gauges are left out
+        }
+        String[][] gauges = { { "busyConnections", "ors_pool_busy_connections", "Connections in use" },
+                { "idleConnections", "ors_pool_idle_connections", "Idle connections" },
+                { "threadsAwaitingCheckout", "ors_pool_waiting_threads", "Threads waiting for a connection" } };
+        for (String[] gauge : gauges) {
+            header(out, gauge[1], "gauge", gauge[2]);
+            for (String pool : new String[] { "primary", "replica" }) {
+                Map<String, Object> values = (Map<String, Object>) stats.get(pool);
+                if (values != null) {
+                    sample(out, gauge[1], "pool=\"" + pool + "\"", String.valueOf(values.get(gauge[0])));
+                }
+            }
+        }
+        header(out, "ors_pool_leaked_connections", "gauge", "Connections checked out longer than the leak threshold");
+        sample(out, "ors_pool_leaked_connections", null, String.valueOf(stats.get("leakedConnections")));
+        header(out, "ors_pool_failed_checkouts_total", "counter", "Failed connection checkouts");
+        sample(out, "ors_pool_failed_checkouts_total", null, String.valueOf(stats.get("failedCheckouts")));
+    }
+
+    private static void header(Writer out, String name, String type, String help) throws IOException {
+        out.write("# HELP " + name + " " + help + "\n");
+        out.write("# TYPE " + name + " " + type + "\n");
+    }
+
+    /**
+     * Writes the cumulative buckets, sum and count of a histogram, converting
+     * its values to seconds; {@code scale} is 3 for milliseconds, 6 for
+     * microseconds.
+     */
+    private static void histogram(Writer out, String name, String labels, LatencyHistogram histogram, int scale)
+            throws IOException {
+        long[] bounds = histogram.getBounds();
+        long[] counts = histogram.getBucketCounts();
+        long cumulative = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            cumulative += counts[i];
+            sample(out, name + "_bucket", labels + ",le=\"" + seconds(bounds[i], scale) + "\"", String.valueOf(cumulative));
+        }
+        cumulative += counts[bounds.length];
+        sample(out, name + "_bucket", labels + ",le=\"+Inf\"", String.valueOf(cumulative));
+        sample(out, name + "_sum", labels, seconds(histogram.getSum(), scale));
+        sample(out, name + "_count", labels, String.valueOf(cumulative));
+    }
+
+    private static String seconds(long value, int scale) {
+        return BigDecimal.valueOf(value, scale).stripTrailingZeros().toPlainString();
+    }
+
+    private static void counters(Writer out, String name, String label, Map<String, LongAdder> counters)
+            throws IOException {
+        for (Map.Entry<String, LongAdder> counter : new TreeMap<String, LongAdder>(counters).entrySet()) {
+            sample(out, name, label + "=\"" + escape(counter.getKey()) + "\"", String.valueOf(counter.getValue().sum()));
+        }
+    }
+
+    private static void sample(Writer out, String name, String labels, String value) throws IOException {
+        out.write(name);
+        if (labels != null) {
+            out.write("{" + labels + "}");
+        }
+        out.write(" " + value + "\n");
+    }
+
+    /**
+     * Escapes a label value: backslash, double quote and line feed.
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
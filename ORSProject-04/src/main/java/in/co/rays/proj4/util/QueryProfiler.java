@@ -0,0 +1,437 @@
+package in.co.rays.proj4.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.apache.log4j.Logger;
+
+/**
+ * QueryProfiler aggregates the statements timed by
+ * {@link SqlTimingInterceptor} by fingerprint and writes slow statements to
+ * the slow query log.
+ *
+ * <p>
+ * The fingerprint of a statement is its SQL with literals replaced by
+ * <code>?</code>, lists of values collapsed to <code>(?+)</code>, whitespace
+ * collapsed and keywords in lower case, so the searches built with a varying
+ * number of conditions or <code>in</code> values fall into a few shapes:
+ * </p>
+ * <pre>
+ * select * from st_student where id in (?, ?, ?) and email like 'ra%' limit 0, 10
+ * select * from st_student where id in (?+) and email like ? limit ?, ?
+ * </pre>
+ *
+ * <p>
+ * For every fingerprint and model method that ran it the profiler keeps the
+ * count, total, p50, p99 and maximum time and the rows returned (or
+ * affected). Percentiles are the upper bound of their
+ * {@link Metrics#SQL_BOUNDS_MICROS} bucket. The model method is found on the
+ * call stack for every statement, as the same SQL text can come from several
+ * methods; the fingerprint is worked out once per SQL text and method and
+ * cached, so recording a statement is a stack walk, two map lookups and a
+ * few lock-free additions.
+ * </p>
+ *
+ * <p>
+ * A statement taking {@code sql.slowmillis} or more is logged with its
+ * fingerprint, time, rows and method to the <code>slowquery</code> logger,
+ * which log4j.properties sends to its own file. The values of a statement,
+ * e.g. a login and password, are not logged unless {@code sql.slowvalues} is
+ * true; even then string literals are masked. Supported properties:
+ * </p>
+ * <pre>
+ * sql.slowmillis = 500
+ * sql.slowvalues = false
+ * sql.maxfingerprints = 1000
+ * </pre>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public final class QueryProfiler {
+
+    private static Logger log = Logger.getLogger(QueryProfiler.class);
+
+    /** Dedicated logger of slow statements */
+    private static Logger slowLog = Logger.getLogger("slowquery");
+
+    /** Default threshold of the slow query log in milliseconds */
+    public static final long DEFAULT_SLOW_MILLIS = 500;
+
+    /** Default number of fingerprint and method profiles kept */
+    public static final int DEFAULT_MAX_FINGERPRINTS = 1000;
+
+    /** SQL texts whose fingerprint is cached */
+    public static final int MAX_STATEMENTS = 4096;
+
+    /** Orders of {@link #top(int, String)} */
+    public static final String[] ORDERS = { "total", "count", "mean", "p99", "max", "rows", "slow" };
+
+    /** Replacement of string literals in the logged values */
+    private static final String MASK = "'***'";
+
+    /** Fingerprint counting the statements above the fingerprint limit */
+    private static final String OTHER = "other";
+
+    private static final Pattern COMMA = Pattern.compile(" ?, ?");
+
+    private static final Pattern LIST = Pattern.compile("\\( ?\\?(, \\?)* ?\\)");
+
+    private static final Pattern LISTS = Pattern.compile("\\(\\?\\+\\)(, \\(\\?\\+\\))+");
+
+    /**
+     * Statistics of one fingerprint run by one model method.
+     */
+    public static final class Profile {
+
+        private final String fingerprint;
+        private final String method;
+        private final LatencyHistogram time = new LatencyHistogram(Metrics.SQL_BOUNDS_MICROS);
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder slow = new LongAdder();
+
+        private Profile(String fingerprint, String method) {
+            this.fingerprint = fingerprint;
+            this.method = method;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * @return model method that ran the fingerprint
+         */
+        public String getMethod() {
+            return method;
+        }
+
+        public long getCount() {
+            return time.getCount();
+        }
+
+        public double getTotalMillis() {
+            return time.getSum() / 1000.0;
+        }
+
+        public double getMeanMillis() {
+            return time.getMean() / 1000;
+        }
+
+        public double getP50Millis() {
+            return time.getPercentile(50) / 1000.0;
+        }
+
+        public double getP99Millis() {
+            return time.getPercentile(99) / 1000.0;
+        }
+
+        public double getMaxMillis() {
+            return time.getMax() / 1000.0;
+        }
+
+        /**
+         * @return rows returned by queries and affected by updates
+         */
+        public long getRows() {
+            return rows.sum();
+        }
+
+        /**
+         * @return statements at or above the slow query threshold
+         */
+        public long getSlow() {
+            return slow.sum();
+        }
+
+        /**
+         * @return statistics for JSON
+         */
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<String, Object>();
+            map.put("fingerprint", fingerprint);
+            map.put("method", method);
+            map.put("count", getCount());
+            map.put("totalMillis", getTotalMillis());
+            map.put("meanMillis", getMeanMillis());
+            map.put("p50Millis", getP50Millis());
+            map.put("p99Millis", getP99Millis());
+            map.put("maxMillis", getMaxMillis());
+            map.put("rows", getRows());
+            map.put("slow", getSlow());
+            return map;
+        }
+    }
+
+    /**
+     * Cached fingerprint and profile of a SQL text run by one method.
+     */
+    private static final class Statement {
+
+        private final String fingerprint;
+        private final Profile profile;
+        private final LatencyHistogram method;
+
+        private Statement(String fingerprint, Profile profile, LatencyHistogram method) {
+            this.fingerprint = fingerprint;
+            this.profile = profile;
+            this.method = method;
+        }
+    }
+
+    private static final long slowMicros;
+
+    private static final boolean slowValues;
+
+    private static final int maxFingerprints;
+
+    private static final Map<String, Profile> profiles = new ConcurrentHashMap<String, Profile>();
+
+    /** Statements by SQL text and method */
+    private static final Map<String, Map<String, Statement>> statements = new ConcurrentHashMap<String, Map<String, Statement>>();
+
+    static {
+        long millis = DataUtility.getLong(PropertyReader.getValue("sql.slowmillis"));
+        int max = DataUtility.getInt(PropertyReader.getValue("sql.maxfingerprints"));
+        slowMicros = ((millis > 0) ? millis : DEFAULT_SLOW_MILLIS) * 1000;
+        slowValues = "true".equals(PropertyReader.getValue("sql.slowvalues"));
+        maxFingerprints = (max > 0) ? max : DEFAULT_MAX_FINGERPRINTS;
+    }
+
+    private QueryProfiler() {
+    }
+
+    /**
+     * Records a statement. Must be called on the thread that ran it.
+     *
+     * @param sql    SQL text with placeholders
+     * @param micros duration in microseconds
+     * @param rows   rows returned or affected, -1 if unknown
+     * @param text   SQL with its values, read only for the slow query log when
+     *               {@code sql.slowvalues} is true
+     */
+    public static void record(String sql, long micros, long rows, Supplier<String> text) {
+
+        String method = Metrics.caller();
+        Map<String, Statement> byMethod = statements.get(sql);
+        Statement statement = (byMethod == null) ? null : byMethod.get(method);
+        if (statement == null) {
+            statement = resolve(sql, method);
+        }
+
+        statement.method.record(micros);
+        Profile profile = statement.profile;
+        profile.time.record(micros);
+        if (rows > 0) {
+            profile.rows.add(rows);
+        }
+
+        if (micros >= slowMicros) {
+            profile.slow.increment();
+            slowLog.warn((micros / 1000) + " ms, " + Math.max(rows, 0) + " rows, " + method + " : "
+                    + (slowValues ? mask(text.get()) : statement.fingerprint));
+        }
+    }
+
+    /**
+     * Works out the fingerprint and profile of a SQL text new to a method.
+     */
+    private static Statement resolve(String sql, String method) {
+        String fingerprint = fingerprint(sql);
+        String key = method + " " + fingerprint;
+        Profile profile = profiles.get(key);
+        if (profile == null) {
+            if (profiles.size() >= maxFingerprints) {
+                key = OTHER;
+                profile = profiles.computeIfAbsent(key, k -> new Profile(OTHER, OTHER));
+            } else {
+                profile = profiles.computeIfAbsent(key, k -> new Profile(fingerprint, method));
+            }
+        }
+        Statement statement = new Statement(fingerprint, profile, Metrics.sql(method));
+        Map<String, Statement> byMethod = statements.get(sql);
+        if (byMethod == null && statements.size() < MAX_STATEMENTS) {
+            byMethod = statements.computeIfAbsent(sql, k -> new ConcurrentHashMap<String, Statement>());
+        }
+        if (byMethod != null) {
+            byMethod.put(method, statement);
+        }
+        return statement;
+    }
+
+    /**
+     * Returns the fingerprint of a statement: string and number literals
+     * become <code>?</code>, lists of placeholders <code>(?+)</code>,
+     * comments are removed, whitespace collapsed and the rest lower cased.
+     * Back-quoted identifiers are kept as they are.
+     *
+     * @param sql SQL text
+     * @return fingerprint
+     */
+    public static String fingerprint(String sql) {
+
+        StringBuilder sb = new StringBuilder(sql.length());
+        int n = sql.length();
+        int i = 0;
+        while (i < n) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"') {
+                i = skipQuoted(sql, i, c);
+                sb.append('?');
+            } else if (c == '`') {
+                int end = sql.indexOf('`', i + 1);
+                end = (end < 0) ? n : end + 1;
+                sb.append(sql, i, end);
+                i = end;
+            } else if ((c == '-' && i + 1 < n && sql.charAt(i + 1) == '-') || c == '#') {
+                int end = sql.indexOf('\n', i);
+                i = (end < 0) ? n : end;
+            } else if (c == '/' && i + 1 < n && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = (end < 0) ? n : end + 2;
+            } else if (Character.isWhitespace(c)) {
+                while (i < n && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') {
+                    sb.append(' ');
+                }
+            } else if (Character.isDigit(c) && (sb.length() == 0 || !isWordChar(sb.charAt(sb.length() - 1)))) {
+                while (i < n && (isWordChar(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                sb.append('?');
+            } else if (isWordChar(c)) {
+                while (i < n && isWordChar(sql.charAt(i))) {
+                    sb.append(Character.toLowerCase(sql.charAt(i)));
+                    i++;
+                }
+            } else {
+                sb.append(c);
+                i++;
+            }
+        }
+
+        String fingerprint = COMMA.matcher(sb.toString().trim()).replaceAll(", ");
+        fingerprint = LIST.matcher(fingerprint).replaceAll("(?+)");
+        return LISTS.matcher(fingerprint).replaceAll("(?+)");
+    }
+
+    /**
+     * Replaces the string literals of a statement with <code>'***'</code>;
+     * numbers and the rest of the text are kept.
+     *
+     * @param sql SQL text with values
+     * @return masked text
+     */
+    static String mask(String sql) {
+        StringBuilder sb = new StringBuilder(sql.length());
+        int i = 0;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"') {
+                i = skipQuoted(sql, i, c);
+                sb.append(MASK);
+            } else {
+                sb.append(c);
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return index after the closing quote of a literal; doubled quotes and
+     *         backslashes escape
+     */
+    private static int skipQuoted(String sql, int start, char quote) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return sql.length();
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    /**
+     * Returns the fingerprints with the highest value of an order.
+     *
+     * @param n     number of fingerprints
+     * @param order one of {@link #ORDERS}; total time if unknown
+     * @return up to n profiles, highest first
+     */
+    public static List<Profile> top(int n, String order) {
+        Comparator<Profile> comparator;
+        switch (String.valueOf(order)) {
+        case "count":
+            comparator = Comparator.comparingLong(Profile::getCount);
+            break;
+        case "mean":
+            comparator = Comparator.comparingDouble(Profile::getMeanMillis);
+            break;
+        case "p99":
+            comparator = Comparator.comparingDouble(Profile::getP99Millis);
+            break;
+        case "max":
+            comparator = Comparator.comparingDouble(Profile::getMaxMillis);
+            break;
+        case "rows":
+            comparator = Comparator.comparingLong(Profile::getRows);
+            break;
+        case "slow":
+            comparator = Comparator.comparingLong(Profile::getSlow);
+            break;
+        default:
+            comparator = Comparator.comparingDouble(Profile::getTotalMillis);
+        }
+
+        List<Profile> list = new ArrayList<Profile>(profiles.values());
+        list.sort(comparator.reversed());
+        return (list.size() > n) ? new ArrayList<Profile>(list.subList(0, n)) : list;
+    }
+
+    /**
+     * @return number of fingerprints
+     */
+    public static int size() {
+        return profiles.size();
+    }
+
+    /**
+     * @return slow query threshold in milliseconds
+     */
+    public static long getSlowMillis() {
+        return slowMicros / 1000;
+    }
+
+    /**
+     * Clears the fingerprint statistics. The {@link Metrics} histograms are
+     * cumulative and are kept.
+     */
+    public static void reset() {
+        statements.clear();
+        profiles.clear();
+        log.info("Query profile reset");
+    }
+}
@@ -0,0 +1,401 @@
+package in.co.rays.proj4.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * RuleSet holds the validation rules of a form, defined once and shared by
+ * every request.
+ *
+ * <p>
+ * A rule set is built once, usually into a <code>static final</code> field of
+ * the controller, with messages resolved from the resource bundle and
+ * patterns precompiled in {@link DataValidator}:
+ * </p>
+ * <pre>
+ * private static final RuleSet RULES = RuleSet.builder()
+ *         .field("name").required("Name").name("Invalid Name")
+ *         .field("phoneNo").required("Phone No")
+ *                 .length(10, 10, "Phone No must have 10 digits").phoneNo("Invalid Phone No")
+ *         .build();
+ * </pre>
+ *
+ * <p>
+ * The rules of a field run in order and stop at the first one that fails, so
+ * a field gets at most one message. A field that is not {@code required} and
+ * has no value skips its rules. Every field is checked, so the form shows all
+ * its errors at once.
+ * </p>
+ *
+ * <p>
+ * For bulk input such as CSV import, {@link #bind(String[])} resolves the
+ * fields to column positions once; the returned {@link Binding} then checks
+ * each row without any lookup by name.
+ * </p>
+ *
+ * <p>
+ * A rule set is immutable and thread-safe.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public final class RuleSet {
+
+    /**
+     * Single check of a field value.
+     */
+    @FunctionalInterface
+    public interface Rule {
+
+        /**
+         * @param value value of the field, not empty
+         * @param form  value of another field of the form by name
+         * @return true if the value is valid
+         */
+        boolean test(String value, Function<String, String> form);
+    }
+
+    /**
+     * Rules of one field.
+     */
+    private static final class Field {
+
+        private final String name;
+        private final String required;
+        private final Rule[] rules;
+        private final String[] messages;
+
+        private Field(String name, String required, List<Rule> rules, List<String> messages) {
+            this.name = name;
+            this.required = required;
+            this.rules = rules.toArray(new Rule[0]);
+            this.messages = messages.toArray(new String[0]);
+        }
+
+        /**
+         * @return message of the first failing rule, null if the value is valid
+         */
+        private String check(String value, Function<String, String> form) {
+            if (DataValidator.isNull(value)) {
+                return required;
+            }
+            for (int i = 0; i < rules.length; i++) {
+                if (!rules[i].test(value, form)) {
+                    return messages[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Field[] fields;
+
+    private RuleSet(List<Field> fields) {
+        this.fields = fields.toArray(new Field[0]);
+    }
+
+    /**
+     * @return builder of a new rule set
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Checks the request parameters and sets the message of every invalid
+     * field as a request attribute named after the field.
+     *
+     * @param request HttpServletRequest containing user input
+     * @return true if all fields are valid
+     */
+    public boolean validate(HttpServletRequest request) {
+        return validate(request::getParameter, request::setAttribute);
+    }
+
+    /**
+     * Checks the values of a form.
+     *
+     * @param form   value of a field by name
+     * @param errors receives the field name and message of every invalid
+     *               field
+     * @return true if all fields are valid
+     */
+    public boolean validate(Function<String, String> form, BiConsumer<String, String> errors) {
+        boolean pass = true;
+        for (Field field : fields) {
+            String message = field.check(form.apply(field.name), form);
+            if (message != null) {
+                errors.accept(field.name, message);
+                pass = false;
+            }
+        }
+        return pass;
+    }
+
+    /**
+     * Resolves the fields to the positions of the given columns for checking
+     * many rows.
+     *
+     * @param columns column names, matched to field names ignoring case
+     * @return binding of the rules to the columns
+     * @throws IllegalArgumentException if a field has no column
+     */
+    public Binding bind(String[] columns) {
+        return new Binding(columns);
+    }
+
+    /**
+     * Rule set bound to the column positions of bulk input. Thread-safe, so
+     * rows can be checked in parallel.
+     */
+    public final class Binding {
+
+        private final int[] index;
+        private final Map<String, Integer> byName;
+
+        private Binding(String[] columns) {
+            byName = new HashMap<String, Integer>(columns.length * 2);
+            for (int i = 0; i < columns.length; i++) {
+                byName.put(columns[i].toLowerCase(), i);
+            }
+            index = new int[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                Integer column = byName.get(fields[i].name.toLowerCase());
+                if (column == null) {
+                    throw new IllegalArgumentException("No column for field " + fields[i].name);
+                }
+                index[i] = column;
+            }
+        }
+
+        /**
+         * Checks a row and stops at the first invalid field.
+         *
+         * @param values row values in the order of the columns
+         * @return message of the first invalid field, null if the row is valid
+         */
+        public String check(String[] values) {
+            Function<String, String> form = name -> {
+                Integer column = byName.get(name.toLowerCase());
+                return (column == null) ? null : values[column];
+            };
+            for (int i = 0; i < fields.length; i++) {
+                String message = fields[i].check(values[index[i]], form);
+                if (message != null) {
+                    return message;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Builds a rule set field by field. Rules are added to the field last
+     * started with {@link #field(String)}.
+     */
+    public static final class Builder {
+
+        private final List<Field> fields = new ArrayList<Field>();
+        private String name;
+        private String required;
+        private final List<Rule> rules = new ArrayList<Rule>();
+        private final List<String> messages = new ArrayList<String>();
+
+        private Builder() {
+        }
+
+        /**
+         * Starts the rules of a field.
+         *
+         * @param name request parameter or column name
+         * @return this builder
+         */
+        public Builder field(String name) {
+            end();
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * The field must have a value: "{label} is required".
+         *
+         * @param label field label of the message
+         * @return this builder
+         */
+        public Builder required(String label) {
+            current();
+            required = PropertyReader.getValue("error.require", label);
+            return this;
+        }
+
+        /**
+         * Adds a check of the value.
+         *
+         * @param rule    check
+         * @param message message if the check fails
+         * @return this builder
+         */
+        public Builder rule(Rule rule, String message) {
+            current();
+            rules.add(rule);
+            messages.add(message);
+            return this;
+        }
+
+        /**
+         * Adds a check of the value that does not depend on other fields.
+         *
+         * @param test    check
+         * @param message message if the check fails
+         * @return this builder
+         */
+        public Builder check(Predicate<String> test, String message) {
+            return rule((value, form) -> test.test(value), message);
+        }
+
+        /**
+         * @param message message if the value is not a name
+         * @return this builder
+         */
+        public Builder name(String message) {
+            return check(DataValidator::isName, message);
+        }
+
+        /**
+         * The value must be an email: "{label} is invalid Email ID".
+         *
+         * @param label field label of the message
+         * @return this builder
+         */
+        public Builder email(String label) {
+            return check(DataValidator::isEmail, PropertyReader.getValue("error.email", label));
+        }
+
+        /**
+         * The value must be a date, dd-MM-yyyy or yyyy-MM-dd.
+         *
+         * @param label field label of the message
+         * @return this builder
+         */
+        public Builder date(String label) {
+            return check(DataValidator::isDate, PropertyReader.getValue("error.date", label));
+        }
+
+        /**
+         * @param message message if the date is a Sunday
+         * @return this builder
+         */
+        public Builder notSunday(String message) {
+            return check(value -> !DataValidator.isSunday(value), message);
+        }
+
+        /**
+         * The value must be an integer in the given range.
+         *
+         * @param label   field label of the message if it is not an integer
+         * @param min     lowest value
+         * @param max     highest value
+         * @param message message if the value is out of range
+         * @return this builder
+         */
+        public Builder integer(String label, int min, int max, String message) {
+            check(DataValidator::isInteger, PropertyReader.getValue("error.integer", label));
+            return check(value -> {
+                int i = DataUtility.getInt(value);
+                return i >= min && i <= max;
+            }, message);
+        }
+
+        /**
+         * @param message message if the value is not a positive primary key
+         * @return this builder
+         */
+        public Builder id(String message) {
+            return check(value -> DataValidator.isLong(value) && DataUtility.getLong(value) > 0, message);
+        }
+
+        /**
+         * @param message message if the value is not a roll number
+         * @return this builder
+         */
+        public Builder rollNo(String message) {
+            return check(DataValidator::isRollNo, message);
+        }
+
+        /**
+         * @param min     shortest length
+         * @param max     longest length
+         * @param message message if the length is out of range
+         * @return this builder
+         */
+        public Builder length(int min, int max, String message) {
+            return check(value -> value.length() >= min && value.length() <= max, message);
+        }
+
+        /**
+         * @param message message if the value is not a phone number
+         * @return this builder
+         */
+        public Builder phoneNo(String message) {
+            return check(DataValidator::isPhoneNo, message);
+        }
+
+        /**
+         * @param message message if the value is not a strong password
+         * @return this builder
+         */
+        public Builder password(String message) {
+            return check(DataValidator::isPassword, message);
+        }
+
+        /**
+         * @param other   name of the field the value must equal
+         * @param message message if the values differ
+         * @return this builder
+         */
+        public Builder sameAs(String other, String message) {
+            return rule((value, form) -> value.equals(form.apply(other)), message);
+        }
+
+        /**
+         * @param other   name of the field the value must differ from
+         * @param message message if the values are equal
+         * @return this builder
+         */
+        public Builder differentFrom(String other, String message) {
+            return rule((value, form) -> !value.equals(form.apply(other)), message);
+        }
+
+        /**
+         * @return rule set of the fields added
+         */
+        public RuleSet build() {
+            end();
+            return new RuleSet(fields);
+        }
+
+        private void current() {
+            if (name == null) {
+                throw new IllegalStateException("Call field() before adding rules");
+            }
+        }
+
+        private void end() {
+            if (name != null) {
+                fields.add(new Field(name, required, rules, messages));
+            }
+            name = null;
+            required = null;
+            rules.clear();
+            messages.clear();
+        }
+    }
+}
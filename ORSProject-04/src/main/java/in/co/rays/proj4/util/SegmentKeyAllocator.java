@@ -0,0 +1,194 @@
+package in.co.rays.proj4.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.exception.DatabaseException;
+
+/**
+ * SegmentKeyAllocator reserves primary keys in blocks ("segments") from the
+ * {@code st_sequence} table and hands them out from memory.
+ *
+ * <p>
+ * Only one database round trip is made per {@code key.blocksize} inserts.
+ * Inside a block keys are handed out with a single atomic increment, so
+ * concurrent inserts never wait on each other and never receive the same key.
+ * When a block is used up, one thread reserves the next block while the other
+ * threads of that table wait for it.
+ * </p>
+ *
+ * <p>
+ * Required table:
+ * </p>
+ * <pre>
+ * create table st_sequence (
+ *     name     varchar(64) not null primary key,
+ *     next_val bigint      not null
+ * );
+ * </pre>
+ *
+ * <p>
+ * The row of a table is created on first use, starting after the current
+ * {@code max(id)} of that table, so existing data needs no migration. Keys
+ * left unused in a block when the server stops are simply skipped.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public class SegmentKeyAllocator implements KeyAllocator {
+
+    private static Logger log = Logger.getLogger(SegmentKeyAllocator.class);
+
+    /** Number of keys reserved per database round trip */
+    private final int blockSize;
+
+    /** Current block of every table */
+    private final ConcurrentHashMap<String, Segment> segments = new ConcurrentHashMap<String, Segment>();
+
+    /** Per table lock used only while a new block is reserved */
+    private final ConcurrentHashMap<String, Object> locks = new ConcurrentHashMap<String, Object>();
+
+    /**
+     * A block of keys [next, limit] reserved for one table.
+     */
+    private static final class Segment {
+
+        private final AtomicLong next;
+        private final long limit;
+
+        Segment(long first, long limit) {
+            this.next = new AtomicLong(first);
+            this.limit = limit;
+        }
+
+        /**
+         * @return next key of the block or -1 when the block is used up
+         */
+        long next() {
+            long id = next.getAndIncrement();
+            return (id <= limit) ? id : -1;
+        }
+    }
+
+    /**
+     * Creates an allocator that reserves {@code blockSize} keys at a time.
+     *
+     * @param blockSize number of keys per block (&gt; 0)
+     */
+    public SegmentKeyAllocator(int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be > 0");
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Returns the next key of the table, reserving a new block when the
+     * current one is used up.
+     *
+     * @param table name of the table
+     * @return next primary key
+     * @throws DatabaseException if a new block cannot be reserved
+     */
+    @Override
+    public long nextKey(String table) throws DatabaseException {
+
+        Segment segment = segments.get(table);
+        if (segment != null) {
+            long id = segment.next();
+            if (id > 0) {
+                return id;
+            }
+        }
+
+        synchronized (locks.computeIfAbsent(table, k -> new Object())) {
+            segment = segments.get(table);
+            if (segment != null) {
+                long id = segment.next();
+                if (id > 0) {
+                    return id;
+                }
+            }
+            segment = reserve(table);
+            segments.put(table, segment);
+            return segment.next();
+        }
+    }
+
+    /**
+     * Reserves the next block of the table in {@code st_sequence}.
+     *
+     * @param table name of the table
+     * @return newly reserved block
+     * @throws DatabaseException if a database error occurs
+     */
+    private Segment reserve(String table) throws DatabaseException {
+
+        Connection conn = null;
+
+        try {
+            conn = JDBCDataSource.getConnection();
+            conn.setAutoCommit(false); // Begin transaction
+
+            long first = 0;
+
+            PreparedStatement pstmt = conn.prepareStatement("select next_val from st_sequence where name = ? for update");
+            pstmt.setString(1, table);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                first = rs.getLong(1);
+            }
+            rs.close();
+            pstmt.close();
+
+            if (first > 0) {
+                pstmt = conn.prepareStatement("update st_sequence set next_val = ? where name = ?");
+                pstmt.setLong(1, first + blockSize);
+                pstmt.setString(2, table);
+                pstmt.executeUpdate();
+                pstmt.close();
+            } else {
+                pstmt = conn.prepareStatement("select max(id) from " + table);
+                rs = pstmt.executeQuery();
+                if (rs.next()) {
+                    first = rs.getLong(1);
+                }
+                rs.close();
+                pstmt.close();
+                first = first + 1;
+
+                pstmt = conn.prepareStatement("insert into st_sequence (name, next_val) values (?, ?)");
+                pstmt.setString(1, table);
+                pstmt.setLong(2, first + blockSize);
+                pstmt.executeUpdate();
+                pstmt.close();
+            }
+
+            conn.commit(); // End transaction
+
+            log.debug("Reserved keys " + first + " - " + (first + blockSize - 1) + " for " + table);
+
+            return new Segment(first, first + blockSize - 1);
+
+        } catch (SQLException e) {
+            log.error("Exception in reserving keys for " + table, e);
+            try {
+                if (conn != null) {
+                    conn.rollback();
+                }
+            } catch (SQLException ex) {
+                log.error("Reserve rollback failed", ex);
+            }
+            throw new DatabaseException("Exception : Exception in getting PK");
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+    }
+}
@@ -235,6 +235,7 @@ public class ServletUtility {
      */
     public static void handleException(Exception e, HttpServletRequest request, HttpServletResponse response)
             throws IOException, ServletException {
+        Metrics.exception(e);
         request.setAttribute("exception", e);
         response.sendRedirect(ORSView.ERROR_CTL);
     }
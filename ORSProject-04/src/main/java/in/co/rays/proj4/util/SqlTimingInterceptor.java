@@ -0,0 +1,93 @@
+package in.co.rays.proj4.util;
+
+import java.util.Properties;
+import java.util.function.Supplier;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.PreparedQuery;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+
+/**
+ * SqlTimingInterceptor times every statement run on the connections of
+ * {@link JDBCDataSource} and records it, with the rows it returned or
+ * affected, in {@link QueryProfiler}, which labels it with the model method
+ * that ran it for {@link Metrics}.
+ *
+ * <p>
+ * It is installed in the MySQL driver through the
+ * <code>queryInterceptors</code> URL property, so plain, prepared and server
+ * prepared statements and batches are all timed without wrapping the
+ * connection or statement objects. The start time is kept in a per-thread
+ * slot, so timing a statement takes no lock and allocates nothing.
+ * </p>
+ *
+ * @author Lucky
+ * @version 1.0
+ */
+public class SqlTimingInterceptor implements QueryInterceptor {
+
+    /** Start of the statement running on the thread, in nanoseconds */
+    private static final ThreadLocal<long[]> started = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public QueryInterceptor init(MysqlConnection conn, Properties props, Log log) {
+        return this;
+    }
+
+    @Override
+    public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+        started.get()[0] = System.nanoTime();
+        return null;
+    }
+
+    @Override
+    public <T extends Resultset> T postProcess(Supplier<String> sql, Query interceptedQuery, T originalResultSet,
+            ServerSession serverSession) {
+        long[] start = started.get();
+        if (start[0] != 0) {
+            long micros = (System.nanoTime() - start[0]) / 1000;
+            start[0] = 0;
+            // the text with placeholders; a prepared statement's supplier renders its values
+            String text = (interceptedQuery instanceof PreparedQuery) ? ((PreparedQuery) interceptedQuery).getOriginalSql()
+                    : sql.get();
+            if (text != null) {
+                QueryProfiler.record(text, micros, rows(originalResultSet), sql);
+            }
+        }
+        return originalResultSet;
+    }
+
+    /**
+     * @return rows read into the result set of a query, rows affected by an
+     *         update, -1 if unknown
+     */
+    private static long rows(Resultset resultSet) {
+        if (resultSet == null) {
+            return -1;
+        }
+        if (resultSet.hasRows()) {
+            int size = resultSet.getRows().size();
+            return (size < 0) ? -1 : size;
+        }
+        return resultSet.getUpdateCount();
+    }
+
+    /**
+     * Statements the driver runs for itself, e.g. to read session settings,
+     * are not timed.
+     *
+     * @return true
+     */
+    @Override
+    public boolean executeTopLevelOnly() {
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
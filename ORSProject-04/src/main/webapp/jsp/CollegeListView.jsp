@@ -46,16 +46,19 @@ tu<%@page import="in.co.rays.proj4.controller.ORSView"%>
 
             <input type="hidden" name="pageNo" value="<%=pageNo%>">
             <input type="hidden" name="pageSize" value="<%=pageSize%>">
+            <input type="hidden" name="nextCursor" value="<%=DataUtility.getString((String) request.getAttribute("nextCursor"))%>">
+            <input type="hidden" name="prevCursor" value="<%=DataUtility.getString((String) request.getAttribute("prevCursor"))%>">
 
             <table style="width: 100%">
                 <tr>
                     <td align="center">
                         <label><b>College Name : </b></label>
-                        <%=HTMLUtility.getList("collegeId", String.valueOf(bean.getId()), collegeList)%>&emsp;
+                        <% HTMLUtility.writeList(out, "collegeId", String.valueOf(bean.getId()), collegeList); %>&emsp;
                         <label><b>City :</b></label>
                         <input type="text" name="city" placeholder="Enter College City" value="<%=ServletUtility.getParameter("city", request)%>">&emsp;
                         <input type="submit" name="operation" value="<%=CollegeListCtl.OP_SEARCH%>">&nbsp;
-                        <input type="submit" name="operation" value="<%=CollegeListCtl.OP_RESET%>">
+                        <input type="submit" name="operation" value="<%=CollegeListCtl.OP_RESET%>">&nbsp;
+                        <input type="submit" name="operation" value="<%=CollegeListCtl.OP_EXPORT%>">
                     </td>
                 </tr>
             </table>
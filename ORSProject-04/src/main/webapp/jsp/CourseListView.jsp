@@ -52,15 +52,18 @@
 
             <input type="hidden" name="pageNo" value="<%=pageNo%>">
             <input type="hidden" name="pageSize" value="<%=pageSize%>">
+            <input type="hidden" name="nextCursor" value="<%=DataUtility.getString((String) request.getAttribute("nextCursor"))%>">
+            <input type="hidden" name="prevCursor" value="<%=DataUtility.getString((String) request.getAttribute("prevCursor"))%>">
 
             <table style="width: 100%">
                 <tr>
                     <td align="center">
                         <label><b>Course Name :</b></label>
-                        <%=HTMLUtility.getList("courseId", String.valueOf(bean.getId()), courseList)%>
+                        <% HTMLUtility.writeList(out, "courseId", String.valueOf(bean.getId()), courseList); %>
                         &emsp;&nbsp;
                         <input type="submit" name="operation" value="<%=CourseListCtl.OP_SEARCH%>">&nbsp;
-                        <input type="submit" name="operation" value="<%=CourseListCtl.OP_RESET%>">
+                        <input type="submit" name="operation" value="<%=CourseListCtl.OP_RESET%>">&nbsp;
+                        <input type="submit" name="operation" value="<%=CourseListCtl.OP_EXPORT%>">
                     </td>
                 </tr>
             </table>
@@ -41,6 +41,8 @@
 
 			<input type="hidden" name="pageNo" value="<%=pageNo%>">
 			<input type="hidden" name="pageSize" value="<%=pageSize%>">
+			<input type="hidden" name="nextCursor" value="<%=DataUtility.getString((String) request.getAttribute("nextCursor"))%>">
+			<input type="hidden" name="prevCursor" value="<%=DataUtility.getString((String) request.getAttribute("prevCursor"))%>">
 
 			<table style="width: 100%">
 				<tr>
@@ -52,7 +54,8 @@
 						<label><b>Email Id :</b></label>
 						<input type="text" name="email" placeholder="Enter Email Id" value="<%=ServletUtility.getParameter("email", request)%>">&emsp;
 						<input type="submit" name="operation" value="<%=FacultyListCtl.OP_SEARCH%>">&nbsp;
-						<input type="submit" name="operation" value="<%=FacultyListCtl.OP_RESET%>">
+						<input type="submit" name="operation" value="<%=FacultyListCtl.OP_RESET%>">&nbsp;
+						<input type="submit" name="operation" value="<%=FacultyListCtl.OP_EXPORT%>">
 					</td>
 				</tr>
 			</table>
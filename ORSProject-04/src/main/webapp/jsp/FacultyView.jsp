@@ -125,21 +125,21 @@
 
 				<tr>
 					<th>College <span style="color: red">*</span></th>
-					<td><%=HTMLUtility.getList("collegeId", String.valueOf(bean.getCollegeId()), collegeList)%></td>
+					<td><% HTMLUtility.writeList(out, "collegeId", String.valueOf(bean.getCollegeId()), collegeList); %></td>
 					<td style="position: fixed;"><font color="red"> <%=ServletUtility.getErrorMessage("collegeId", request)%></font></td>
 
 				</tr>
 
 				<tr>
 					<th>Course <span style="color: red">*</span></th>
-					<td><%=HTMLUtility.getList("courseId", String.valueOf(bean.getCourseId()), courseList)%></td>
+					<td><% HTMLUtility.writeList(out, "courseId", String.valueOf(bean.getCourseId()), courseList); %></td>
 					<td style="position: fixed;"><font color="red"> <%=ServletUtility.getErrorMessage("courseId", request)%></font></td>
 
 				</tr>
 
 				<tr>
 					<th>Subject <span style="color: red">*</span></th>
-					<td><%=HTMLUtility.getList("subjectId", String.valueOf(bean.getSubjectId()), subjectList)%></td>
+					<td><% HTMLUtility.writeList(out, "subjectId", String.valueOf(bean.getSubjectId()), subjectList); %></td>
 					<td style="position: fixed;"><font color="red"> <%=ServletUtility.getErrorMessage("subjectId", request)%></font></td>
 
 				</tr>
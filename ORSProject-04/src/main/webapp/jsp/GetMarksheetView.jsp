@@ -82,6 +82,16 @@
                     <td align="center" style="width: 15%">Course</td>
                     <th align="center" style="width: 25%; text-transform: uppercase;"><%=DataUtility.getStringData(coursebean.getName())%></th>
                 </tr>
+                <%
+                    if (bean.getRank() > 0) {
+                %>
+                <tr>
+                    <td align="center" style="width: 15%">Merit Rank</td>
+                    <th align="center" colspan="3"><%=bean.getRank()%></th>
+                </tr>
+                <%
+                    }
+                %>
             </table>
 
             <table border="1" style="border: groove; width: 35%">
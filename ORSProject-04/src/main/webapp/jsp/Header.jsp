@@ -65,6 +65,9 @@
 	<a href="<%=ORSView.STAFF_LIST_CTL%>"><b>Staff List</b></a> |
 	<a href="<%=ORSView.STAFF_CTL%>"><b>Add Staff</b></a> |
 
+	<a href="<%=ORSView.MARKSHEET_ANALYTICS_CTL%>"><b>Result Analytics</b></a> |
+	<a href="<%=ORSView.QUERY_PROFILE_CTL%>"><b>Query Profile</b></a> |
+
 
 	<%
 	}
@@ -80,6 +83,7 @@
 
 	<a href="<%=ORSView.MARKSHEET_CTL%>"><b>Add Marksheet</b></a> |
 	<a href="<%=ORSView.MARKSHEET_LIST_CTL%>"><b>Marksheet List</b></a> |
+	<a href="<%=ORSView.IMPORT_CTL%>"><b>Import CSV</b></a> |
 
 	<a href="<%=ORSView.COURSE_CTL%>"><b>Add Course</b></a> |
 	<a href="<%=ORSView.COURSE_LIST_CTL%>"><b>Course List</b></a> |
@@ -92,6 +96,7 @@
 
 	<a href="<%=ORSView.TIMETABLE_CTL%>"><b>Add Timetable</b></a> |
 	<a href="<%=ORSView.TIMETABLE_LIST_CTL%>"><b>Timetable List</b></a> |
+	<a href="<%=ORSView.TIMETABLE_SCHEDULE_CTL%>"><b>Schedule Exams</b></a> |
 
 	<%
 	}
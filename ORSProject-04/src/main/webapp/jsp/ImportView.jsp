@@ -0,0 +1,113 @@
+<%@page import="in.co.rays.proj4.model.CsvImport"%>
+<%@page import="in.co.rays.proj4.controller.ImportCtl"%>
+<%@page import="in.co.rays.proj4.util.ServletUtility"%>
+<%@page import="in.co.rays.proj4.util.DataUtility"%>
+<%@page import="in.co.rays.proj4.controller.ORSView"%>
+<%@ page language="java" contentType="text/html; charset=ISO-8859-1"
+	pageEncoding="ISO-8859-1"%>
+<!DOCTYPE html>
+<html>
+<head>
+<meta charset="ISO-8859-1">
+<title>Import CSV</title>
+</head>
+<body>
+
+	<%@ include file="Header.jsp"%>
+
+	<form action="<%=ORSView.IMPORT_CTL%>" method="post"
+		enctype="multipart/form-data">
+
+		<%
+			String type = DataUtility.getString(request.getParameter("type"));
+			CsvImport.Result result = (CsvImport.Result) request.getAttribute("importResult");
+		%>
+
+		<h1 align="center" style="margin-bottom: -15; color: navy">Import
+			CSV</h1>
+
+		<H3>
+			<font color="red"><%=ServletUtility.getErrorMessage(request)%></font>
+		</H3>
+		<H3>
+			<font color="green"><%=ServletUtility.getSuccessMessage(request)%></font>
+		</H3>
+
+		<div align="center">
+
+			<table>
+				<tr>
+					<th>Import<span style="color: red">*</span></th>
+					<td><select name="type">
+							<option value="">--Select--</option>
+							<option value="<%=ImportCtl.TYPE_STUDENT%>"
+								<%=ImportCtl.TYPE_STUDENT.equals(type) ? "selected" : ""%>>Students</option>
+							<option value="<%=ImportCtl.TYPE_MARKSHEET%>"
+								<%=ImportCtl.TYPE_MARKSHEET.equals(type) ? "selected" : ""%>>Marksheets</option>
+					</select></td>
+					<td style="position: fixed;"><font color="red"><%=ServletUtility.getErrorMessage("type", request)%></font>
+					</td>
+				</tr>
+
+				<tr>
+					<th>CSV File<span style="color: red">*</span></th>
+					<td><input type="file" name="file" accept=".csv"></td>
+					<td style="position: fixed;"><font color="red"><%=ServletUtility.getErrorMessage("file", request)%></font>
+					</td>
+				</tr>
+
+				<tr>
+					<th></th>
+					<td align="left" colspan="2"><input type="submit"
+						name="operation" value="<%=ImportCtl.OP_UPLOAD%>"> <input
+						type="submit" name="operation" value="<%=ImportCtl.OP_RESET%>">
+					</td>
+				</tr>
+
+				<tr>
+					<th></th>
+					<td colspan="2"><small>Students: firstName, lastName, dob
+							(dd-MM-yyyy), gender, mobileNo, email, collegeId<br>
+							Marksheets: rollNo, studentId, physics, chemistry, maths
+					</small></td>
+				</tr>
+			</table>
+
+			<%
+				if (result != null) {
+			%>
+			<p>
+				Rows read: <%=result.getTotal()%>, imported: <%=result.getImported()%>,
+				rejected: <%=result.getFailed()%> (<%=result.getElapsed()%> ms)
+			</p>
+
+			<%
+				if (!result.getErrors().isEmpty()) {
+			%>
+			<table border="1px" width="60%">
+				<tr style="background-color: #e1e6f1e3;">
+					<th width="15%">Line</th>
+					<th>Error</th>
+				</tr>
+				<%
+					for (CsvImport.RowError error : result.getErrors()) {
+				%>
+				<tr>
+					<td align="center"><%=error.getRow()%></td>
+					<td><%=error.getMessage()%></td>
+				</tr>
+				<%
+					}
+				%>
+			</table>
+			<%
+				}
+				}
+			%>
+
+		</div>
+
+	</form>
+
+</body>
+</html>
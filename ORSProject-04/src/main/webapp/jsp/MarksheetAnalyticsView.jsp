@@ -0,0 +1,152 @@
+<%@page import="in.co.rays.proj4.model.MarksheetAnalytics"%>
+<%@page import="in.co.rays.proj4.util.ServletUtility"%>
+<%@page import="in.co.rays.proj4.controller.ORSView"%>
+<%@ page language="java" contentType="text/html; charset=ISO-8859-1"
+	pageEncoding="ISO-8859-1"%>
+<!DOCTYPE html>
+<html>
+<head>
+<meta charset="ISO-8859-1">
+<title>Result Analytics</title>
+<link rel="icon" type="image/png"
+	href="<%=ORSView.APP_CONTEXT%>/img/logo.png" sizes="16x16" />
+</head>
+<body>
+
+	<%@ include file="Header.jsp"%>
+
+	<%
+		MarksheetAnalytics.Report report = (MarksheetAnalytics.Report) request.getAttribute("analytics");
+	%>
+
+	<div align="center">
+
+		<h1 align="center" style="margin-bottom: -15; color: navy">Result
+			Analytics</h1>
+
+		<H3>
+			<font color="red"><%=ServletUtility.getErrorMessage(request)%></font>
+		</H3>
+
+		<%
+			if (report != null && report.getTotal().getCount() > 0) {
+				MarksheetAnalytics.Stats total = report.getTotal();
+		%>
+		<p>
+			Marksheets: <%=total.getCount()%>, passed: <%=total.getPassed()%>
+			(<%=String.format("%.2f", total.getPassRate())%> %), computed in
+			<%=report.getElapsed()%> ms. <a
+				href="<%=ORSView.MARKSHEET_ANALYTICS_JSON_CTL%>">JSON</a>
+		</p>
+
+		<table border="1"
+			style="width: 80%; border: groove; padding: 1px; border-color: #e1e6f1e3;">
+			<tr style="background-color: #e1e6f1e3;">
+				<th>Subject</th>
+				<th>Mean</th>
+				<th>Std Dev</th>
+				<th>Min</th>
+				<th>P25</th>
+				<th>Median</th>
+				<th>P75</th>
+				<th>P90</th>
+				<th>Max</th>
+				<th>Pass Rate (%)</th>
+			</tr>
+			<%
+				for (int i = 0; i <= MarksheetAnalytics.SUBJECTS.length; i++) {
+						boolean isTotal = (i == MarksheetAnalytics.SUBJECTS.length);
+						MarksheetAnalytics.Stats stats = isTotal ? total : report.getSubject(i);
+			%>
+			<tr>
+				<td style="text-transform: capitalize; text-align: center;"><%=isTotal ? "Total" : MarksheetAnalytics.SUBJECTS[i]%></td>
+				<td style="text-align: center;"><%=String.format("%.2f", stats.getMean())%></td>
+				<td style="text-align: center;"><%=String.format("%.2f", stats.getStdDev())%></td>
+				<td style="text-align: center;"><%=stats.getMin()%></td>
+				<td style="text-align: center;"><%=stats.getPercentile(25)%></td>
+				<td style="text-align: center;"><%=stats.getMedian()%></td>
+				<td style="text-align: center;"><%=stats.getPercentile(75)%></td>
+				<td style="text-align: center;"><%=stats.getPercentile(90)%></td>
+				<td style="text-align: center;"><%=stats.getMax()%></td>
+				<td style="text-align: center;"><%=String.format("%.2f", stats.getPassRate())%></td>
+			</tr>
+			<%
+				}
+			%>
+		</table>
+
+		<h3>Grade Distribution</h3>
+		<table border="1"
+			style="width: 80%; border: groove; padding: 1px; border-color: #e1e6f1e3;">
+			<tr style="background-color: #e1e6f1e3;">
+				<th>Subject</th>
+				<%
+					for (String grade : MarksheetAnalytics.GRADES) {
+				%>
+				<th><%=grade%></th>
+				<%
+					}
+				%>
+			</tr>
+			<%
+				for (int i = 0; i < MarksheetAnalytics.SUBJECTS.length; i++) {
+			%>
+			<tr>
+				<td style="text-transform: capitalize; text-align: center;"><%=MarksheetAnalytics.SUBJECTS[i]%></td>
+				<%
+					for (long count : report.getSubject(i).getGrades()) {
+				%>
+				<td style="text-align: center;"><%=count%></td>
+				<%
+					}
+				%>
+			</tr>
+			<%
+				}
+			%>
+		</table>
+
+		<h3>Histogram</h3>
+		<table border="1"
+			style="width: 80%; border: groove; padding: 1px; border-color: #e1e6f1e3;">
+			<tr style="background-color: #e1e6f1e3;">
+				<th>Marks</th>
+				<%
+					for (int i = 0; i < MarksheetAnalytics.SUBJECTS.length; i++) {
+				%>
+				<th style="text-transform: capitalize;"><%=MarksheetAnalytics.SUBJECTS[i]%></th>
+				<%
+					}
+				%>
+			</tr>
+			<%
+				int width = report.getSubject(0).getBucketWidth();
+					long[][] histograms = new long[MarksheetAnalytics.SUBJECTS.length][];
+					for (int i = 0; i < histograms.length; i++) {
+						histograms[i] = report.getSubject(i).getHistogram();
+					}
+					for (int b = 0; b < histograms[0].length; b++) {
+						int to = (b == histograms[0].length - 1) ? MarksheetAnalytics.MAX_MARKS : (b + 1) * width - 1;
+			%>
+			<tr>
+				<td style="text-align: center;"><%=b * width%> - <%=to%></td>
+				<%
+					for (long[] histogram : histograms) {
+				%>
+				<td style="text-align: center;"><%=histogram[b]%></td>
+				<%
+					}
+				%>
+			</tr>
+			<%
+				}
+			%>
+		</table>
+		<%
+			}
+		%>
+
+	</div>
+
+</body>
+</html>
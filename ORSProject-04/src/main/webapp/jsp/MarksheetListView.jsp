@@ -42,6 +42,8 @@
 
             <input type="hidden" name="pageNo" value="<%=pageNo%>">
             <input type="hidden" name="pageSize" value="<%=pageSize%>">
+            <input type="hidden" name="nextCursor" value="<%=DataUtility.getString((String) request.getAttribute("nextCursor"))%>">
+            <input type="hidden" name="prevCursor" value="<%=DataUtility.getString((String) request.getAttribute("prevCursor"))%>">
 
             <table style="width: 100%">
                 <tr>
@@ -54,7 +56,8 @@
 
                         <input type="submit" name="operation" value="<%=MarksheetListCtl.OP_SEARCH%>">
                         &nbsp;
-                        <input type="submit" name="operation" value="<%=MarksheetListCtl.OP_RESET%>">
+                        <input type="submit" name="operation" value="<%=MarksheetListCtl.OP_RESET%>">&nbsp;
+                        <input type="submit" name="operation" value="<%=MarksheetListCtl.OP_EXPORT%>">
                     </td>
                 </tr>
             </table>
@@ -28,7 +28,6 @@
             <%
                 int pageNo = ServletUtility.getPageNo(request);
                 int pageSize = ServletUtility.getPageSize(request);
-                int index = ((pageNo - 1) * pageSize) + 1;
 
                 List<MarksheetBean> list = (List<MarksheetBean>) ServletUtility.getList(request);
                 Iterator<MarksheetBean> it = list.iterator();
@@ -39,7 +38,7 @@
                    style="width: 100%; border: groove; padding: 1px; border-color: #e1e6f1e3;">
                 <thead>
                     <tr style="background-color: #e1e6f1e3;">
-                        <th width="5%">S.No</th>
+                        <th width="5%">Rank</th>
                         <th width="10%">Roll No</th>
                         <th width="30%">Name</th>
                         <th width="10%">Physics</th>
@@ -56,13 +55,13 @@
                         int physics = bean.getPhysics();
                         int chemistry = bean.getChemistry();
                         int maths = bean.getMaths();
-                        int total = physics + chemistry + maths;
+                        int total = bean.getTotal();
                         float percentage = (float) total / 3;
                         percentage = Float.parseFloat(new DecimalFormat("##.##").format(percentage));
                 %>
                 <tbody>
                     <tr>
-                        <td style="text-align: center;"><%=index++%></td>
+                        <td style="text-align: center;"><%=bean.getRank()%></td>
                         <td style="text-align: center; text-transform: uppercase;"><%=bean.getRollNo()%></td>
                         <td style="text-transform: capitalize; text-align: center;"><%=bean.getName()%></td>
                         <td style="text-align: center;"><%=bean.getPhysics()%></td>
@@ -67,7 +67,7 @@
 
 				<tr>
 					<th>Name<span style="color: red">*</span></th>
-					<td><%=HTMLUtility.getList("studentId", String.valueOf(bean.getStudentId()), studentList)%></td>
+					<td><% HTMLUtility.writeList(out, "studentId", String.valueOf(bean.getStudentId()), studentList); %></td>
 					<td style="position: fixed;"><font color="red"><%=ServletUtility.getErrorMessage("studentId", request)%></font>
 					</td>
 				</tr>
@@ -0,0 +1,102 @@
+<%@page import="java.util.List"%>
+<%@page import="in.co.rays.proj4.util.QueryProfiler"%>
+<%@page import="in.co.rays.proj4.util.ServletUtility"%>
+<%@page import="in.co.rays.proj4.controller.ORSView"%>
+<%@page import="in.co.rays.proj4.controller.QueryProfileCtl"%>
+<%@ page language="java" contentType="text/html; charset=ISO-8859-1"
+	pageEncoding="ISO-8859-1"%>
+<!DOCTYPE html>
+<html>
+<head>
+<meta charset="ISO-8859-1">
+<title>Query Profile</title>
+<link rel="icon" type="image/png"
+	href="<%=ORSView.APP_CONTEXT%>/img/logo.png" sizes="16x16" />
+</head>
+<body>
+
+	<%@ include file="Header.jsp"%>
+
+	<%
+		List<QueryProfiler.Profile> list = (List<QueryProfiler.Profile>) ServletUtility.getList(request);
+		String order = (String) request.getAttribute("order");
+	%>
+
+	<div align="center">
+
+		<h1 align="center" style="margin-bottom: -15; color: navy">Query
+			Profile</h1>
+
+		<H3>
+			<font color="red"><%=ServletUtility.getErrorMessage(request)%></font>
+		</H3>
+
+		<form action="<%=ORSView.QUERY_PROFILE_CTL%>" method="get">
+			Order by <select name="order">
+				<%
+					for (String o : QueryProfiler.ORDERS) {
+				%>
+				<option value="<%=o%>" <%=o.equals(order) ? "selected" : ""%>><%=o%></option>
+				<%
+					}
+				%>
+			</select> Top <input type="text" name="n" size="4"
+				value="<%=request.getAttribute("n") != null ? request.getAttribute("n") : QueryProfileCtl.DEFAULT_TOP%>">
+			<input type="submit" value="Go">
+		</form>
+
+		<p>
+			Fingerprints: <%=QueryProfiler.size()%>, slow query threshold:
+			<%=QueryProfiler.getSlowMillis()%> ms. <a
+				href="<%=ORSView.QUERY_PROFILE_JSON_CTL%>">JSON</a>
+		</p>
+
+		<form action="<%=ORSView.QUERY_PROFILE_CTL%>" method="post">
+			<input type="submit" name="operation"
+				value="<%=QueryProfileCtl.OP_RESET%>">
+		</form>
+
+		<%
+			if (list != null && !list.isEmpty()) {
+		%>
+		<table border="1"
+			style="width: 95%; border: groove; padding: 1px; border-color: #e1e6f1e3;">
+			<tr style="background-color: #e1e6f1e3;">
+				<th>Fingerprint</th>
+				<th>Method</th>
+				<th>Count</th>
+				<th>Total (ms)</th>
+				<th>Mean (ms)</th>
+				<th>P50 (ms)</th>
+				<th>P99 (ms)</th>
+				<th>Max (ms)</th>
+				<th>Rows</th>
+				<th>Slow</th>
+			</tr>
+			<%
+				for (QueryProfiler.Profile profile : list) {
+			%>
+			<tr>
+				<td style="font-family: monospace;"><%=profile.getFingerprint().replace("&", "&amp;").replace("<", "&lt;")%></td>
+				<td style="text-align: center;"><%=profile.getMethod()%></td>
+				<td style="text-align: center;"><%=profile.getCount()%></td>
+				<td style="text-align: center;"><%=String.format("%.1f", profile.getTotalMillis())%></td>
+				<td style="text-align: center;"><%=String.format("%.2f", profile.getMeanMillis())%></td>
+				<td style="text-align: center;"><%=String.format("%.2f", profile.getP50Millis())%></td>
+				<td style="text-align: center;"><%=String.format("%.2f", profile.getP99Millis())%></td>
+				<td style="text-align: center;"><%=String.format("%.2f", profile.getMaxMillis())%></td>
+				<td style="text-align: center;"><%=profile.getRows()%></td>
+				<td style="text-align: center;"><%=profile.getSlow()%></td>
+			</tr>
+			<%
+				}
+			%>
+		</table>
+		<%
+			}
+		%>
+
+	</div>
+
+</body>
+</html>
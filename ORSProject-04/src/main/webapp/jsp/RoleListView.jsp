@@ -48,15 +48,18 @@
             %>
             <input type="hidden" name="pageNo" value="<%=pageNo%>">
             <input type="hidden" name="pageSize" value="<%=pageSize%>">
+            <input type="hidden" name="nextCursor" value="<%=DataUtility.getString((String) request.getAttribute("nextCursor"))%>">
+            <input type="hidden" name="prevCursor" value="<%=DataUtility.getString((String) request.getAttribute("prevCursor"))%>">
 
             <table style="width: 100%">
                 <tr>
                     <td align="center">
                         <label><b>Role : </b></label>
-                        <%=HTMLUtility.getList("roleId", String.valueOf(bean.getId()), roleList)%>
+                        <% HTMLUtility.writeList(out, "roleId", String.valueOf(bean.getId()), roleList); %>
                         &nbsp;
                         <input type="submit" name="operation" value="<%=RoleListCtl.OP_SEARCH%>">&nbsp;
-                        <input type="submit" name="operation" value="<%=RoleListCtl.OP_RESET%>">
+                        <input type="submit" name="operation" value="<%=RoleListCtl.OP_RESET%>">&nbsp;
+                        <input type="submit" name="operation" value="<%=RoleListCtl.OP_EXPORT%>">
                     </td>
                 </tr>
             </table>
@@ -50,6 +50,8 @@
 
 			<input type="hidden" name="pageNo" value="<%=pageNo%>"> <input
 				type="hidden" name="pageSize" value="<%=pageSize%>">
+			<input type="hidden" name="nextCursor" value="<%=DataUtility.getString((String) request.getAttribute("nextCursor"))%>">
+			<input type="hidden" name="prevCursor" value="<%=DataUtility.getString((String) request.getAttribute("prevCursor"))%>">
 
 			<table style="width: 100%">
 				<tr>
@@ -69,7 +71,8 @@
 
 						<input type="submit" name="operation"
 						value="<%=StaffListCtl.OP_SEARCH%>"> &nbsp; <input
-						type="submit" name="operation" value="<%=StaffListCtl.OP_RESET%>">
+						type="submit" name="operation" value="<%=StaffListCtl.OP_RESET%>">&nbsp;
+						<input type="submit" name="operation" value="<%=StaffListCtl.OP_EXPORT%>">
 					</td>
 				</tr>
 			</table>
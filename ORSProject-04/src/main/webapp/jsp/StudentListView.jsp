@@ -40,6 +40,8 @@
 
 			<input type="hidden" name="pageNo" value="<%=pageNo%>"> <input
 				type="hidden" name="pageSize" value="<%=pageSize%>">
+			<input type="hidden" name="nextCursor" value="<%=DataUtility.getString((String) request.getAttribute("nextCursor"))%>">
+			<input type="hidden" name="prevCursor" value="<%=DataUtility.getString((String) request.getAttribute("prevCursor"))%>">
 
 			<table style="width: 100%">
 				<tr>
@@ -55,7 +57,8 @@
 						<input type="submit" name="operation"
 						value="<%=StudentListCtl.OP_SEARCH%>">&nbsp; <input
 						type="submit" name="operation"
-						value="<%=StudentListCtl.OP_RESET%>"></td>
+						value="<%=StudentListCtl.OP_RESET%>">&nbsp;
+						<input type="submit" name="operation" value="<%=StudentListCtl.OP_EXPORT%>"></td>
 				</tr>
 			</table>
 			<br>
@@ -109,7 +109,7 @@
 
 				<tr>
 					<th>College <span style="color: red">*</span></th>
-					<td><%=HTMLUtility.getList("collegeId", String.valueOf(bean.getCollegeId()), l)%></td>
+					<td><% HTMLUtility.writeList(out, "collegeId", String.valueOf(bean.getCollegeId()), l); %></td>
 					<td style="position: fixed;"><font color="red"> <%=ServletUtility.getErrorMessage("collegeId", request)%></font></td>
 				</tr>
 
@@ -51,15 +51,18 @@
 
 			<input type="hidden" name="pageNo" value="<%=pageNo%>"> <input
 				type="hidden" name="pageSize" value="<%=pageSize%>">
+			<input type="hidden" name="nextCursor" value="<%=DataUtility.getString((String) request.getAttribute("nextCursor"))%>">
+			<input type="hidden" name="prevCursor" value="<%=DataUtility.getString((String) request.getAttribute("prevCursor"))%>">
 
 			<table style="width: 100%">
 				<tr>
-					<td align="center"><label><b>Subject Name :</b></label> <%=HTMLUtility.getList("subjectId", String.valueOf(bean.getId()), subjectList)%>&emsp;
-						<label><b>Course Name :</b></label> <%=HTMLUtility.getList("courseId", String.valueOf(bean.getCourseId()), courseList)%>&emsp;
+					<td align="center"><label><b>Subject Name :</b></label> <% HTMLUtility.writeList(out, "subjectId", String.valueOf(bean.getId()), subjectList); %>&emsp;
+						<label><b>Course Name :</b></label> <% HTMLUtility.writeList(out, "courseId", String.valueOf(bean.getCourseId()), courseList); %>&emsp;
 						<input type="submit" name="operation"
 						value="<%=SubjectListCtl.OP_SEARCH%>">&nbsp; <input
 						type="submit" name="operation"
-						value="<%=SubjectListCtl.OP_RESET%>"></td>
+						value="<%=SubjectListCtl.OP_RESET%>">&nbsp;
+						<input type="submit" name="operation" value="<%=SubjectListCtl.OP_EXPORT%>"></td>
 				</tr>
 			</table>
 			<br>
@@ -74,7 +74,7 @@
 				
 				<tr>
 					<th>Course <span style="color: red">*</span></th>
-					<td>  <%=HTMLUtility.getList("courseId", String.valueOf(bean.getCourseId()), courseList)%>
+					<td>  <% HTMLUtility.writeList(out, "courseId", String.valueOf(bean.getCourseId()), courseList); %>
                             <td style="position: fixed;">
                         <font color="red">
                             <%=ServletUtility.getErrorMessage("courseId", request)%>
@@ -49,18 +49,21 @@
 			%>
 			<input type="hidden" name="pageNo" value="<%=pageNo%>"><input
 				type="hidden" name="pageSize" value="<%=pageSize%>">
+			<input type="hidden" name="nextCursor" value="<%=DataUtility.getString((String) request.getAttribute("nextCursor"))%>">
+			<input type="hidden" name="prevCursor" value="<%=DataUtility.getString((String) request.getAttribute("prevCursor"))%>">
 
 			<table style="width: 100%">
 				<tr>
-					<td align="right"><label><b>Course Name :</b></label> <%=HTMLUtility.getList("courseId", String.valueOf(bean.getCourseId()), courseList)%>&emsp;
-						<label><b>Subject Name :</b></label> <%=HTMLUtility.getList("subjectId", String.valueOf(bean.getSubjectId()), subjectList)%>&emsp;
+					<td align="right"><label><b>Course Name :</b></label> <% HTMLUtility.writeList(out, "courseId", String.valueOf(bean.getCourseId()), courseList); %>&emsp;
+						<label><b>Subject Name :</b></label> <% HTMLUtility.writeList(out, "subjectId", String.valueOf(bean.getSubjectId()), subjectList); %>&emsp;
 						<label><b>Exam Date :</b></label></td>
 					<td align="left"><input type="text" id="udate" name="examDate" placeholder="Select Date of Birth"
 						value="<%=DataUtility.getDateString(bean.getExamDate())%>">
 				</label>&emsp; <input type="submit" name="operation"
 					value="<%=TimetableListCtl.OP_SEARCH%>">&nbsp; <input
 						type="submit" name="operation"
-						value="<%=TimetableListCtl.OP_RESET%>"></td>
+						value="<%=TimetableListCtl.OP_RESET%>">&nbsp;
+						<input type="submit" name="operation" value="<%=TimetableListCtl.OP_EXPORT%>"></td>
 				</tr>
 			</table>
 			<br>
@@ -108,7 +111,7 @@
 
 					<td style="width: 25%"><input type="submit" name="operation"
 						value="<%=TimetableListCtl.OP_PREVIOUS%>"
-						<%=pageNo == 1 ? "" : "disabled" %>></td>
+						<%=pageNo > 1 ? "" : "disabled"%>></td>
 					<td align="center" style="width: 25%"><input type="submit"
 						name="operation" value="<%=TimetableListCtl.OP_NEW%>"></td>
 					<td align="center" style="width: 25%"><input type="submit"
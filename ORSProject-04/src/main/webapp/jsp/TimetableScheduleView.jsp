@@ -0,0 +1,119 @@
+<%@page import="in.co.rays.proj4.controller.ORSView"%>
+<%@page import="java.util.HashMap"%>
+<%@page import="java.util.List"%>
+<%@page import="in.co.rays.proj4.bean.TimetableBean"%>
+<%@page import="in.co.rays.proj4.util.HTMLUtility"%>
+<%@page import="in.co.rays.proj4.controller.TimetableScheduleCtl"%>
+<%@page import="in.co.rays.proj4.util.DataUtility"%>
+<%@page import="in.co.rays.proj4.util.ServletUtility"%>
+<html>
+<head>
+<title>Schedule Exams</title>
+<link rel="icon" type="image/png"
+	href="<%=ORSView.APP_CONTEXT%>/img/logo.png" sizes="16x16" />
+</head>
+<body>
+	<form action="<%=ORSView.TIMETABLE_SCHEDULE_CTL%>" method="POST">
+		<%@ include file="Header.jsp"%>
+
+		<jsp:useBean id="bean" class="in.co.rays.proj4.bean.TimetableBean"
+			scope="request"></jsp:useBean>
+
+		<%
+			List courseList = (List) request.getAttribute("courseList");
+			List<TimetableBean> list = (List<TimetableBean>) ServletUtility.getList(request);
+		%>
+
+		<div align="center">
+			<h1 align="center" style="margin-bottom: -15; color: navy">Schedule
+				Exams</h1>
+
+			<div style="height: 15px; margin-bottom: 12px">
+				<H3 align="center">
+					<font color="green"> <%=ServletUtility.getSuccessMessage(request)%>
+					</font>
+				</H3>
+				<H3 align="center">
+					<font color="red"> <%=ServletUtility.getErrorMessage(request)%>
+					</font>
+				</H3>
+			</div>
+
+			<table>
+				<tr>
+					<th align="left">Course</th>
+					<td><% HTMLUtility.writeList(out, "courseId", String.valueOf(bean.getCourseId()), courseList); %></td>
+					<td style="position: fixed;"><font color="red"> <%=ServletUtility.getErrorMessage("courseId", request)%></font></td>
+				</tr>
+				<tr>
+					<th align="left">Semester<span style="color: red">*</span></th>
+					<td>
+						<%
+							HashMap<String, String> map = new HashMap<String, String>();
+							for (int i = 1; i <= 8; i++) {
+								map.put(String.valueOf(i), String.valueOf(i));
+							}
+							String htmlList = HTMLUtility.getList("semester", bean.getSemester(), map);
+						%> <%=htmlList%>
+					</td>
+					<td style="position: fixed;"><font color="red"> <%=ServletUtility.getErrorMessage("semester", request)%></font></td>
+				</tr>
+				<tr>
+					<th align="left">Start Date<span style="color: red">*</span></th>
+					<td><input type="Date" name="examDate" placeholder="Select Start Date"
+						value="<%=DataUtility.getDateString(bean.getExamDate())%>"></td>
+					<td style="position: fixed;"><font color="red"> <%=ServletUtility.getErrorMessage("examDate", request)%></font></td>
+				</tr>
+				<tr>
+					<th align="left">Description<span style="color: red">*</span></th>
+					<td><input type="text" name="description" placeholder="Enter Description"
+						value="<%=DataUtility.getStringData(bean.getDescription())%>"></td>
+					<td style="position: fixed;"><font color="red"> <%=ServletUtility.getErrorMessage("description", request)%></font></td>
+				</tr>
+				<tr>
+					<th></th>
+					<td align="left" colspan="2"><input type="submit"
+						name="operation" value="<%=TimetableScheduleCtl.OP_GENERATE%>">
+						<input type="submit" name="operation"
+						value="<%=TimetableScheduleCtl.OP_SAVE%>"> <input
+						type="submit" name="operation"
+						value="<%=TimetableScheduleCtl.OP_RESET%>"></td>
+				</tr>
+			</table>
+
+			<%
+				if (list != null && !list.isEmpty()) {
+					int index = 1;
+			%>
+			<table border="1"
+				style="width: 80%; border: groove; padding: 1px; border-color: #e1e6f1e3;">
+				<tr style="background-color: #e1e6f1e3;">
+					<th width="5%">S.No</th>
+					<th>Course</th>
+					<th>Subject</th>
+					<th>Semester</th>
+					<th>Exam Date</th>
+					<th>Exam Time</th>
+				</tr>
+				<%
+					for (TimetableBean exam : list) {
+				%>
+				<tr>
+					<td style="text-align: center;"><%=index++%></td>
+					<td style="text-align: center;"><%=exam.getCourseName()%></td>
+					<td style="text-align: center;"><%=exam.getSubjectName()%></td>
+					<td style="text-align: center;"><%=exam.getSemester()%></td>
+					<td style="text-align: center;"><%=DataUtility.getDateString(exam.getExamDate())%></td>
+					<td style="text-align: center;"><%=exam.getExamTime()%></td>
+				</tr>
+				<%
+					}
+				%>
+			</table>
+			<%
+				}
+			%>
+		</div>
+	</form>
+</body>
+</html>
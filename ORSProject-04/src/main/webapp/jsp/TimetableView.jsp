@@ -63,12 +63,12 @@
 			<table>
 				<tr>
 					<th align="left">Course<span style="color: red">*</span></th>
-					<td><%=HTMLUtility.getList("courseId", String.valueOf(bean.getCourseId()), courseList)%></td>
+					<td><% HTMLUtility.writeList(out, "courseId", String.valueOf(bean.getCourseId()), courseList); %></td>
 					<td style="position: fixed;"><font color="red"> <%=ServletUtility.getErrorMessage("courseId", request)%></font></td>
 				</tr>
 				<tr>
 					<th align="left">Subject<span style="color: red">*</span></th>
-					<td><%=HTMLUtility.getList("subjectId", String.valueOf(bean.getSubjectId()), subjectList)%></td>
+					<td><% HTMLUtility.writeList(out, "subjectId", String.valueOf(bean.getSubjectId()), subjectList); %></td>
 					<td style="position: fixed;"><font color="red"> <%=ServletUtility.getErrorMessage("subjectId", request)%></font></td>
 				</tr>
 				<tr>
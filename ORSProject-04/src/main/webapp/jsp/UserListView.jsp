@@ -54,6 +54,8 @@
 
 			<input type="hidden" name="pageNo" value="<%=pageNo%>"> <input
 				type="hidden" name="pageSize" value="<%=pageSize%>">
+			<input type="hidden" name="nextCursor" value="<%=DataUtility.getString((String) request.getAttribute("nextCursor"))%>">
+			<input type="hidden" name="prevCursor" value="<%=DataUtility.getString((String) request.getAttribute("prevCursor"))%>">
 
 			<table style="width: 100%">
 				<tr>
@@ -69,10 +71,11 @@
                    <input type="text" name="login" placeholder="Enter Email ID" value="<%=ServletUtility.getParameter("login", request)%>">&emsp;
 
 						<label><b>Role : </b></label> 
-						<%=HTMLUtility.getList("roleId", String.valueOf(bean.getRoleId()), roleList)%>&emsp;
+						<% HTMLUtility.writeList(out, "roleId", String.valueOf(bean.getRoleId()), roleList); %>&emsp;
 
 						<input type="submit" name="operation" value="<%=UserListCtl.OP_SEARCH%>"> &nbsp; <input
-						type="submit" name="operation" value="<%=UserListCtl.OP_RESET%>">
+						type="submit" name="operation" value="<%=UserListCtl.OP_RESET%>">&nbsp;
+						<input type="submit" name="operation" value="<%=UserListCtl.OP_EXPORT%>">
 					</td>
 				</tr>
 			</table>
@@ -126,7 +126,7 @@
 				</tr>
 				<tr>
 					<th align="left">Role<span style="color: red">*</span></th>
-					<td><%=HTMLUtility.getList("roleId", String.valueOf(bean.getRoleId()), roleList)%></td>
+					<td><% HTMLUtility.writeList(out, "roleId", String.valueOf(bean.getRoleId()), roleList); %></td>
 					<td style="position: fixed;"><font color="red"> <%=ServletUtility.getErrorMessage("roleId", request)%></font></td>
 				</tr>
 				<tr>